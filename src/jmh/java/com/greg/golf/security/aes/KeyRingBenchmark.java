@@ -0,0 +1,72 @@
+package com.greg.golf.security.aes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares decryption of notification recipients' emails deriving the key for each one
+ * with decryption using keys kept in KeyRing.
+ * Run with: gradle jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class KeyRingBenchmark {
+
+    private static final String PASSWORD = "welcome";
+    private static final int RECIPIENTS = 50;
+
+    private final List<String> encryptedEmails = new ArrayList<>();
+    private KeyRing keyRing;
+
+    @Setup
+    public void setup() throws Exception {
+
+        for (int i = 0; i < RECIPIENTS; i++) {
+            encryptedEmails.add(StringUtility.encryptString("player" + i + "@golf.com", PASSWORD));
+        }
+
+        keyRing = new KeyRing(PASSWORD, 1000, 60);
+        for (var encryptedEmail : encryptedEmails) {
+            keyRing.decryptString(encryptedEmail);
+        }
+    }
+
+    @Benchmark
+    public void deriveKeyEachTime(Blackhole blackhole) throws Exception {
+
+        for (var encryptedEmail : encryptedEmails) {
+            blackhole.consume(StringUtility.decryptString(encryptedEmail, PASSWORD));
+        }
+    }
+
+    @Benchmark
+    public void keyRing(Blackhole blackhole) throws Exception {
+
+        for (var encryptedEmail : encryptedEmails) {
+            blackhole.consume(keyRing.decryptString(encryptedEmail));
+        }
+    }
+
+    @Benchmark
+    public void keyRingParallel(Blackhole blackhole) {
+
+        blackhole.consume(encryptedEmails.parallelStream().map(encryptedEmail -> {
+            try {
+                return keyRing.decryptString(encryptedEmail);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }).toList());
+    }
+}
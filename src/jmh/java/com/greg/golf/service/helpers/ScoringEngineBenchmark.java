@@ -0,0 +1,153 @@
+package com.greg.golf.service.helpers;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import com.greg.golf.entity.Course;
+import com.greg.golf.entity.Hole;
+import com.greg.golf.entity.Player;
+import com.greg.golf.entity.Round;
+import com.greg.golf.entity.ScoreCard;
+import com.greg.golf.entity.helpers.Common;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the stream based calculations previously used by TournamentService
+ * with the primitive ScoringEngine for one 4-player round.
+ * Run with: gradle jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ScoringEngineBenchmark {
+
+    private static final int PLAYERS = 4;
+    private static final int PLAYING_HCP = 21;
+
+    private Round round;
+
+    @Setup
+    public void setup() {
+
+        var course = new Course();
+        course.setPar(72);
+        var holes = new ArrayList<Hole>();
+        for (int i = 0; i < ScoringEngine.HOLES; i++) {
+            var hole = new Hole();
+            hole.setNumber(i + 1);
+            hole.setPar(3 + i % 3);
+            hole.setSi((i * 7) % ScoringEngine.HOLES + 1);
+            holes.add(hole);
+        }
+        course.setHoles(holes);
+
+        round = new Round();
+        round.setCourse(course);
+        round.setRoundDate(new Date());
+        round.setPlayer(new TreeSet<>());
+
+        for (long p = 1; p <= PLAYERS; p++) {
+            var player = new Player();
+            player.setId(p);
+            round.getPlayer().add(player);
+            for (int i = 0; i < ScoringEngine.HOLES; i++) {
+                var scoreCard = new ScoreCard();
+                scoreCard.setHole(i + 1);
+                scoreCard.setStroke(3 + (int) ((i + p) % 5));
+                scoreCard.setPats(2);
+                scoreCard.setPenalty(0);
+                scoreCard.setPlayer(player);
+                scoreCard.setRound(round);
+                round.getScoreCard().add(scoreCard);
+            }
+        }
+    }
+
+    @Benchmark
+    public void streams(Blackhole blackhole) {
+
+        for (var player : round.getPlayer()) {
+            blackhole.consume(legacyUpdateStb(round, player, PLAYING_HCP));
+            blackhole.consume(legacyApplicableForStroke(round, player));
+            blackhole.consume(legacyGrossStrokes(round, player));
+            blackhole.consume(legacyCorrectedStrokes(round, player));
+        }
+    }
+
+    @Benchmark
+    public void scoringEngine(Blackhole blackhole) {
+
+        var cards = ScoringEngine.toPlayerCards(round);
+        for (var player : round.getPlayer()) {
+            blackhole.consume(ScoringEngine.score(cards.get(player.getId()), PLAYING_HCP));
+        }
+    }
+
+    // copy of the stream based implementation kept as baseline
+    private static List<Integer> legacyUpdateStb(Round round, Player player, int playingHCP) {
+
+        List<Integer> retStb = new ArrayList<>();
+        int hcpAll = (int) Math.floor((double) playingHCP / 18);
+        int hcpIncMaxHole = playingHCP - (hcpAll * 18);
+
+        round.getScoreCard().forEach(scoreCard -> scoreCard.setHcp(hcpAll));
+
+        List<Hole> holes = round.getCourse().getHoles();
+        List<ScoreCard> playerScoreCard = round.getScoreCard()
+                .stream()
+                .filter(scoreCard -> scoreCard.getPlayer().getId().equals(player.getId()))
+                .toList();
+        playerScoreCard.forEach(scoreCard -> {
+            if (hcpIncMaxHole > 0 && holes.get(scoreCard.getHole() - 1).getSi() <= hcpIncMaxHole) {
+                scoreCard.setHcp(hcpAll + 1);
+            }
+            scoreCard.setStbNet(
+                    holes.get(scoreCard.getHole() - 1).getPar() - (scoreCard.getStroke() - scoreCard.getHcp()) + 2);
+            if (scoreCard.getStbNet() < 0) {
+                scoreCard.setStbNet(0);
+            }
+            scoreCard.setStbGross(holes.get(scoreCard.getHole() - 1).getPar() - scoreCard.getStroke() + 2);
+            if (scoreCard.getStbGross() < 0) {
+                scoreCard.setStbGross(0);
+            }
+        });
+
+        retStb.add(playerScoreCard.stream().mapToInt(ScoreCard::getStbNet).sum());
+        retStb.add(playerScoreCard.stream().mapToInt(ScoreCard::getStbGross).sum());
+        return retStb;
+    }
+
+    private static boolean legacyApplicableForStroke(Round round, Player player) {
+
+        return round.getScoreCard()
+                .stream()
+                .filter(scoreCard -> scoreCard.getPlayer().getId().equals(player.getId()))
+                .noneMatch(scoreCard -> scoreCard.getStroke() >= Common.HOLE_GIVEN_UP);
+    }
+
+    private static int legacyGrossStrokes(Round round, Player player) {
+
+        return round.getScoreCard().stream().filter(scoreCard -> scoreCard.getPlayer().getId().equals(player.getId()))
+                .mapToInt(ScoreCard::getStroke).sum();
+    }
+
+    private static int legacyCorrectedStrokes(Round round, Player player) {
+
+        List<Hole> holes = round.getCourse().getHoles();
+
+        return round.getScoreCard().stream().filter(scoreCard -> scoreCard.getPlayer().getId().equals(player.getId()))
+                .mapToInt(scoreCard -> Math.min(scoreCard.getStroke(),
+                        scoreCard.getHcp() + 2 + holes.get(scoreCard.getHole() - 1).getPar()))
+                .sum();
+    }
+}
@@ -0,0 +1,17 @@
+package com.greg.golf.configuration;
+
+import com.greg.golf.configurationproperties.PlayerServiceConfig;
+import com.greg.golf.security.aes.KeyRing;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@SuppressWarnings("unused")
+@Configuration
+public class KeyRingConfig {
+
+	@Bean
+	public KeyRing emailKeyRing(PlayerServiceConfig playerServiceConfig) {
+		return new KeyRing(playerServiceConfig.getEmailPwd(), playerServiceConfig.getEmailKeyRingSize(),
+				playerServiceConfig.getEmailKeyRingExpireMinutes());
+	}
+}
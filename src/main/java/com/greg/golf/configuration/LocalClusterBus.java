@@ -0,0 +1,50 @@
+package com.greg.golf.configuration;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+/**
+ * Connects broker channels of application contexts (nodes) running in the same JVM. A message published on one node
+ * is sent to broker channels of all other nodes marked with the origin header, so it is not passed on again.
+ */
+@Slf4j
+final class LocalClusterBus {
+
+	static final String ORIGIN_HEADER = "clusterOrigin";
+
+	private static final Map<String, MessageChannel> NODES = new ConcurrentHashMap<>();
+
+	private LocalClusterBus() {
+		throw new IllegalStateException("Utility class");
+	}
+
+	static void join(String node, MessageChannel brokerChannel) {
+		NODES.put(node, brokerChannel);
+		log.info("Node {} joined, nodes: {}", node, NODES.size());
+	}
+
+	static void leave(String node) {
+		NODES.remove(node);
+		log.info("Node {} left, nodes: {}", node, NODES.size());
+	}
+
+	static void publish(String node, Message<?> message) {
+
+		var forwarded = MessageBuilder.fromMessage(message).setHeader(ORIGIN_HEADER, node).build();
+
+		NODES.forEach((name, brokerChannel) -> {
+			if (!name.equals(node)) {
+				try {
+					brokerChannel.send(forwarded);
+				} catch (RuntimeException e) {
+					log.error("Message not passed from node {} to node {}: {}", node, name, e.getMessage());
+				}
+			}
+		});
+	}
+}
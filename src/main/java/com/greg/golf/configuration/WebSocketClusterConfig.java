@@ -0,0 +1,60 @@
+package com.greg.golf.configuration;
+
+import java.util.UUID;
+
+import com.greg.golf.configurationproperties.WebSocketBrokerConfig;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+/**
+ * Cluster mode - every node keeps its simple broker and messages published on the node are passed to brokers
+ * of other nodes through the local cluster bus, so subscribers of all nodes get them. Nodes have to run in the same
+ * JVM, separate instances shall use relay mode.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "broker.mode", havingValue = "cluster")
+public class WebSocketClusterConfig implements WebSocketMessageBrokerConfigurer {
+
+	private final String node;
+
+	public WebSocketClusterConfig(WebSocketBrokerConfig webSocketBrokerConfig) {
+		node = webSocketBrokerConfig.getNode() != null ? webSocketBrokerConfig.getNode() : UUID.randomUUID().toString();
+	}
+
+	@Override
+	public void configureMessageBroker(MessageBrokerRegistry registry) {
+		registry.configureBrokerChannel().interceptors(new ChannelInterceptor() {
+			@Override
+			public void postSend(@NonNull Message<?> message, @NonNull MessageChannel channel, boolean sent) {
+				// messages from other nodes are not passed on
+				if (sent && message.getHeaders().get(LocalClusterBus.ORIGIN_HEADER) == null
+						&& SimpMessageType.MESSAGE.equals(SimpMessageHeaderAccessor.getMessageType(message.getHeaders()))) {
+					LocalClusterBus.publish(node, message);
+				}
+			}
+		});
+	}
+
+	@EventListener
+	public void join(ContextRefreshedEvent event) {
+		LocalClusterBus.join(node, event.getApplicationContext().getBean("brokerChannel", MessageChannel.class));
+	}
+
+	@EventListener(ContextClosedEvent.class)
+	public void leave() {
+		LocalClusterBus.leave(node);
+	}
+}
@@ -1,7 +1,9 @@
 package com.greg.golf.configuration;
 
+import com.greg.golf.configurationproperties.WebSocketBrokerConfig;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -43,12 +45,37 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
 	private MessageChannel outChannel;
 
+	private final WebSocketBrokerConfig webSocketBrokerConfig;
+
+	// not a binding constructor, cors properties are bound through setters
+	@Autowired
+	public WebSocketConfig(WebSocketBrokerConfig webSocketBrokerConfig) {
+		this.webSocketBrokerConfig = webSocketBrokerConfig;
+	}
+
 	@Override
 	public void configureMessageBroker(MessageBrokerRegistry config) {
-		config	.enableSimpleBroker("/topic")
-				.setTaskScheduler(heartBeatScheduler());
+		if (isRelay()) {
+			config	.enableStompBrokerRelay("/topic")
+					.setRelayHost(webSocketBrokerConfig.getRelayHost())
+					.setRelayPort(webSocketBrokerConfig.getRelayPort())
+					.setClientLogin(webSocketBrokerConfig.getClientLogin())
+					.setClientPasscode(webSocketBrokerConfig.getClientPasscode())
+					.setSystemLogin(webSocketBrokerConfig.getSystemLogin())
+					.setSystemPasscode(webSocketBrokerConfig.getSystemPasscode())
+					.setVirtualHost(webSocketBrokerConfig.getVirtualHost());
+		} else {
+			config	.enableSimpleBroker("/topic")
+					.setTaskScheduler(heartBeatScheduler());
+		}
 		config.setApplicationDestinationPrefixes("/app");
-		log.debug("Message broker configured");
+		// hole updates of a score card must reach each session in publishing order
+		config.setPreservePublishOrder(true);
+		log.debug("Message broker configured in {} mode", webSocketBrokerConfig.getMode());
+	}
+
+	private boolean isRelay() {
+		return webSocketBrokerConfig.getMode() == WebSocketBrokerConfig.Mode.RELAY;
 	}
 
 	@Bean
@@ -94,6 +121,10 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 		@Override
 		public Message<?> preSend(@NonNull Message message, @NonNull MessageChannel channel) {
             log.debug("preSend: {}", message);
+			// external broker sends receipts itself
+			if (isRelay()) {
+				return message;
+			}
 			GenericMessage<?> genericMessage = (GenericMessage<?>)message;
 			MessageHeaders headers = genericMessage.getHeaders();
 			String simpSessionId = (String)headers.get( "simpSessionId" );
@@ -0,0 +1,71 @@
+package com.greg.golf.configuration;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+/**
+ * Counts messages published to the broker (websocket.broker.messages) and messages delivered to subscribed
+ * sessions (websocket.outbound.messages) per destination. Ids in destinations are replaced with {id}, so the ratio
+ * of both counters for /topic/online/{id} is the average group size the broker fans out to.
+ */
+@RequiredArgsConstructor
+@Configuration
+public class WebSocketMetricsConfig implements WebSocketMessageBrokerConfigurer {
+
+	private static final Pattern ID = Pattern.compile("/\\d+(?=/|$)");
+
+	private final MeterRegistry meterRegistry;
+
+	@Override
+	public void configureMessageBroker(MessageBrokerRegistry registry) {
+		registry.configureBrokerChannel().interceptors(new DestinationCounter("websocket.broker.messages"));
+	}
+
+	@Override
+	public void configureClientOutboundChannel(ChannelRegistration registration) {
+		registration.interceptors(new DestinationCounter("websocket.outbound.messages"));
+	}
+
+	static String normalize(String destination) {
+		return ID.matcher(destination).replaceAll("/{id}");
+	}
+
+	private class DestinationCounter implements ChannelInterceptor {
+
+		private final String name;
+		private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+		DestinationCounter(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public void afterSendCompletion(@NonNull Message<?> message, @NonNull MessageChannel channel, boolean sent,
+										Exception ex) {
+
+			var destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+
+			if (sent && destination != null
+					&& SimpMessageType.MESSAGE.equals(SimpMessageHeaderAccessor.getMessageType(message.getHeaders()))) {
+				counters.computeIfAbsent(normalize(destination), key -> Counter.builder(name)
+						.tag("destination", key)
+						.register(meterRegistry)).increment();
+			}
+		}
+	}
+}
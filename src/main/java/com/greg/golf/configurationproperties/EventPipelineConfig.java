@@ -0,0 +1,21 @@
+package com.greg.golf.configurationproperties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties("events")
+public class EventPipelineConfig {
+	// events of the same key (e.g. player) always go to the same partition
+	private Integer partitions = 16;
+	private Integer queueCapacity = 1000;
+	// ms the publisher waits for space in the full queue before the event is dropped
+	private Long offerTimeout = 1000L;
+	private Integer maxAttempts = 3;
+	// ms, doubled with each attempt
+	private Long retryDelay = 100L;
+	// ms given to process queued events when the application is stopped
+	private Long shutdownTimeout = 10000L;
+	// ms between recoveries of handlers which missed events
+	private Long recoveryDelay = 60000L;
+}
@@ -0,0 +1,12 @@
+package com.greg.golf.configurationproperties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties("handicap")
+public class HandicapConfig {
+	private Integer rebuildThreads = 4;
+	// players recalculated in one transaction
+	private Integer rebuildChunkSize = 50;
+}
@@ -0,0 +1,24 @@
+package com.greg.golf.configurationproperties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties("outbox")
+public class MailOutboxConfig {
+	private Boolean dispatchEnabled = true;
+	// ms between dispatcher runs
+	private Long pollDelay = 5000L;
+	private Integer batchSize = 20;
+	private Integer bccChunkSize = 50;
+	private Integer maxAttempts = 5;
+	// seconds, doubled with each attempt up to maxRetryDelay
+	private Integer retryDelay = 60;
+	private Integer maxRetryDelay = 3600;
+	// seconds, claimed but not completed chunks are picked up again after that time
+	private Integer sendTimeout = 300;
+	// number of rendered email bodies kept for repeated notifications
+	private Integer bodyCacheSize = 200;
+	// days sent and failed chunks are kept for job state queries before they are purged
+	private Integer retention = 7;
+}
@@ -0,0 +1,22 @@
+package com.greg.golf.configurationproperties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties("online")
+public class OnlineRoundServiceConfig {
+	// live score cards are kept in memory and written to database in batches
+	// single instance only, so it is refused unless broker mode is simple
+	private Boolean writeBehind = false;
+	// ms between writes of changed score cards
+	private Long flushDelay = 5000L;
+	// score cards written in one transaction
+	private Integer flushBatchSize = 500;
+	// versions fetched from the sequence with one query, used only with a single instance (broker mode simple)
+	private Integer versionBlock = 100;
+	// versions a read of changes goes back, so holes committed out of version order are sent again instead of missed
+	// a version is visible late only while its request is in flight, so the grace covers versions taken by concurrent
+	// requests - connections of all instances (5 each) times holes of one sync (4 players, 18 holes) is 360 per instance
+	private Long versionGrace = 1000L;
+}
@@ -15,4 +15,8 @@ public class PlayerServiceConfig {
 	private Integer minSearchLength;
 
 	private String emailPwd;
+
+	private Long emailKeyRingSize = 1000L;
+
+	private Long emailKeyRingExpireMinutes = 60L;
 }
@@ -0,0 +1,14 @@
+package com.greg.golf.configurationproperties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties("stats")
+public class PlayerStatsConfig {
+	// number of the latest rounds in Stableford trend
+	private Integer trendSize = 10;
+	private Integer rebuildThreads = 4;
+	// players rebuilt in one transaction
+	private Integer rebuildChunkSize = 50;
+}
@@ -7,4 +7,10 @@ import lombok.Data;
 @ConfigurationProperties("round")
 public class RoundServiceConfig {
 	private Integer pageSize;
+	private Integer importThreads = 4;
+	// rows validated and persisted in one transaction
+	private Integer importChunkSize = 500;
+	// score cards are also kept packed in player_round and read from there
+	// while it is off the packed copy is cleared on each change, so switching it on never serves stale cards
+	private Boolean packedScoreCards = false;
 }
@@ -7,4 +7,9 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties("tournament")
 public class TournamentServiceConfig {
 	private Integer pageSize;
+	private Integer recomputeThreads = 4;
+	private Integer recomputeQueueSize = 100;
+	private Boolean leaderboardPush = true;
+	// ms, changes within that time are published in one message
+	private Long leaderboardPushDelay = 500L;
 }
@@ -0,0 +1,30 @@
+package com.greg.golf.configurationproperties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties("broker")
+public class WebSocketBrokerConfig {
+
+	public enum Mode {
+		// broker in the application, subscribers of one instance only
+		SIMPLE,
+		// messages go through external STOMP broker shared by all instances
+		RELAY,
+		// brokers of application contexts running in the same JVM pass messages to each other
+		CLUSTER
+	}
+
+	private Mode mode = Mode.SIMPLE;
+	// STOMP broker used in relay mode
+	private String relayHost = "localhost";
+	private Integer relayPort = 61613;
+	private String clientLogin = "guest";
+	private String clientPasscode = "guest";
+	private String systemLogin = "guest";
+	private String systemPasscode = "guest";
+	private String virtualHost;
+	// name of the node in cluster mode, generated if empty
+	private String node;
+}
@@ -1,6 +1,10 @@
 package com.greg.golf.controller;
 
 import java.util.List;
+
+import com.greg.golf.controller.dto.KeysetPageDto;
+import com.greg.golf.controller.dto.MailJobDto;
+import com.greg.golf.service.helpers.KeysetPage;
 import org.modelmapper.ModelMapper;
 import lombok.RequiredArgsConstructor;
 
@@ -13,4 +17,19 @@ public abstract class BaseController {
 
 		return source.stream().map(element -> modelMapper.map(element, targetClass)).toList();
 	}
+
+	protected <S, T> KeysetPageDto<T> mapPage(KeysetPage<S> source, Class<T> targetClass) {
+
+		var keysetPageDto = new KeysetPageDto<T>();
+		keysetPageDto.setItems(mapList(source.getItems(), targetClass));
+		keysetPageDto.setAfter(source.getAfter());
+		return keysetPageDto;
+	}
+
+	protected MailJobDto mailJob(String jobId) {
+
+		var mailJobDto = new MailJobDto();
+		mailJobDto.setJobId(jobId);
+		return mailJobDto;
+	}
 }
@@ -16,6 +16,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.greg.golf.entity.Course;
@@ -169,6 +170,17 @@ public class CourseController extends BaseController {
 		return mapList(courseService.getSortedCourses(pageId), CourseDto.class);
 	}
 
+	@Tag(name = "Course API")
+	@Operation(summary = "Get page of courses alphabetically. Next page is read after the token returned with the previous one.")
+	@GetMapping(value = "/rest/SortedCoursesPage")
+	public KeysetPageDto<CourseDto> getSortedCoursesPage(
+			@Parameter(description = "Token of the previous page, empty for the first page") @RequestParam(value = "after", required = false) String after) {
+
+        log.info("Requested page of sorted courses after {}", after);
+
+		return mapPage(courseService.getSortedCoursesAfter(after), CourseDto.class);
+	}
+
 	@SuppressWarnings("SameReturnValue")
 	@Tag(name = "Course API")
 	@Operation(summary = "Purge historical courses from favourites")
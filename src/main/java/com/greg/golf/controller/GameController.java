@@ -3,7 +3,6 @@ package com.greg.golf.controller;
 import java.util.List;
 import java.util.NoSuchElementException;
 
-import jakarta.mail.MessagingException;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springframework.http.HttpStatus;
@@ -14,6 +13,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.greg.golf.controller.dto.GameDto;
+import com.greg.golf.controller.dto.MailJobDto;
 import com.greg.golf.entity.Game;
 import com.greg.golf.entity.Player;
 import com.greg.golf.error.SendingMailFailureException;
@@ -61,22 +61,19 @@ public class GameController extends BaseController {
 		return mapList(gameService.listByPlayer(player), GameDto.class);
 	}
 
-	@SuppressWarnings("SameReturnValue")
 	@Tag(name = "Game API")
-	@Operation(summary = "Sends game details for email address")
+	@Operation(summary = "Queues game details for email address. Returns id of the mail job.")
 	@PostMapping(value = "/rest/SendGame")
-	public HttpStatus sendGame(
+	public MailJobDto sendGame(
 			@Parameter(description = "GameSendData object", required = true) @RequestBody com.greg.golf.controller.dto.GameSendData gameSendData) {
 
         log.info("trying to send email with game details: {}", gameSendData);
 
 		try {
-			gameService.sendGameDetail(gameSendData);
-		} catch (MessagingException | NoSuchElementException e) {
+			return mailJob(gameService.sendGameDetail(gameSendData));
+		} catch (NoSuchElementException e) {
             log.error("Failed sending game data for: {}", gameSendData.getEmail());
 			throw new SendingMailFailureException();
 		}
-
-		return HttpStatus.OK;
 	}
 }
@@ -1,9 +1,11 @@
 package com.greg.golf.controller;
 
+import com.greg.golf.controller.dto.KeysetPageDto;
 import com.greg.golf.controller.dto.LeagueDto;
 import com.greg.golf.controller.dto.LeagueMatchDto;
 import com.greg.golf.controller.dto.LeaguePlayerDto;
 import com.greg.golf.controller.dto.LeagueResultDto;
+import com.greg.golf.controller.dto.MailJobDto;
 import com.greg.golf.entity.League;
 import com.greg.golf.entity.LeagueMatch;
 import com.greg.golf.entity.LeaguePlayer;
@@ -54,6 +56,16 @@ public class LeagueController extends BaseController {
         return mapList(leagueService.findAllLeaguesPageable(pageId), LeagueDto.class);
     }
 
+    @Tag(name = "League API")
+    @Operation(summary = "Return page of leagues. Next page is read after the token returned with the previous one.")
+    @GetMapping(value = "/rest/LeaguePage")
+    public KeysetPageDto<LeagueDto> getLeaguesPage(
+            @Parameter(description = "Token of the previous page, empty for the first page") @RequestParam(value = "after", required = false) String after) {
+
+        log.info("Requested page of leagues after {}", after);
+        return mapPage(leagueService.findLeaguesAfter(after), LeagueDto.class);
+    }
+
     @Tag(name = "League API")
     @Operation(summary = "Add player participant to tournament")
     @PostMapping(value = "/rest/LeaguePlayer")
@@ -156,9 +168,9 @@ public class LeagueController extends BaseController {
     }
 
     @Tag(name = "League API")
-    @Operation(summary = "Send email notification to subscribers")
+    @Operation(summary = "Queue email notification to subscribers. Returns id of the mail job.")
     @PostMapping(value = "/rest/League/Notification/{leagueId}")
-    public HttpStatus notifySubscribers(
+    public MailJobDto notifySubscribers(
             @Parameter(description = "League id", example = "1", required = true)
             @NotNull
             @Positive
@@ -167,8 +179,7 @@ public class LeagueController extends BaseController {
             @Parameter(description = "LeagueResults list", required = true) @RequestBody @Valid LeagueResultDto[] leagueResultsDto) {
 
         log.info("trying to send notifications for league: {}", leagueId);
-        leagueService.processNotifications(leagueId, leagueResultsDto);
-        return HttpStatus.OK;
+        return mailJob(leagueService.processNotifications(leagueId, leagueResultsDto));
     }
 
     @Tag(name = "League API")
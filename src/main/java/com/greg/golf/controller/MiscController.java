@@ -1,6 +1,9 @@
 package com.greg.golf.controller;
 
 import com.greg.golf.controller.dto.*;
+import com.greg.golf.entity.MailOutbox;
+import com.greg.golf.service.MailOutboxService;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,8 +21,11 @@ public class MiscController extends BaseController {
     @Value("${app.version:unknown}")
     String version;
 
-    public MiscController(ModelMapper modelMapper) {
+    private final MailOutboxService mailOutboxService;
+
+    public MiscController(ModelMapper modelMapper, MailOutboxService mailOutboxService) {
         super(modelMapper);
+        this.mailOutboxService = mailOutboxService;
     }
 
     @Tag(name = "Miscellaneous API")
@@ -34,4 +40,22 @@ public class MiscController extends BaseController {
 
         return new ResponseEntity<>(versionDto, HttpStatus.OK);
     }
+
+    @Tag(name = "Miscellaneous API")
+    @Operation(summary = "Get state of the mail job")
+    @GetMapping(value = "/rest/MailJob/{jobId}")
+    public MailJobDto getMailJob(
+            @Parameter(description = "Mail job id", required = true) @PathVariable("jobId") String jobId) {
+
+        log.info("Getting state of mail job: {}", jobId);
+
+        var chunks = mailOutboxService.getJob(jobId);
+
+        var mailJobDto = mailJob(jobId);
+        mailJobDto.setPending((int) chunks.stream().filter(c -> c.getStatus() == MailOutbox.Status.PENDING).count());
+        mailJobDto.setSent((int) chunks.stream().filter(c -> c.getStatus() == MailOutbox.Status.SENT).count());
+        mailJobDto.setFailed((int) chunks.stream().filter(c -> c.getStatus() == MailOutbox.Status.FAILED).count());
+
+        return mailJobDto;
+    }
 }
@@ -7,21 +7,22 @@ import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.greg.golf.controller.dto.OnlineRoundDto;
+import com.greg.golf.controller.dto.OnlineScoreCardDeltaDto;
 import com.greg.golf.controller.dto.OnlineScoreCardDto;
 import com.greg.golf.controller.dto.PlayerDto;
 import com.greg.golf.entity.OnlineRound;
 import com.greg.golf.entity.OnlineScoreCard;
 import com.greg.golf.service.OnlineRoundService;
+import com.greg.golf.service.OnlineScoreCardPublisher;
 import com.greg.golf.service.PlayerService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -34,44 +35,46 @@ public class OnlineScoreCardController extends BaseController {
 
 	private final OnlineRoundService onlineRoundService;
 	private final PlayerService playerService;
-	private final SimpMessagingTemplate template;
+	private final OnlineScoreCardPublisher onlineScoreCardPublisher;
 
 
 	public OnlineScoreCardController(ModelMapper modelMapper, OnlineRoundService onlineRoundService,
-			PlayerService playerService, SimpMessagingTemplate template) {
+			PlayerService playerService, OnlineScoreCardPublisher onlineScoreCardPublisher) {
 		super(modelMapper);
 		this.onlineRoundService = onlineRoundService;
 		this.playerService = playerService;
-		this.template = template;
+		this.onlineScoreCardPublisher = onlineScoreCardPublisher;
 	}
 
+	// hole results are sent to the group and course of the online round only
 	@MessageMapping("/hole")
-	@SendTo("/topic")
-	public OnlineScoreCardDto send(OnlineScoreCardDto onlineScoreCardDto) {
+	public void send(@Valid OnlineScoreCardDto onlineScoreCardDto) {
 
         log.info("Received s -  {}", onlineScoreCardDto);
 
 		var onlineScoreCard = modelMapper.map(onlineScoreCardDto, OnlineScoreCard.class);
 
-		onlineRoundService.saveOnlineScoreCard(modelMapper.map(onlineScoreCardDto, OnlineScoreCard.class));
+		// sent with the version of the change
+		onlineRoundService.saveOnlineScoreCard(onlineScoreCard);
 
-		return modelMapper.map(onlineScoreCard, OnlineScoreCardDto.class);
+		onlineScoreCardPublisher.publish(modelMapper.map(onlineScoreCard, OnlineScoreCardDto.class));
 	}
 
 	@Tag(name = "Online scorecard API")
 	@Operation(summary = "Save hole results for online round")
 	@PostMapping(value = "/rest/OnlineScoreCard")
 	public HttpStatus syncOnlineScoreCards(
-			@Parameter(description = "List of ScoreCard objects", required = true) @RequestBody List<OnlineScoreCardDto> onlineScoreCards) {
+			@Parameter(description = "List of ScoreCard objects", required = true) @RequestBody @Valid List<OnlineScoreCardDto> onlineScoreCards) {
 
 		log.info("Attempt to save hole result for online round");
 
 		List<OnlineScoreCard> oScoreCardLst = mapList(onlineScoreCards, OnlineScoreCard.class);
 
+		// only written score cards are returned
 		oScoreCardLst = onlineRoundService.syncOnlineScoreCards(oScoreCardLst);
 
-		oScoreCardLst.stream().filter(OnlineScoreCard::isSyncRequired).forEach(onlineScoreCard ->
-				template.convertAndSend("/topic" ,modelMapper.map(onlineScoreCard, OnlineScoreCardDto.class)));
+		oScoreCardLst.forEach(onlineScoreCard ->
+				onlineScoreCardPublisher.publish(modelMapper.map(onlineScoreCard, OnlineScoreCardDto.class)));
 
 		return HttpStatus.OK;
 	}
@@ -106,6 +109,36 @@ public class OnlineScoreCardController extends BaseController {
 		return mapList(onlineRoundService.getOnlineScoreCards(onlineRoundId), OnlineScoreCardDto.class);
 	}
 
+	@Tag(name = "Online scorecard API")
+	@Operation(summary = "Return score cards of online rounds for identifier changed after the version. " +
+			"Changes shortly before the version are returned again, so the latest version of the hole shall be kept.")
+	@GetMapping(value = "/rest/OnlineScoreCard/Identifier/{identifier}")
+	public OnlineScoreCardDeltaDto getOnlineScoreCardChangesForIdentifier(
+			@Parameter(description = "Online round identifier", example = "1", required = true) @PathVariable("identifier") Integer identifier,
+			@Parameter(description = "Version returned by the previous call, empty for all score cards") @RequestParam(value = "since", defaultValue = "-1") long since) {
+		log.debug("Requested changes of online score cards for identifier: {} since: {}", identifier, since);
+		return buildDelta(onlineRoundService.getOnlineScoreCardChangesForIdentifier(identifier, since), since);
+	}
+
+	@Tag(name = "Online scorecard API")
+	@Operation(summary = "Return score cards of online rounds for course changed after the version. " +
+			"Changes shortly before the version are returned again, so the latest version of the hole shall be kept.")
+	@GetMapping(value = "/rest/OnlineScoreCard/Course/{courseId}")
+	public OnlineScoreCardDeltaDto getOnlineScoreCardChangesForCourse(
+			@Parameter(description = "Course id", example = "1", required = true) @PathVariable("courseId") Long courseId,
+			@Parameter(description = "Version returned by the previous call, empty for all score cards") @RequestParam(value = "since", defaultValue = "-1") long since) {
+		log.debug("Requested changes of online score cards for course: {} since: {}", courseId, since);
+		return buildDelta(onlineRoundService.getOnlineScoreCardChangesForCourse(courseId, since), since);
+	}
+
+	private OnlineScoreCardDeltaDto buildDelta(List<OnlineScoreCard> onlineScoreCards, long since) {
+
+		var delta = new OnlineScoreCardDeltaDto();
+		delta.setScoreCards(mapList(onlineScoreCards, OnlineScoreCardDto.class));
+		delta.setVersion(onlineScoreCards.isEmpty() ? since : onlineScoreCards.getLast().getVersion());
+		return delta;
+	}
+
 	@Tag(name = "Online scorecard API")
 	@Operation(summary = "Return online rounds for course")
 	@GetMapping(value = "/rest/OnlineRoundCourse/{courseId}")
@@ -1,13 +1,21 @@
 package com.greg.golf.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
+import com.google.common.collect.Iterators;
 import com.greg.golf.controller.dto.*;
+import com.greg.golf.service.HandicapService;
 import com.greg.golf.service.PlayerService;
+import com.greg.golf.service.PlayerStatsService;
+import com.greg.golf.service.RoundImportService;
+import com.greg.golf.service.helpers.RoundImportReport;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,6 +23,7 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.greg.golf.entity.Player;
@@ -24,6 +33,8 @@ import com.greg.golf.service.ScoreCardService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
 
 @Slf4j
 @RestController
@@ -33,13 +44,24 @@ public class RoundController extends BaseController {
 	private final RoundService roundService;
 	private final PlayerService playerService;
 	private final ScoreCardService scoreCardService;
+	private final RoundImportService roundImportService;
+	private final PlayerStatsService playerStatsService;
+	private final HandicapService handicapService;
+	private final JsonMapper jsonMapper;
 
+	@SuppressWarnings("java:S107")
 	public RoundController(ModelMapper modelMapper, RoundService roundService, ScoreCardService scoreCardService,
-						   PlayerService playerService) {
+						   PlayerService playerService, RoundImportService roundImportService,
+						   PlayerStatsService playerStatsService, HandicapService handicapService,
+						   JsonMapper jsonMapper) {
 		super(modelMapper);
 		this.roundService = roundService;
 		this.scoreCardService = scoreCardService;
 		this.playerService = playerService;
+		this.roundImportService = roundImportService;
+		this.playerStatsService = playerStatsService;
+		this.handicapService = handicapService;
+		this.jsonMapper = jsonMapper;
 	}
 
 	@SuppressWarnings("SameReturnValue")
@@ -56,6 +78,28 @@ public class RoundController extends BaseController {
 		return HttpStatus.OK;
 	}
 
+	@Tag(name = "Round API")
+	@Operation(summary = "Import rounds in bulk. Body is JSON array or NDJSON of rounds with one player each. " +
+			"Rows are read and saved in chunks. Malformed JSON stops the import - rows preceding it are imported " +
+			"and the malformed row is reported as rejected.")
+	@Secured("ROLE_ADMIN")
+	@PostMapping(value = "/rest/RoundImport", consumes = {MediaType.APPLICATION_JSON_VALUE,
+			MediaType.APPLICATION_NDJSON_VALUE})
+	public RoundImportReport importRounds(
+			@Parameter(description = "Rounds as JSON array or NDJSON", required = true) InputStream inputStream)
+			throws IOException {
+
+		log.info("Requested import of rounds");
+
+		try (var rows = jsonMapper.readerFor(RoundDto.class).<RoundDto>readValues(inputStream)) {
+			return roundImportService.importRounds(Iterators.transform(rows, dto -> modelMapper.map(dto, Round.class)));
+		} catch (JacksonException e) {
+			// rows are read by the import service, so only request which cannot be started ends here
+			log.warn("Import of rounds not started: {}", e.getOriginalMessage());
+			throw new IllegalArgumentException(e);
+		}
+	}
+
 	@Tag(name = "Round API")
 	@Operation(summary = "Get the round for a given id.")
 	@GetMapping(value = "/rest/Round/{roundId}")
@@ -93,6 +137,32 @@ public class RoundController extends BaseController {
 		return mapList(roundService.getRecentRounds(pageId), LimitedRoundWithPlayersDto.class);
 	}
 
+	@Tag(name = "Round API")
+	@Operation(summary = "Get page of rounds for player id. Next page is read after the token returned with the previous one.")
+	@GetMapping(value = "/rest/RoundsPage/{playerId}")
+	public KeysetPageDto<LimitedRoundDto> getRoundsPage(
+			@Parameter(description = "Player id", example = "1", required = true) @PathVariable("playerId") Long playerId,
+			@Parameter(description = "Token of the previous page, empty for the first page") @RequestParam(value = "after", required = false) String after) {
+
+        log.info("Requested page of rounds for Player id -  {} after {}", playerId, after);
+
+		var player = new Player();
+		player.setId(playerId);
+
+		return mapPage(roundService.listByPlayerAfter(player, after), LimitedRoundDto.class);
+	}
+
+	@Tag(name = "Round API")
+	@Operation(summary = "Get page of recent rounds. Next page is read after the token returned with the previous one.")
+	@GetMapping(value = "/rest/RecentRoundsPage")
+	public KeysetPageDto<LimitedRoundWithPlayersDto> getRecentRoundsPage(
+			@Parameter(description = "Token of the previous page, empty for the first page") @RequestParam(value = "after", required = false) String after) {
+
+        log.info("Requested page of recent rounds after {}", after);
+
+		return mapPage(roundService.getRecentRoundsAfter(after), LimitedRoundWithPlayersDto.class);
+	}
+
 	@Tag(name = "Round API")
 	@Operation(summary = "Gets score cards for round id.")
 	@GetMapping(value = "/rest/ScoreCard/{id}")
@@ -188,6 +258,62 @@ public class RoundController extends BaseController {
 		return mapList(playerService.getPlayerRoundCnt(), PlayerRoundCntDto.class);
 	}
 
+	@Tag(name = "Round API")
+	@Operation(summary = "Get career statistics of the player")
+	@GetMapping(value = "/rest/PlayerStats/{playerId}")
+	public PlayerStatsDto getPlayerStats(
+			@Parameter(description = "Player id", example = "1", required = true) @PathVariable("playerId") Long playerId) {
+
+		log.info("Requested statistics for player id - {}", playerId);
+
+		return modelMapper.map(playerStatsService.getStats(playerId), PlayerStatsDto.class);
+	}
+
+	@SuppressWarnings("SameReturnValue")
+	@Tag(name = "Round API")
+	@Operation(summary = "Recompute statistics of all players from score cards")
+	@PostMapping(value = "/rest/PlayerStatsRebuild")
+	@Secured("ROLE_ADMIN")
+	public HttpStatus rebuildPlayerStats() {
+
+		log.info("Requested rebuild of player statistics");
+
+		playerStatsService.rebuild();
+
+		return HttpStatus.OK;
+	}
+
+	@Tag(name = "Round API")
+	@Operation(summary = "Get WHS handicap index of the player with its history")
+	@GetMapping(value = "/rest/Handicap/{playerId}")
+	public HandicapDto getHandicap(
+			@Parameter(description = "Player id", example = "1", required = true) @PathVariable("playerId") Long playerId) {
+
+		log.info("Requested handicap index for player id - {}", playerId);
+
+		var handicapDto = modelMapper.map(handicapService.getHandicap(playerId), HandicapDto.class);
+		handicapDto.setHistory(mapList(handicapService.getHistory(playerId), HandicapHistoryDto.class));
+
+		return handicapDto;
+	}
+
+	@SuppressWarnings("SameReturnValue")
+	@Tag(name = "Round API")
+	@Operation(summary = "Recalculate handicap index of all players, or after correction of tee ratings " +
+			"apply them to rounds played from the tee and recalculate only its players")
+	@PostMapping(value = "/rest/HandicapRebuild")
+	@Secured("ROLE_ADMIN")
+	public HttpStatus rebuildHandicaps(
+			@Parameter(description = "Tee id with corrected ratings", example = "1")
+			@RequestParam(value = "teeId", required = false) Long teeId) {
+
+		log.info("Requested rebuild of handicap index for tee id - {}", teeId);
+
+		handicapService.rebuild(teeId);
+
+		return HttpStatus.OK;
+	}
+
 	@Tag(name = "Round API")
 	@Operation(summary = "Swap player in the round")
 	@PatchMapping(value = "/rest/SwapPlrRnd")
@@ -8,26 +8,46 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.greg.golf.service.TournamentExportService;
+import com.greg.golf.service.TournamentLeaderboardPublisher;
 import com.greg.golf.service.TournamentService;
+import com.greg.golf.service.helpers.RowWriter;
+import com.greg.golf.service.helpers.RecomputeReport;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import tools.jackson.databind.json.JsonMapper;
 
 @Slf4j
 @RestController
 //@OpenAPIDefinition(tags = { @Tag(name = "Tournament API") })
 public class TournamentController extends BaseController {
 
-	private final TournamentService tournamentService;
+	private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
 
-	public TournamentController(ModelMapper modelMapper, TournamentService tournamentService) {
+	private final TournamentService tournamentService;
+	private final TournamentExportService tournamentExportService;
+	private final TournamentLeaderboardPublisher tournamentLeaderboardPublisher;
+	private final JsonMapper jsonMapper;
+
+	public TournamentController(ModelMapper modelMapper, TournamentService tournamentService,
+								TournamentExportService tournamentExportService,
+								TournamentLeaderboardPublisher tournamentLeaderboardPublisher,
+								JsonMapper jsonMapper) {
 		super(modelMapper);
 		this.tournamentService = tournamentService;
+		this.tournamentExportService = tournamentExportService;
+		this.tournamentLeaderboardPublisher = tournamentLeaderboardPublisher;
+		this.jsonMapper = jsonMapper;
 	}
 
 	@Tag(name = "Tournament API")
@@ -41,6 +61,17 @@ public class TournamentController extends BaseController {
 		return mapList(tournamentService.findAllTournamentsPageable(pageId), TournamentDto.class);
 	}
 
+	@Tag(name = "Tournament API")
+	@Operation(summary = "Return page of tournaments. Next page is read after the token returned with the previous one.")
+	@GetMapping(value = "/rest/TournamentPage")
+	public KeysetPageDto<TournamentDto> getTournamentsPage(
+			@Parameter(description = "Token of the previous page, empty for the first page") @RequestParam(value = "after", required = false) String after) {
+
+        log.info("Requested page of tournaments after {}", after);
+
+		return mapPage(tournamentService.findTournamentsAfter(after), TournamentDto.class);
+	}
+
 	@Tag(name = "Tournament API")
 	@Operation(summary = "Return all tournament results")
 	@GetMapping(value = "/rest/TournamentResult/{tournamentId}")
@@ -52,13 +83,116 @@ public class TournamentController extends BaseController {
 
 	}
 
+	@Tag(name = "Tournament API")
+	@Operation(summary = "Return the whole tournament leaderboard with its version. Leaderboard messages pushed to /topic/tournament/{tournamentId} with a greater version are applied on top of it, a delta only if its previous version is not greater than the version of the client.")
+	@GetMapping(value = "/rest/TournamentLeaderboard/{tournamentId}")
+	public LeaderboardDeltaDto getTournamentLeaderboard(
+			@Parameter(description = "Tournament id", example = "1", required = true) @PathVariable("tournamentId") Long tournamentId) {
+
+		log.info("Requested leaderboard of tournament: {}", tournamentId);
+
+		return tournamentLeaderboardPublisher.getSnapshot(tournamentId);
+	}
+
+	@Tag(name = "Tournament API")
+	@Operation(summary = "Export all tournament results as csv or ndjson file")
+	@GetMapping(value = "/rest/TournamentExport/Results/{tournamentId}")
+	public ResponseEntity<StreamingResponseBody> exportResults(
+			@Parameter(description = "Tournament id", example = "1", required = true) @PathVariable("tournamentId") Long tournamentId,
+			@Parameter(description = "File format: csv or ndjson", example = "csv")
+			@Pattern(regexp = "csv|ndjson") @RequestParam(name = "format", defaultValue = "csv") String format) {
+
+		log.info("Requested export of results for tournament: {} as {}", tournamentId, format);
+
+		return export("tournament-" + tournamentId + "-results", format,
+				tournamentExportService.exportResults(tournamentId, toFormat(format)));
+	}
+
+	@Tag(name = "Tournament API")
+	@Operation(summary = "Export all tournament rounds as csv or ndjson file")
+	@GetMapping(value = "/rest/TournamentExport/Rounds/{tournamentId}")
+	public ResponseEntity<StreamingResponseBody> exportRounds(
+			@Parameter(description = "Tournament id", example = "1", required = true) @PathVariable("tournamentId") Long tournamentId,
+			@Parameter(description = "File format: csv or ndjson", example = "csv")
+			@Pattern(regexp = "csv|ndjson") @RequestParam(name = "format", defaultValue = "csv") String format) {
+
+		log.info("Requested export of rounds for tournament: {} as {}", tournamentId, format);
+
+		return export("tournament-" + tournamentId + "-rounds", format,
+				tournamentExportService.exportRounds(tournamentId, toFormat(format)));
+	}
+
+	@Tag(name = "Tournament API")
+	@Operation(summary = "Export rounds of tournament result as csv or ndjson file")
+	@GetMapping(value = "/rest/TournamentExport/ResultRounds/{tournamentResultId}")
+	public ResponseEntity<StreamingResponseBody> exportResultRounds(
+			@Parameter(description = "Tournament result id", example = "1", required = true) @PathVariable("tournamentResultId") Long tournamentResultId,
+			@Parameter(description = "File format: csv or ndjson", example = "csv")
+			@Pattern(regexp = "csv|ndjson") @RequestParam(name = "format", defaultValue = "csv") String format) {
+
+		log.info("Requested export of rounds for tournament result: {} as {}", tournamentResultId, format);
+
+		return export("tournament-result-" + tournamentResultId + "-rounds", format,
+				tournamentExportService.exportResultRounds(tournamentResultId, toFormat(format)));
+	}
+
+	@Tag(name = "Tournament API")
+	@Operation(summary = "Export score cards of tournament rounds as csv or ndjson file")
+	@GetMapping(value = "/rest/TournamentExport/ScoreCards/{tournamentId}")
+	public ResponseEntity<StreamingResponseBody> exportScoreCards(
+			@Parameter(description = "Tournament id", example = "1", required = true) @PathVariable("tournamentId") Long tournamentId,
+			@Parameter(description = "File format: csv or ndjson", example = "csv")
+			@Pattern(regexp = "csv|ndjson") @RequestParam(name = "format", defaultValue = "csv") String format) {
+
+		log.info("Requested export of score cards for tournament: {} as {}", tournamentId, format);
+
+		return export("tournament-" + tournamentId + "-scorecards", format,
+				tournamentExportService.exportScoreCards(tournamentId, toFormat(format)));
+	}
+
+	private static RowWriter.Format toFormat(String format) {
+		return "ndjson".equals(format) ? RowWriter.Format.NDJSON : RowWriter.Format.CSV;
+	}
+
+	// rows are streamed to the client as they are read, nothing is buffered
+	private static ResponseEntity<StreamingResponseBody> export(String fileName, String format, StreamingResponseBody body) {
+
+		return ResponseEntity.ok()
+				.contentType("ndjson".equals(format) ? MediaType.APPLICATION_NDJSON : TEXT_CSV)
+				.header(HttpHeaders.CONTENT_DISPOSITION,
+						ContentDisposition.attachment().filename(fileName + "." + format).build().toString())
+				.body(body);
+	}
+
 	@Tag(name = "Tournament API")
 	@Operation(summary = "Return all rounds that can be added to tournament")
 	@GetMapping(value = "/rest/TournamentRounds/{tournamentId}")
-	public List<LimitedRoundWithPlayersDto> getTournamentRounds(
+	public ResponseEntity<StreamingResponseBody> getTournamentRounds(
 			@Parameter(description = "Tournament id", example = "1", required = true) @PathVariable("tournamentId") Long tournamentId) {
-		log.info("Requested rounds for tournament");
-		return mapList(tournamentService.getAllPossibleRoundsForTournament(tournamentId), LimitedRoundWithPlayersDto.class);
+		log.info("Requested all rounds for tournament");
+
+		// rounds are written to the client chunk by chunk as they are read, the whole list is never kept in memory
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_JSON)
+				.body(outputStream -> {
+					try (var generator = jsonMapper.createGenerator(outputStream)) {
+						generator.writeStartArray();
+						tournamentService.getAllPossibleRoundsForTournament(tournamentId,
+								rounds -> mapList(rounds, LimitedRoundWithPlayersDto.class).forEach(generator::writePOJO));
+						generator.writeEndArray();
+					}
+				});
+	}
+
+	@Tag(name = "Tournament API")
+	@Operation(summary = "Return page of rounds that can be added to tournament")
+	@GetMapping(value = "/rest/TournamentRounds/{tournamentId}/{pageId}")
+	public List<LimitedRoundWithPlayersDto> getTournamentRounds(
+			@Parameter(description = "Tournament id", example = "1", required = true) @PathVariable("tournamentId") Long tournamentId,
+			@Parameter(description = "Page number starting from 0", example = "0", required = true) @PathVariable("pageId") Integer pageId) {
+		log.info("Requested rounds for tournament, page: {}", pageId);
+
+		return mapList(tournamentService.getAllPossibleRoundsForTournament(tournamentId, pageId), LimitedRoundWithPlayersDto.class);
 	}
 
 	@SuppressWarnings("SameReturnValue")
@@ -77,6 +211,17 @@ public class TournamentController extends BaseController {
 		return HttpStatus.OK;
 	}
 
+	@Tag(name = "Tournament API")
+	@Operation(summary = "Adds all eligible rounds to tournament. Returns number of added rounds.")
+	@PostMapping(value = "/rest/TournamentRounds/{tournamentId}")
+	public Integer addAllEligibleRounds(
+			@Parameter(description = "Tournament id", example = "1", required = true) @PathVariable("tournamentId") Long tournamentId) {
+
+		log.info("trying to add all eligible rounds to tournament id : {}", tournamentId);
+
+		return tournamentService.addAllEligibleRounds(tournamentId).size();
+	}
+
 	@SuppressWarnings("SameReturnValue")
 	@Tag(name = "Tournament API")
 	@Operation(summary = "Add tournament")
@@ -153,6 +298,45 @@ public class TournamentController extends BaseController {
 		return HttpStatus.OK;
 	}
 
+	@Tag(name = "Tournament API")
+	@Operation(summary = "Recompute all tournament rounds and results from score cards. Returns timings and changed values.")
+	@PatchMapping(value = "/rest/TournamentRecompute/{tournamentId}")
+	public RecomputeReport recomputeTournament(
+			@Parameter(description = "Tournament id to be recomputed", example = "1", required = true) @PathVariable("tournamentId") Long tournamentId) {
+
+		log.info("trying to recompute tournament: {}", tournamentId);
+
+		return tournamentService.recomputeTournament(tournamentId);
+	}
+
+	@Tag(name = "Tournament API")
+	@Operation(summary = "Return tournament results as if rounds were played with given playing handicap multiplier and cap. Nothing is saved.")
+	@GetMapping(value = "/rest/TournamentSimulation/{tournamentId}")
+	public List<TournamentResultDto> simulateTournament(
+			@Parameter(description = "Tournament id", example = "1", required = true) @PathVariable("tournamentId") Long tournamentId,
+			@Parameter(description = "Playing handicap multiplier, tournament value if not provided", example = "0.75")
+			@DecimalMin("0.5") @DecimalMax("1") @RequestParam(name = "playHcpMultiplayer", required = false) Float playHcpMultiplayer,
+			@Parameter(description = "Max playing handicap, tournament value if not provided", example = "36")
+			@Min(0) @Max(54) @RequestParam(name = "maxPlayHcp", required = false) Integer maxPlayHcp) {
+
+		log.info("trying to simulate tournament: {} with multiplier: {} and max playing hcp: {}", tournamentId,
+				playHcpMultiplayer, maxPlayHcp);
+
+		return mapList(tournamentService.simulateTournament(tournamentId, playHcpMultiplayer, maxPlayHcp),
+				TournamentResultDto.class);
+	}
+
+	@Tag(name = "Tournament API")
+	@Operation(summary = "Verify best rounds results against full recompute. Returns number of repaired results.")
+	@PatchMapping(value = "/rest/TournamentVerify/{tournamentId}")
+	public Integer verifyBestRounds(
+			@Parameter(description = "Tournament id to be verified", example = "1", required = true) @PathVariable("tournamentId") Long tournamentId) {
+
+		log.info("trying to verify best rounds for tournament: {}", tournamentId);
+
+		return tournamentService.verifyBestRounds(tournamentId);
+	}
+
 	@Tag(name = "Tournament API")
 	@Operation(summary = "Delete tournament")
 	@DeleteMapping(value = "/rest/Tournament/{tournamentId}")
@@ -236,6 +420,31 @@ public class TournamentController extends BaseController {
 		return HttpStatus.OK;
 	}
 
+	@Tag(name = "Tournament API")
+	@Operation(summary = "Build flights and tee times for tournament players on server side. Replaces existing tee times.")
+	@PostMapping(value = "/rest/Tournament/TeeTimeSchedule/{tournamentId}")
+	public TeeTimeParametersDto scheduleTeeTimes(
+			@Parameter(description = "Tournament id", example = "1", required = true)
+			@NotNull
+			@Positive
+			@PathVariable("tournamentId") Long tournamentId,
+			@Parameter(description = "TeeTimeSchedule object", required = true)
+			@RequestBody
+			@Valid TeeTimeScheduleDto teeTimeScheduleDto) {
+
+		log.info("trying to schedule tee times for tournament: {} using strategy: {}", tournamentId,
+				teeTimeScheduleDto.getStrategy());
+
+		var teeTimeParameters = new TeeTimeParameters();
+		teeTimeParameters.setFirstTeeTime(teeTimeScheduleDto.getFirstTeeTime());
+		teeTimeParameters.setTeeTimeStep(teeTimeScheduleDto.getTeeTimeStep());
+		teeTimeParameters.setFlightSize(teeTimeScheduleDto.getFlightSize());
+		teeTimeParameters.setPublished(teeTimeScheduleDto.getPublished());
+
+		return modelMapper.map(tournamentService.scheduleTeeTimes(tournamentId, teeTimeParameters,
+				teeTimeScheduleDto.getStrategy(), teeTimeScheduleDto.getSeed()), TeeTimeParametersDto.class);
+	}
+
 	@Tag(name = "Tournament API")
 	@Operation(summary = "Return tee times for tournament")
 	@GetMapping(value = "/rest/Tournament/TeeTime/{tournamentId}")
@@ -265,9 +474,9 @@ public class TournamentController extends BaseController {
 	}
 
 	@Tag(name = "Tournament API")
-	@Operation(summary = "Send email notification to subscribers")
+	@Operation(summary = "Queue email notification to subscribers. Returns id of the mail job.")
 	@PostMapping(value = "/rest/Tournament/Notification/{tournamentId}/{sort}")
-	public HttpStatus notifySubscribers(
+	public MailJobDto notifySubscribers(
 			@Parameter(description = "Tournament id", example = "1", required = true)
 			@NotNull
 			@Positive
@@ -281,8 +490,7 @@ public class TournamentController extends BaseController {
 			@PathVariable("sort") Integer sort) {
 
         log.info("trying to send notifications for tournament: {} and sort method: {}", tournamentId, sort);
-		tournamentService.processNotifications(tournamentId, sort);
-		return HttpStatus.OK;
+		return mailJob(tournamentService.processNotifications(tournamentId, sort));
 	}
 
 	@Tag(name = "Tournament API")
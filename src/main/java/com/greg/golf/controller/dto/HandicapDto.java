@@ -0,0 +1,25 @@
+package com.greg.golf.controller.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
+
+@Getter
+@Setter
+public class HandicapDto {
+
+	@Schema(description = "Player identifier", example = "25", accessMode = READ_ONLY)
+	private Long playerId;
+
+	@Schema(description = "WHS handicap index, absent for less than 3 counted rounds", example = "17.2",
+			accessMode = READ_ONLY, minimum = "-10", maximum = "54")
+	private Float handicapIndex;
+
+	@Schema(description = "Counted rounds with the index after each of them, the latest first", accessMode = READ_ONLY)
+	private List<HandicapHistoryDto> history;
+}
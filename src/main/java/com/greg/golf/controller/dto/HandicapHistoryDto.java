@@ -0,0 +1,34 @@
+package com.greg.golf.controller.dto;
+
+import java.util.Date;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
+
+@Getter
+@Setter
+public class HandicapHistoryDto {
+
+	@Schema(description = "Round identifier", example = "120", accessMode = READ_ONLY)
+	private Long roundId;
+
+	@Schema(description = "Date of the round", accessMode = READ_ONLY, pattern = "yyyy/MM/dd kk:mm")
+	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy/MM/dd kk:mm")
+	private Date roundDate;
+
+	@Schema(description = "Score differential of the round", example = "18.3", accessMode = READ_ONLY)
+	private Float scoreDifferential;
+
+	@Schema(description = "Number of differentials the index was calculated from", example = "20", accessMode = READ_ONLY,
+			minimum = "1", maximum = "20")
+	private Integer scores;
+
+	@Schema(description = "Handicap index after the round, absent for less than 3 rounds", example = "17.2",
+			accessMode = READ_ONLY)
+	private Float handicapIndex;
+}
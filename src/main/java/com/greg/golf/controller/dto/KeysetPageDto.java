@@ -0,0 +1,21 @@
+package com.greg.golf.controller.dto;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class KeysetPageDto<T> {
+
+	@Schema(description = "Items of the page", accessMode = READ_ONLY)
+	private List<T> items;
+
+	@Schema(description = "Token to be passed as after parameter to get the next page, empty for the last page",
+			example = "MTI1", accessMode = READ_ONLY)
+	private String after;
+}
@@ -0,0 +1,33 @@
+package com.greg.golf.controller.dto;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class LeaderboardDeltaDto {
+
+	@Schema(description = "Tournament identifier", example = "1", accessMode = READ_ONLY)
+	private Long tournamentId;
+
+	@Schema(description = "Leaderboard version the delta leads to", example = "12", accessMode = READ_ONLY)
+	private Long version;
+
+	@Schema(description = "Leaderboard version the delta was computed from, empty for full leaderboard",
+			example = "11", accessMode = READ_ONLY)
+	private Long previousVersion;
+
+	@Schema(description = "True if updated contains the whole leaderboard and client shall replace its copy", accessMode = READ_ONLY)
+	private boolean full;
+
+	@Schema(description = "New results and results with changed values or position", accessMode = READ_ONLY)
+	private List<LeaderboardEntryDto> updated;
+
+	@Schema(description = "Identifiers of removed results", accessMode = READ_ONLY)
+	private List<Long> removed;
+}
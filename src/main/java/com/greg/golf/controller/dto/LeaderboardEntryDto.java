@@ -0,0 +1,43 @@
+package com.greg.golf.controller.dto;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+public class LeaderboardEntryDto {
+
+	@Schema(description = "Result identifier", example = "25", accessMode = READ_ONLY)
+	private Long id;
+
+	@Schema(description = "Position in default order of tournament results, starting from 1", example = "1", accessMode = READ_ONLY)
+	private Integer position;
+
+	@Schema(description = "Player identifier", example = "1", accessMode = READ_ONLY)
+	private Long playerId;
+
+	@Schema(description = "Player nick", example = "Golfer", accessMode = READ_ONLY)
+	private String nick;
+
+	@Schema(description = "Tournament gross strokes", accessMode = READ_ONLY, minimum = "0")
+	private Integer strokesBrutto;
+
+	@Schema(description = "Tournament net strokes", accessMode = READ_ONLY, minimum = "0")
+	private Integer strokesNetto;
+
+	@Schema(description = "Number of played rounds", accessMode = READ_ONLY, minimum = "0")
+	private Integer playedRounds;
+
+	@Schema(description = "Stableford net", accessMode = READ_ONLY, minimum = "0")
+	private Integer stbNet;
+
+	@Schema(description = "Stableford gross", accessMode = READ_ONLY, minimum = "0")
+	private Integer stbGross;
+
+	@Schema(description = "Number of rounds applicable for stroke categories", accessMode = READ_ONLY, minimum = "0")
+	private Integer strokeRounds;
+}
@@ -0,0 +1,25 @@
+package com.greg.golf.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
+
+@Getter
+@Setter
+public class MailJobDto {
+
+	@Schema(description = "Mail job identifier, empty if there was nothing to send",
+			example = "6f1c7f0a-1a6e-4c4b-9f0e-2b1f0f1d1a2b", accessMode = READ_ONLY)
+	private String jobId;
+
+	@Schema(description = "Number of recipient chunks waiting for sending", example = "1", accessMode = READ_ONLY)
+	private Integer pending;
+
+	@Schema(description = "Number of sent recipient chunks", example = "2", accessMode = READ_ONLY)
+	private Integer sent;
+
+	@Schema(description = "Number of recipient chunks which could not be sent", example = "0", accessMode = READ_ONLY)
+	private Integer failed;
+}
@@ -0,0 +1,22 @@
+package com.greg.golf.controller.dto;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class OnlineScoreCardDeltaDto {
+
+	@Schema(description = "Version to ask for the next changes, the highest version of returned score cards",
+			example = "1792900000000001", accessMode = READ_ONLY)
+	private Long version;
+
+	@Schema(description = "Score cards changed since the requested version ordered by version. Score cards of online "
+			+ "rounds not known to the client require reading the online rounds", accessMode = READ_ONLY)
+	private List<OnlineScoreCardDto> scoreCards;
+}
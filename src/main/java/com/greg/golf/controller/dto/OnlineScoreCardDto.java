@@ -3,6 +3,8 @@ package com.greg.golf.controller.dto;
 import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_WRITE;
 import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import lombok.Getter;
@@ -20,6 +22,8 @@ public class OnlineScoreCardDto {
 	private Long id;
 
 	@NotNull
+	@Min(value = 1)
+	@Max(value = 18)
 	@Schema(description = "Hole number", example = "14", accessMode = READ_WRITE, minimum = "1", maximum = "18")
 	private Integer hole;
 
@@ -47,4 +51,7 @@ public class OnlineScoreCardDto {
 	@Schema(description = "Time", example = "10:59", accessMode = READ_WRITE, minimum = "00:00", maximum = "23:59")
 	@Pattern(regexp = "^(0\\d|1\\d|2[0-3]):[0-5]\\d$")
 	private String time;
+
+	@Schema(description = "Version of the last change of the hole", example = "1792900000000001", accessMode = READ_ONLY)
+	private long version;
 }
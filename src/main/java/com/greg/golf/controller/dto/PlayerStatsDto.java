@@ -0,0 +1,92 @@
+package com.greg.golf.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
+
+@Getter
+@Setter
+public class PlayerStatsDto {
+
+	@Schema(description = "Player identifier", example = "25", accessMode = READ_ONLY)
+	private Long playerId;
+
+	@Schema(description = "Number of rounds", example = "42", accessMode = READ_ONLY)
+	private int rounds;
+
+	@Schema(description = "Number of played holes", example = "750", accessMode = READ_ONLY)
+	private int holes;
+
+	// counters are not returned, only averages calculated from them
+	@Getter(AccessLevel.NONE)
+	private int par3Holes;
+
+	@Getter(AccessLevel.NONE)
+	private int par3Strokes;
+
+	@Getter(AccessLevel.NONE)
+	private int par4Holes;
+
+	@Getter(AccessLevel.NONE)
+	private int par4Strokes;
+
+	@Getter(AccessLevel.NONE)
+	private int par5Holes;
+
+	@Getter(AccessLevel.NONE)
+	private int par5Strokes;
+
+	@Getter(AccessLevel.NONE)
+	private int putts;
+
+	@Getter(AccessLevel.NONE)
+	private int penalties;
+
+	@Getter(AccessLevel.NONE)
+	private int stbRounds;
+
+	@Getter(AccessLevel.NONE)
+	private int stbNet;
+
+	@Schema(description = "Stableford net of the latest rounds, the most recent first", example = "[36, 31, 28]",
+			accessMode = READ_ONLY)
+	private Short[] trendStb;
+
+	@Schema(description = "Average strokes on par 3, null if not played", example = "3.9", accessMode = READ_ONLY)
+	public Float getPar3Average() {
+		return average(par3Strokes, par3Holes);
+	}
+
+	@Schema(description = "Average strokes on par 4, null if not played", example = "5.1", accessMode = READ_ONLY)
+	public Float getPar4Average() {
+		return average(par4Strokes, par4Holes);
+	}
+
+	@Schema(description = "Average strokes on par 5, null if not played", example = "6.2", accessMode = READ_ONLY)
+	public Float getPar5Average() {
+		return average(par5Strokes, par5Holes);
+	}
+
+	@Schema(description = "Average putts per round", example = "33.5", accessMode = READ_ONLY)
+	public Float getPuttsPerRound() {
+		return average(putts, rounds);
+	}
+
+	@Schema(description = "Average penalties per round", example = "1.2", accessMode = READ_ONLY)
+	public Float getPenaltiesPerRound() {
+		return average(penalties, rounds);
+	}
+
+	@Schema(description = "Average Stableford net of rounds with handicap data", example = "31.4", accessMode = READ_ONLY)
+	public Float getStbNetAverage() {
+		return average(stbNet, stbRounds);
+	}
+
+	private static Float average(int sum, int count) {
+		return count == 0 ? null : (float) sum / count;
+	}
+}
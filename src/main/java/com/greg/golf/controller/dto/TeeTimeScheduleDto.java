@@ -0,0 +1,42 @@
+package com.greg.golf.controller.dto;
+
+import com.greg.golf.service.helpers.TeeTimeScheduler;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.*;
+
+@Getter
+@Setter
+public class TeeTimeScheduleDto {
+
+	@NotNull
+	@Size(min = 5, max = 5, message = "tee time must be 5 characters long")
+	@Pattern(regexp = "^(0\\d|1\\d|2[0-3]):[0-5]\\d$")
+	@Schema(description = "tee time", example = "09:00", accessMode = WRITE_ONLY, maxLength = 5)
+	private String firstTeeTime;
+
+	@NotNull
+	@Min(value = 8)
+	@Max(value = 12)
+	@Schema(description = "tee time step in minutes", example = "8", accessMode = WRITE_ONLY, minimum = "8", maximum = "12")
+	private Integer teeTimeStep;
+
+	@NotNull
+	@Min(value = 2)
+	@Max(value = 4)
+	@Schema(description = "flight size", example = "4", accessMode = WRITE_ONLY, minimum = "2", maximum = "4")
+	private Integer flightSize;
+
+	@NotNull
+	@Schema(description = "Pairing strategy: HANDICAP, RANDOM or LEADERBOARD", example = "HANDICAP", accessMode = WRITE_ONLY)
+	private TeeTimeScheduler.Strategy strategy;
+
+	@Schema(description = "Seed of random draw, makes the draw reproducible", example = "12345", accessMode = WRITE_ONLY)
+	private Long seed;
+
+	@Schema(description = "Publish status: false - not, true - yes", example = "false", accessMode = WRITE_ONLY)
+	private Boolean published;
+}
@@ -20,7 +20,8 @@ public class Course {
 
 	@Id
 	@Column(name = "id")
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "course_seq")
+	@SequenceGenerator(name = "course_seq", sequenceName = "course_seq", allocationSize = 50)
 	private Long id;
 
 	@EqualsAndHashCode.Exclude
@@ -18,7 +18,8 @@ public class CourseTee {
 	
 	@Id
 	@Column(name = "id")
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "course_tee_seq")
+	@SequenceGenerator(name = "course_tee_seq", sequenceName = "course_tee_seq", allocationSize = 50)
 	private Long id;
 	
 	@NotNull
@@ -17,7 +17,8 @@ public class Cycle {
 
 	@Id
 	@Column(name = "id")
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cycle_seq")
+	@SequenceGenerator(name = "cycle_seq", sequenceName = "cycle_seq", allocationSize = 50)
 	private Long id;
 	
 	@NotNull
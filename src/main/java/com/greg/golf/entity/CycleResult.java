@@ -17,7 +17,8 @@ public class CycleResult {
 
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cycle_result_seq")
+    @SequenceGenerator(name = "cycle_result_seq", sequenceName = "cycle_result_seq", allocationSize = 50)
     private Long id;
 
     @ToString.Exclude
@@ -16,7 +16,8 @@ public class CycleTournament {
 
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cycle_tournament_seq")
+    @SequenceGenerator(name = "cycle_tournament_seq", sequenceName = "cycle_tournament_seq", allocationSize = 50)
     private Long id;
 
     @ToString.Exclude
@@ -15,7 +15,8 @@ public class FavouriteCourse {
 	@Id
 	@Schema(description = "Favourite course identifier", example = "25", accessMode = READ_ONLY)
 	@Column(name = "id")
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "favourite_course_seq")
+	@SequenceGenerator(name = "favourite_course_seq", sequenceName = "favourite_course_seq", allocationSize = 50)
 	private Long id;
 
 	@EqualsAndHashCode.Exclude
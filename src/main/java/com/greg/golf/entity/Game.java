@@ -16,7 +16,8 @@ public class Game {
  
 	@Id
 	@Column(name = "id")
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "game_seq")
+	@SequenceGenerator(name = "game_seq", sequenceName = "game_seq", allocationSize = 50)
 	private Long id;
 
 	@NotNull
@@ -0,0 +1,38 @@
+package com.greg.golf.entity;
+
+import java.util.Date;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+@Data
+@Entity
+@Table(name = "handicap_history")
+public class HandicapHistory {
+
+	@Id
+	@Column(name = "id")
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "handicap_history_seq")
+	@SequenceGenerator(name = "handicap_history_seq", sequenceName = "handicap_history_seq", allocationSize = 50)
+	private Long id;
+
+	@Column(name = "player_id")
+	private Long playerId;
+
+	@Column(name = "round_id")
+	private Long roundId;
+
+	@Column(name = "round_date")
+	private Date roundDate;
+
+	@Column(name = "score_differential")
+	private Float scoreDifferential;
+
+	// number of differentials the index was calculated from
+	@Column(name = "scores")
+	private Integer scores;
+
+	// index after the round, null until the player has enough scores
+	@Column(name = "handicap_index")
+	private Float handicapIndex;
+}
@@ -15,7 +15,8 @@ public class Hole {
 
 	@Id
 	@Column(name = "id")
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hole_seq")
+	@SequenceGenerator(name = "hole_seq", sequenceName = "hole_seq", allocationSize = 50)
 	//@JsonIgnore
 	private Long id;
 	
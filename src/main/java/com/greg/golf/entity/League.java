@@ -18,7 +18,8 @@ public class League {
 
 	@Id
 	@Column(name = "id")
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "league_seq")
+	@SequenceGenerator(name = "league_seq", sequenceName = "league_seq", allocationSize = 50)
 	private Long id;
 	
 	@NotNull
@@ -13,7 +13,8 @@ public class LeagueMatch {
 
 	@Id
 	@Column(name = "id")
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "league_match_seq")
+	@SequenceGenerator(name = "league_match_seq", sequenceName = "league_match_seq", allocationSize = 50)
 	private Long id;
 
 	@ToString.Exclude
@@ -12,7 +12,8 @@ public class LeagueNotification {
 
 	@Id
 	@Column(name = "id")
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "league_notification_seq")
+	@SequenceGenerator(name = "league_notification_seq", sequenceName = "league_notification_seq", allocationSize = 50)
 	private Long id;
 
 	@ToString.Exclude
@@ -13,7 +13,8 @@ public class LeaguePlayer {
 
 	@Id
 	@Column(name = "id")
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "league_player_seq")
+	@SequenceGenerator(name = "league_player_seq", sequenceName = "league_player_seq", allocationSize = 50)
 	private Long id;
 
 	@ToString.Exclude
@@ -0,0 +1,66 @@
+package com.greg.golf.entity;
+
+import java.util.Date;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+@Data
+@Entity
+@Table(name = "mail_outbox")
+public class MailOutbox {
+
+	public enum Status { PENDING, SENT, FAILED }
+
+	@Id
+	@Column(name = "id")
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mail_outbox_seq")
+	@SequenceGenerator(name = "mail_outbox_seq", sequenceName = "mail_outbox_seq", allocationSize = 50)
+	private Long id;
+
+	// all chunks of one request share the job id
+	@Column(name = "job_id")
+	private String jobId;
+
+	// player who requested the email, null if sent without logged-in player
+	@Column(name = "owner_id")
+	private Long ownerId;
+
+	// encrypted with the same key as player emails, decrypted only for sending
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	@JdbcTypeCode(SqlTypes.ARRAY)
+	@Column(name = "recipients", columnDefinition = "text[]")
+	private String[] recipients;
+
+	@Column(name = "subject")
+	private String subject;
+
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	@Column(name = "content")
+	private String content;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "status")
+	private Status status;
+
+	@Column(name = "attempts")
+	private Integer attempts;
+
+	@Column(name = "created")
+	private Date created;
+
+	@Column(name = "next_attempt")
+	private Date nextAttempt;
+
+	@Column(name = "sent")
+	private Date sent;
+
+	@Column(name = "last_error")
+	private String lastError;
+}
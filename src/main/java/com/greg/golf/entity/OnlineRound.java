@@ -18,7 +18,8 @@ public class OnlineRound {
 
 	@Id
 	@Column(name = "id")
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "online_round_seq")
+	@SequenceGenerator(name = "online_round_seq", sequenceName = "online_round_seq", allocationSize = 50)
 	private Long id;
 
 	@EqualsAndHashCode.Exclude
@@ -16,7 +16,8 @@ public class OnlineScoreCard {
 
 	@Id
 	@Column(name = "id")
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "online_score_card_seq")
+	@SequenceGenerator(name = "online_score_card_seq", sequenceName = "online_score_card_seq", allocationSize = 50)
 	private Long id;
 
 	@EqualsAndHashCode.Exclude
@@ -61,6 +62,11 @@ public class OnlineScoreCard {
 	@Column(name = "time")
 	private String time;
 
+	// version of the last change, not used for optimistic locking
+	@EqualsAndHashCode.Exclude
+	@Column(name = "version")
+	private long version;
+
 	@Transient
 	private long orId;
 
@@ -17,7 +17,8 @@ public class Player implements Comparable<Player> {
 
 	@Id
 	@Column(name = "id")
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "player_seq")
+	@SequenceGenerator(name = "player_seq", sequenceName = "player_seq", allocationSize = 50)
 	private Long id;
 
 	@EqualsAndHashCode.Exclude
@@ -0,0 +1,42 @@
+package com.greg.golf.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+@Data
+@Entity
+@Table(name = "player_handicap")
+public class PlayerHandicap {
+
+	@Id
+	@Column(name = "player_id")
+	private Long playerId;
+
+	// null until the player has enough scores
+	@Column(name = "handicap_index")
+	private Float handicapIndex;
+
+	// window of the latest score differentials, the oldest first (see DifferentialWindow)
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	@JdbcTypeCode(SqlTypes.ARRAY)
+	@Column(name = "differentials", columnDefinition = "real[]")
+	private Float[] differentials;
+
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	@JdbcTypeCode(SqlTypes.ARRAY)
+	@Column(name = "differential_rounds", columnDefinition = "bigint[]")
+	private Long[] differentialRounds;
+
+	// round dates as epoch millis
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	@JdbcTypeCode(SqlTypes.ARRAY)
+	@Column(name = "differential_dates", columnDefinition = "bigint[]")
+	private Long[] differentialDates;
+}
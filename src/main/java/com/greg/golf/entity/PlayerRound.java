@@ -2,7 +2,10 @@ package com.greg.golf.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 @Data
 @Entity
@@ -40,4 +43,23 @@ public class PlayerRound {
 
 	@Column(name = "team")
 	private Integer team;
+
+	// packed score card, element i is for hole i + 1 (see PackedScoreCard)
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	@JdbcTypeCode(SqlTypes.ARRAY)
+	@Column(name = "strokes", columnDefinition = "smallint[]")
+	private Short[] strokes;
+
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	@JdbcTypeCode(SqlTypes.ARRAY)
+	@Column(name = "putts", columnDefinition = "smallint[]")
+	private Short[] putts;
+
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	@JdbcTypeCode(SqlTypes.ARRAY)
+	@Column(name = "penalties", columnDefinition = "smallint[]")
+	private Short[] penalties;
 }
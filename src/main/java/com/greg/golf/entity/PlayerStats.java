@@ -0,0 +1,85 @@
+package com.greg.golf.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+@Data
+@Entity
+@Table(name = "player_stats")
+public class PlayerStats {
+
+	@Id
+	@Column(name = "player_id")
+	private Long playerId;
+
+	@Column(name = "rounds")
+	private int rounds;
+
+	// holes with at least one stroke
+	@Column(name = "holes")
+	private int holes;
+
+	// holes given up are not included in strokes by par
+	@Column(name = "par3_holes")
+	private int par3Holes;
+
+	@Column(name = "par3_strokes")
+	private int par3Strokes;
+
+	@Column(name = "par4_holes")
+	private int par4Holes;
+
+	@Column(name = "par4_strokes")
+	private int par4Strokes;
+
+	@Column(name = "par5_holes")
+	private int par5Holes;
+
+	@Column(name = "par5_strokes")
+	private int par5Strokes;
+
+	@Column(name = "putts")
+	private int putts;
+
+	@Column(name = "penalties")
+	private int penalties;
+
+	// rounds with handicap data, only those are counted in Stableford
+	@Column(name = "stb_rounds")
+	private int stbRounds;
+
+	@Column(name = "stb_net")
+	private int stbNet;
+
+	// Stableford net of the latest rounds, the most recent first (see PlayerStatsCalculator)
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	@JdbcTypeCode(SqlTypes.ARRAY)
+	@Column(name = "trend_rounds", columnDefinition = "bigint[]")
+	private Long[] trendRounds;
+
+	// round dates as epoch millis
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	@JdbcTypeCode(SqlTypes.ARRAY)
+	@Column(name = "trend_dates", columnDefinition = "bigint[]")
+	private Long[] trendDates;
+
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	@JdbcTypeCode(SqlTypes.ARRAY)
+	@Column(name = "trend_stb", columnDefinition = "smallint[]")
+	private Short[] trendStb;
+
+	// counted in the transaction of each round change, events carry the number of their change
+	@Column(name = "changes")
+	private long changes;
+
+	// changes already read by the last rebuild, events of them are skipped
+	@Column(name = "rebuilt_changes")
+	private long rebuiltChanges;
+}
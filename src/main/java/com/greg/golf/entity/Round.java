@@ -18,7 +18,8 @@ public class Round {
 
 	@Id
 	@Column(name = "id")
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "round_seq")
+	@SequenceGenerator(name = "round_seq", sequenceName = "round_seq", allocationSize = 50)
 	private Long id;
 
 	@NotNull
@@ -15,7 +15,8 @@ public class ScoreCard {
 	
 	@Id
 	@Column(name = "id")
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "score_card_seq")
+	@SequenceGenerator(name = "score_card_seq", sequenceName = "score_card_seq", allocationSize = 50)
 	private Long id;
 
 	@EqualsAndHashCode.Exclude
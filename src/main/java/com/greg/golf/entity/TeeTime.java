@@ -13,7 +13,8 @@ public class TeeTime {
 
 	@Id
 	@Column(name = "id")
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "teetime_seq")
+	@SequenceGenerator(name = "teetime_seq", sequenceName = "teetime_seq", allocationSize = 50)
 	private Long id;
 
 	@NotNull
@@ -18,7 +18,8 @@ public class TeeTimeParameters {
 
 	@Id
 	@Column(name = "id")
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "teetime_parameters_seq")
+	@SequenceGenerator(name = "teetime_parameters_seq", sequenceName = "teetime_parameters_seq", allocationSize = 50)
 	private Long id;
 
 	@NotNull
@@ -19,7 +19,8 @@ public class Tournament {
 
 	@Id
 	@Column(name = "id")
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tournament_seq")
+	@SequenceGenerator(name = "tournament_seq", sequenceName = "tournament_seq", allocationSize = 50)
 	private Long id;
 	
 	@NotNull
@@ -59,6 +60,11 @@ public class Tournament {
 	@Column(name = "can_update_hcp")
 	@NotNull
 	private Boolean canUpdateHcp;
+
+	// changed only by TournamentRepository.incrementResultsVersion, so saving the entity cannot overwrite it
+	@EqualsAndHashCode.Exclude
+	@Column(name = "results_version", insertable = false, updatable = false)
+	private Long resultsVersion = 0L;
 	
 	@EqualsAndHashCode.Exclude
 	@ToString.Exclude
@@ -11,7 +11,8 @@ public class TournamentNotification {
 
 	@Id
 	@Column(name = "id")
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tournament_notification_seq")
+	@SequenceGenerator(name = "tournament_notification_seq", sequenceName = "tournament_notification_seq", allocationSize = 50)
 	private Long id;
 
 	@ToString.Exclude
@@ -12,7 +12,8 @@ public class TournamentPlayer {
 
 	@Id
 	@Column(name = "id")
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tournament_player_seq")
+	@SequenceGenerator(name = "tournament_player_seq", sequenceName = "tournament_player_seq", allocationSize = 50)
 	private Long id;
 
 	@ToString.Exclude
@@ -8,6 +8,8 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 @Data
 @Entity
@@ -17,7 +19,8 @@ public class TournamentResult {
 
 	@Id
 	@Column(name = "id")
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tournament_result_seq")
+	@SequenceGenerator(name = "tournament_result_seq", sequenceName = "tournament_result_seq", allocationSize = 50)
 	private Long id;
 
 	@ToString.Exclude
@@ -56,6 +59,31 @@ public class TournamentResult {
 	@Column(name = "stb_gross")
 	private Integer stbGross;
 
+	// sorted values of all rounds used for incremental best rounds calculation
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	@JdbcTypeCode(SqlTypes.ARRAY)
+	@Column(name = "stb_net_rounds", columnDefinition = "integer[]")
+	private int[] stbNetRounds;
+
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	@JdbcTypeCode(SqlTypes.ARRAY)
+	@Column(name = "stb_gross_rounds", columnDefinition = "integer[]")
+	private int[] stbGrossRounds;
+
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	@JdbcTypeCode(SqlTypes.ARRAY)
+	@Column(name = "strokes_netto_rounds", columnDefinition = "integer[]")
+	private int[] strokesNettoRounds;
+
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	@JdbcTypeCode(SqlTypes.ARRAY)
+	@Column(name = "strokes_brutto_rounds", columnDefinition = "integer[]")
+	private int[] strokesBruttoRounds;
+
 	@EqualsAndHashCode.Exclude
 	@ToString.Exclude
 	@OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, mappedBy = "tournamentResult")
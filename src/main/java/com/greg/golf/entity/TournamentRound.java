@@ -15,7 +15,8 @@ public class TournamentRound {
 
 	@Id
 	@Column(name = "id")
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tournament_round_seq")
+	@SequenceGenerator(name = "tournament_round_seq", sequenceName = "tournament_round_seq", allocationSize = 50)
 	private Long id;
 
 	@ToString.Exclude
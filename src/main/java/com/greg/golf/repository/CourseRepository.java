@@ -1,10 +1,14 @@
 package com.greg.golf.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.Pageable;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.greg.golf.entity.Course;
@@ -18,4 +22,13 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
 	 List<Course> findByHistoricalAndNameContainingIgnoreCase(Boolean historical, String courseName);
 	 
 	 List<Course> findByHistoricalOrderByNameAsc(Boolean historical, Pageable pageable);
+
+	 List<Course> findByHistoricalOrderByNameAscIdAsc(Boolean historical, Pageable pageable);
+
+	 @Query("SELECT c FROM Course c WHERE c.historical = :historical AND (c.name > :name OR (c.name = :name AND c.id > :id)) ORDER BY c.name ASC, c.id ASC")
+	 List<Course> findByHistoricalAfter(@Param("historical") Boolean historical, @Param("name") String name,
+										@Param("id") Long id, Pageable pageable);
+
+	 @EntityGraph(attributePaths = { "holes"})
+	 List<Course> findByIdIn(Collection<Long> ids);
 }
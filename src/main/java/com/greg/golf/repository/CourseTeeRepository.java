@@ -1,8 +1,11 @@
 package com.greg.golf.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import org.springframework.stereotype.Repository;
 
@@ -13,4 +16,7 @@ import com.greg.golf.entity.CourseTee;
 public interface CourseTeeRepository extends JpaRepository<CourseTee, Long> {
 
 	List<CourseTee> findByCourse(Course course);
+
+	@Query("SELECT ct FROM CourseTee ct WHERE ct.course.id in (:courseIds) ORDER BY ct.id")
+	List<CourseTee> getForCourses(@Param("courseIds") Collection<Long> courseIds);
 }
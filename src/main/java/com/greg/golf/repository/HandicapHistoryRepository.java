@@ -0,0 +1,32 @@
+package com.greg.golf.repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import com.greg.golf.entity.HandicapHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface HandicapHistoryRepository extends JpaRepository<HandicapHistory, Long> {
+
+    List<HandicapHistory> findByPlayerIdOrderByRoundDateDescRoundIdDesc(Long playerId);
+
+    boolean existsByPlayerIdAndRoundId(Long playerId, Long roundId);
+
+    // low handicap index - the lowest index calculated from the full window since the given date
+    @Query("SELECT MIN(h.handicapIndex) FROM HandicapHistory h WHERE h.playerId = :playerId AND h.scores = :scores AND h.roundDate >= :from")
+    Float getLowIndex(@Param("playerId") Long playerId, @Param("scores") Integer scores, @Param("from") Date from);
+
+    @Modifying
+    @Query("DELETE FROM HandicapHistory h WHERE h.playerId in (:playerIds)")
+    void deleteByPlayerIds(@Param("playerIds") Collection<Long> playerIds);
+
+    @Modifying
+    @Query("DELETE FROM HandicapHistory h WHERE NOT EXISTS (SELECT pr FROM PlayerRound pr WHERE pr.playerId = h.playerId)")
+    int deleteWithoutRounds();
+}
@@ -11,4 +11,6 @@ import java.util.List;
 public interface LeagueRepository extends JpaRepository<League, Long> {
 
     List<League> findAllByOrderByIdDesc(Pageable pageable);
+
+    List<League> findByIdLessThanOrderByIdDesc(Long id, Pageable pageable);
 }
@@ -0,0 +1,36 @@
+package com.greg.golf.repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import com.greg.golf.entity.MailOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, Long> {
+
+    // rows already locked by other dispatcher are skipped (lock timeout -2 is SKIP LOCKED in Hibernate)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<MailOutbox> findByStatusAndNextAttemptLessThanEqualOrderByIdAsc(MailOutbox.Status status, Date nextAttempt,
+                                                                         Pageable pageable);
+
+    List<MailOutbox> findByJobIdOrderByIdAsc(String jobId);
+
+    long countByStatus(MailOutbox.Status status);
+
+    @Modifying
+    @Query("DELETE FROM MailOutbox m WHERE m.status IN (:statuses) AND m.created < :created")
+    int deleteByStatusInAndCreatedBefore(@Param("statuses") Collection<MailOutbox.Status> statuses,
+                                         @Param("created") Date created);
+}
@@ -1,15 +1,19 @@
 package com.greg.golf.repository;
 
 import java.util.List;
+import java.util.Optional;
 
 import lombok.NonNull;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import org.springframework.stereotype.Repository;
 
 import com.greg.golf.entity.Course;
 import com.greg.golf.entity.OnlineRound;
+import com.greg.golf.repository.projection.OnlineRoundGroup;
 
 @Repository
 public interface OnlineRoundRepository extends JpaRepository<OnlineRound, Long> {
@@ -26,4 +30,24 @@ public interface OnlineRoundRepository extends JpaRepository<OnlineRound, Long>
 	
 	@EntityGraph(attributePaths = {"scoreCard", "player", "course", "courseTee"})
 	List<OnlineRound> findByIdentifier(Integer identifier);
+
+	// without score cards, which are taken from the live store
+	@EntityGraph(attributePaths = {"player", "course", "courseTee"})
+	List<OnlineRound> getByIdentifier(Integer identifier);
+
+	@EntityGraph(attributePaths = {"player", "course", "courseTee"})
+	List<OnlineRound> getByCourse(Course course);
+
+	@Query("SELECT o.id FROM OnlineRound o WHERE o.identifier = :identifier")
+	List<Long> getIdsForIdentifier(@Param("identifier") Integer identifier);
+
+	@Query("SELECT o.id FROM OnlineRound o WHERE o.course.id = :courseId")
+	List<Long> getIdsForCourse(@Param("courseId") Long courseId);
+
+	// STOMP destinations of the online round
+	@Query("SELECT o.identifier AS identifier, o.course.id AS courseId FROM OnlineRound o WHERE o.id = :id")
+	Optional<OnlineRoundGroup> getGroup(@Param("id") Long id);
+
+	@Query("SELECT COUNT(o) > 0 FROM OnlineRound o WHERE o.identifier = :identifier AND (o.owner = :playerId OR o.player.id = :playerId)")
+	boolean isGroupMember(@Param("identifier") Integer identifier, @Param("playerId") Long playerId);
 }
@@ -1,19 +1,41 @@
 package com.greg.golf.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import org.springframework.stereotype.Repository;
 
 import com.greg.golf.entity.OnlineRound;
 import com.greg.golf.entity.OnlineScoreCard;
+import com.greg.golf.repository.projection.OnlineScoreCardHole;
 
 @Repository
-public interface OnlineScoreCardRepository extends JpaRepository<OnlineScoreCard, Long> {
+public interface OnlineScoreCardRepository extends JpaRepository<OnlineScoreCard, Long>, OnlineScoreCardRepositoryCustom {
 
 	List<OnlineScoreCard> getByOnlineRound(OnlineRound onlineRound);
 
 	Optional<OnlineScoreCard> findByOnlineRoundAndHole(OnlineRound onlineRound, Integer hole);
+
+	@EntityGraph(attributePaths = {"player"})
+	List<OnlineScoreCard> findByOnlineRoundIdIn(Collection<Long> onlineRoundIds);
+
+	// stored holes of the online rounds
+	@Query("SELECT o.onlineRound.id AS onlineRoundId, o.hole AS hole FROM OnlineScoreCard o WHERE o.onlineRound.id IN :onlineRoundIds")
+	List<OnlineScoreCardHole> getHoles(@Param("onlineRoundIds") Collection<Long> onlineRoundIds);
+
+	// versions of score card changes, taken from one sequence so they are unique and ordered across instances
+	@Query(value = "SELECT nextval('online_score_card_version_seq') FROM generate_series(1, :count)", nativeQuery = true)
+	List<Long> nextVersions(@Param("count") int count);
+
+	@EntityGraph(attributePaths = {"player"})
+	List<OnlineScoreCard> findByOnlineRoundIdentifierAndVersionGreaterThanOrderByVersionAsc(Integer identifier, long version);
+
+	@EntityGraph(attributePaths = {"player"})
+	List<OnlineScoreCard> findByOnlineRoundCourseIdAndVersionGreaterThanOrderByVersionAsc(Long courseId, long version);
 }
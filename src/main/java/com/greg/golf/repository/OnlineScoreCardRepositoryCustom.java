@@ -0,0 +1,11 @@
+package com.greg.golf.repository;
+
+import java.util.List;
+
+import com.greg.golf.entity.OnlineScoreCard;
+
+public interface OnlineScoreCardRepositoryCustom {
+
+	// missing holes are inserted and holes with update flag overwritten in one batch, returns written flag per score card
+	boolean[] upsert(List<OnlineScoreCard> onlineScoreCards);
+}
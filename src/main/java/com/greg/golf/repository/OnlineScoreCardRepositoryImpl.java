@@ -0,0 +1,71 @@
+package com.greg.golf.repository;
+
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+
+import com.greg.golf.entity.OnlineScoreCard;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+
+/**
+ * Upsert relies on the unique constraint on (online_round_id, hole). A stored hole is overwritten only if the score
+ * card has the update flag, otherwise the row is skipped and its update count is 0. Ids are taken from the column
+ * default, which uses the same pooled sequence as Hibernate.
+ */
+@RequiredArgsConstructor
+public class OnlineScoreCardRepositoryImpl implements OnlineScoreCardRepositoryCustom {
+
+	private static final String UPSERT = """
+			INSERT INTO online_score_card (online_round_id, hole, stroke, putt, penalty, player_id, time, version)
+			VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+			ON CONFLICT (online_round_id, hole) DO UPDATE
+			SET stroke = EXCLUDED.stroke, putt = EXCLUDED.putt, penalty = EXCLUDED.penalty, version = EXCLUDED.version
+			WHERE ?""";
+
+	private final EntityManager entityManager;
+
+	@Override
+	public boolean[] upsert(List<OnlineScoreCard> onlineScoreCards) {
+
+		if (onlineScoreCards.isEmpty()) {
+			return new boolean[0];
+		}
+
+		var session = entityManager.unwrap(Session.class);
+		session.flush();
+
+		var written = session.doReturningWork(connection -> {
+			try (var statement = connection.prepareStatement(UPSERT)) {
+				for (var onlineScoreCard : onlineScoreCards) {
+					statement.setLong(1, onlineScoreCard.getOnlineRound().getId());
+					statement.setInt(2, onlineScoreCard.getHole());
+					statement.setObject(3, onlineScoreCard.getStroke(), Types.INTEGER);
+					statement.setObject(4, onlineScoreCard.getPutt(), Types.INTEGER);
+					statement.setObject(5, onlineScoreCard.getPenalty(), Types.INTEGER);
+					statement.setLong(6, onlineScoreCard.getPlayer().getId());
+					statement.setString(7, onlineScoreCard.getTime());
+					statement.setLong(8, onlineScoreCard.getVersion());
+					statement.setBoolean(9, onlineScoreCard.isUpdate());
+					statement.addBatch();
+				}
+
+				var counts = statement.executeBatch();
+				var result = new boolean[counts.length];
+				for (int i = 0; i < counts.length; i++) {
+					// driver not reporting counts of batched rows makes all of them written
+					result[i] = counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO;
+				}
+				return result;
+			}
+		});
+
+		// overwritten rows may be loaded in the persistence context, the same as @Modifying(clearAutomatically = true)
+		if (onlineScoreCards.stream().anyMatch(OnlineScoreCard::isUpdate)) {
+			session.clear();
+		}
+
+		return written;
+	}
+}
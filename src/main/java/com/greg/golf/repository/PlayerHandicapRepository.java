@@ -0,0 +1,30 @@
+package com.greg.golf.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.greg.golf.entity.PlayerHandicap;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PlayerHandicapRepository extends JpaRepository<PlayerHandicap, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO player_handicap (player_id) VALUES (:playerId) ON CONFLICT (player_id) DO NOTHING",
+            nativeQuery = true)
+    void insertIfAbsent(@Param("playerId") Long playerId);
+
+    // ordered by id, so players locked together never deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<PlayerHandicap> findByPlayerIdInOrderByPlayerIdAsc(Collection<Long> playerIds);
+
+    @Modifying
+    @Query("DELETE FROM PlayerHandicap ph WHERE NOT EXISTS (SELECT pr FROM PlayerRound pr WHERE pr.playerId = ph.playerId)")
+    int deleteWithoutRounds();
+}
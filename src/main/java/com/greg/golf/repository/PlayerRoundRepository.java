@@ -1,17 +1,26 @@
 package com.greg.golf.repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.greg.golf.entity.PlayerRound;
+import com.greg.golf.repository.projection.EligibleRound;
+import com.greg.golf.repository.projection.PlayerRoundHcp;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 
 @Repository
 public interface PlayerRoundRepository extends JpaRepository<PlayerRound, Long> {
@@ -27,15 +36,95 @@ public interface PlayerRoundRepository extends JpaRepository<PlayerRound, Long>
 							  @Param("team") Integer team,
 							  @Param("playerId") Long playerId,
 							  @Param("roundId") Long roundId);
+
+	// the same with the packed score card, so it does not need another statement
+	@Transactional(propagation = Propagation.REQUIRED)
+	@Modifying
+	@Query("UPDATE PlayerRound pr SET pr.whs = :whs, pr.teeId = :teeId, pr.sr = :sr, pr.cr = :cr, pr.teeType = :teeType, pr.team = :team, pr.strokes = :strokes, pr.putts = :putts, pr.penalties = :penalties where pr.playerId = :playerId AND pr.roundId = :roundId")
+	void updatePlayerRoundInfo(@Param("whs") Float whs,
+							  @Param("sr") Integer sr,
+							  @Param("cr") Float cr,
+							  @Param("teeId") Long teeId,
+							  @Param("teeType") Integer teeType,
+							  @Param("team") Integer team,
+							  @Param("strokes") Short[] strokes,
+							  @Param("putts") Short[] putts,
+							  @Param("penalties") Short[] penalties,
+							  @Param("playerId") Long playerId,
+							  @Param("roundId") Long roundId);
 	
 	
 	@Transactional(propagation = Propagation.REQUIRED, readOnly = true)
 	@Query("SELECT pr FROM PlayerRound pr WHERE pr.playerId = :playerId AND pr.roundId = :roundId")
 	Optional<PlayerRound> getForPlayerAndRound(@Param("playerId") Long playerId, @Param("roundId") Long roundId);
-	
+
+	@Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+	List<PlayerRound> findByRoundIdIn(Collection<Long> roundIds);
+
+	// scalar values are always read from the database, also after bulk updates in the same transaction
+	@Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+	@Query("SELECT pr.playerId AS playerId, pr.roundId AS roundId, r.roundDate AS roundDate, pr.whs AS whs, pr.cr AS cr, pr.sr AS sr, pr.teeType AS teeType FROM PlayerRound pr, Round r WHERE r.id = pr.roundId AND pr.playerId = :playerId AND pr.roundId = :roundId")
+	Optional<PlayerRoundHcp> getHcpForPlayerAndRound(@Param("playerId") Long playerId, @Param("roundId") Long roundId);
+
+	// the latest rounds of the player having all handicap data, except the given round
+	@Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+	@Query("SELECT pr.playerId AS playerId, pr.roundId AS roundId, r.roundDate AS roundDate, pr.whs AS whs, pr.cr AS cr, pr.sr AS sr, pr.teeType AS teeType FROM PlayerRound pr, Round r WHERE r.id = pr.roundId AND pr.playerId = :playerId AND pr.roundId <> :roundId AND pr.whs IS NOT NULL AND pr.cr IS NOT NULL AND pr.sr IS NOT NULL ORDER BY r.roundDate DESC, r.id DESC")
+	List<PlayerRoundHcp> getLatestHcpForPlayer(@Param("playerId") Long playerId,
+											   @Param("roundId") Long excludedRoundId,
+											   Pageable pageable);
+
+	@Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+	@Query("SELECT pr.playerId AS playerId, pr.roundId AS roundId, r.roundDate AS roundDate, pr.whs AS whs, pr.cr AS cr, pr.sr AS sr, pr.teeType AS teeType FROM PlayerRound pr, Round r WHERE r.id = pr.roundId AND pr.playerId in (:playerIds)")
+	List<PlayerRoundHcp> getHcpForPlayers(@Param("playerIds") Collection<Long> playerIds);
+
+	@Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+	@Query("SELECT DISTINCT pr.playerId FROM PlayerRound pr ORDER BY pr.playerId")
+	List<Long> getPlayerIds();
+
+	@Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+	@Query("SELECT DISTINCT pr.playerId FROM PlayerRound pr WHERE pr.teeId = :teeId ORDER BY pr.playerId")
+	List<Long> getPlayerIdsForTee(@Param("teeId") Long teeId);
+
+	// applies corrected course and slope rating of the tee to rounds played from it
+	@Transactional(propagation = Propagation.REQUIRED)
+	@Modifying
+	@Query("UPDATE PlayerRound pr SET pr.cr = :cr, pr.sr = :sr where pr.teeId = :teeId")
+	int updatePlayerRoundRatings(@Param("teeId") Long teeId,
+								 @Param("cr") Float cr,
+								 @Param("sr") Integer sr);
+
 	@Transactional(propagation = Propagation.REQUIRED, readOnly = true)
 	Optional<List<PlayerRound>> findByRoundIdOrderByPlayerId(Long roundId);
 
+	@Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+	List<PlayerRound> findByTournamentId(Long tournamentId);
+
+	// (round, player) pairs not added to any tournament yet for tournament participants, ordered by round
+	@Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	@Query("SELECT pr.roundId AS roundId, pr.playerId AS playerId FROM PlayerRound pr, TournamentPlayer tp, Round r WHERE tp.tournamentId = :tournamentId AND tp.playerId = pr.playerId AND r.id = pr.roundId AND pr.tournamentId IS NULL AND r.roundDate BETWEEN :startDate AND :endDate ORDER BY r.roundDate DESC, pr.roundId DESC")
+	Stream<EligibleRound> streamEligibleRounds(@Param("tournamentId") Long tournamentId,
+											   @Param("startDate") Date startDate,
+											   @Param("endDate") Date endDate);
+
+	@Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+	@Query("SELECT pr.roundId FROM PlayerRound pr, TournamentPlayer tp, Round r WHERE tp.tournamentId = :tournamentId AND tp.playerId = pr.playerId AND r.id = pr.roundId AND pr.tournamentId IS NULL AND r.roundDate BETWEEN :startDate AND :endDate GROUP BY pr.roundId, r.roundDate ORDER BY r.roundDate DESC, pr.roundId DESC")
+	List<Long> getEligibleRoundIds(@Param("tournamentId") Long tournamentId,
+								   @Param("startDate") Date startDate,
+								   @Param("endDate") Date endDate,
+								   Pageable pageable);
+
+	@Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+	@Query("SELECT pr.roundId AS roundId, pr.playerId AS playerId FROM PlayerRound pr, TournamentPlayer tp WHERE tp.tournamentId = :tournamentId AND tp.playerId = pr.playerId AND pr.tournamentId IS NULL AND pr.roundId in (:roundIds)")
+	List<EligibleRound> getEligibleRounds(@Param("tournamentId") Long tournamentId,
+										  @Param("roundIds") Collection<Long> roundIds);
+
+	@Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+	@Query("SELECT pr FROM PlayerRound pr, TournamentPlayer tp, Round r WHERE tp.tournamentId = :tournamentId AND tp.playerId = pr.playerId AND r.id = pr.roundId AND pr.tournamentId IS NULL AND r.roundDate BETWEEN :startDate AND :endDate")
+	List<PlayerRound> getEligiblePlayerRounds(@Param("tournamentId") Long tournamentId,
+											  @Param("startDate") Date startDate,
+											  @Param("endDate") Date endDate);
+
 	@Transactional(propagation = Propagation.REQUIRED)
 	@Modifying
 	@Query("UPDATE PlayerRound pr SET pr.whs = :whs where pr.playerId = :playerId AND pr.roundId = :roundId")
@@ -0,0 +1,38 @@
+package com.greg.golf.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.greg.golf.entity.PlayerStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface PlayerStatsRepository extends JpaRepository<PlayerStats, Long> {
+
+    // concurrent first rounds of the same player must not fail on the primary key
+    @Modifying
+    @Query(value = "INSERT INTO player_stats (player_id) VALUES (:playerId) ON CONFLICT (player_id) DO NOTHING",
+            nativeQuery = true)
+    void insertIfAbsent(@Param("playerId") Long playerId);
+
+    // returns number of the change, the row stays locked until the change is committed
+    @Transactional
+    @Query(value = "INSERT INTO player_stats (player_id, changes) VALUES (:playerId, 1) ON CONFLICT (player_id) "
+            + "DO UPDATE SET changes = player_stats.changes + 1 RETURNING changes", nativeQuery = true)
+    long countChange(@Param("playerId") Long playerId);
+
+    // ordered by id, so players locked together never deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<PlayerStats> findByPlayerIdInOrderByPlayerIdAsc(Collection<Long> playerIds);
+
+    @Modifying
+    @Query("DELETE FROM PlayerStats ps WHERE NOT EXISTS (SELECT pr FROM PlayerRound pr WHERE pr.playerId = ps.playerId)")
+    int deleteWithoutRounds();
+}
@@ -1,5 +1,6 @@
 package com.greg.golf.repository;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -29,10 +30,31 @@ public interface RoundRepository extends JpaRepository<Round, Long> {
 
 	 @Query("SELECT r.id FROM Round r ORDER BY r.id DESC") 
 	 List<Long> getIdsForPage(Pageable pageable);
+
+	 @Query("SELECT r.id FROM Round r WHERE r.id < :id ORDER BY r.id DESC")
+	 List<Long> getIdsForPageAfter(@Param("id") Long id, Pageable pageable);
+
+	 @EntityGraph(attributePaths = { "course"})
+	 List<Round> findByPlayerOrderByRoundDateDescIdDesc(Player player, Pageable pageable);
+
+	 @EntityGraph(attributePaths = { "course"})
+	 @Query("SELECT r FROM Round r JOIN r.player p WHERE p = :player AND (r.roundDate < :roundDate OR (r.roundDate = :roundDate AND r.id < :id)) ORDER BY r.roundDate DESC, r.id DESC")
+	 List<Round> findByPlayerAfter(@Param("player") Player player, @Param("roundDate") Date roundDate,
+								   @Param("id") Long id, Pageable pageable);
 	 
 	 @EntityGraph(attributePaths = { "course", "player"})
 	 @Query("SELECT r FROM Round r WHERE r.id in (:ids) ORDER BY r.id DESC") 
 	 List<Round> getForIds(@Param("ids") List<Long> ids);
+
+	 @EntityGraph(attributePaths = { "course", "scoreCard"})
+	 @Query("SELECT r FROM Round r WHERE r.id in (:ids)")
+	 List<Round> getWithScoreCardForIds(@Param("ids") Collection<Long> ids);
+
+	 // candidates for merging imported rows, exact course and date pairs are matched by the caller
+	 @EntityGraph(attributePaths = { "player"})
+	 @Query("SELECT r FROM Round r WHERE r.course.id in (:courseIds) AND r.roundDate in (:roundDates) ORDER BY r.id")
+	 List<Round> getForCoursesAndDates(@Param("courseIds") Collection<Long> courseIds,
+									   @Param("roundDates") Collection<Date> roundDates);
 	 
 	 @EntityGraph(attributePaths = { "player"})
      @NonNull
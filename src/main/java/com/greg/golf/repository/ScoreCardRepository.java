@@ -1,15 +1,20 @@
 package com.greg.golf.repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.greg.golf.entity.Player;
 import com.greg.golf.entity.Round;
 import com.greg.golf.entity.ScoreCard;
+import com.greg.golf.repository.projection.ScoreCardRow;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface ScoreCardRepository extends JpaRepository<ScoreCard, Integer> {
@@ -20,4 +25,9 @@ public interface ScoreCardRepository extends JpaRepository<ScoreCard, Integer> {
 	
 	List<ScoreCard> findByRoundAndPlayer(Round round, Player player);
 
+	// score cards of tournament players for rounds added to the tournament
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	@Query("SELECT r.id AS roundId, r.roundDate AS roundDate, p.id AS playerId, p.nick AS nick, sc.hole AS hole, sc.stroke AS stroke, sc.pats AS pats, sc.penalty AS penalty FROM ScoreCard sc JOIN sc.round r JOIN sc.player p, PlayerRound pr WHERE pr.tournamentId = :tournamentId AND pr.roundId = r.id AND pr.playerId = p.id ORDER BY r.roundDate, r.id, p.id, sc.hole")
+	Stream<ScoreCardRow> streamByTournamentId(@Param("tournamentId") Long tournamentId);
+
 }
@@ -2,8 +2,13 @@ package com.greg.golf.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.greg.golf.entity.Tournament;
 
@@ -14,4 +19,12 @@ public interface TournamentRepository extends JpaRepository<Tournament, Long> {
 
     List<Tournament>  findAllByOrderByIdDesc(Pageable pageable);
 
+    List<Tournament> findByIdLessThanOrderByIdDesc(Long id, Pageable pageable);
+
+    // to be called in the transaction changing results, the row lock orders versions as the changes commit
+    @Transactional(propagation = Propagation.REQUIRED)
+    @Modifying
+    @Query(value = "UPDATE tournament SET results_version = results_version + 1 WHERE id = :id", nativeQuery = true)
+    void incrementResultsVersion(@Param("id") Long id);
+
 }
@@ -3,15 +3,22 @@ package com.greg.golf.repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import org.springframework.stereotype.Repository;
 
 import com.greg.golf.entity.Player;
 import com.greg.golf.entity.Tournament;
 import com.greg.golf.entity.TournamentResult;
+import com.greg.golf.repository.projection.TournamentResultRow;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface TournamentResultRepository extends JpaRepository<TournamentResult, Long> {
@@ -29,5 +36,13 @@ public interface TournamentResultRepository extends JpaRepository<TournamentResu
 
 	@EntityGraph(attributePaths = { "player"})
 	List<TournamentResult> findByTournamentAndPlayedRoundsLessThanOrderByPlayedRoundsDescStbNetDesc(Tournament tournament, Integer playedRounds);
-	
+
+	@EntityGraph(attributePaths = { "player"})
+	List<TournamentResult> findByTournamentIdOrderByIdAsc(Long tournamentId);
+
+	// rows are fetched from the cursor in chunks, so the stream has to be consumed in transaction
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	@Query("SELECT tr.id AS id, p.nick AS nick, tr.playedRounds AS playedRounds, tr.strokeRounds AS strokeRounds, tr.stbNet AS stbNet, tr.stbGross AS stbGross, tr.strokesNetto AS strokesNetto, tr.strokesBrutto AS strokesBrutto FROM TournamentResult tr JOIN tr.player p WHERE tr.tournament.id = :tournamentId ORDER BY tr.playedRounds DESC, tr.stbNet DESC, tr.id")
+	Stream<TournamentResultRow> streamByTournamentId(@Param("tournamentId") Long tournamentId);
+
 }
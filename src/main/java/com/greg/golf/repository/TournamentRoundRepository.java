@@ -1,17 +1,35 @@
 package com.greg.golf.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import org.springframework.stereotype.Repository;
 
 import com.greg.golf.entity.TournamentResult;
 import com.greg.golf.entity.TournamentRound;
+import com.greg.golf.repository.projection.TournamentRoundRow;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface TournamentRoundRepository extends JpaRepository<TournamentRound, Long> {
 	
 	List<TournamentRound> findByTournamentResultOrderByIdAsc(TournamentResult tournamentResult);
 
+	List<TournamentRound> findByTournamentResultIn(Collection<TournamentResult> tournamentResults);
+
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	@Query("SELECT t.id AS id, res.id AS tournamentResultId, p.nick AS nick, t.roundId AS roundId, t.courseName AS courseName, t.tee AS tee, t.hcp AS hcp, t.courseHcp AS courseHcp, t.playingHcp AS playingHcp, t.stbNet AS stbNet, t.stbGross AS stbGross, t.strokesNetto AS strokesNetto, t.strokesBrutto AS strokesBrutto, t.strokes AS strokes, t.scrDiff AS scrDiff FROM TournamentRound t JOIN t.tournamentResult res JOIN res.player p WHERE res.tournament.id = :tournamentId ORDER BY res.id, t.id")
+	Stream<TournamentRoundRow> streamByTournamentId(@Param("tournamentId") Long tournamentId);
+
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	@Query("SELECT t.id AS id, res.id AS tournamentResultId, p.nick AS nick, t.roundId AS roundId, t.courseName AS courseName, t.tee AS tee, t.hcp AS hcp, t.courseHcp AS courseHcp, t.playingHcp AS playingHcp, t.stbNet AS stbNet, t.stbGross AS stbGross, t.strokesNetto AS strokesNetto, t.strokesBrutto AS strokesBrutto, t.strokes AS strokes, t.scrDiff AS scrDiff FROM TournamentRound t JOIN t.tournamentResult res JOIN res.player p WHERE res.id = :tournamentResultId ORDER BY t.id")
+	Stream<TournamentRoundRow> streamByTournamentResultId(@Param("tournamentResultId") Long tournamentResultId);
+
 }
@@ -0,0 +1,8 @@
+package com.greg.golf.repository.projection;
+
+@SuppressWarnings("unused")
+public interface EligibleRound {
+
+    Long getRoundId();
+    Long getPlayerId();
+}
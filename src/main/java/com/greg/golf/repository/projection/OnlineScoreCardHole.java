@@ -0,0 +1,8 @@
+package com.greg.golf.repository.projection;
+
+@SuppressWarnings("unused")
+public interface OnlineScoreCardHole {
+
+    Long getOnlineRoundId();
+    Integer getHole();
+}
@@ -0,0 +1,15 @@
+package com.greg.golf.repository.projection;
+
+import java.util.Date;
+
+@SuppressWarnings("unused")
+public interface PlayerRoundHcp {
+
+    Long getPlayerId();
+    Long getRoundId();
+    Date getRoundDate();
+    Float getWhs();
+    Float getCr();
+    Integer getSr();
+    Integer getTeeType();
+}
@@ -0,0 +1,16 @@
+package com.greg.golf.repository.projection;
+
+import java.util.Date;
+
+@SuppressWarnings("unused")
+public interface ScoreCardRow {
+
+    Long getRoundId();
+    Date getRoundDate();
+    Long getPlayerId();
+    String getNick();
+    Integer getHole();
+    Integer getStroke();
+    Integer getPats();
+    Integer getPenalty();
+}
@@ -0,0 +1,14 @@
+package com.greg.golf.repository.projection;
+
+@SuppressWarnings("unused")
+public interface TournamentResultRow {
+
+    Long getId();
+    String getNick();
+    Integer getPlayedRounds();
+    Integer getStrokeRounds();
+    Integer getStbNet();
+    Integer getStbGross();
+    Integer getStrokesNetto();
+    Integer getStrokesBrutto();
+}
@@ -0,0 +1,21 @@
+package com.greg.golf.repository.projection;
+
+@SuppressWarnings("unused")
+public interface TournamentRoundRow {
+
+    Long getId();
+    Long getTournamentResultId();
+    String getNick();
+    Integer getRoundId();
+    String getCourseName();
+    String getTee();
+    Float getHcp();
+    Integer getCourseHcp();
+    Integer getPlayingHcp();
+    Integer getStbNet();
+    Integer getStbGross();
+    Integer getStrokesNetto();
+    Integer getStrokesBrutto();
+    Boolean getStrokes();
+    Float getScrDiff();
+}
@@ -1,13 +1,21 @@
 package com.greg.golf.security;
 
+import com.greg.golf.service.OnlineRoundService;
+import com.greg.golf.service.OnlineScoreCardPublisher;
+import com.greg.golf.service.TournamentLeaderboardPublisher;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.web.socket.EnableWebSocketSecurity;
+import org.springframework.security.messaging.access.intercept.MessageAuthorizationContext;
 import org.springframework.security.messaging.access.intercept.MessageMatcherDelegatingAuthorizationManager;
 
+@Slf4j
 @Configuration
 @EnableWebSocketSecurity
 @SuppressWarnings("unused")
@@ -15,15 +23,44 @@ public class SocketSecurityConfig {
 
 	@SuppressWarnings({"unused", "squid:S1452"})
 	@Bean
-	AuthorizationManager<Message<?>> authorizationManager(MessageMatcherDelegatingAuthorizationManager.Builder messages) {
+	AuthorizationManager<Message<?>> authorizationManager(MessageMatcherDelegatingAuthorizationManager.Builder messages,
+														  @Lazy OnlineRoundService onlineRoundService) {
 		messages
 
+				.simpSubscribeDestMatchers(OnlineScoreCardPublisher.ONLINE_TOPIC + "{identifier}")
+						.access(groupMember(onlineRoundService))
+				.simpSubscribeDestMatchers(OnlineScoreCardPublisher.COURSE_TOPIC + "*",
+						TournamentLeaderboardPublisher.TOPIC + "*").authenticated()
+				// only the server publishes to topics and other topics cannot be subscribed
+				.simpDestMatchers("/topic/**").denyAll()
 				.simpDestMatchers("/websocket/**").authenticated()
 				.anyMessage().authenticated();
 
 		return messages.build();
 	}
 
+	// group topic can be subscribed only by the players of the group
+	private static AuthorizationManager<MessageAuthorizationContext<?>> groupMember(OnlineRoundService onlineRoundService) {
+
+		return (authentication, context) -> {
+
+			var auth = authentication.get();
+			var granted = false;
+
+			if (auth != null && auth.isAuthenticated()) {
+				try {
+					granted = onlineRoundService.isGroupMember(Integer.valueOf(context.getVariables().get("identifier")),
+							Long.valueOf(auth.getName()));
+				} catch (NumberFormatException e) {
+					log.warn("Invalid subscription of {} to online round {}", auth.getName(),
+							context.getVariables().get("identifier"));
+				}
+			}
+
+			return new AuthorizationDecision(granted);
+		};
+	}
+
 	@SuppressWarnings("unused")
 	// workaround to disable csrf for web socket
 	@Bean
@@ -1,5 +1,6 @@
 package com.greg.golf.security;
 
+import com.greg.golf.entity.helpers.Common;
 import com.greg.golf.security.oauth.GolfAuthenticationFailureHandler;
 import com.greg.golf.security.oauth.GolfAuthenticationSuccessHandler;
 import com.greg.golf.security.oauth.GolfOAuth2UserService;
@@ -70,6 +71,13 @@ public class WebSecurityConfiguration implements WebMvcConfigurer {
 		httpSecurity
 			.addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
 
+		// metrics reveal internals of the application, only health is public
+		httpSecurity
+			.authorizeHttpRequests(authorize -> authorize
+					.requestMatchers("/actuator/metrics/**")
+					.hasAuthority(Common.ADMIN)
+			);
+
 		httpSecurity
 			.authorizeHttpRequests(authorize -> authorize
 					.requestMatchers("/rest/Authenticate", "/rest/AddPlayer", "/actuator/**", "/api/**", "/oauth2/**")
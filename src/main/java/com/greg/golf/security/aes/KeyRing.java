@@ -0,0 +1,54 @@
+package com.greg.golf.security.aes;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+/**
+ * Keeps PBKDF2 keys derived for one password, so decryption of the same value does not derive the key again.
+ * Encrypted format, algorithms and iterations are the same as in StringUtility; only derived keys
+ * are kept in memory, bounded by size and time since last access.
+ */
+public class KeyRing {
+
+    private final LoadingCache<ByteBuffer, byte[]> keys;
+
+    public KeyRing(String password, long maxSize, long expireAfterAccessMinutes) {
+
+        keys = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(expireAfterAccessMinutes, TimeUnit.MINUTES)
+                .build(new CacheLoader<>() {
+                    @Override
+                    public byte[] load(ByteBuffer salt) throws GeneralSecurityException {
+                        return StringUtility.deriveKey(password, salt.array());
+                    }
+                });
+    }
+
+    public String decryptString(String base64CiphertextAndNonceAndSalt) throws GeneralSecurityException {
+
+        return StringUtility.decryptString(base64CiphertextAndNonceAndSalt, this::getKey);
+    }
+
+    public long size() {
+        return keys.size();
+    }
+
+    private byte[] getKey(byte[] salt) throws GeneralSecurityException {
+
+        try {
+            return keys.get(ByteBuffer.wrap(salt));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof GeneralSecurityException gse) {
+                throw gse;
+            }
+            throw new GeneralSecurityException(e.getCause());
+        }
+    }
+}
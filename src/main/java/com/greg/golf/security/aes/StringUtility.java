@@ -31,6 +31,7 @@ import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
@@ -92,20 +93,51 @@ public class StringUtility {
         byte[] ciphertextAndNonceAndSalt = Base64.getDecoder().decode(base64CiphertextAndNonceAndSalt);
 
         // Retrieve the salt and ciphertextAndNonce.
-        byte[] salt = new byte[PBKDF2_SALT_SIZE];
-        byte[] ciphertextAndNonce = new byte[ciphertextAndNonceAndSalt.length - PBKDF2_SALT_SIZE];
-        System.arraycopy(ciphertextAndNonceAndSalt, 0, salt, 0, salt.length);
-        System.arraycopy(ciphertextAndNonceAndSalt, salt.length, ciphertextAndNonce, 0, ciphertextAndNonce.length);
+        byte[] salt = getSalt(ciphertextAndNonceAndSalt);
+        byte[] ciphertextAndNonce = getCiphertextAndNonce(ciphertextAndNonceAndSalt);
 
         // Create an instance of PBKDF2 and derive the key.
-        PBEKeySpec pwSpec = new PBEKeySpec(password.toCharArray(), salt, PBKDF2_ITERATIONS, ALGORITHM_KEY_SIZE);
-        SecretKeyFactory keyFactory = SecretKeyFactory.getInstance(PBKDF2_NAME);
-        byte[] key = keyFactory.generateSecret(pwSpec).getEncoded();
+        byte[] key = deriveKey(password, salt);
 
         // Decrypt and return result.
         return new String(decrypt(ciphertextAndNonce, key), StandardCharsets.UTF_8);
     }
 
+    // Decrypts using the key provided for the salt, e.g. already derived one.
+    public static String decryptString(String base64CiphertextAndNonceAndSalt, KeyProvider keyProvider)
+            throws GeneralSecurityException {
+        byte[] ciphertextAndNonceAndSalt = Base64.getDecoder().decode(base64CiphertextAndNonceAndSalt);
+
+        byte[] key = keyProvider.getKey(getSalt(ciphertextAndNonceAndSalt));
+
+        return new String(decrypt(getCiphertextAndNonce(ciphertextAndNonceAndSalt), key), StandardCharsets.UTF_8);
+    }
+
+    public static byte[] deriveKey(String password, byte[] salt)
+            throws NoSuchAlgorithmException,
+                    InvalidKeySpecException {
+        PBEKeySpec pwSpec = new PBEKeySpec(password.toCharArray(), salt, PBKDF2_ITERATIONS, ALGORITHM_KEY_SIZE);
+        SecretKeyFactory keyFactory = SecretKeyFactory.getInstance(PBKDF2_NAME);
+        return keyFactory.generateSecret(pwSpec).getEncoded();
+    }
+
+    private static byte[] getSalt(byte[] ciphertextAndNonceAndSalt) {
+        byte[] salt = new byte[PBKDF2_SALT_SIZE];
+        System.arraycopy(ciphertextAndNonceAndSalt, 0, salt, 0, salt.length);
+        return salt;
+    }
+
+    private static byte[] getCiphertextAndNonce(byte[] ciphertextAndNonceAndSalt) {
+        byte[] ciphertextAndNonce = new byte[ciphertextAndNonceAndSalt.length - PBKDF2_SALT_SIZE];
+        System.arraycopy(ciphertextAndNonceAndSalt, PBKDF2_SALT_SIZE, ciphertextAndNonce, 0, ciphertextAndNonce.length);
+        return ciphertextAndNonce;
+    }
+
+    @FunctionalInterface
+    public interface KeyProvider {
+        byte[] getKey(byte[] salt) throws GeneralSecurityException;
+    }
+
     public static byte[] encrypt(byte[] plaintext, byte[] key)
             throws  InvalidKeyException,
                     InvalidAlgorithmParameterException,
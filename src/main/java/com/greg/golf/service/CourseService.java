@@ -1,5 +1,6 @@
 package com.greg.golf.service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -22,6 +23,8 @@ import com.greg.golf.repository.CourseRepository;
 import com.greg.golf.repository.CourseTeeRepository;
 import com.greg.golf.repository.FavouriteCourseRepository;
 import com.greg.golf.repository.HoleRepository;
+import com.greg.golf.service.helpers.KeysetCursor;
+import com.greg.golf.service.helpers.KeysetPage;
 
 
 import lombok.RequiredArgsConstructor;
@@ -155,6 +158,20 @@ public class CourseService {
 
 	}
 
+	@Transactional(readOnly = true)
+	public List<CourseTee> getTeesByIds(Collection<Long> ids) {
+
+		return courseTeeRepository.findAllById(ids);
+
+	}
+
+	@Transactional(readOnly = true)
+	public List<Course> getWithHolesForIds(Collection<Long> ids) {
+
+		return courseRepository.findByIdIn(ids);
+
+	}
+
 	@Transactional(readOnly = true)
 	public List<Course> getSortedCourses(Integer pageNo) {
 
@@ -162,6 +179,24 @@ public class CourseService {
 				PageRequest.of(pageNo, courseServiceConfig.getPageSize()));
 	}
 
+	// after is the token returned with the previous page, null for the first page
+	@Transactional(readOnly = true)
+	public KeysetPage<Course> getSortedCoursesAfter(String after) {
+
+		var page = PageRequest.of(0, courseServiceConfig.getPageSize());
+		List<Course> courses;
+
+		if (after == null) {
+			courses = courseRepository.findByHistoricalOrderByNameAscIdAsc(false, page);
+		} else {
+			// name is the last value as it may contain the separator
+			var values = KeysetCursor.decode(after, 2);
+			courses = courseRepository.findByHistoricalAfter(false, values[1], Long.valueOf(values[0]), page);
+		}
+
+		return KeysetPage.of(courses, page.getPageSize(), course -> KeysetCursor.encode(course.getId(), course.getName()));
+	}
+
 	@Transactional()
 	public void moveToHistoryCurse(Long courseId) {
 
@@ -1,7 +1,13 @@
 package com.greg.golf.service;
 
 import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
 
 public interface EmailService {
     void sendEmail(String[] to, String subject, String content) throws MessagingException;
+
+    MimeMessage createEmail(String[] to, String subject, String content) throws MessagingException;
+
+    // all messages are sent over one connection
+    void sendEmails(MimeMessage... mails);
 }
@@ -1,6 +1,7 @@
 package com.greg.golf.service;
 
 import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Component;
@@ -14,6 +15,11 @@ public class EmailServiceImpl implements EmailService {
 	private final JavaMailSender javaMailSender;
 
 	public void sendEmail(String[] to, String title, String content) throws MessagingException {
+
+		javaMailSender.send(createEmail(to, title, content));
+	}
+
+	public MimeMessage createEmail(String[] to, String title, String content) throws MessagingException {
 		var mail = javaMailSender.createMimeMessage();
 
 		var helper = new MimeMessageHelper(mail, true);
@@ -22,6 +28,11 @@ public class EmailServiceImpl implements EmailService {
 		helper.setSubject(title);
 		helper.setText(content, true);
 
-		javaMailSender.send(mail);
+		return mail;
+	}
+
+	public void sendEmails(MimeMessage... mails) {
+
+		javaMailSender.send(mails);
 	}
 }
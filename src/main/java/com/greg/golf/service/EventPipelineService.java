@@ -0,0 +1,263 @@
+package com.greg.golf.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import com.greg.golf.configurationproperties.EventPipelineConfig;
+import com.greg.golf.service.events.PlayerRoundEvent;
+import com.greg.golf.service.events.RoundEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Delivers domain events to subscribed handlers outside of the request. Events are taken after the publishing
+ * transaction is committed and put to one of the bounded partition queues by their key (player for player round
+ * events, round for round events), so events of the same key are handled in publishing order. Each partition
+ * is drained by its own virtual thread. Failed handlers are retried with backoff without affecting other handlers
+ * of the event. Lag from publishing to handling is recorded per handler.
+ * Keys of events dropped on a full queue or failed after all attempts are kept per handler and given
+ * to its recovery (e.g. rebuild of the players) periodically, so derived data does not stay wrong.
+ */
+@Slf4j
+@Service("eventPipelineService")
+public class EventPipelineService {
+
+    private final EventPipelineConfig eventPipelineConfig;
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final List<BlockingQueue<Queued>> queues = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+
+    // queued events and events being handled
+    private final AtomicLong depth = new AtomicLong();
+    private final Counter rejectedCounter;
+    private volatile boolean accepting = true;
+
+    public EventPipelineService(EventPipelineConfig eventPipelineConfig, MeterRegistry meterRegistry) {
+
+        this.eventPipelineConfig = eventPipelineConfig;
+        this.meterRegistry = meterRegistry;
+
+        meterRegistry.gauge("events.pipeline.depth", depth);
+        rejectedCounter = meterRegistry.counter("events.pipeline.rejected");
+
+        var threadFactory = Thread.ofVirtual().name("event-pipeline-", 1).factory();
+
+        for (int i = 0; i < eventPipelineConfig.getPartitions(); i++) {
+            var queue = new ArrayBlockingQueue<Queued>(eventPipelineConfig.getQueueCapacity());
+            queues.add(queue);
+            workers.add(threadFactory.newThread(() -> drain(queue)));
+        }
+
+        workers.forEach(Thread::start);
+    }
+
+    // handlers of the same event type are called in order of subscription
+    // events the handler misses are only counted
+    public <E extends ApplicationEvent> void subscribe(Class<E> eventType, String name, Consumer<E> handler) {
+        subscribe(eventType, name, handler, null);
+    }
+
+    // recovery gets keys of events the handler missed
+    public <E extends ApplicationEvent> void subscribe(Class<E> eventType, String name, Consumer<E> handler,
+                                                       Consumer<Set<Long>> recovery) {
+
+        subscribers.computeIfAbsent(eventType, type -> new CopyOnWriteArrayList<>()).add(new Subscriber(name,
+                event -> handler.accept(eventType.cast(event)), recovery, ConcurrentHashMap.newKeySet(),
+                Timer.builder("events.pipeline.lag")
+                        .description("Time from publishing of the event to its handling")
+                        .tag("handler", name)
+                        .register(meterRegistry),
+                meterRegistry.counter("events.pipeline.events", "handler", name, "result", "handled"),
+                meterRegistry.counter("events.pipeline.events", "handler", name, "result", "retried"),
+                meterRegistry.counter("events.pipeline.events", "handler", name, "result", "failed"),
+                meterRegistry.counter("events.pipeline.events", "handler", name, "result", "recovered")));
+
+        log.debug("Handler {} subscribed to {}", name, eventType.getSimpleName());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlayerRoundEvent(PlayerRoundEvent event) {
+        submit(event.getPlayerId(), event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoundEvent(RoundEvent event) {
+        submit(event.getRoundId(), event);
+    }
+
+    // returns false if events are still queued after the timeout (ms)
+    public boolean awaitIdle(long timeout) {
+
+        long deadline = System.currentTimeMillis() + timeout;
+
+        while (depth.get() > 0) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // queued events are processed before the context closes beans used by handlers
+    @EventListener(ContextClosedEvent.class)
+    public void shutdown() {
+
+        accepting = false;
+
+        if (!awaitIdle(eventPipelineConfig.getShutdownTimeout())) {
+            log.warn("Event pipeline stopped with {} events not handled", depth.get());
+        }
+
+        workers.forEach(Thread::interrupt);
+    }
+
+    // keys are taken before the recovery runs, so keys missed in the meantime wait for the next run
+    @Scheduled(fixedDelayString = "${events.recoveryDelay:60000}")
+    public void recover() {
+
+        subscribers.values().forEach(list -> list.forEach(subscriber -> {
+
+            if (subscriber.dropped().isEmpty()) {
+                return;
+            }
+
+            var keys = new HashSet<>(subscriber.dropped());
+            subscriber.dropped().removeAll(keys);
+
+            try {
+                subscriber.recovery().accept(keys);
+                subscriber.recovered().increment(keys.size());
+                log.info("Handler {} recovered {} missed keys", subscriber.name(), keys.size());
+            } catch (RuntimeException e) {
+                subscriber.dropped().addAll(keys);
+                log.error("Handler {} failed to recover {} missed keys", subscriber.name(), keys.size(), e);
+            }
+        }));
+    }
+
+    // delay in ms: retryDelay * 2^(attempts - 1)
+    long getRetryDelay(int attempts) {
+        return eventPipelineConfig.getRetryDelay() << Math.min(attempts - 1, 20);
+    }
+
+    private void submit(Long key, ApplicationEvent event) {
+
+        if (!subscribers.containsKey(event.getClass())) {
+            return;
+        }
+
+        if (!accepting) {
+            rejectedCounter.increment();
+            log.warn("Event pipeline is stopped, {} for {} not handled", event.getClass().getSimpleName(), key);
+            return;
+        }
+
+        var queue = queues.get(Math.floorMod(key.hashCode(), queues.size()));
+        depth.incrementAndGet();
+
+        try {
+            // the publisher is slowed down when handlers do not keep up
+            if (queue.offer(new Queued(key, event), eventPipelineConfig.getOfferTimeout(), TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        depth.decrementAndGet();
+        rejectedCounter.increment();
+        subscribers.get(event.getClass()).forEach(subscriber -> missed(subscriber, key));
+        log.error("Event pipeline queue is full, {} for {} not handled", event.getClass().getSimpleName(), key);
+    }
+
+    private static void missed(Subscriber subscriber, Long key) {
+
+        if (subscriber.recovery() != null) {
+            subscriber.dropped().add(key);
+        }
+    }
+
+    private void drain(BlockingQueue<Queued> queue) {
+
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                var queued = queue.take();
+                try {
+                    subscribers.getOrDefault(queued.event().getClass(), List.of())
+                            .forEach(subscriber -> deliver(subscriber, queued));
+                } finally {
+                    depth.decrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // the partition waits for retries, so later events of the key are never handled before the failed one
+    private void deliver(Subscriber subscriber, Queued queued) {
+
+        var event = queued.event();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                subscriber.handler().accept(event);
+                subscriber.lag().record(System.currentTimeMillis() - event.getTimestamp(), TimeUnit.MILLISECONDS);
+                subscriber.handled().increment();
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= eventPipelineConfig.getMaxAttempts()) {
+                    subscriber.failed().increment();
+                    missed(subscriber, queued.key());
+                    log.error("Handler {} failed to handle {} after {} attempts", subscriber.name(),
+                            event.getClass().getSimpleName(), attempt, e);
+                    return;
+                }
+                subscriber.retried().increment();
+                log.warn("Handler {} will retry {}: {}", subscriber.name(), event.getClass().getSimpleName(),
+                        e.getMessage());
+            }
+
+            try {
+                Thread.sleep(getRetryDelay(attempt));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private record Subscriber(String name, Consumer<ApplicationEvent> handler, Consumer<Set<Long>> recovery,
+                              Set<Long> dropped, Timer lag, Counter handled, Counter retried, Counter failed,
+                              Counter recovered) {
+    }
+
+    private record Queued(Long key, ApplicationEvent event) {
+    }
+}
@@ -6,16 +6,14 @@ import java.util.NoSuchElementException;
 import java.util.Optional;
 
 
-import jakarta.mail.MessagingException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 
 import com.greg.golf.controller.dto.GameSendData;
 import com.greg.golf.entity.Game;
 import com.greg.golf.entity.Player;
+import com.greg.golf.error.GeneralException;
 import com.greg.golf.repository.GameRepository;
 import lombok.RequiredArgsConstructor;
 
@@ -27,8 +25,9 @@ public class GameService {
 	private static final Map<Long, String> gameIdNameMap = Map.of(1L, "Hole Stake Game", 2L, "Bingo, Bango, Bongo Game");
 			
 	private final GameRepository gameRepository;
-	private final EmailServiceImpl emailServiceImpl;
-	private final TemplateEngine templateEngine;
+	private final MailOutboxService mailOutboxService;
+	private final MailRenderingService mailRenderingService;
+	private final PlayerService playerService;
 	
 	@Transactional
 	public void save(Game game) {
@@ -42,19 +41,17 @@ public class GameService {
 		return gameRepository.findByPlayer(player);
 	}
 	
-	@Transactional(readOnly = true)
-	public void sendGameDetail(GameSendData gameSendData) throws MessagingException, NoSuchElementException {
+	// returns id of the mail job
+	@Transactional
+	public String sendGameDetail(GameSendData gameSendData) throws NoSuchElementException, GeneralException {
 		
 		Optional<Game> game = gameRepository.findById(gameSendData.getGameId());
 		log.debug("Game data retrieved");
 		
-		var context = new Context(); 
-		context.setVariable("gameName", gameIdNameMap.get(game.orElseThrow().getGameId()));
-		context.setVariable("game", game.orElseThrow());
-		String body = templateEngine.process("GameDetailsMailTemplate.html", context);
+		String body = mailRenderingService.renderGameDetails(game.orElseThrow(), gameIdNameMap.get(game.orElseThrow().getGameId()));
 		
 		
-		emailServiceImpl.sendEmail(new String[] {gameSendData.getEmail()}, "Game results", body);
+		return mailOutboxService.enqueue(new String[] {playerService.encryptEmail(gameSendData.getEmail())}, "Game results", body);
 	}
 
 }
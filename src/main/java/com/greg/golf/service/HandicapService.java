@@ -0,0 +1,301 @@
+package com.greg.golf.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Lists;
+import com.greg.golf.configurationproperties.HandicapConfig;
+import com.greg.golf.entity.Course;
+import com.greg.golf.entity.HandicapHistory;
+import com.greg.golf.entity.PlayerHandicap;
+import com.greg.golf.entity.Round;
+import com.greg.golf.entity.ScoreCard;
+import com.greg.golf.repository.CourseRepository;
+import com.greg.golf.repository.CourseTeeRepository;
+import com.greg.golf.repository.HandicapHistoryRepository;
+import com.greg.golf.repository.PlayerHandicapRepository;
+import com.greg.golf.repository.PlayerRoundRepository;
+import com.greg.golf.repository.RoundRepository;
+import com.greg.golf.repository.projection.PlayerRoundHcp;
+import com.greg.golf.service.events.PlayerRoundEvent;
+import com.greg.golf.service.helpers.DifferentialWindow;
+import com.greg.golf.service.helpers.HandicapCalculator;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Calculates WHS handicap index of players from their rounds, updated from player round events after
+ * the change is committed. The latest differentials are kept with the player handicap, so a new round
+ * only moves the window and the index is updated without reading earlier rounds. Changes of older rounds, which affect all indexes after them, recalculate
+ * the history of the player. The rebuild recalculates all players (or players of one tee after correction
+ * of its ratings) in parallel chunks.
+ */
+@Slf4j
+@Service("handicapService")
+public class HandicapService {
+
+	private final HandicapConfig handicapConfig;
+	private final PlayerHandicapRepository playerHandicapRepository;
+	private final HandicapHistoryRepository handicapHistoryRepository;
+	private final PlayerRoundRepository playerRoundRepository;
+	private final RoundRepository roundRepository;
+	private final CourseRepository courseRepository;
+	private final CourseTeeRepository courseTeeRepository;
+	private final PlayerStatsService playerStatsService;
+	private final TournamentService tournamentService;
+	private final HandicapService self;
+	private final ThreadPoolExecutor executor;
+
+	@SuppressWarnings("java:S107")
+	public HandicapService(HandicapConfig handicapConfig,
+						   PlayerHandicapRepository playerHandicapRepository,
+						   HandicapHistoryRepository handicapHistoryRepository,
+						   PlayerRoundRepository playerRoundRepository,
+						   RoundRepository roundRepository,
+						   CourseRepository courseRepository,
+						   CourseTeeRepository courseTeeRepository,
+						   PlayerStatsService playerStatsService,
+						   EventPipelineService eventPipelineService,
+						   @Lazy TournamentService tournamentService,
+						   @Lazy HandicapService self) {
+		this.handicapConfig = handicapConfig;
+		this.playerHandicapRepository = playerHandicapRepository;
+		this.handicapHistoryRepository = handicapHistoryRepository;
+		this.playerRoundRepository = playerRoundRepository;
+		this.roundRepository = roundRepository;
+		this.courseRepository = courseRepository;
+		this.courseTeeRepository = courseTeeRepository;
+		this.playerStatsService = playerStatsService;
+		this.tournamentService = tournamentService;
+		this.self = self;
+
+		var threadCnt = new AtomicInteger();
+
+		executor = new ThreadPoolExecutor(handicapConfig.getRebuildThreads(),
+				handicapConfig.getRebuildThreads(), 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(handicapConfig.getRebuildThreads()),
+				runnable -> new Thread(runnable, "handicap-rebuild-" + threadCnt.incrementAndGet()),
+				// when queue is full the calling thread rebuilds the chunk itself
+				new ThreadPoolExecutor.CallerRunsPolicy());
+
+		eventPipelineService.subscribe(PlayerRoundEvent.class, "handicap", self::handlePlayerRoundEvent,
+				self::rebuildPlayers);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	// players without counted rounds get handicap without index
+	@Transactional(readOnly = true)
+	public PlayerHandicap getHandicap(Long playerId) {
+
+		return playerHandicapRepository.findById(playerId).orElseGet(() -> {
+			var handicap = new PlayerHandicap();
+			handicap.setPlayerId(playerId);
+			return handicap;
+		});
+	}
+
+	// the latest first
+	@Transactional(readOnly = true)
+	public List<HandicapHistory> getHistory(Long playerId) {
+		return handicapHistoryRepository.findByPlayerIdOrderByRoundDateDescRoundIdDesc(playerId);
+	}
+
+	// events of the player come in order, recalculation reads rounds which may already reflect later changes
+	@Transactional
+	public void handlePlayerRoundEvent(PlayerRoundEvent event) {
+
+		var playerId = event.getPlayerId();
+
+		if (event.getChange() == PlayerRoundEvent.Change.REMOVED) {
+			if (handicapHistoryRepository.existsByPlayerIdAndRoundId(playerId, event.getRoundId())) {
+				// the round is excluded, if it was only changed it comes back with its ADDED event
+				recalculate(lockHandicaps(List.of(playerId)), event.getRoundId());
+			}
+			return;
+		}
+
+		var differential = getDifferential(event);
+
+		if (differential == null) {
+			log.debug("Round {} of player {} not counted to handicap", event.getRoundId(), playerId);
+			return;
+		}
+
+		var handicap = lockHandicaps(List.of(playerId)).getFirst();
+		var window = DifferentialWindow.of(handicap, HandicapCalculator.WINDOW_SIZE);
+
+		if (window.isNewest(event.getRoundId(), event.getRoundDate())) {
+			var lowIndex = handicapHistoryRepository.getLowIndex(playerId, HandicapCalculator.WINDOW_SIZE,
+					HandicapCalculator.lowIndexFrom(event.getRoundDate()));
+			var history = handicapHistoryRepository.save(HandicapCalculator.add(playerId, differential, window,
+					lowIndex));
+			window.storeTo(handicap);
+			handicap.setHandicapIndex(history.getHandicapIndex());
+			log.debug("Handicap index of player {} updated to {}", playerId, handicap.getHandicapIndex());
+		} else {
+			// older round changes all indexes calculated after it
+			recalculate(List.of(handicap), null);
+		}
+	}
+
+	// teeId is given after correction of the tee ratings, only players who played from it are recalculated
+	public int rebuild(Long teeId) {
+
+		long startTime = System.currentTimeMillis();
+		List<Long> playerIds;
+
+		if (teeId == null) {
+			self.deleteWithoutRounds();
+			playerIds = playerRoundRepository.getPlayerIds();
+		} else {
+			self.applyTeeRatings(teeId);
+			// tournament simulations read ratings of player rounds
+			tournamentService.evictSimulations();
+			playerIds = playerRoundRepository.getPlayerIdsForTee(teeId);
+			// Stableford in player statistics depends on ratings as well
+			playerStatsService.rebuild(playerIds);
+		}
+
+		rebuildPlayers(playerIds);
+
+		log.info("Handicap index of {} players recalculated in {} ms", playerIds.size(),
+				System.currentTimeMillis() - startTime);
+
+		return playerIds.size();
+	}
+
+	public void rebuildPlayers(Collection<Long> playerIds) {
+
+		var futures = Lists.partition(new ArrayList<>(playerIds), handicapConfig.getRebuildChunkSize())
+				.stream()
+				.map(chunk -> CompletableFuture.runAsync(() -> self.rebuildChunk(chunk), executor))
+				.toList();
+
+		futures.forEach(CompletableFuture::join);
+	}
+
+	@Transactional
+	public void applyTeeRatings(Long teeId) {
+
+		var courseTee = courseTeeRepository.findById(teeId).orElseThrow();
+		int updated = playerRoundRepository.updatePlayerRoundRatings(teeId, courseTee.getCr(), courseTee.getSr());
+
+		log.info("Ratings of tee {} applied to {} player rounds", teeId, updated);
+	}
+
+	@Transactional
+	public void deleteWithoutRounds() {
+
+		handicapHistoryRepository.deleteWithoutRounds();
+		playerHandicapRepository.deleteWithoutRounds();
+	}
+
+	// handicaps are locked before rounds are read, so concurrent changes are applied after the rebuild
+	@Transactional
+	public void rebuildChunk(List<Long> playerIds) {
+
+		recalculate(lockHandicaps(playerIds), null);
+
+		log.debug("Handicap index of players {} - {} recalculated", playerIds.getFirst(), playerIds.getLast());
+	}
+
+	private void recalculate(List<PlayerHandicap> handicaps, Long excludedRoundId) {
+
+		var playerIds = handicaps.stream().map(PlayerHandicap::getPlayerId).toList();
+		var hcps = playerRoundRepository.getHcpForPlayers(playerIds)
+				.stream()
+				.filter(hcp -> !hcp.getRoundId().equals(excludedRoundId))
+				.toList();
+		var differentials = getDifferentials(hcps);
+
+		handicapHistoryRepository.deleteByPlayerIds(playerIds);
+
+		var history = new ArrayList<HandicapHistory>();
+
+		for (PlayerHandicap handicap : handicaps) {
+
+			var window = new DifferentialWindow(HandicapCalculator.WINDOW_SIZE);
+			var playerHistory = HandicapCalculator.history(handicap.getPlayerId(),
+					differentials.getOrDefault(handicap.getPlayerId(), List.of()), window);
+
+			window.storeTo(handicap);
+			handicap.setHandicapIndex(playerHistory.isEmpty() ? null : playerHistory.getLast().getHandicapIndex());
+			history.addAll(playerHistory);
+		}
+
+		handicapHistoryRepository.saveAll(history);
+	}
+
+	private List<PlayerHandicap> lockHandicaps(List<Long> playerIds) {
+
+		playerIds.forEach(playerHandicapRepository::insertIfAbsent);
+		return playerHandicapRepository.findByPlayerIdInOrderByPlayerIdAsc(playerIds);
+	}
+
+	private HandicapCalculator.Differential getDifferential(PlayerRoundEvent event) {
+
+		var course = courseRepository.findByIdIn(List.of(event.getCourseId())).getFirst();
+
+		return HandicapCalculator.differential(event.getRoundId(), event.getRoundDate(), course, event.getScoreCards(),
+				event.getWhs(), event.getCr(), event.getSr(), event.getTeeType());
+	}
+
+	// counted differentials by player
+	private Map<Long, List<HandicapCalculator.Differential>> getDifferentials(List<PlayerRoundHcp> hcps) {
+
+		var differentials = new HashMap<Long, List<HandicapCalculator.Differential>>();
+
+		if (hcps.isEmpty()) {
+			return differentials;
+		}
+
+		Map<Long, Round> rounds = roundRepository
+				.getWithScoreCardForIds(hcps.stream().map(PlayerRoundHcp::getRoundId).collect(Collectors.toSet()))
+				.stream()
+				.collect(Collectors.toMap(Round::getId, Function.identity()));
+		// fetched with holes, so rounds get initialized courses from the persistence context
+		Map<Long, Course> courses = courseRepository
+				.findByIdIn(rounds.values().stream().map(round -> round.getCourse().getId()).collect(Collectors.toSet()))
+				.stream()
+				.collect(Collectors.toMap(Course::getId, Function.identity()));
+
+		var roundCards = new HashMap<Long, Map<Long, List<ScoreCard>>>();
+
+		for (PlayerRoundHcp hcp : hcps) {
+
+			var round = rounds.get(hcp.getRoundId());
+			var scoreCards = roundCards
+					.computeIfAbsent(round.getId(), id -> round.getScoreCard()
+							.stream()
+							.collect(Collectors.groupingBy(sc -> sc.getPlayer().getId())))
+					.getOrDefault(hcp.getPlayerId(), List.of());
+
+			var differential = HandicapCalculator.differential(round.getId(), round.getRoundDate(),
+					courses.get(round.getCourse().getId()), scoreCards, hcp.getWhs(), hcp.getCr(), hcp.getSr(),
+					hcp.getTeeType());
+
+			if (differential != null) {
+				differentials.computeIfAbsent(hcp.getPlayerId(), id -> new ArrayList<>()).add(differential);
+			}
+		}
+
+		return differentials;
+	}
+}
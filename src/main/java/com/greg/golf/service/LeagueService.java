@@ -5,18 +5,16 @@ import com.greg.golf.controller.dto.LeagueResultDto;
 import com.greg.golf.entity.*;
 import com.greg.golf.error.*;
 import com.greg.golf.repository.*;
+import com.greg.golf.service.helpers.KeysetCursor;
+import com.greg.golf.service.helpers.KeysetPage;
 import com.greg.golf.service.helpers.RoleVerification;
-import jakarta.mail.MessagingException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @Slf4j
@@ -40,9 +38,9 @@ public class LeagueService {
 
     private final PlayerService playerService;
 
-    private final EmailServiceImpl emailServiceImpl;
+    private final MailOutboxService mailOutboxService;
 
-    private final TemplateEngine templateEngine;
+    private final MailRenderingService mailRenderingService;
 
     @Transactional
     public void addLeague(League league) {
@@ -55,6 +53,18 @@ public class LeagueService {
         return leagueRepository.findAllByOrderByIdDesc(PageRequest.of(pageNo, leagueServiceConfig.getPageSize()));
     }
 
+    // after is the token returned with the previous page, null for the first page
+    @Transactional(readOnly = true)
+    public KeysetPage<League> findLeaguesAfter(String after) {
+
+        var page = PageRequest.of(0, leagueServiceConfig.getPageSize());
+        var leagues = after == null
+                ? leagueRepository.findAllByOrderByIdDesc(page)
+                : leagueRepository.findByIdLessThanOrderByIdDesc(Long.valueOf(KeysetCursor.decode(after, 1)[0]), page);
+
+        return KeysetPage.of(leagues, page.getPageSize(), league -> KeysetCursor.encode(league.getId()));
+    }
+
     @Transactional
     public void addPlayer(LeaguePlayer leaguePlayer) throws DuplicatePlayerInLeagueException, UnauthorizedException {
 
@@ -201,25 +211,17 @@ public class LeagueService {
 
     }
 
-    @Transactional(readOnly = true)
-    public int processNotifications(Long leagueId, LeagueResultDto[] leagueResultDto) throws GeneralException {
+    // returns id of the mail job or null if there is nobody to notify
+    @Transactional
+    public String processNotifications(Long leagueId, LeagueResultDto[] leagueResultDto) throws GeneralException {
 
-        int sentNotifications = 0;
+        String jobId = null;
 
         var notifications = leagueNotificationRepository.findByLeagueId(leagueId);
 
         if (!notifications.isEmpty()) {
 
-            var recipients = new ArrayList<String>();
-
-            notifications.forEach(notification -> {
-
-                var email = playerService.getEmail(notification.getPlayerId());
-
-                if (email != null) {
-                    recipients.add(email);
-                }
-            });
+            var recipients = playerService.getEncryptedEmails(notifications.stream().map(LeagueNotification::getPlayerId).toList());
 
             if (!recipients.isEmpty()) {
 
@@ -228,22 +230,12 @@ public class LeagueService {
                 // only tournament owner can do it
                 RoleVerification.verifyPlayer(league.orElseThrow().getPlayer().getId(), "Attempt to process notifications by unauthorized user");
 
-                var context = new Context();
-                context.setVariable("results", leagueResultDto);
-                context.setVariable("leagueName", league.orElseThrow().getName());
-
-
-                String body = templateEngine.process("LeagueResultsTemplate.html", context);
+                String body = mailRenderingService.renderLeagueResults(leagueId, league.orElseThrow().getName(), leagueResultDto);
 
-                try {
-                    emailServiceImpl.sendEmail(recipients.toArray(new String[0]), "Tournament results updated - " + league.orElseThrow().getName(), body);
-                    sentNotifications++;
-                } catch (MessagingException e) {
-                    throw new GeneralException();
-                }
+                jobId = mailOutboxService.enqueue(recipients.toArray(new String[0]), "Tournament results updated - " + league.orElseThrow().getName(), body);
             }
         }
-        return sentNotifications;
+        return jobId;
     }
 
     @Transactional
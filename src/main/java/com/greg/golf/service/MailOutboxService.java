@@ -0,0 +1,290 @@
+package com.greg.golf.service;
+
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import com.greg.golf.configurationproperties.MailOutboxConfig;
+import com.greg.golf.entity.MailOutbox;
+import com.greg.golf.error.UnauthorizedException;
+import com.greg.golf.repository.MailOutboxRepository;
+import com.greg.golf.security.aes.KeyRing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Persistent queue of outgoing emails. Callers only store the email in the outbox (in their own transaction)
+ * and get the job id back. Scheduled dispatcher sends pending chunks of recipients as BCC emails, one
+ * connection per batch, and retries failed chunks with exponential backoff until maxAttempts is reached.
+ * Recipients are kept encrypted with the player email key and decrypted just before sending. Sent and failed
+ * chunks are purged after the retention period.
+ */
+@Slf4j
+@Service("mailOutboxService")
+public class MailOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final MailOutboxRepository mailOutboxRepository;
+    private final EmailService emailService;
+    private final MailOutboxConfig mailOutboxConfig;
+    private final KeyRing emailKeyRing;
+    private final MailOutboxService self;
+
+    private final AtomicLong depth = new AtomicLong();
+    private final Timer latency;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+
+    public MailOutboxService(MailOutboxRepository mailOutboxRepository, EmailService emailService,
+                             MailOutboxConfig mailOutboxConfig, KeyRing emailKeyRing, MeterRegistry meterRegistry,
+                             @Lazy MailOutboxService self) {
+
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.emailService = emailService;
+        this.mailOutboxConfig = mailOutboxConfig;
+        this.emailKeyRing = emailKeyRing;
+        this.self = self;
+
+        meterRegistry.gauge("mail.outbox.depth", depth);
+        latency = Timer.builder("mail.outbox.latency")
+                .description("Time from enqueue to successful send")
+                .register(meterRegistry);
+        sentCounter = meterRegistry.counter("mail.outbox.chunks", "result", "sent");
+        retriedCounter = meterRegistry.counter("mail.outbox.chunks", "result", "retried");
+        failedCounter = meterRegistry.counter("mail.outbox.chunks", "result", "failed");
+    }
+
+    // recipients must be encrypted the same way as player emails
+    @Transactional
+    public String enqueue(String[] encryptedTo, String subject, String content) {
+
+        var jobId = UUID.randomUUID().toString();
+        var now = new Date();
+        var ownerId = getCurrentPlayerId();
+        var chunks = new ArrayList<MailOutbox>();
+
+        for (int i = 0; i < encryptedTo.length; i += mailOutboxConfig.getBccChunkSize()) {
+
+            var mailOutbox = new MailOutbox();
+            mailOutbox.setJobId(jobId);
+            mailOutbox.setOwnerId(ownerId);
+            mailOutbox.setRecipients(Arrays.copyOfRange(encryptedTo, i,
+                    Math.min(encryptedTo.length, i + mailOutboxConfig.getBccChunkSize())));
+            mailOutbox.setSubject(subject);
+            mailOutbox.setContent(content);
+            mailOutbox.setStatus(MailOutbox.Status.PENDING);
+            mailOutbox.setAttempts(0);
+            mailOutbox.setCreated(now);
+            mailOutbox.setNextAttempt(now);
+            chunks.add(mailOutbox);
+        }
+
+        mailOutboxRepository.saveAll(chunks);
+        depth.addAndGet(chunks.size());
+
+        log.debug("Mail job {} queued in {} chunk(s)", jobId, chunks.size());
+
+        return jobId;
+    }
+
+    // only the player who queued the job can read its state
+    @Transactional(readOnly = true)
+    public List<MailOutbox> getJob(String jobId) throws UnauthorizedException {
+
+        var chunks = mailOutboxRepository.findByJobIdOrderByIdAsc(jobId);
+
+        if (!chunks.isEmpty()) {
+            var ownerId = chunks.getFirst().getOwnerId();
+            if (ownerId == null || !ownerId.equals(getCurrentPlayerId())) {
+                log.error("Attempt to read mail job {} by unauthorized user", jobId);
+                throw new UnauthorizedException();
+            }
+        }
+
+        return chunks;
+    }
+
+    @Scheduled(cron = "0 30 0 * * *")
+    @Transactional
+    public void purge() {
+
+        var created = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(mailOutboxConfig.getRetention()));
+        int purged = mailOutboxRepository.deleteByStatusInAndCreatedBefore(
+                List.of(MailOutbox.Status.SENT, MailOutbox.Status.FAILED), created);
+
+        log.info("Purge job for mail outbox executed, {} chunk(s) removed", purged);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.pollDelay:5000}")
+    public void dispatch() {
+
+        if (!mailOutboxConfig.getDispatchEnabled()) {
+            return;
+        }
+
+        List<MailOutbox> batch;
+        do {
+            batch = self.claim();
+            if (!batch.isEmpty()) {
+                self.complete(batch, send(batch));
+            }
+        } while (batch.size() == mailOutboxConfig.getBatchSize());
+
+        depth.set(mailOutboxRepository.countByStatus(MailOutbox.Status.PENDING));
+    }
+
+    // due chunks are leased for sendTimeout so they are not sent twice, and retried if completion never happens
+    @Transactional
+    public List<MailOutbox> claim() {
+
+        var now = new Date();
+        var batch = mailOutboxRepository.findByStatusAndNextAttemptLessThanEqualOrderByIdAsc(MailOutbox.Status.PENDING,
+                now, PageRequest.of(0, mailOutboxConfig.getBatchSize()));
+
+        var lease = new Date(now.getTime() + TimeUnit.SECONDS.toMillis(mailOutboxConfig.getSendTimeout()));
+        batch.forEach(mailOutbox -> mailOutbox.setNextAttempt(lease));
+
+        return batch;
+    }
+
+    @Transactional
+    public void complete(List<MailOutbox> batch, Map<Long, String> errors) {
+
+        var now = new Date();
+
+        for (var mailOutbox : batch) {
+
+            mailOutbox.setAttempts(mailOutbox.getAttempts() + 1);
+            var error = errors.get(mailOutbox.getId());
+
+            if (error == null) {
+                mailOutbox.setStatus(MailOutbox.Status.SENT);
+                mailOutbox.setSent(now);
+                mailOutbox.setLastError(null);
+                latency.record(now.getTime() - mailOutbox.getCreated().getTime(), TimeUnit.MILLISECONDS);
+                sentCounter.increment();
+            } else {
+                mailOutbox.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+                if (mailOutbox.getAttempts() >= mailOutboxConfig.getMaxAttempts()) {
+                    mailOutbox.setStatus(MailOutbox.Status.FAILED);
+                    failedCounter.increment();
+                    log.error("Mail job {} chunk {} failed after {} attempts: {}", mailOutbox.getJobId(),
+                            mailOutbox.getId(), mailOutbox.getAttempts(), error);
+                } else {
+                    mailOutbox.setNextAttempt(new Date(now.getTime() + getRetryDelay(mailOutbox.getAttempts())));
+                    retriedCounter.increment();
+                    log.warn("Mail job {} chunk {} will be retried: {}", mailOutbox.getJobId(), mailOutbox.getId(), error);
+                }
+            }
+        }
+
+        mailOutboxRepository.saveAll(batch);
+    }
+
+    // delay in ms: retryDelay * 2^(attempts - 1) capped by maxRetryDelay
+    long getRetryDelay(int attempts) {
+
+        long delay = (long) mailOutboxConfig.getRetryDelay() << Math.min(attempts - 1, 20);
+        return TimeUnit.SECONDS.toMillis(Math.min(delay, mailOutboxConfig.getMaxRetryDelay()));
+    }
+
+    // key derivation makes decryption costly, so chunks of the batch are decrypted in parallel
+    private Map<Long, Recipients> decrypt(List<MailOutbox> batch) {
+
+        return batch.parallelStream().collect(Collectors.toMap(MailOutbox::getId, this::decrypt));
+    }
+
+    private Recipients decrypt(MailOutbox mailOutbox) {
+
+        var recipients = new String[mailOutbox.getRecipients().length];
+        try {
+            for (int i = 0; i < recipients.length; i++) {
+                recipients[i] = emailKeyRing.decryptString(mailOutbox.getRecipients()[i]);
+            }
+            return new Recipients(recipients, null);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            return new Recipients(null, String.valueOf(e.getMessage()));
+        }
+    }
+
+    private static Long getCurrentPlayerId() {
+
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? null : Long.valueOf(authentication.getName());
+    }
+
+    // sends the batch over one connection and returns errors by outbox id
+    private Map<Long, String> send(List<MailOutbox> batch) {
+
+        var errors = new HashMap<Long, String>();
+        // MimeMessage does not override equals, so failed messages are matched by identity
+        var messages = new LinkedHashMap<MimeMessage, MailOutbox>();
+
+        var decrypted = decrypt(batch);
+
+        for (var mailOutbox : batch) {
+            var recipients = decrypted.get(mailOutbox.getId());
+            if (recipients.error() != null) {
+                errors.put(mailOutbox.getId(), recipients.error());
+                continue;
+            }
+            try {
+                var message = emailService.createEmail(recipients.emails(), mailOutbox.getSubject(),
+                        mailOutbox.getContent());
+                messages.put(message, mailOutbox);
+            } catch (MessagingException | IllegalArgumentException e) {
+                errors.put(mailOutbox.getId(), e.getMessage());
+            }
+        }
+
+        if (messages.isEmpty()) {
+            return errors;
+        }
+
+        try {
+            emailService.sendEmails(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                messages.values().forEach(mailOutbox -> errors.put(mailOutbox.getId(), String.valueOf(e.getMessage())));
+            } else {
+                e.getFailedMessages().forEach((message, exception) -> {
+                    var mailOutbox = messages.get(message);
+                    if (mailOutbox != null) {
+                        errors.put(mailOutbox.getId(), String.valueOf(exception.getMessage()));
+                    }
+                });
+            }
+        } catch (MailException e) {
+            messages.values().forEach(mailOutbox -> errors.put(mailOutbox.getId(), String.valueOf(e.getMessage())));
+        }
+
+        return errors;
+    }
+
+    // decrypted emails of the chunk or the error which prevents sending it
+    private record Recipients(String[] emails, String error) {
+    }
+}
@@ -0,0 +1,128 @@
+package com.greg.golf.service;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.greg.golf.configurationproperties.MailOutboxConfig;
+import com.greg.golf.controller.dto.LeagueResultDto;
+import com.greg.golf.entity.Game;
+import com.greg.golf.entity.TournamentResult;
+import com.greg.golf.error.GeneralException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.exceptions.TemplateProcessingException;
+
+/**
+ * Renders result emails. Rendered bodies are kept in a bounded cache keyed by the source of the results
+ * and its version, so notifying again about unchanged results does not render the template again.
+ * Parsed templates are cached by Thymeleaf itself (spring.thymeleaf.cache) and warmed up on start.
+ */
+@Slf4j
+@Service("mailRenderingService")
+public class MailRenderingService {
+
+    public static final String TOURNAMENT_RESULTS_TEMPLATE = "TournamentResultsTemplate.html";
+    public static final String LEAGUE_RESULTS_TEMPLATE = "LeagueResultsTemplate.html";
+    public static final String GAME_DETAILS_TEMPLATE = "GameDetailsMailTemplate.html";
+
+    private final TemplateEngine templateEngine;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, String> bodies;
+
+    public MailRenderingService(TemplateEngine templateEngine, MeterRegistry meterRegistry,
+                                MailOutboxConfig mailOutboxConfig) {
+
+        this.templateEngine = templateEngine;
+        this.meterRegistry = meterRegistry;
+
+        bodies = CacheBuilder.newBuilder()
+                .maximumSize(mailOutboxConfig.getBodyCacheSize())
+                .expireAfterAccess(1, TimeUnit.HOURS)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, bodies, "mailBodies");
+    }
+
+    // parses templates into Thymeleaf cache before the first notification
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+
+        for (var template : List.of(TOURNAMENT_RESULTS_TEMPLATE, LEAGUE_RESULTS_TEMPLATE, GAME_DETAILS_TEMPLATE)) {
+            try {
+                templateEngine.process(template, new Context());
+            } catch (TemplateProcessingException e) {
+                // template is already parsed and cached, only processing without variables failed
+                log.debug("Template {} warmed up without processing: {}", template, e.getMessage());
+            }
+        }
+    }
+
+    // version changes whenever the leaderboard is rebuilt
+    public String renderTournamentResults(Long tournamentId, long version, int sort, String tournamentName,
+                                          List<TournamentResult> results) {
+
+        return render("tournament:" + tournamentId + ":" + version + ":" + sort + ":" + tournamentName,
+                TOURNAMENT_RESULTS_TEMPLATE, () -> {
+                    var context = new Context();
+                    context.setVariable("results", results);
+                    context.setVariable("tournamentName", tournamentName);
+                    return context;
+                });
+    }
+
+    // league results are provided by the caller, so the results themselves are the version
+    public String renderLeagueResults(Long leagueId, String leagueName, LeagueResultDto[] results) {
+
+        var key = new StringBuilder("league:").append(leagueId).append(':').append(leagueName);
+        for (var result : results) {
+            key.append(':').append(result.getNick()).append(',').append(result.getMatchesPlayed())
+                    .append(',').append(result.getBig()).append(',').append(result.getSmall());
+        }
+
+        return render(key.toString(), LEAGUE_RESULTS_TEMPLATE, () -> {
+            var context = new Context();
+            context.setVariable("results", results);
+            context.setVariable("leagueName", leagueName);
+            return context;
+        });
+    }
+
+    // saved games are not modified
+    public String renderGameDetails(Game game, String gameName) {
+
+        return render("game:" + game.getId(), GAME_DETAILS_TEMPLATE, () -> {
+            var context = new Context();
+            context.setVariable("gameName", gameName);
+            context.setVariable("game", game);
+            return context;
+        });
+    }
+
+    private String render(String key, String template, Supplier<Context> context) {
+
+        try {
+            return bodies.get(key, () -> Timer.builder("mail.template.render")
+                    .description("Time of rendering email body")
+                    .tag("template", template)
+                    .register(meterRegistry)
+                    .recordCallable(() -> templateEngine.process(template, context.get())));
+        } catch (ExecutionException e) {
+            log.error("Rendering of {} failed: {}", template, e.getCause().getMessage());
+            throw new GeneralException();
+        } catch (UncheckedExecutionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
+}
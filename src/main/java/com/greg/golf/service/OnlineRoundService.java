@@ -1,18 +1,24 @@
 package com.greg.golf.service;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Deque;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Set;
 import java.util.TreeSet;
+import java.util.stream.Collectors;
 
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.annotation.Lazy;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.greg.golf.configurationproperties.OnlineRoundServiceConfig;
+import com.greg.golf.configurationproperties.WebSocketBrokerConfig;
 import com.greg.golf.entity.Course;
 import com.greg.golf.entity.CourseTee;
 import com.greg.golf.entity.OnlineRound;
@@ -22,6 +28,7 @@ import com.greg.golf.entity.Round;
 import com.greg.golf.entity.ScoreCard;
 import com.greg.golf.repository.OnlineRoundRepository;
 import com.greg.golf.repository.OnlineScoreCardRepository;
+import com.greg.golf.repository.projection.OnlineScoreCardHole;
 
 import lombok.RequiredArgsConstructor;
 
@@ -30,18 +37,33 @@ import lombok.RequiredArgsConstructor;
 @Service("onlineRoundService")
 public class OnlineRoundService {
 
+	private final OnlineRoundServiceConfig onlineRoundServiceConfig;
 	private final OnlineRoundRepository onlineRoundRepository;
 	private final OnlineScoreCardRepository onlineScoreCardRepository;
+	private final OnlineScoreCardStore onlineScoreCardStore;
 	private final RoundService roundService;
+	private final WebSocketBrokerConfig webSocketBrokerConfig;
 
-	@Lazy
-	private final OnlineRoundService self;
+	// versions fetched from the sequence and not used yet
+	private final Deque<Long> versions = new ArrayDeque<>();
+
+	// holes kept in memory are seen by one instance only - with more instances another one would finish
+	// the round without them and answer reads and syncs from its own memory
+	@PostConstruct
+	public void verifyWriteBehind() {
+
+		if (isWriteBehind() && webSocketBrokerConfig.getMode() != WebSocketBrokerConfig.Mode.SIMPLE) {
+			throw new IllegalStateException("online.writeBehind requires broker.mode simple (single instance), found "
+					+ webSocketBrokerConfig.getMode());
+		}
+	}
 
 	@Scheduled(cron = "0 0 0 * * * ")
 	@Transactional
 	public void purge() {
 		log.info("Purge job for online rounds executed");
 		onlineRoundRepository.deleteAll();
+		onlineScoreCardStore.clear();
 	}
 
 	@Transactional
@@ -54,17 +76,30 @@ public class OnlineRoundService {
 
 	}
 
+	// returns score cards which have been written and have to be sent to other clients
 	@Transactional
 	public List<OnlineScoreCard> syncOnlineScoreCards(List<OnlineScoreCard> onlineScoreCards) {
 
-		onlineScoreCards.forEach(this::syncOnlineScoreCard);
+		if (isWriteBehind()) {
+			onlineScoreCards.forEach(this::syncLiveScoreCard);
+		} else {
+			upsertOnlineScoreCards(onlineScoreCards);
+		}
 
-		return onlineScoreCards;
+		return onlineScoreCards.stream().filter(OnlineScoreCard::isSyncRequired).toList();
 	}
 
 	@Transactional
 	public OnlineScoreCard saveOnlineScoreCard(OnlineScoreCard onlineScoreCard) {
 
+		onlineScoreCard.setVersion(nextVersions(1).getFirst());
+
+		if (isWriteBehind()) {
+			log.debug("Score card kept in live store: {}", onlineScoreCard);
+			onlineScoreCardStore.put(onlineScoreCard);
+			return onlineScoreCard;
+		}
+
 		var onlineRound = new OnlineRound();
 		onlineRound.setId(onlineScoreCard.getOrId());
 		onlineScoreCard.setOnlineRound(onlineRound);
@@ -77,6 +112,7 @@ public class OnlineRoundService {
 			updatedScoreCard.setStroke(onlineScoreCard.getStroke());
 			updatedScoreCard.setPutt(onlineScoreCard.getPutt());
 			updatedScoreCard.setPenalty(onlineScoreCard.getPenalty());
+			updatedScoreCard.setVersion(onlineScoreCard.getVersion());
 			return onlineScoreCardRepository.save(updatedScoreCard);
 		}
 
@@ -84,30 +120,59 @@ public class OnlineRoundService {
 		return onlineScoreCardRepository.save(onlineScoreCard);
 	}
 
-	private void syncOnlineScoreCard(OnlineScoreCard onlineScoreCard) {
+	// version is taken from the prefetched block, one lost on a stored hole leaves only a gap
+	private void syncLiveScoreCard(OnlineScoreCard onlineScoreCard) {
+
+		onlineScoreCard.setVersion(nextVersions(1).getFirst());
 
-		// skip updates - just in case
+		// updates overwrite the hole, others are added only if missing
 		if (onlineScoreCard.isUpdate()) {
-			self.saveOnlineScoreCard(onlineScoreCard);
+			onlineScoreCardStore.put(onlineScoreCard);
 			onlineScoreCard.setSyncRequired(true);
-			return;
+		} else {
+			onlineScoreCard.setSyncRequired(onlineScoreCardStore.putIfAbsent(onlineScoreCard));
 		}
+	}
 
-		var onlineRound = new OnlineRound();
-		onlineRound.setId(onlineScoreCard.getOrId());
-		onlineScoreCard.setOnlineRound(onlineRound);
+	// stored holes are read with one query, missing and updated ones are written with one batched upsert
+	// versions of written holes need a third query only when the prefetched block runs out
+	private void upsertOnlineScoreCards(List<OnlineScoreCard> onlineScoreCards) {
 
-		var updatedScoreCard = onlineScoreCardRepository
-				.findByOnlineRoundAndHole(onlineScoreCard.getOnlineRound(), onlineScoreCard.getHole());
+		var onlineRoundIds = onlineScoreCards.stream().map(OnlineScoreCard::getOrId).collect(Collectors.toSet());
 
-		if (updatedScoreCard.isEmpty()) {
-            log.info("Synchronization required for player id {} : hole {}", onlineScoreCard.getPlayer().getId(), onlineScoreCard.getHole());
-			onlineScoreCardRepository.save(onlineScoreCard);
-			onlineScoreCard.setSyncRequired(true);
-		} else {
+		var stored = onlineScoreCardRepository.getHoles(onlineRoundIds).stream()
+				.collect(Collectors.groupingBy(OnlineScoreCardHole::getOnlineRoundId,
+						Collectors.mapping(OnlineScoreCardHole::getHole, Collectors.toSet())));
+
+		var written = new ArrayList<OnlineScoreCard>();
+
+		for (OnlineScoreCard onlineScoreCard : onlineScoreCards) {
+
+			var onlineRound = new OnlineRound();
+			onlineRound.setId(onlineScoreCard.getOrId());
+			onlineScoreCard.setOnlineRound(onlineRound);
 			onlineScoreCard.setSyncRequired(false);
-			log.debug("Synchronization not required");
+
+			if (onlineScoreCard.isUpdate()
+					|| !stored.getOrDefault(onlineScoreCard.getOrId(), Set.of()).contains(onlineScoreCard.getHole())) {
+				written.add(onlineScoreCard);
+			}
+		}
+
+		var versions = nextVersions(written.size());
+		for (int i = 0; i < written.size(); i++) {
+			written.get(i).setVersion(versions.get(i));
 		}
+
+		// holes inserted meanwhile by another request are skipped by the upsert
+		var result = onlineScoreCardRepository.upsert(written);
+
+		for (int i = 0; i < written.size(); i++) {
+			written.get(i).setSyncRequired(result[i]);
+		}
+
+		log.info("Synchronization of {} score cards, {} written", onlineScoreCards.size(),
+				written.stream().filter(OnlineScoreCard::isSyncRequired).count());
 	}
 
 	@Transactional(readOnly = true)
@@ -120,6 +185,10 @@ public class OnlineRoundService {
 	@Transactional(readOnly = true)
 	public List<OnlineScoreCard> getOnlineScoreCards(Long onlineRoundId) {
 
+		if (isWriteBehind()) {
+			return onlineScoreCardStore.get(onlineRoundId);
+		}
+
 		var onlineRound = new OnlineRound();
 		onlineRound.setId(onlineRoundId);
 
@@ -127,14 +196,73 @@ public class OnlineRoundService {
 
 	}
 
+	// score cards of the group changed after the version
+	@Transactional(readOnly = true)
+	public List<OnlineScoreCard> getOnlineScoreCardChangesForIdentifier(Integer identifier, long version) {
+
+		if (isWriteBehind()) {
+			return onlineScoreCardStore.getChanges(onlineRoundRepository.getIdsForIdentifier(identifier),
+					withGrace(version));
+		}
+
+		return setOnlineRoundIds(onlineScoreCardRepository
+				.findByOnlineRoundIdentifierAndVersionGreaterThanOrderByVersionAsc(identifier, withGrace(version)));
+	}
+
+	// score cards of online rounds on the course changed after the version
+	@Transactional(readOnly = true)
+	public List<OnlineScoreCard> getOnlineScoreCardChangesForCourse(Long courseId, long version) {
+
+		if (isWriteBehind()) {
+			return onlineScoreCardStore.getChanges(onlineRoundRepository.getIdsForCourse(courseId), withGrace(version));
+		}
+
+		return setOnlineRoundIds(onlineScoreCardRepository
+				.findByOnlineRoundCourseIdAndVersionGreaterThanOrderByVersionAsc(courseId, withGrace(version)));
+	}
+
+	// versions are taken before the change is visible, so a change with a lower version can appear after
+	// a higher one was already read - changes within the grace are sent again and clients keep the latest version
+	private long withGrace(long version) {
+		return version - onlineRoundServiceConfig.getVersionGrace();
+	}
+
+	// versions are fetched from the sequence in blocks, so most changes do not need a query
+	// blocks of more instances would interleave out of order, so then versions are fetched only when needed
+	private synchronized List<Long> nextVersions(int count) {
+
+		var result = new ArrayList<Long>(count);
+
+		while (result.size() < count) {
+			if (versions.isEmpty()) {
+				int block = webSocketBrokerConfig.getMode() == WebSocketBrokerConfig.Mode.SIMPLE
+						? onlineRoundServiceConfig.getVersionBlock() : 0;
+				versions.addAll(onlineScoreCardRepository.nextVersions(Math.max(count - result.size(), block)));
+			}
+			result.add(versions.poll());
+		}
+
+		return result;
+	}
+
+	private List<OnlineScoreCard> setOnlineRoundIds(List<OnlineScoreCard> onlineScoreCards) {
+
+		onlineScoreCards.forEach(sc -> sc.setOrId(sc.getOnlineRound().getId()));
+		return onlineScoreCards;
+	}
+
 	@Transactional
 	public void deleteForIdentifier(Integer identifier) {
 
+		if (isWriteBehind()) {
+			onlineScoreCardStore.evict(onlineRoundRepository.getIdsForIdentifier(identifier));
+		}
+
 		onlineRoundRepository.deleteByIdentifier(identifier);
 
 	}
 
-	private void buildRound(OnlineRound onlineRound) {
+	private void buildRound(OnlineRound onlineRound, List<OnlineScoreCard> onlineScoreCards) {
 
 		// create Round object and fill it in
 		var round = new Round();
@@ -165,7 +293,7 @@ public class OnlineRoundService {
 
 		var holes = new HashMap<Integer, ScoreCard>();
 
-		for (OnlineScoreCard os : onlineRound.getScoreCard()) {
+		for (OnlineScoreCard os : onlineScoreCards) {
 			var sc = new ScoreCard();
 			sc.setHole(os.getHole());
 			sc.setPats(os.getPutt());
@@ -204,6 +332,23 @@ public class OnlineRoundService {
 	@Transactional
 	public void finish(Integer identifier) {
 
+		if (isWriteBehind()) {
+
+			var onlineRounds = onlineRoundRepository.getByIdentifier(identifier);
+			var ids = onlineRounds.stream().map(OnlineRound::getId).toList();
+			var scoreCards = onlineScoreCardStore.get(ids);
+
+			onlineRounds.forEach(onlineRound -> {
+				buildRound(onlineRound, scoreCards.get(onlineRound.getId()));
+				onlineRound.setFinalized(true);
+				onlineRoundRepository.save(onlineRound);
+			});
+
+			// live score cards are saved together with the rounds
+			onlineScoreCardStore.flush(ids);
+			return;
+		}
+
 		// get the online rounds from db
 		var onlineRounds = onlineRoundRepository.findByIdentifier(identifier);
 
@@ -211,7 +356,7 @@ public class OnlineRoundService {
 
 		onlineRounds.forEach(onlineRound -> {
 
-			buildRound(onlineRound);
+			buildRound(onlineRound, onlineRound.getScoreCard());
 
 			onlineRound.setFinalized(true);
 			onlineRoundRepository.save(onlineRound);
@@ -224,6 +369,11 @@ public class OnlineRoundService {
 
 		var course = new Course();
 		course.setId(courseId);
+
+		if (isWriteBehind()) {
+			return setLiveScoreCards(onlineRoundRepository.getByCourse(course));
+		}
+
 		var onlineRounds = onlineRoundRepository.findByCourse(course);
 
 		onlineRounds.forEach(or -> or.setScoreCardAPI(or.getScoreCard()));
@@ -234,10 +384,33 @@ public class OnlineRoundService {
 	@Transactional(readOnly = true)
 	public List<OnlineRound> getOnlineRoundsForIdentifier(Integer identifier) {
 
+		if (isWriteBehind()) {
+			return setLiveScoreCards(onlineRoundRepository.getByIdentifier(identifier));
+		}
+
 		var onlineRounds = onlineRoundRepository.findByIdentifier(identifier);
 
 		onlineRounds.forEach(or -> or.setScoreCardAPI(or.getScoreCard()));
 
 		return onlineRounds;
 	}
+
+	// only players of the group and its owner may follow the group
+	@Transactional(readOnly = true)
+	public boolean isGroupMember(Integer identifier, Long playerId) {
+
+		return onlineRoundRepository.isGroupMember(identifier, playerId);
+	}
+
+	private List<OnlineRound> setLiveScoreCards(List<OnlineRound> onlineRounds) {
+
+		var scoreCards = onlineScoreCardStore.get(onlineRounds.stream().map(OnlineRound::getId).toList());
+		onlineRounds.forEach(or -> or.setScoreCardAPI(scoreCards.get(or.getId())));
+
+		return onlineRounds;
+	}
+
+	private boolean isWriteBehind() {
+		return Boolean.TRUE.equals(onlineRoundServiceConfig.getWriteBehind());
+	}
 }
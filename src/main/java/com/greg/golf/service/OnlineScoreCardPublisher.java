@@ -0,0 +1,74 @@
+package com.greg.golf.service;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.greg.golf.controller.dto.OnlineScoreCardDto;
+import com.greg.golf.repository.OnlineRoundRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Pushes hole results of online rounds to the group playing together (/topic/online/{identifier}) and to clients
+ * following the course (/topic/course/{courseId}), so each message reaches only subscribers of the group or course
+ * instead of all connected clients. Destinations of the online round are read once and cached, as they do not
+ * change during the round.
+ */
+@Slf4j
+@Service("onlineScoreCardPublisher")
+public class OnlineScoreCardPublisher {
+
+    public static final String ONLINE_TOPIC = "/topic/online/";
+    public static final String COURSE_TOPIC = "/topic/course/";
+
+    private final OnlineRoundRepository onlineRoundRepository;
+    private final SimpMessagingTemplate template;
+
+    // destinations by online round id
+    private final Cache<Long, Group> groups = CacheBuilder.newBuilder()
+            .maximumSize(5000)
+            .expireAfterAccess(1, TimeUnit.DAYS)
+            .build();
+
+    public OnlineScoreCardPublisher(OnlineRoundRepository onlineRoundRepository, SimpMessagingTemplate template) {
+        this.onlineRoundRepository = onlineRoundRepository;
+        this.template = template;
+    }
+
+    public void publish(OnlineScoreCardDto onlineScoreCardDto) {
+
+        var group = getGroup(onlineScoreCardDto.getOrId());
+
+        if (group == null) {
+            log.warn("Online round {} does not exist, hole {} not published", onlineScoreCardDto.getOrId(),
+                    onlineScoreCardDto.getHole());
+            return;
+        }
+
+        if (group.identifier() != null) {
+            template.convertAndSend(ONLINE_TOPIC + group.identifier(), onlineScoreCardDto);
+        }
+        template.convertAndSend(COURSE_TOPIC + group.courseId(), onlineScoreCardDto);
+    }
+
+    private Group getGroup(Long onlineRoundId) {
+
+        var group = groups.getIfPresent(onlineRoundId);
+
+        if (group == null) {
+            group = onlineRoundRepository.getGroup(onlineRoundId)
+                    .map(g -> new Group(g.getIdentifier(), g.getCourseId()))
+                    .orElse(null);
+            if (group != null) {
+                groups.put(onlineRoundId, group);
+            }
+        }
+
+        return group;
+    }
+
+    private record Group(Integer identifier, Long courseId) {
+    }
+}
@@ -0,0 +1,377 @@
+package com.greg.golf.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+
+import com.greg.golf.configurationproperties.OnlineRoundServiceConfig;
+import com.greg.golf.entity.OnlineRound;
+import com.greg.golf.entity.OnlineScoreCard;
+import com.greg.golf.entity.Player;
+import com.greg.golf.repository.OnlineRoundRepository;
+import com.greg.golf.repository.OnlineScoreCardRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Live score cards of online rounds kept in memory, so entering a hole does not touch the database.
+ * Holes are updated lock-free and changed holes are written to online_score_card in batches every flushDelay,
+ * when the round is finished and when the application is stopped. Rounds not in memory are loaded from
+ * the database on first read.
+ * <p>
+ * Crash recovery: holes changed within the last flushDelay before a crash are lost. After restart they are
+ * recreated when phones send their score cards again with the sync request - missing holes are added and
+ * holes sent with the update flag overwrite the stored ones. Holes of rounds deleted in the meantime are dropped
+ * on write. The store is local to the application instance.
+ */
+@Slf4j
+@Service("onlineScoreCardStore")
+public class OnlineScoreCardStore {
+
+    private static final int HOLES = 18;
+    // key of the hole is online round id * KEY_FACTOR + hole
+    private static final int KEY_FACTOR = 32;
+
+    private final OnlineRoundServiceConfig onlineRoundServiceConfig;
+    private final OnlineScoreCardRepository onlineScoreCardRepository;
+    private final OnlineRoundRepository onlineRoundRepository;
+    private final OnlineScoreCardStore self;
+
+    private final Map<Long, RoundCards> rounds = new ConcurrentHashMap<>();
+    // keys of holes changed since they were written
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    public OnlineScoreCardStore(OnlineRoundServiceConfig onlineRoundServiceConfig,
+                                OnlineScoreCardRepository onlineScoreCardRepository,
+                                OnlineRoundRepository onlineRoundRepository,
+                                @Lazy OnlineScoreCardStore self) {
+        this.onlineRoundServiceConfig = onlineRoundServiceConfig;
+        this.onlineScoreCardRepository = onlineScoreCardRepository;
+        this.onlineRoundRepository = onlineRoundRepository;
+        this.self = self;
+    }
+
+    // the latest update of the hole wins, version of the change is taken from the score card
+    public void put(OnlineScoreCard onlineScoreCard) {
+
+        verifyHole(onlineScoreCard);
+
+        var roundCards = rounds.computeIfAbsent(onlineScoreCard.getOrId(), id -> new RoundCards());
+        roundCards.holes.set(onlineScoreCard.getHole(), Card.of(onlineScoreCard));
+        dirty.add(key(onlineScoreCard.getOrId(), onlineScoreCard.getHole()));
+    }
+
+    // returns false if the hole is already stored
+    public boolean putIfAbsent(OnlineScoreCard onlineScoreCard) {
+
+        verifyHole(onlineScoreCard);
+        load(List.of(onlineScoreCard.getOrId()));
+
+        var roundCards = rounds.computeIfAbsent(onlineScoreCard.getOrId(), id -> new RoundCards());
+
+        if (!roundCards.holes.compareAndSet(onlineScoreCard.getHole(), null, Card.of(onlineScoreCard))) {
+            return false;
+        }
+
+        dirty.add(key(onlineScoreCard.getOrId(), onlineScoreCard.getHole()));
+        return true;
+    }
+
+    // holes are kept by number, so other numbers are rejected before anything is stored
+    private static void verifyHole(OnlineScoreCard onlineScoreCard) {
+
+        if (onlineScoreCard.getHole() == null || onlineScoreCard.getHole() < 1 || onlineScoreCard.getHole() > HOLES) {
+            throw new IllegalArgumentException("Hole number must be from 1 to " + HOLES);
+        }
+    }
+
+    public List<OnlineScoreCard> get(Long onlineRoundId) {
+        return get(List.of(onlineRoundId)).getOrDefault(onlineRoundId, List.of());
+    }
+
+    // score cards by online round id, ordered by hole
+    public Map<Long, List<OnlineScoreCard>> get(Collection<Long> onlineRoundIds) {
+
+        load(onlineRoundIds);
+
+        var result = new HashMap<Long, List<OnlineScoreCard>>();
+
+        for (Long onlineRoundId : onlineRoundIds) {
+
+            var roundCards = rounds.get(onlineRoundId);
+            var onlineScoreCards = new ArrayList<OnlineScoreCard>();
+
+            if (roundCards != null) {
+                for (int hole = 1; hole <= HOLES; hole++) {
+                    var card = roundCards.holes.get(hole);
+                    if (card != null) {
+                        onlineScoreCards.add(card.toOnlineScoreCard(onlineRoundId, hole));
+                    }
+                }
+            }
+
+            result.put(onlineRoundId, onlineScoreCards);
+        }
+
+        return result;
+    }
+
+    // score cards changed after the given version, ordered by version
+    public List<OnlineScoreCard> getChanges(Collection<Long> onlineRoundIds, long version) {
+
+        load(onlineRoundIds);
+
+        var result = new ArrayList<OnlineScoreCard>();
+
+        for (Long onlineRoundId : onlineRoundIds) {
+
+            var roundCards = rounds.get(onlineRoundId);
+
+            if (roundCards != null) {
+                for (int hole = 1; hole <= HOLES; hole++) {
+                    var card = roundCards.holes.get(hole);
+                    if (card != null && card.version() > version) {
+                        result.add(card.toOnlineScoreCard(onlineRoundId, hole));
+                    }
+                }
+            }
+        }
+
+        result.sort(Comparator.comparingLong(OnlineScoreCard::getVersion));
+        return result;
+    }
+
+    public void evict(Collection<Long> onlineRoundIds) {
+        onlineRoundIds.forEach(rounds::remove);
+    }
+
+    public void clear() {
+        rounds.clear();
+    }
+
+    @Scheduled(fixedDelayString = "${online.flushDelay:5000}")
+    public void flush() {
+
+        if (!Boolean.TRUE.equals(onlineRoundServiceConfig.getWriteBehind())) {
+            return;
+        }
+
+        List<Long> batch;
+        do {
+            batch = take(key -> true);
+            if (!batch.isEmpty()) {
+                try {
+                    self.write(batch);
+                } catch (RuntimeException e) {
+                    // written again with the next flush
+                    dirty.addAll(batch);
+                    log.error("Unable to write {} online score cards: {}", batch.size(), e.getMessage());
+                    return;
+                }
+            }
+        } while (batch.size() == onlineRoundServiceConfig.getFlushBatchSize());
+    }
+
+    // writes changed holes of the given rounds in the current transaction
+    @Transactional
+    public void flush(Collection<Long> onlineRoundIds) {
+
+        var ids = new HashSet<>(onlineRoundIds);
+        List<Long> batch;
+
+        do {
+            batch = take(key -> ids.contains(key / KEY_FACTOR));
+            try {
+                self.write(batch);
+            } catch (RuntimeException e) {
+                dirty.addAll(batch);
+                throw e;
+            }
+        } while (batch.size() == onlineRoundServiceConfig.getFlushBatchSize());
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void shutdown() {
+
+        flush();
+
+        if (!dirty.isEmpty()) {
+            log.warn("{} online score cards not written at shutdown", dirty.size());
+        }
+    }
+
+    // existing rows are updated and missing ones inserted in one batch
+    @Transactional
+    public void write(List<Long> keys) {
+
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        var onlineRoundIds = keys.stream().map(key -> key / KEY_FACTOR).collect(Collectors.toSet());
+        Map<Long, OnlineRound> onlineRounds = onlineRoundRepository.findAllById(onlineRoundIds)
+                .stream()
+                .collect(Collectors.toMap(OnlineRound::getId, Function.identity()));
+
+        // holes of deleted rounds are not written and the rounds are not kept any longer
+        onlineRoundIds.stream()
+                .filter(id -> !onlineRounds.containsKey(id))
+                .forEach(id -> {
+                    rounds.remove(id);
+                    log.warn("Online round {} does not exist, its score cards are dropped", id);
+                });
+
+        Map<Long, OnlineScoreCard> stored = onlineScoreCardRepository.findByOnlineRoundIdIn(onlineRounds.keySet())
+                .stream()
+                .collect(Collectors.toMap(sc -> key(sc.getOnlineRound().getId(), sc.getHole()), Function.identity(),
+                        (first, second) -> first));
+
+        var onlineScoreCards = new ArrayList<OnlineScoreCard>(keys.size());
+        var written = new ArrayList<Card>(keys.size());
+
+        for (Long key : keys) {
+
+            var onlineRound = onlineRounds.get(key / KEY_FACTOR);
+            var roundCards = rounds.get(key / KEY_FACTOR);
+            int hole = (int) (key % KEY_FACTOR);
+
+            if (onlineRound == null || roundCards == null || roundCards.holes.get(hole) == null) {
+                continue;
+            }
+
+            var card = roundCards.holes.get(hole);
+            var onlineScoreCard = stored.get(key);
+
+            if (onlineScoreCard == null) {
+                onlineScoreCard = new OnlineScoreCard();
+                onlineScoreCard.setOnlineRound(onlineRound);
+                onlineScoreCard.setHole(hole);
+            }
+
+            onlineScoreCard.setStroke(card.stroke());
+            onlineScoreCard.setPutt(card.putt());
+            onlineScoreCard.setPenalty(card.penalty());
+            onlineScoreCard.setTime(card.time());
+            onlineScoreCard.setPlayer(card.player());
+            onlineScoreCard.setVersion(card.version());
+            onlineScoreCards.add(onlineScoreCard);
+            written.add(card);
+        }
+
+        onlineScoreCardRepository.saveAll(onlineScoreCards);
+
+        // ids of inserted rows are kept unless the hole has been changed meanwhile
+        for (int i = 0; i < onlineScoreCards.size(); i++) {
+            var onlineScoreCard = onlineScoreCards.get(i);
+            var roundCards = rounds.get(onlineScoreCard.getOnlineRound().getId());
+            if (written.get(i).id() == null && roundCards != null) {
+                roundCards.holes.compareAndSet(onlineScoreCard.getHole(), written.get(i),
+                        written.get(i).withId(onlineScoreCard.getId()));
+            }
+        }
+
+        log.debug("{} online score cards written", onlineScoreCards.size());
+    }
+
+    int getDirtyCount() {
+        return dirty.size();
+    }
+
+    // rounds not in memory are read with one query, holes changed in memory meanwhile are kept
+    private void load(Collection<Long> onlineRoundIds) {
+
+        var missing = onlineRoundIds.stream()
+                .filter(id -> {
+                    var roundCards = rounds.get(id);
+                    return roundCards == null || !roundCards.loaded;
+                })
+                .collect(Collectors.toSet());
+
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        var onlineScoreCards = onlineScoreCardRepository.findByOnlineRoundIdIn(missing);
+
+        for (OnlineScoreCard onlineScoreCard : onlineScoreCards) {
+            rounds.computeIfAbsent(onlineScoreCard.getOnlineRound().getId(), id -> new RoundCards())
+                    .holes.compareAndSet(onlineScoreCard.getHole(), null, Card.of(onlineScoreCard));
+        }
+
+        missing.forEach(id -> rounds.computeIfAbsent(id, key -> new RoundCards()).loaded = true);
+    }
+
+    // removes up to flushBatchSize matching keys from the dirty set
+    private List<Long> take(LongPredicate filter) {
+
+        var batch = new ArrayList<Long>();
+
+        for (Long key : dirty) {
+            if (batch.size() == onlineRoundServiceConfig.getFlushBatchSize()) {
+                break;
+            }
+            if (filter.test(key) && dirty.remove(key)) {
+                batch.add(key);
+            }
+        }
+
+        batch.sort(Comparator.naturalOrder());
+        return batch;
+    }
+
+    private static long key(long onlineRoundId, int hole) {
+        return onlineRoundId * KEY_FACTOR + hole;
+    }
+
+    private static final class RoundCards {
+
+        // indexed by hole number
+        private final AtomicReferenceArray<Card> holes = new AtomicReferenceArray<>(HOLES + 1);
+        // score cards saved in the database have been read
+        private volatile boolean loaded;
+    }
+
+    private record Card(Long id, Integer stroke, Integer putt, Integer penalty, String time, Player player,
+                        long version) {
+
+        static Card of(OnlineScoreCard onlineScoreCard) {
+            return new Card(onlineScoreCard.getId(), onlineScoreCard.getStroke(), onlineScoreCard.getPutt(),
+                    onlineScoreCard.getPenalty(), onlineScoreCard.getTime(), onlineScoreCard.getPlayer(),
+                    onlineScoreCard.getVersion());
+        }
+
+        Card withId(Long newId) {
+            return new Card(newId, stroke, putt, penalty, time, player, version);
+        }
+
+        OnlineScoreCard toOnlineScoreCard(Long onlineRoundId, int hole) {
+
+            var onlineScoreCard = new OnlineScoreCard();
+            onlineScoreCard.setId(id);
+            onlineScoreCard.setOrId(onlineRoundId);
+            onlineScoreCard.setHole(hole);
+            onlineScoreCard.setStroke(stroke);
+            onlineScoreCard.setPutt(putt);
+            onlineScoreCard.setPenalty(penalty);
+            onlineScoreCard.setTime(time);
+            onlineScoreCard.setPlayer(player);
+            onlineScoreCard.setVersion(version);
+            return onlineScoreCard;
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.greg.golf.service;
 
+import java.security.GeneralSecurityException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import com.greg.golf.captcha.ICaptchaService;
 import com.greg.golf.configurationproperties.PlayerServiceConfig;
@@ -10,6 +13,7 @@ import com.greg.golf.error.TooShortStringForSearchException;
 import com.greg.golf.repository.projection.PlayerRoundCnt;
 import com.greg.golf.security.JwtTokenUtil;
 import com.greg.golf.security.RefreshTokenUtil;
+import com.greg.golf.security.aes.KeyRing;
 import com.greg.golf.security.aes.StringUtility;
 import com.greg.golf.service.helpers.RoleVerification;
 import lombok.NonNull;
@@ -48,6 +52,7 @@ public class PlayerService {
 	private final ICaptchaService captchaService;
 	private final PasswordEncoder bCryptPasswordEncoder;
 	private final AuthenticationManager authenticationManager;
+	private final KeyRing emailKeyRing;
 
 	@Lazy
 	private final PlayerService self;
@@ -294,7 +299,7 @@ public class PlayerService {
 				PageRequest.of(pageNo, playerServiceConfig.getPageSize()));
 	}
 
-	private String encryptEmail(String email) throws GeneralException {
+	public String encryptEmail(String email) throws GeneralException {
 
 		String encryptedEmail = null;
 
@@ -317,16 +322,33 @@ public class PlayerService {
 		Player player = playerRepository.findById(id).orElseThrow();
 
 		if (player.getEmail() != null) {
-			try {
-				decryptedEmail = StringUtility.decryptString(player.getEmail(), playerServiceConfig.getEmailPwd());
-			} catch(Exception e) {
-				throw new GeneralException();
-			}
+			decryptedEmail = decryptEmail(player.getEmail());
 		}
 
 		return decryptedEmail;
 	}
 
+	// returns emails of all players which have it set, still encrypted - players are fetched in one query
+	// and emails are decrypted only when the mail is sent
+	@Transactional(readOnly = true)
+	public List<String> getEncryptedEmails(Collection<Long> ids) {
+
+		return playerRepository.findAllById(ids)
+				.stream()
+				.map(Player::getEmail)
+				.filter(Objects::nonNull)
+				.toList();
+	}
+
+	private String decryptEmail(String encryptedEmail) throws GeneralException {
+
+		try {
+			return emailKeyRing.decryptString(encryptedEmail);
+		} catch(GeneralSecurityException | IllegalArgumentException e) {
+			throw new GeneralException();
+		}
+	}
+
 	@Transactional
 	public void deleteEmail() {
 
@@ -0,0 +1,231 @@
+package com.greg.golf.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Lists;
+import com.greg.golf.configurationproperties.PlayerStatsConfig;
+import com.greg.golf.entity.Course;
+import com.greg.golf.entity.PlayerStats;
+import com.greg.golf.entity.Round;
+import com.greg.golf.entity.ScoreCard;
+import com.greg.golf.repository.CourseRepository;
+import com.greg.golf.repository.PlayerRoundRepository;
+import com.greg.golf.repository.PlayerStatsRepository;
+import com.greg.golf.repository.RoundRepository;
+import com.greg.golf.repository.projection.PlayerRoundHcp;
+import com.greg.golf.service.events.PlayerRoundEvent;
+import com.greg.golf.service.helpers.PlayerStatsCalculator;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps career statistics of players. Counters are updated from player round events after the change
+ * is committed, with the statistics row locked, so reading them is a single primary key lookup.
+ * The rebuild recomputes statistics from score cards in parallel chunks of players, e.g. after bulk import
+ * or to repair counters changed outside of the round service.
+ */
+@Slf4j
+@Service("playerStatsService")
+public class PlayerStatsService {
+
+	private final PlayerStatsConfig playerStatsConfig;
+	private final PlayerStatsRepository playerStatsRepository;
+	private final PlayerRoundRepository playerRoundRepository;
+	private final RoundRepository roundRepository;
+	private final CourseRepository courseRepository;
+	private final PlayerStatsService self;
+	private final ThreadPoolExecutor executor;
+
+	public PlayerStatsService(PlayerStatsConfig playerStatsConfig,
+							  PlayerStatsRepository playerStatsRepository,
+							  PlayerRoundRepository playerRoundRepository,
+							  RoundRepository roundRepository,
+							  CourseRepository courseRepository,
+							  EventPipelineService eventPipelineService,
+							  @Lazy PlayerStatsService self) {
+		this.playerStatsConfig = playerStatsConfig;
+		this.playerStatsRepository = playerStatsRepository;
+		this.playerRoundRepository = playerRoundRepository;
+		this.roundRepository = roundRepository;
+		this.courseRepository = courseRepository;
+		this.self = self;
+
+		var threadCnt = new AtomicInteger();
+
+		executor = new ThreadPoolExecutor(playerStatsConfig.getRebuildThreads(),
+				playerStatsConfig.getRebuildThreads(), 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(playerStatsConfig.getRebuildThreads()),
+				runnable -> new Thread(runnable, "player-stats-rebuild-" + threadCnt.incrementAndGet()),
+				// when queue is full the calling thread rebuilds the chunk itself
+				new ThreadPoolExecutor.CallerRunsPolicy());
+
+		eventPipelineService.subscribe(PlayerRoundEvent.class, "playerStats", self::handlePlayerRoundEvent,
+				self::rebuild);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	// players without rounds get empty statistics
+	@Transactional(readOnly = true)
+	public PlayerStats getStats(Long playerId) {
+
+		return playerStatsRepository.findById(playerId).orElseGet(() -> {
+			var stats = new PlayerStats();
+			stats.setPlayerId(playerId);
+			return stats;
+		});
+	}
+
+	// events of the player come in order, but the rounds in database may already reflect later changes
+	// changes read by a rebuild while their events were queued are already counted, so they are skipped
+	@Transactional
+	public void handlePlayerRoundEvent(PlayerRoundEvent event) {
+
+		var stats = lockStats(List.of(event.getPlayerId())).getFirst();
+
+		if (event.getSequence() <= stats.getRebuiltChanges()) {
+			log.debug("Statistics of player {} already rebuilt with round {} ({})", event.getPlayerId(),
+					event.getRoundId(), event.getChange());
+			return;
+		}
+
+		var contribution = getContribution(event);
+
+		if (event.getChange() == PlayerRoundEvent.Change.ADDED) {
+			PlayerStatsCalculator.apply(stats, contribution, 1);
+			PlayerStatsCalculator.addToTrend(stats, contribution, playerStatsConfig.getTrendSize());
+		} else {
+			PlayerStatsCalculator.apply(stats, contribution, -1);
+			if (PlayerStatsCalculator.isInTrend(stats, event.getRoundId())) {
+				// the round is excluded from the refilled trend, if it was only changed it comes back with its ADDED event
+				var hcps = playerRoundRepository.getLatestHcpForPlayer(event.getPlayerId(), event.getRoundId(),
+						PageRequest.of(0, playerStatsConfig.getTrendSize()));
+				PlayerStatsCalculator.setTrend(stats,
+						getContributions(hcps).stream().map(PlayerContribution::contribution).toList(),
+						playerStatsConfig.getTrendSize());
+			}
+		}
+
+		log.debug("Statistics of player {} updated for round {} ({})", event.getPlayerId(), event.getRoundId(),
+				event.getChange());
+	}
+
+	// returns number of rebuilt players
+	public int rebuild() {
+
+		long startTime = System.currentTimeMillis();
+
+		int deleted = self.deleteWithoutRounds();
+		var playerIds = playerRoundRepository.getPlayerIds();
+		rebuild(playerIds);
+
+		log.info("Statistics of {} players rebuilt and {} deleted in {} ms", playerIds.size(), deleted,
+				System.currentTimeMillis() - startTime);
+
+		return playerIds.size();
+	}
+
+	public void rebuild(Collection<Long> playerIds) {
+
+		var futures = Lists.partition(new ArrayList<>(playerIds), playerStatsConfig.getRebuildChunkSize())
+				.stream()
+				.map(chunk -> CompletableFuture.runAsync(() -> self.rebuildChunk(chunk), executor))
+				.toList();
+
+		futures.forEach(CompletableFuture::join);
+	}
+
+	@Transactional
+	public int deleteWithoutRounds() {
+		return playerStatsRepository.deleteWithoutRounds();
+	}
+
+	// each round change counts itself in the locked statistics row, so once it is locked here all counted changes
+	// are committed and read with score cards - their events still queued are skipped, later ones are applied
+	@Transactional
+	public void rebuildChunk(List<Long> playerIds) {
+
+		var stats = lockStats(playerIds);
+		stats.forEach(s -> s.setRebuiltChanges(s.getChanges()));
+		var contributions = getContributions(playerRoundRepository.getHcpForPlayers(playerIds))
+				.stream()
+				.collect(Collectors.groupingBy(PlayerContribution::playerId,
+						Collectors.mapping(PlayerContribution::contribution, Collectors.toList())));
+
+		stats.forEach(s -> PlayerStatsCalculator.rebuild(s, contributions.getOrDefault(s.getPlayerId(), List.of()),
+				playerStatsConfig.getTrendSize()));
+
+		log.debug("Statistics of players {} - {} rebuilt", playerIds.getFirst(), playerIds.getLast());
+	}
+
+	private List<PlayerStats> lockStats(List<Long> playerIds) {
+
+		playerIds.forEach(playerStatsRepository::insertIfAbsent);
+		return playerStatsRepository.findByPlayerIdInOrderByPlayerIdAsc(playerIds);
+	}
+
+	private PlayerStatsCalculator.Contribution getContribution(PlayerRoundEvent event) {
+
+		var course = courseRepository.findByIdIn(List.of(event.getCourseId())).getFirst();
+
+		return PlayerStatsCalculator.contribution(event.getRoundId(), event.getRoundDate(), course,
+				event.getScoreCards(), event.getWhs(), event.getCr(), event.getSr());
+	}
+
+	private List<PlayerContribution> getContributions(List<PlayerRoundHcp> hcps) {
+
+		if (hcps.isEmpty()) {
+			return List.of();
+		}
+
+		Map<Long, Round> rounds = roundRepository
+				.getWithScoreCardForIds(hcps.stream().map(PlayerRoundHcp::getRoundId).collect(Collectors.toSet()))
+				.stream()
+				.collect(Collectors.toMap(Round::getId, Function.identity()));
+		// fetched with holes, so rounds get initialized courses from the persistence context
+		Map<Long, Course> courses = courseRepository
+				.findByIdIn(rounds.values().stream().map(round -> round.getCourse().getId()).collect(Collectors.toSet()))
+				.stream()
+				.collect(Collectors.toMap(Course::getId, Function.identity()));
+
+		var contributions = new ArrayList<PlayerContribution>(hcps.size());
+		var roundCards = new HashMap<Long, Map<Long, List<ScoreCard>>>();
+
+		for (PlayerRoundHcp hcp : hcps) {
+
+			var round = rounds.get(hcp.getRoundId());
+			var scoreCards = roundCards
+					.computeIfAbsent(round.getId(), id -> round.getScoreCard()
+							.stream()
+							.collect(Collectors.groupingBy(sc -> sc.getPlayer().getId())))
+					.getOrDefault(hcp.getPlayerId(), List.of());
+
+			contributions.add(new PlayerContribution(hcp.getPlayerId(), PlayerStatsCalculator.contribution(
+					round.getId(), round.getRoundDate(), courses.get(round.getCourse().getId()), scoreCards,
+					hcp.getWhs(), hcp.getCr(), hcp.getSr())));
+		}
+
+		return contributions;
+	}
+
+	private record PlayerContribution(Long playerId, PlayerStatsCalculator.Contribution contribution) {
+	}
+}
@@ -0,0 +1,402 @@
+package com.greg.golf.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.greg.golf.configurationproperties.RoundServiceConfig;
+import com.greg.golf.entity.CourseTee;
+import com.greg.golf.entity.Player;
+import com.greg.golf.entity.PlayerRound;
+import com.greg.golf.entity.Round;
+import com.greg.golf.entity.ScoreCard;
+import com.greg.golf.entity.helpers.Common;
+import com.greg.golf.repository.CourseTeeRepository;
+import com.greg.golf.repository.PlayerRepository;
+import com.greg.golf.repository.PlayerRoundRepository;
+import com.greg.golf.repository.RoundRepository;
+import com.greg.golf.repository.ScoreCardRepository;
+import com.greg.golf.service.helpers.PackedScoreCard;
+import com.greg.golf.service.helpers.RoundImportReport;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Imports rounds in bulk, e.g. historical rounds migrated from other systems or paper cards.
+ * Each row is a score card of one player. Rows are taken in chunks - a chunk is validated in parallel
+ * on a bounded executor, then rows for the same course and date are merged into one round in memory
+ * (the same way saveRound merges a single round) and the whole chunk is saved in one transaction
+ * using batched inserts.
+ */
+@Slf4j
+@Service("roundImportService")
+public class RoundImportService {
+
+    private static final int MAX_PLAYERS = 4;
+    private static final int MAX_HOLES = 18;
+    private static final int MAX_STROKES = 16;
+    private static final int MAX_PUTTS = 10;
+    private static final int MAX_PENALTIES = 5;
+
+    private final RoundServiceConfig roundServiceConfig;
+    private final RoundRepository roundRepository;
+    private final PlayerRoundRepository playerRoundRepository;
+    private final PlayerRepository playerRepository;
+    private final CourseTeeRepository courseTeeRepository;
+    private final ScoreCardRepository scoreCardRepository;
+    private final PlayerStatsService playerStatsService;
+    private final HandicapService handicapService;
+    private final RoundImportService self;
+    private final ThreadPoolExecutor executor;
+
+    @SuppressWarnings("java:S107")
+    public RoundImportService(RoundServiceConfig roundServiceConfig, RoundRepository roundRepository,
+                              PlayerRoundRepository playerRoundRepository, PlayerRepository playerRepository,
+                              CourseTeeRepository courseTeeRepository, ScoreCardRepository scoreCardRepository,
+                              PlayerStatsService playerStatsService, HandicapService handicapService,
+                              @Lazy RoundImportService self) {
+        this.roundServiceConfig = roundServiceConfig;
+        this.roundRepository = roundRepository;
+        this.playerRoundRepository = playerRoundRepository;
+        this.playerRepository = playerRepository;
+        this.courseTeeRepository = courseTeeRepository;
+        this.scoreCardRepository = scoreCardRepository;
+        this.playerStatsService = playerStatsService;
+        this.handicapService = handicapService;
+        this.self = self;
+
+        var threadCnt = new AtomicInteger();
+
+        executor = new ThreadPoolExecutor(roundServiceConfig.getImportThreads(),
+                roundServiceConfig.getImportThreads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(roundServiceConfig.getImportChunkSize()),
+                runnable -> new Thread(runnable, "round-import-" + threadCnt.incrementAndGet()),
+                // when queue is full the calling thread validates the row itself
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // rows are consumed as they come, so only one chunk is kept in memory
+    // a row which cannot be read stops the import, rows preceding it are imported and reported as usual
+    public RoundImportReport importRounds(Iterator<Round> rounds) {
+
+        long startTime = System.currentTimeMillis();
+        var report = new RoundImportReport();
+        var chunk = new ArrayList<Round>(roundServiceConfig.getImportChunkSize());
+        var playerIds = new HashSet<Long>();
+        int firstRow = 0;
+        String readError = null;
+
+        while (true) {
+            try {
+                if (!rounds.hasNext()) {
+                    break;
+                }
+                chunk.add(rounds.next());
+            } catch (RuntimeException e) {
+                readError = e.getMessage();
+                break;
+            }
+            if (chunk.size() == roundServiceConfig.getImportChunkSize()) {
+                importChunk(firstRow, chunk, report, playerIds);
+                firstRow += chunk.size();
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            importChunk(firstRow, chunk, report, playerIds);
+            firstRow += chunk.size();
+        }
+
+        // rows after the malformed one cannot be told apart, so the rest of the request is reported as one row
+        if (readError != null) {
+            log.warn("Import of rounds stopped on malformed row {}: {}", firstRow, readError);
+            report.add(new RoundImportReport.Row(firstRow, RoundImportReport.Status.REJECTED, null,
+                    "Row is malformed, the rest of the request is not read"));
+        }
+
+        // statistics and handicaps are rebuilt once for all imported players instead of being updated row by row
+        playerStatsService.rebuild(playerIds);
+        handicapService.rebuildPlayers(playerIds);
+
+        report.setTotalTimeMs(System.currentTimeMillis() - startTime);
+        report.setRoundsPerSecond(report.getImported() * 1000.0 / Math.max(report.getTotalTimeMs(), 1));
+
+        log.info("Imported {} rounds, rejected {}, failed {} in {} ms ({} rounds/s)", report.getImported(),
+                report.getRejected(), report.getFailed(), report.getTotalTimeMs(),
+                Math.round(report.getRoundsPerSecond()));
+
+        return report;
+    }
+
+    private void importChunk(int firstRow, List<Round> chunk, RoundImportReport report, Set<Long> playerIds) {
+
+        var futures = chunk
+                .stream()
+                .map(round -> CompletableFuture.supplyAsync(() -> validate(round), executor))
+                .toList();
+        var errors = futures.stream().map(CompletableFuture::join).toList();
+
+        try {
+            self.saveChunk(firstRow, chunk, errors).forEach(row -> {
+                report.add(row);
+                if (row.getStatus() == RoundImportReport.Status.IMPORTED) {
+                    playerIds.add(chunk.get(row.getRow() - firstRow).getPlayer().iterator().next().getId());
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Import of rows {} - {} failed", firstRow, firstRow + chunk.size() - 1, e);
+            for (int i = 0; i < chunk.size(); i++) {
+                report.add(errors.get(i) == null
+                        ? new RoundImportReport.Row(firstRow + i, RoundImportReport.Status.FAILED, null, e.getMessage())
+                        : new RoundImportReport.Row(firstRow + i, RoundImportReport.Status.REJECTED, null, errors.get(i)));
+            }
+        }
+    }
+
+    // errors is the result of validation, null for valid rows
+    @Transactional
+    public List<RoundImportReport.Row> saveChunk(int firstRow, List<Round> chunk, List<String> errors) {
+
+        var valid = new ArrayList<Round>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            if (errors.get(i) == null) {
+                valid.add(chunk.get(i));
+            }
+        }
+
+        var playerIds = valid.stream().map(round -> round.getPlayer().iterator().next().getId()).collect(Collectors.toSet());
+        var courseIds = valid.stream().map(round -> round.getCourse().getId()).collect(Collectors.toSet());
+        var roundDates = valid.stream().map(Round::getRoundDate).collect(Collectors.toSet());
+
+        var players = valid.isEmpty() ? Map.<Long, Player>of() : playerRepository.findAllById(playerIds)
+                .stream().collect(Collectors.toMap(Player::getId, Function.identity()));
+        var tees = valid.isEmpty() ? Map.<Long, List<CourseTee>>of() : courseTeeRepository.getForCourses(courseIds)
+                .stream().collect(Collectors.groupingBy(tee -> tee.getCourse().getId()));
+
+        // rounds already saved for the same course and date, the oldest one is used like in saveRound
+        var rounds = new HashMap<String, Round>();
+        if (!valid.isEmpty()) {
+            roundRepository.getForCoursesAndDates(courseIds, roundDates)
+                    .forEach(round -> rounds.putIfAbsent(key(round.getCourse().getId(), round.getRoundDate()), round));
+        }
+
+        // rounds are compared by identity as new ones do not have id yet
+        Set<Round> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+        var scoreCards = new ArrayList<ScoreCard>();
+        var rows = new ArrayList<RoundImportReport.Row>(chunk.size());
+        var imported = new ArrayList<ImportedRow>();
+
+        for (int i = 0; i < chunk.size(); i++) {
+
+            if (errors.get(i) != null) {
+                rows.add(new RoundImportReport.Row(firstRow + i, RoundImportReport.Status.REJECTED, null, errors.get(i)));
+                continue;
+            }
+
+            var round = chunk.get(i);
+            var error = merge(round, players, tees, rounds);
+
+            if (error != null) {
+                rows.add(new RoundImportReport.Row(firstRow + i, RoundImportReport.Status.REJECTED, null, error));
+                continue;
+            }
+
+            var player = players.get(round.getPlayer().iterator().next().getId());
+            var target = rounds.get(key(round.getCourse().getId(), round.getRoundDate()));
+            changed.add(target);
+            round.getScoreCard().forEach(card -> {
+                card.setId(null);
+                card.setPlayer(player);
+                card.setRound(target);
+                scoreCards.add(card);
+            });
+            imported.add(new ImportedRow(firstRow + i, target, player, getTee(round, tees), round.getTeam(),
+                    round.getScoreCard()));
+        }
+
+        if (imported.isEmpty()) {
+            return rows;
+        }
+
+        roundRepository.saveAll(changed);
+        scoreCardRepository.saveAll(scoreCards);
+        roundRepository.flush();
+
+        // rows of player_round exist after flush, so the tee and handicap of each player can be set
+        var playerRounds = playerRoundRepository.findByRoundIdIn(changed.stream().map(Round::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(pr -> pr.getRoundId() + ":" + pr.getPlayerId(), Function.identity(),
+                        (first, second) -> first));
+
+        for (var row : imported) {
+            PlayerRound playerRound = playerRounds.get(row.round.getId() + ":" + row.player.getId());
+            playerRound.setWhs(row.player.getWhs());
+            playerRound.setTeeId(row.tee.getId());
+            playerRound.setSr(row.tee.getSr());
+            playerRound.setCr(row.tee.getCr());
+            playerRound.setTeeType(row.tee.getTeeType());
+            playerRound.setTeam(row.team);
+            if (Boolean.TRUE.equals(roundServiceConfig.getPackedScoreCards())) {
+                PackedScoreCard.pack(playerRound, row.scoreCards);
+            }
+            rows.add(new RoundImportReport.Row(row.row, RoundImportReport.Status.IMPORTED, row.round.getId(), null));
+        }
+
+        rows.sort((first, second) -> Integer.compare(first.getRow(), second.getRow()));
+
+        log.debug("Chunk starting with row {} saved, rounds: {}, score cards: {}", firstRow, changed.size(),
+                scoreCards.size());
+
+        return rows;
+    }
+
+    // adds the player to the round of the same course and date, returns error if not possible
+    private static String merge(Round round, Map<Long, Player> players, Map<Long, List<CourseTee>> tees,
+                                Map<String, Round> rounds) {
+
+        var player = players.get(round.getPlayer().iterator().next().getId());
+        if (player == null) {
+            return "Player not found";
+        }
+
+        if (!tees.containsKey(round.getCourse().getId())) {
+            return "Course not found or it has no tees";
+        }
+
+        var tee = getTee(round, tees);
+        if (tee == null) {
+            return "Tee not found for the course";
+        }
+
+        var key = key(round.getCourse().getId(), round.getRoundDate());
+        var target = rounds.get(key);
+
+        if (target == null) {
+            target = new Round();
+            target.setCourse(tee.getCourse());
+            target.setFormat(round.getFormat());
+            target.setMpFormat(round.getMpFormat());
+            target.setRoundDate(round.getRoundDate());
+            target.setPlayer(new TreeSet<>());
+            rounds.put(key, target);
+        } else if (target.getPlayer().size() >= MAX_PLAYERS) {
+            return "Number of players for round exceeded";
+        } else if (target.getPlayer().contains(player)) {
+            return "Player already has that round";
+        }
+
+        target.getPlayer().add(player);
+
+        return null;
+    }
+
+    // the tee given for the round or the first tee of the course
+    private static CourseTee getTee(Round round, Map<Long, List<CourseTee>> tees) {
+
+        var courseTees = tees.get(round.getCourse().getId());
+
+        if (round.getTeeId() == null) {
+            return courseTees.getFirst();
+        }
+
+        return courseTees.stream().filter(tee -> tee.getId().equals(round.getTeeId())).findFirst().orElse(null);
+    }
+
+    private static String key(Long courseId, Date roundDate) {
+        return courseId + ":" + roundDate.getTime();
+    }
+
+    // checks only the row itself, so it can be run outside the transaction in any thread
+    static String validate(Round round) {
+
+        if (round.getFormat() == null || round.getFormat() < Common.STROKE_PLAY_FORMAT
+                || round.getFormat() > Common.FOUR_BALL_MATCH_PLAY_FORMAT) {
+            return "Format is missing or not supported";
+        }
+
+        if (round.getRoundDate() == null) {
+            return "Round date is missing";
+        }
+
+        if (round.getRoundDate().after(new Date())) {
+            return "Round date is in the future";
+        }
+
+        if (round.getCourse() == null || round.getCourse().getId() == null) {
+            return "Course is missing";
+        }
+
+        if (round.getPlayer() == null || round.getPlayer().size() != 1
+                || round.getPlayer().iterator().next().getId() == null) {
+            return "Exactly one player is expected";
+        }
+
+        if (round.getScoreCard() == null || round.getScoreCard().isEmpty()
+                || round.getScoreCard().size() > MAX_HOLES) {
+            return "Score card must have from 1 to " + MAX_HOLES + " holes";
+        }
+
+        var holes = new HashSet<Integer>();
+        for (var card : round.getScoreCard()) {
+            if (card.getHole() == null || card.getHole() < 1 || card.getHole() > MAX_HOLES || !holes.add(card.getHole())) {
+                return "Hole number is missing, out of range or repeated";
+            }
+            // 0 strokes means the hole is not played
+            if (card.getStroke() == null || card.getStroke() < 0 || card.getStroke() > MAX_STROKES) {
+                return "Number of strokes for hole " + card.getHole() + " is not correct";
+            }
+            if (card.getPats() == null || card.getPats() < 0 || card.getPats() > MAX_PUTTS
+                    || card.getPats() > card.getStroke()) {
+                return "Number of putts for hole " + card.getHole() + " is not correct";
+            }
+            if (card.getPenalty() != null && (card.getPenalty() < 0 || card.getPenalty() > MAX_PENALTIES)) {
+                return "Number of penalties for hole " + card.getHole() + " is not correct";
+            }
+        }
+
+        return null;
+    }
+
+    private static class ImportedRow {
+
+        private final int row;
+        private final Round round;
+        private final Player player;
+        private final CourseTee tee;
+        private final Integer team;
+        private final List<ScoreCard> scoreCards;
+
+        ImportedRow(int row, Round round, Player player, CourseTee tee, Integer team, List<ScoreCard> scoreCards) {
+            this.row = row;
+            this.round = round;
+            this.player = player;
+            this.tee = tee;
+            this.team = team;
+            this.scoreCards = scoreCards;
+        }
+    }
+}
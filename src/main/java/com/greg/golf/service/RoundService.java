@@ -1,15 +1,19 @@
 package com.greg.golf.service;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import com.greg.golf.repository.PlayerRepository;
+import com.greg.golf.repository.PlayerStatsRepository;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,7 +30,12 @@ import com.greg.golf.repository.CourseTeeRepository;
 import com.greg.golf.repository.PlayerRoundRepository;
 import com.greg.golf.repository.RoundRepository;
 import com.greg.golf.repository.TournamentRepository;
+import com.greg.golf.service.events.PlayerRoundEvent;
+import com.greg.golf.service.events.RoundEvent;
 import com.greg.golf.service.helpers.RoleVerification;
+import com.greg.golf.service.helpers.KeysetCursor;
+import com.greg.golf.service.helpers.KeysetPage;
+import com.greg.golf.service.helpers.PackedScoreCard;
 
 import lombok.RequiredArgsConstructor;
 
@@ -41,11 +50,23 @@ public class RoundService {
 	private final PlayerRepository playerRepository;
 	private final CourseTeeRepository courseTeeRepository;
 	private final TournamentRepository tournamentRepository;
+	private final PlayerStatsRepository playerStatsRepository;
+	private final ApplicationEventPublisher applicationEventPublisher;
 	
 	public Optional<Round> getWithPlayers (Long id) {
 		return roundRepository.findById(id);
 	}
 
+	@Transactional(readOnly = true)
+	public List<Round> getForIds(List<Long> ids) {
+		return roundRepository.getForIds(ids);
+	}
+
+	@Transactional(readOnly = true)
+	public List<Round> getWithScoreCardForIds(Collection<Long> ids) {
+		return roundRepository.getWithScoreCardForIds(ids);
+	}
+
 	@Transactional(readOnly = true)
 	public List<Round> findByDates(Date startDate, Date endDate) {
 		return roundRepository.findByRoundDateBetweenOrderByRoundDateDesc(startDate, endDate);
@@ -92,6 +113,9 @@ public class RoundService {
 														round.getCourse().getTees().getFirst().getId(),
 														round.getCourse().getTees().getFirst().getTeeType(),
 														round.getTeam(),
+														packScoreCard(round.getScoreCard(), ScoreCard::getStroke),
+														packScoreCard(round.getScoreCard(), ScoreCard::getPats),
+														packScoreCard(round.getScoreCard(), ScoreCard::getPenalty),
 														player.getId(),
 														round.getId());
 		}, () -> {
@@ -104,12 +128,38 @@ public class RoundService {
 														round.getCourse().getTees().getFirst().getId(),
 														round.getCourse().getTees().getFirst().getTeeType(),
 														round.getTeam(),
+														packScoreCard(round.getScoreCard(), ScoreCard::getStroke),
+														packScoreCard(round.getScoreCard(), ScoreCard::getPats),
+														packScoreCard(round.getScoreCard(), ScoreCard::getPenalty),
 														player.getId(),
 														round.getId());
 		});
 
+		publish(matchingRound.orElse(round), player.getId(), PlayerRoundEvent.Change.ADDED);
+		publish(round.getId(), RoundEvent.Type.SAVED);
+
 		return round;
 	}
+
+	// listeners get a copy of the player round and handle it after commit
+	// the change is counted, so listeners can skip it if a rebuild has already read it
+	private void publish(Round round, Long playerId, PlayerRoundEvent.Change change) {
+
+		var hcp = playerRoundRepository.getHcpForPlayerAndRound(playerId, round.getId()).orElse(null);
+		applicationEventPublisher.publishEvent(new PlayerRoundEvent(this, round, playerId, hcp, change,
+				playerStatsRepository.countChange(playerId)));
+	}
+
+	private void publish(Long roundId, RoundEvent.Type type) {
+		applicationEventPublisher.publishEvent(new RoundEvent(this, roundId, type));
+	}
+
+	// packed copy of the player score card in player_round is kept only if enabled, otherwise it is cleared,
+	// so enabling it later never serves cards changed meanwhile
+	private Short[] packScoreCard(List<ScoreCard> scoreCards, Function<ScoreCard, Integer> value) {
+
+		return Boolean.TRUE.equals(roundServiceConfig.getPackedScoreCards()) ? PackedScoreCard.pack(scoreCards, value) : null;
+	}
 	
 	@Transactional(readOnly = true)
 	public List<Round> listByPlayerPageable(Player player, Integer pageNo) {
@@ -117,6 +167,25 @@ public class RoundService {
 		return roundRepository.findByPlayerOrderByRoundDateDesc(player, PageRequest.of(pageNo, roundServiceConfig.getPageSize()));
 	}
 	
+	// after is the token returned with the previous page, null for the first page
+	@Transactional(readOnly = true)
+	public KeysetPage<Round> listByPlayerAfter(Player player, String after) {
+
+		var page = PageRequest.of(0, roundServiceConfig.getPageSize());
+		List<Round> rounds;
+
+		if (after == null) {
+			rounds = roundRepository.findByPlayerOrderByRoundDateDescIdDesc(player, page);
+		} else {
+			var values = KeysetCursor.decode(after, 2);
+			rounds = roundRepository.findByPlayerAfter(player, new Date(Long.parseLong(values[0])),
+					Long.valueOf(values[1]), page);
+		}
+
+		return KeysetPage.of(rounds, page.getPageSize(),
+				round -> KeysetCursor.encode(round.getRoundDate().getTime(), round.getId()));
+	}
+
 	@Transactional(readOnly = true)
 	public List<Round> getRecentRounds(Integer pageNo) {
 
@@ -127,6 +196,20 @@ public class RoundService {
 		return roundRepository.getForIds(ids);
 
 	}
+
+	// after is the token returned with the previous page, null for the first page
+	@Transactional(readOnly = true)
+	public KeysetPage<Round> getRecentRoundsAfter(String after) {
+
+		var page = PageRequest.of(0, roundServiceConfig.getPageSize());
+		// ids are still taken first, as limit cannot be applied to the query fetching players
+		List<Long> ids = after == null
+				? roundRepository.getIdsForPage(page)
+				: roundRepository.getIdsForPageAfter(Long.valueOf(KeysetCursor.decode(after, 1)[0]), page);
+
+		return KeysetPage.of(ids.isEmpty() ? List.of() : roundRepository.getForIds(ids), page.getPageSize(),
+				round -> KeysetCursor.encode(round.getId()));
+	}
 	
 	@Transactional
 	public void deleteScorecard(Long playerId, Long roundId) {
@@ -146,8 +229,10 @@ public class RoundService {
 		// check if only one player is in the round and if yes delete entire round
 		int playerCnt = round.getPlayer().size();
         log.debug("Player cnt  is {}", playerCnt);
+		publish(round, playerId, PlayerRoundEvent.Change.REMOVED);
 		if (playerCnt == 1) {
 			roundRepository.deleteById(roundId);
+			publish(roundId, RoundEvent.Type.DELETED);
 			log.debug("Round deleted");
 			return;
 		}
@@ -165,6 +250,7 @@ public class RoundService {
 
 		// persists round
 		roundRepository.save(round);
+		publish(roundId, RoundEvent.Type.UPDATED);
 	}
 
 	@Transactional
@@ -194,6 +280,8 @@ public class RoundService {
 			RoleVerification.verifyPlayer(tournament.getPlayer().getId(), "Attempt to update tournament score card by unauthorized user");
 		}
 		
+		publish(round, requestPlayer.getId(), PlayerRoundEvent.Change.REMOVED);
+
 		// remove scorecard object that matching player from round
 		round.getScoreCard().removeAll((round.getScoreCard()
 				.stream()
@@ -208,11 +296,19 @@ public class RoundService {
 
 		roundRepository.save(round);
 
+		// player round is loaded, so the packed copy is written by dirty checking only when it changes
+		playerRound.setStrokes(packScoreCard(updRound.getScoreCard(), ScoreCard::getStroke));
+		playerRound.setPutts(packScoreCard(updRound.getScoreCard(), ScoreCard::getPats));
+		playerRound.setPenalties(packScoreCard(updRound.getScoreCard(), ScoreCard::getPenalty));
+
 		if (updRound.getTeeId() != null) {
 			var courseTee = courseTeeRepository.findById(updRound.getTeeId()).orElseThrow();
 			playerRoundRepository.updatePlayerRoundTeeId(updRound.getTeeId(), courseTee.getCr(), courseTee.getSr(), requestPlayer.getId(), updRound.getId());
 		}
 
+		publish(round, requestPlayer.getId(), PlayerRoundEvent.Change.ADDED);
+		publish(round.getId(), RoundEvent.Type.UPDATED);
+
 		log.debug("Score card updated");
 	}
 
@@ -230,7 +326,13 @@ public class RoundService {
 
 	@Transactional
 	public void updateRoundWhs(Long playerId, Long roundId, Float whs) {
+
+		// Stableford of the round depends on whs
+		var round = roundRepository.findById(roundId).orElseThrow();
+		publish(round, playerId, PlayerRoundEvent.Change.REMOVED);
 		playerRoundRepository.updatePlayerRoundWhs(whs, playerId, roundId);
+		publish(round, playerId, PlayerRoundEvent.Change.ADDED);
+		publish(roundId, RoundEvent.Type.UPDATED);
 	}
 
 	@Transactional
@@ -240,6 +342,8 @@ public class RoundService {
 		Round round = roundRepository.findById(roundId).orElseThrow();
 		Player newPlayer = playerRepository.findById(newPlayerId).orElseThrow();
 
+		publish(round, oldPlayerId, PlayerRoundEvent.Change.REMOVED);
+
 		round.getScoreCard().forEach(sc -> {
 
 			if (sc.getPlayer().getId().equals(oldPlayerId)) {
@@ -254,6 +358,8 @@ public class RoundService {
 		playerRound.setPlayerId(newPlayerId);
 		playerRoundRepository.save(playerRound);
 
+		publish(round, newPlayerId, PlayerRoundEvent.Change.ADDED);
+		publish(roundId, RoundEvent.Type.UPDATED);
 	}
 
 }
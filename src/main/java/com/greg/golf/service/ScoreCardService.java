@@ -1,14 +1,23 @@
 package com.greg.golf.service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.greg.golf.configurationproperties.RoundServiceConfig;
+import com.greg.golf.entity.Player;
+import com.greg.golf.entity.PlayerRound;
 import com.greg.golf.entity.Round;
 import com.greg.golf.entity.ScoreCard;
 
+import com.greg.golf.repository.PlayerRepository;
+import com.greg.golf.repository.PlayerRoundRepository;
 import com.greg.golf.repository.ScoreCardRepository;
+import com.greg.golf.service.helpers.PackedScoreCard;
 import lombok.RequiredArgsConstructor;
 
 @RequiredArgsConstructor
@@ -16,10 +25,25 @@ import lombok.RequiredArgsConstructor;
 public class ScoreCardService {
 
 	private final ScoreCardRepository scoreCardRepository;
+	private final PlayerRoundRepository playerRoundRepository;
+	private final PlayerRepository playerRepository;
+	private final RoundServiceConfig roundServiceConfig;
 
 	@Transactional(readOnly = true)
 	public List<ScoreCard> listByRound(Round round) {
 
+		if (Boolean.TRUE.equals(roundServiceConfig.getPackedScoreCards())) {
+			var playerRounds = playerRoundRepository.findByRoundIdOrderByPlayerId(round.getId()).orElseThrow();
+			// rounds saved before packing was enabled and not backfilled are read from score_card rows
+			if (!playerRounds.isEmpty() && playerRounds.stream().allMatch(PackedScoreCard::isPacked)) {
+				var players = playerRepository.findAllById(playerRounds.stream().map(PlayerRound::getPlayerId).toList())
+						.stream().collect(Collectors.toMap(Player::getId, Function.identity()));
+				var scoreCards = new ArrayList<ScoreCard>();
+				playerRounds.forEach(pr -> scoreCards.addAll(PackedScoreCard.unpack(pr, round, players.get(pr.getPlayerId()))));
+				return scoreCards;
+			}
+		}
+
 		return scoreCardRepository.findByRound(round);
 	}
 }
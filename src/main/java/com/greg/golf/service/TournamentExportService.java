@@ -0,0 +1,132 @@
+package com.greg.golf.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import com.greg.golf.repository.ScoreCardRepository;
+import com.greg.golf.repository.TournamentRepository;
+import com.greg.golf.repository.TournamentResultRepository;
+import com.greg.golf.repository.TournamentRoundRepository;
+import com.greg.golf.repository.projection.ScoreCardRow;
+import com.greg.golf.repository.projection.TournamentResultRow;
+import com.greg.golf.repository.projection.TournamentRoundRow;
+import com.greg.golf.service.helpers.RowWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Exports tournament results, rounds and score cards as CSV or NDJSON. Rows are read as projections
+ * from a forward-only cursor and written to the response as they come, so memory stays flat
+ * regardless of the tournament size. Only existence of the exported object is verified
+ * before the response is started.
+ */
+@Slf4j
+@Service("tournamentExportService")
+public class TournamentExportService {
+
+    private static final RowWriter<TournamentResultRow> RESULTS = new RowWriter<TournamentResultRow>()
+            .column("id", TournamentResultRow::getId)
+            .column("nick", TournamentResultRow::getNick)
+            .column("playedRounds", TournamentResultRow::getPlayedRounds)
+            .column("strokeRounds", TournamentResultRow::getStrokeRounds)
+            .column("stbNet", TournamentResultRow::getStbNet)
+            .column("stbGross", TournamentResultRow::getStbGross)
+            .column("strokesNetto", TournamentResultRow::getStrokesNetto)
+            .column("strokesBrutto", TournamentResultRow::getStrokesBrutto);
+
+    private static final RowWriter<TournamentRoundRow> ROUNDS = new RowWriter<TournamentRoundRow>()
+            .column("id", TournamentRoundRow::getId)
+            .column("tournamentResultId", TournamentRoundRow::getTournamentResultId)
+            .column("nick", TournamentRoundRow::getNick)
+            .column("roundId", TournamentRoundRow::getRoundId)
+            .column("courseName", TournamentRoundRow::getCourseName)
+            .column("tee", TournamentRoundRow::getTee)
+            .column("hcp", TournamentRoundRow::getHcp)
+            .column("courseHcp", TournamentRoundRow::getCourseHcp)
+            .column("playingHcp", TournamentRoundRow::getPlayingHcp)
+            .column("stbNet", TournamentRoundRow::getStbNet)
+            .column("stbGross", TournamentRoundRow::getStbGross)
+            .column("strokesNetto", TournamentRoundRow::getStrokesNetto)
+            .column("strokesBrutto", TournamentRoundRow::getStrokesBrutto)
+            .column("strokes", TournamentRoundRow::getStrokes)
+            .column("scrDiff", TournamentRoundRow::getScrDiff);
+
+    private static final RowWriter<ScoreCardRow> SCORE_CARDS = new RowWriter<ScoreCardRow>()
+            .column("roundId", ScoreCardRow::getRoundId)
+            .column("roundDate", ScoreCardRow::getRoundDate)
+            .column("playerId", ScoreCardRow::getPlayerId)
+            .column("nick", ScoreCardRow::getNick)
+            .column("hole", ScoreCardRow::getHole)
+            .column("stroke", ScoreCardRow::getStroke)
+            .column("pats", ScoreCardRow::getPats)
+            .column("penalty", ScoreCardRow::getPenalty);
+
+    private final TournamentRepository tournamentRepository;
+    private final TournamentResultRepository tournamentResultRepository;
+    private final TournamentRoundRepository tournamentRoundRepository;
+    private final ScoreCardRepository scoreCardRepository;
+    private final TournamentExportService self;
+
+    public TournamentExportService(TournamentRepository tournamentRepository,
+                                   TournamentResultRepository tournamentResultRepository,
+                                   TournamentRoundRepository tournamentRoundRepository,
+                                   ScoreCardRepository scoreCardRepository,
+                                   @Lazy TournamentExportService self) {
+        this.tournamentRepository = tournamentRepository;
+        this.tournamentResultRepository = tournamentResultRepository;
+        this.tournamentRoundRepository = tournamentRoundRepository;
+        this.scoreCardRepository = scoreCardRepository;
+        this.self = self;
+    }
+
+    public StreamingResponseBody exportResults(Long tournamentId, RowWriter.Format format) {
+
+        tournamentRepository.findById(tournamentId).orElseThrow();
+
+        return outputStream -> self.write(() -> tournamentResultRepository.streamByTournamentId(tournamentId), RESULTS,
+                format, outputStream, "results of tournament " + tournamentId);
+    }
+
+    public StreamingResponseBody exportRounds(Long tournamentId, RowWriter.Format format) {
+
+        tournamentRepository.findById(tournamentId).orElseThrow();
+
+        return outputStream -> self.write(() -> tournamentRoundRepository.streamByTournamentId(tournamentId), ROUNDS,
+                format, outputStream, "rounds of tournament " + tournamentId);
+    }
+
+    public StreamingResponseBody exportResultRounds(Long tournamentResultId, RowWriter.Format format) {
+
+        tournamentResultRepository.findById(tournamentResultId).orElseThrow();
+
+        return outputStream -> self.write(() -> tournamentRoundRepository.streamByTournamentResultId(tournamentResultId),
+                ROUNDS, format, outputStream, "rounds of tournament result " + tournamentResultId);
+    }
+
+    public StreamingResponseBody exportScoreCards(Long tournamentId, RowWriter.Format format) {
+
+        tournamentRepository.findById(tournamentId).orElseThrow();
+
+        return outputStream -> self.write(() -> scoreCardRepository.streamByTournamentId(tournamentId), SCORE_CARDS,
+                format, outputStream, "score cards of tournament " + tournamentId);
+    }
+
+    // the cursor is open only as long as the transaction, so rows are written within it
+    @Transactional(readOnly = true)
+    public <T> void write(Supplier<Stream<T>> rows, RowWriter<T> rowWriter, RowWriter.Format format,
+                          OutputStream outputStream, String description) throws IOException {
+
+        long startTime = System.currentTimeMillis();
+
+        try (var stream = rows.get()) {
+            long count = rowWriter.write(stream, format, outputStream);
+            log.info("Exported {} rows of {} as {} in {} ms", count, description, format,
+                    System.currentTimeMillis() - startTime);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.greg.golf.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.greg.golf.configurationproperties.TournamentServiceConfig;
+import com.greg.golf.controller.dto.LeaderboardDeltaDto;
+import com.greg.golf.controller.dto.LeaderboardEntryDto;
+import com.greg.golf.entity.TournamentResult;
+import com.greg.golf.service.helpers.TournamentLeaderboard;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Pushes changes of tournament leaderboard to /topic/tournament/{id} so clients do not have to poll results.
+ * Changes are coalesced - the first change schedules publishing after leaderboardPushDelay and all changes
+ * until then are sent in one message. Versions are the results version of the tournament kept in the database,
+ * so they are the same on all instances and survive restarts. The message contains only entries which differ
+ * from the leaderboard previously published by this instance, as long as all changes between the two versions
+ * were made on this instance. Otherwise (nothing published yet, a change made on another instance, a restart)
+ * the whole leaderboard is sent, because a change made elsewhere and reverted here would be missing in the delta.
+ * Clients read the full leaderboard with its version from getSnapshot and replace their copy with a full
+ * message of a greater version. A delta is applied if previousVersion <= client version < version, otherwise
+ * the client reads getSnapshot again. Entries in messages carry whole values, so the delta can be applied
+ * to any version since previousVersion.
+ */
+@Slf4j
+@Service("tournamentLeaderboardPublisher")
+public class TournamentLeaderboardPublisher {
+
+    public static final String TOPIC = "/topic/tournament/";
+
+    private final TournamentService tournamentService;
+    private final SimpMessagingTemplate template;
+    private final TournamentServiceConfig tournamentServiceConfig;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            runnable -> new Thread(runnable, "leaderboard-publisher"));
+    private final Set<Long> scheduled = ConcurrentHashMap.newKeySet();
+    // number of changes committed on this instance since last publishing, each of them incremented the version once
+    private final Map<Long, Long> localChanges = new ConcurrentHashMap<>();
+    // last published entries, accessed only from the executor thread
+    private final Cache<Long, Snapshot> snapshots = CacheBuilder.newBuilder()
+            .maximumSize(500)
+            .expireAfterAccess(1, TimeUnit.DAYS)
+            .build();
+
+    public TournamentLeaderboardPublisher(@Lazy TournamentService tournamentService, SimpMessagingTemplate template,
+                                          TournamentServiceConfig tournamentServiceConfig) {
+        this.tournamentService = tournamentService;
+        this.template = template;
+        this.tournamentServiceConfig = tournamentServiceConfig;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // to be called after the change is committed
+    public void changed(Long tournamentId) {
+
+        if (!Boolean.TRUE.equals(tournamentServiceConfig.getLeaderboardPush())) {
+            return;
+        }
+
+        localChanges.merge(tournamentId, 1L, Long::sum);
+
+        if (scheduled.add(tournamentId)) {
+            executor.schedule(() -> publish(tournamentId), tournamentServiceConfig.getLeaderboardPushDelay(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    void publish(Long tournamentId) {
+
+        // changes committed from now on schedule next publishing
+        scheduled.remove(tournamentId);
+        // counted before the leaderboard is read, so it never includes a change the leaderboard misses
+        var changes = localChanges.remove(tournamentId);
+
+        try {
+            var delta = buildDelta(tournamentId, tournamentService.getLeaderboard(tournamentId),
+                    changes == null ? 0 : changes);
+            if (delta != null) {
+                template.convertAndSend(TOPIC + tournamentId, delta);
+                log.debug("Leaderboard delta published for tournament: {}, updated: {}, removed: {}", tournamentId,
+                        delta.getUpdated().size(), delta.getRemoved().size());
+            }
+        } catch (NoSuchElementException e) {
+            // tournament has been deleted
+            snapshots.invalidate(tournamentId);
+        } catch (RuntimeException e) {
+            snapshots.invalidate(tournamentId);
+            log.error("Publishing leaderboard for tournament {} failed", tournamentId, e);
+        }
+    }
+
+    // the whole current leaderboard in the format of published messages
+    public LeaderboardDeltaDto getSnapshot(Long tournamentId) {
+
+        var leaderboard = tournamentService.getLeaderboard(tournamentId);
+        return buildFull(tournamentId, leaderboard.getVersion(),
+                toEntries(leaderboard.getView(TournamentLeaderboard.SORT_DEFAULT)));
+    }
+
+    // returns null if nothing has changed since last publishing
+    LeaderboardDeltaDto buildDelta(Long tournamentId, TournamentLeaderboard leaderboard, long changes) {
+
+        var entries = toEntries(leaderboard.getView(TournamentLeaderboard.SORT_DEFAULT));
+        var previous = snapshots.getIfPresent(tournamentId);
+
+        // never go back to an older leaderboard, e.g. cached before the change was evicted
+        if (previous != null && leaderboard.getVersion() < previous.version) {
+            return null;
+        }
+
+        snapshots.put(tournamentId, new Snapshot(leaderboard.getVersion(), entries));
+
+        // the version also counts changes made on other instances, previous snapshot does not show them
+        if (previous == null || leaderboard.getVersion() - previous.version != changes) {
+            return buildFull(tournamentId, leaderboard.getVersion(), entries);
+        }
+
+        var delta = new LeaderboardDeltaDto();
+        delta.setTournamentId(tournamentId);
+        delta.setVersion(leaderboard.getVersion());
+        delta.setPreviousVersion(previous.version);
+        delta.setUpdated(entries.values().stream().filter(e -> !e.equals(previous.entries.get(e.getId()))).toList());
+        delta.setRemoved(previous.entries.keySet().stream().filter(id -> !entries.containsKey(id)).toList());
+
+        if (delta.getUpdated().isEmpty() && delta.getRemoved().isEmpty()) {
+            return null;
+        }
+
+        return delta;
+    }
+
+    private static LeaderboardDeltaDto buildFull(Long tournamentId, long version, Map<Long, LeaderboardEntryDto> entries) {
+
+        var full = new LeaderboardDeltaDto();
+        full.setTournamentId(tournamentId);
+        full.setVersion(version);
+        full.setFull(true);
+        full.setUpdated(new ArrayList<>(entries.values()));
+        full.setRemoved(List.of());
+        return full;
+    }
+
+    private static Map<Long, LeaderboardEntryDto> toEntries(List<TournamentResult> results) {
+
+        var entries = new LinkedHashMap<Long, LeaderboardEntryDto>();
+        int position = 1;
+
+        for (var result : results) {
+            var entry = new LeaderboardEntryDto();
+            entry.setId(result.getId());
+            entry.setPosition(position++);
+            if (result.getPlayer() != null) {
+                entry.setPlayerId(result.getPlayer().getId());
+                entry.setNick(result.getPlayer().getNick());
+            }
+            entry.setStrokesBrutto(result.getStrokesBrutto());
+            entry.setStrokesNetto(result.getStrokesNetto());
+            entry.setPlayedRounds(result.getPlayedRounds());
+            entry.setStbNet(result.getStbNet());
+            entry.setStbGross(result.getStbGross());
+            entry.setStrokeRounds(result.getStrokeRounds());
+            entries.put(entry.getId(), entry);
+        }
+
+        return entries;
+    }
+
+    private static class Snapshot {
+
+        private final long version;
+        private final Map<Long, LeaderboardEntryDto> entries;
+
+        Snapshot(long version, Map<Long, LeaderboardEntryDto> entries) {
+            this.version = version;
+            this.entries = entries;
+        }
+    }
+}
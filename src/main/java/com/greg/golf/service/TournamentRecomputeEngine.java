@@ -0,0 +1,161 @@
+package com.greg.golf.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.greg.golf.configurationproperties.TournamentServiceConfig;
+import com.greg.golf.entity.TournamentResult;
+import com.greg.golf.entity.TournamentRound;
+import com.greg.golf.entity.helpers.Common;
+import com.greg.golf.service.helpers.BestRounds;
+import com.greg.golf.service.helpers.ScoringEngine;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Evaluates tournament rounds of players in parallel on a bounded executor.
+ * Works only on inputs prepared from entities in advance, so worker threads never touch
+ * the persistence context. Results are returned as transient objects to be compared with stored ones.
+ */
+@Slf4j
+@Service("tournamentRecomputeEngine")
+public class TournamentRecomputeEngine {
+
+    private final ThreadPoolExecutor executor;
+
+    public TournamentRecomputeEngine(TournamentServiceConfig tournamentServiceConfig) {
+
+        var threadCnt = new AtomicInteger();
+
+        executor = new ThreadPoolExecutor(tournamentServiceConfig.getRecomputeThreads(),
+                tournamentServiceConfig.getRecomputeThreads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(tournamentServiceConfig.getRecomputeQueueSize()),
+                runnable -> new Thread(runnable, "tournament-recompute-" + threadCnt.incrementAndGet()),
+                // when queue is full the calling thread evaluates the player itself
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public List<PlayerOutput> evaluate(List<PlayerInput> inputs, int bestRounds) {
+
+        var futures = inputs
+                .stream()
+                .map(input -> CompletableFuture.supplyAsync(() -> evaluatePlayer(input, bestRounds), executor))
+                .toList();
+
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private static PlayerOutput evaluatePlayer(PlayerInput input, int bestRounds) {
+
+        var tournamentRounds = new ArrayList<TournamentRound>(input.getRounds().size());
+        var tournamentResult = new TournamentResult();
+        tournamentResult.setPlayedRounds(input.getRounds().size());
+        tournamentResult.setStrokeRounds(0);
+        tournamentResult.setStbNet(0);
+        tournamentResult.setStbGross(0);
+        tournamentResult.setStrokesBrutto(0);
+        tournamentResult.setStrokesNetto(0);
+
+        for (var roundInput : input.getRounds()) {
+
+            var score = ScoringEngine.score(roundInput.getPlayerCard(), roundInput.getPlayingHcp());
+            boolean strokeApplicable = !score.isGivenUp();
+
+            var tournamentRound = new TournamentRound();
+            tournamentRound.setId(roundInput.getTournamentRoundId());
+            tournamentRound.setStbNet(score.getStbNet());
+            tournamentRound.setStbGross(score.getStbGross());
+            tournamentRound.setStrokes(strokeApplicable);
+            tournamentRound.setStrokesBrutto(strokeApplicable ? score.getGrossStrokes() : 0);
+            tournamentRound.setStrokesNetto(strokeApplicable ? score.getNetStrokes() : 0);
+            tournamentRound.setScrDiff(ScoringEngine.getScoreDifferential(score.getCorrectedStrokes(),
+                    roundInput.getCr(), roundInput.getSr()));
+            tournamentRound.setPlayingHcp(roundInput.getPlayingHcp());
+            tournamentRound.setCourseHcp(roundInput.getCourseHcp());
+            tournamentRound.setHcp(roundInput.getHcp());
+            tournamentRound.setTee(roundInput.getTee());
+            tournamentRounds.add(tournamentRound);
+
+            if (strokeApplicable) {
+                tournamentResult.increaseStrokeRounds();
+            }
+
+            if (bestRounds == Common.ALL_ROUNDS) {
+                tournamentResult.setStbNet(tournamentResult.getStbNet() + tournamentRound.getStbNet());
+                tournamentResult.setStbGross(tournamentResult.getStbGross() + tournamentRound.getStbGross());
+                tournamentResult.setStrokesBrutto(tournamentResult.getStrokesBrutto() + tournamentRound.getStrokesBrutto());
+                tournamentResult.setStrokesNetto(tournamentResult.getStrokesNetto() + tournamentRound.getStrokesNetto());
+            }
+        }
+
+        if (bestRounds != Common.ALL_ROUNDS) {
+            BestRounds.rebuild(tournamentResult, tournamentRounds, bestRounds);
+        }
+
+        return new PlayerOutput(input.getTournamentResultId(), tournamentRounds, tournamentResult);
+    }
+
+    @Getter
+    public static class RoundInput {
+
+        private final Long tournamentRoundId;
+        private final ScoringEngine.PlayerCard playerCard;
+        private final int playingHcp;
+        private final int courseHcp;
+        private final float hcp;
+        private final float cr;
+        private final int sr;
+        private final String tee;
+
+        @SuppressWarnings("java:S107")
+        public RoundInput(Long tournamentRoundId, ScoringEngine.PlayerCard playerCard, int playingHcp, int courseHcp,
+                          float hcp, float cr, int sr, String tee) {
+            this.tournamentRoundId = tournamentRoundId;
+            this.playerCard = playerCard;
+            this.playingHcp = playingHcp;
+            this.courseHcp = courseHcp;
+            this.hcp = hcp;
+            this.cr = cr;
+            this.sr = sr;
+            this.tee = tee;
+        }
+    }
+
+    @Getter
+    public static class PlayerInput {
+
+        private final Long tournamentResultId;
+        private final List<RoundInput> rounds = new ArrayList<>();
+
+        public PlayerInput(Long tournamentResultId) {
+            this.tournamentResultId = tournamentResultId;
+        }
+    }
+
+    @Getter
+    public static class PlayerOutput {
+
+        private final Long tournamentResultId;
+        private final List<TournamentRound> tournamentRounds;
+        private final TournamentResult tournamentResult;
+
+        public PlayerOutput(Long tournamentResultId, List<TournamentRound> tournamentRounds,
+                            TournamentResult tournamentResult) {
+            this.tournamentResultId = tournamentResultId;
+            this.tournamentRounds = tournamentRounds;
+            this.tournamentResult = tournamentResult;
+        }
+    }
+}
@@ -1,32 +1,47 @@
 package com.greg.golf.service;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.Map;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.greg.golf.configurationproperties.TournamentServiceConfig;
 import com.greg.golf.entity.*;
 import com.greg.golf.entity.helpers.Common;
 import com.greg.golf.error.*;
 import com.greg.golf.repository.*;
+import com.greg.golf.service.helpers.BestRounds;
+import com.greg.golf.service.helpers.KeysetCursor;
+import com.greg.golf.service.helpers.KeysetPage;
+import com.greg.golf.service.helpers.RecomputeReport;
 import com.greg.golf.service.helpers.RoleVerification;
-import jakarta.mail.MessagingException;
+import com.greg.golf.service.helpers.ScoringEngine;
+import com.greg.golf.service.helpers.TeeTimeScheduler;
+import com.greg.golf.service.helpers.TournamentLeaderboard;
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.greg.golf.service.events.RoundEvent;
 
 import lombok.RequiredArgsConstructor;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 
 @Slf4j
 @Service("tournamentService")
@@ -34,6 +49,7 @@ import org.thymeleaf.context.Context;
 public class TournamentService {
 
     private static final int TOURNAMENT_HOLES = 18;
+    private static final int SIMULATION_CACHE_SIZE = 200;
 
     private final TournamentServiceConfig tournamentServiceConfig;
 
@@ -46,10 +62,13 @@ public class TournamentService {
     private final PlayerRepository playerRepository;
     private final TournamentPlayerRepository tournamentPlayerRepository;
     private final TournamentNotificationRepository tournamentNotificationRepository;
-    private final EmailServiceImpl emailServiceImpl;
-    private final TemplateEngine templateEngine;
+    private final MailOutboxService mailOutboxService;
+    private final MailRenderingService mailRenderingService;
+    private final TournamentLeaderboardPublisher tournamentLeaderboardPublisher;
     private final PlayerService playerService;
     private final CourseTeeRepository courseTeeRepository;
+    private final TournamentRecomputeEngine tournamentRecomputeEngine;
+    private final EventPipelineService eventPipelineService;
 
 
     public static final int DEFAULT_PLAYING_MULTIPLIER = 1;
@@ -64,6 +83,13 @@ public class TournamentService {
     @PersistenceContext
     private final EntityManager entityManager;
 
+    // simulated rankings keyed by tournament, leaderboard version and simulation parameters
+    // handicap and rating changes do not change the leaderboard version, so they evict entries explicitly
+    private final Cache<String, List<TournamentResult>> simulations = CacheBuilder.newBuilder()
+            .maximumSize(SIMULATION_CACHE_SIZE)
+            .expireAfterWrite(1, TimeUnit.HOURS)
+            .build();
+
     @Transactional
     public void deleteTournament(Long tournamentId) {
 
@@ -112,6 +138,8 @@ public class TournamentService {
 
             var remTournamentRound = rstLst.getFirst();
 
+            invalidateLeaderboard(tournamentResult.getTournament().getId());
+
             // delete tournament round
             tournamentRoundRepository.delete(remTournamentRound);
 
@@ -133,7 +161,13 @@ public class TournamentService {
                 tournamentResultRepository.save(tournamentResult);
             } else {
                 tournamentResult.setPlayedRounds(tournamentResult.getPlayedRounds() - 1);
-                updateForBestRounds(tournamentResult.getTournament(), tournamentResult);
+                var bestRounds = tournamentResult.getTournament().getBestRounds();
+                // results created before sorted values were stored are rebuilt from already loaded rounds
+                if (!BestRounds.isInitialized(tournamentResult)) {
+                    BestRounds.rebuild(tournamentResult, tournamentRounds, bestRounds);
+                }
+                BestRounds.remove(tournamentResult, remTournamentRound, bestRounds);
+                tournamentResultRepository.save(tournamentResult);
             }
         }
     }
@@ -149,6 +183,8 @@ public class TournamentService {
         // only tournament owner can do it
         RoleVerification.verifyPlayer(tournamentResult.getTournament().getPlayer().getId(), "Attempt to delete tournament result by unauthorized user");
 
+        invalidateLeaderboard(tournamentResult.getTournament().getId());
+
         // then clear tournament flag for player round
         playerRoundRepository.clearTournamentForPlayer(tournamentResult.getPlayer().getId(), tournamentResult.getTournament().getId());
 
@@ -166,25 +202,87 @@ public class TournamentService {
         return tournamentRepository.findAllByOrderByIdDesc(PageRequest.of(pageNo, tournamentServiceConfig.getPageSize()));
     }
 
-    @Transactional
+    // after is the token returned with the previous page, null for the first page
+    @Transactional(readOnly = true)
+    public KeysetPage<Tournament> findTournamentsAfter(String after) {
+
+        var page = PageRequest.of(0, tournamentServiceConfig.getPageSize());
+        var tournaments = after == null
+                ? tournamentRepository.findAllByOrderByIdDesc(page)
+                : tournamentRepository.findByIdLessThanOrderByIdDesc(Long.valueOf(KeysetCursor.decode(after, 1)[0]), page);
+
+        return KeysetPage.of(tournaments, page.getPageSize(), tournament -> KeysetCursor.encode(tournament.getId()));
+    }
+
+    @Transactional(readOnly = true)
     public List<TournamentResult> findAllTournamentsResults(Long tournamentId) {
 
+        // in case if all rounds shall be included results are sorted by player rounds and stb net
+        // in case of bestRounds players who played bestRounds go first
+        return self.getLeaderboard(tournamentId).getView(TournamentLeaderboard.SORT_DEFAULT);
+    }
+
+    // ready-ordered results for all sort orders, cached until results of the tournament are changed
+    @Cacheable(value = "leaderboard", key = "#tournamentId")
+    @Transactional(readOnly = true)
+    public TournamentLeaderboard getLeaderboard(Long tournamentId) {
+
+        // version is read before results, so results can be newer than the version but never older
         var tournament = tournamentRepository.findById(tournamentId).orElseThrow();
 
-        // in case if all rounds shall be included return all results sorted by player rounds and stb net
-        if (tournament.getBestRounds() == Common.ALL_ROUNDS) {
-            return tournamentResultRepository.findByTournamentOrderByPlayedRoundsDescStbNetDesc(tournament);
+        log.debug("Building leaderboard for tournament: {}", tournamentId);
+
+        return new TournamentLeaderboard(tournamentResultRepository.findByTournamentIdOrderByIdAsc(tournamentId),
+                tournament.getBestRounds(), tournament.getResultsVersion());
+    }
+
+    @CacheEvict(value = "leaderboard", key = "#tournamentId")
+    public void evictLeaderboard(Long tournamentId) {
+        log.debug("Leaderboard evicted for tournament: {}", tournamentId);
+        tournamentLeaderboardPublisher.changed(tournamentId);
+    }
+
+    // evict after commit so concurrent reads cannot cache results from before the change
+    // subscribers of the tournament topic are notified at the same time
+    // the version is incremented in the changing transaction, so it is rolled back together with the change
+    private void invalidateLeaderboard(Long tournamentId) {
+
+        tournamentRepository.incrementResultsVersion(tournamentId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    self.evictLeaderboard(tournamentId);
+                }
+            });
+        } else {
+            self.evictLeaderboard(tournamentId);
         }
+    }
 
-        // in case of bestRounds perform 2 queries and join them
-        var retList =
-                tournamentResultRepository.findByTournamentAndPlayedRoundsGreaterThanEqualOrderByStbNetDesc(
-                        tournament, tournament.getBestRounds());
+    // simulations of all tournaments, e.g. after tee ratings used by their rounds are corrected
+    public void evictSimulations() {
+        simulations.invalidateAll();
+        log.debug("Tournament simulations evicted");
+    }
 
-        retList.addAll(tournamentResultRepository
-                .findByTournamentAndPlayedRoundsLessThanOrderByPlayedRoundsDescStbNetDesc(tournament, tournament.getBestRounds()));
+    // evicted after commit, as the leaderboard, so a running simulation cannot cache data from before the change
+    private void invalidateSimulations(Long tournamentId) {
 
-        return retList;
+        var prefix = tournamentId + ":";
+        Runnable evict = () -> simulations.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        } else {
+            evict.run();
+        }
     }
 
     @Transactional
@@ -239,10 +337,180 @@ public class TournamentService {
         return new ArrayList<>();
     }
 
+    @PostConstruct
+    public void subscribe() {
+        eventPipelineService.subscribe(RoundEvent.class, "tournament", self::handleRoundEvent,
+                self::recomputeForRounds);
+    }
+
+    // saved rounds are not in any tournament yet and tournament rounds keep their own copy of deleted rounds
     @Transactional(propagation = Propagation.REQUIRED)
-    @EventListener
-    public void handleRoundEvent(RoundEvent ignoredRoundEvent) {
-        log.info("Handling round event... however tournament cannot be updated that way");
+    public void handleRoundEvent(RoundEvent roundEvent) {
+
+        if (roundEvent.getType() == RoundEvent.Type.UPDATED) {
+            recomputeForRounds(List.of(roundEvent.getRoundId()));
+        }
+    }
+
+    // score cards or handicaps of the rounds changed, so open tournaments including them are recomputed
+    // and their leaderboard subscribers are notified if results are different
+    @Transactional
+    public void recomputeForRounds(Collection<Long> roundIds) {
+
+        var tournamentIds = playerRoundRepository.findByRoundIdIn(roundIds)
+                .stream()
+                .map(PlayerRound::getTournamentId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        if (tournamentIds.isEmpty()) {
+            return;
+        }
+
+        tournamentRepository.findAllById(tournamentIds)
+                .stream()
+                .filter(tournament -> tournament.getStatus() != Tournament.STATUS_CLOSE)
+                .forEach(tournament -> recompute(tournament, new RecomputeReport(tournament.getId())));
+    }
+
+    // imports all eligible rounds in one transaction
+    // all data is prefetched with fixed number of queries and written in batches
+    @Transactional
+    public List<TournamentRound> addAllEligibleRounds(Long tournamentId) {
+
+        var tournament = tournamentRepository.findById(tournamentId).orElseThrow();
+
+        // only tournament owner can do it
+        RoleVerification.verifyPlayer(tournament.getPlayer().getId(), "Attempt to import rounds by unauthorized user");
+
+        if (tournament.getStatus() == Tournament.STATUS_CLOSE) {
+            throw new GeneralException();
+        }
+
+        var tournamentPlayers = tournamentPlayerRepository
+                .findByTournamentId(tournamentId)
+                .stream()
+                .collect(Collectors.toMap(TournamentPlayer::getPlayerId, TournamentPlayer::getWhs));
+
+        // player rounds not yet added to any tournament for tournament participants grouped by round
+        var eligible = playerRoundRepository
+                .getEligiblePlayerRounds(tournamentId, tournament.getStartDate(), tournament.getEndDate())
+                .stream()
+                .collect(Collectors.groupingBy(PlayerRound::getRoundId));
+
+        if (eligible.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // prefetch rounds with score cards, course holes and tees
+        var rounds = roundService.getWithScoreCardForIds(eligible.keySet())
+                .stream()
+                .sorted(Comparator.comparing(Round::getRoundDate).thenComparing(Round::getId))
+                .toList();
+        courseService.getWithHolesForIds(rounds.stream().map(r -> r.getCourse().getId()).collect(Collectors.toSet()));
+        var tees = courseService.getTeesByIds(eligible.values()
+                                    .stream()
+                                    .flatMap(List::stream)
+                                    .map(PlayerRound::getTeeId)
+                                    .filter(Objects::nonNull)
+                                    .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(CourseTee::getId, Function.identity()));
+
+        // prefetch existing results
+        var results = tournamentResultRepository.findByTournamentIdOrderByIdAsc(tournamentId)
+                .stream()
+                .collect(Collectors.toMap(tr -> tr.getPlayer().getId(), Function.identity()));
+        prefetchBestRounds(tournament, results.values());
+
+        var tournamentRounds = new ArrayList<TournamentRound>();
+        var newResults = new ArrayList<TournamentResult>();
+
+        for (var round : rounds) {
+
+            var playerCards = ScoringEngine.toPlayerCards(round);
+
+            for (var playerRound : eligible.get(round.getId())) {
+
+                var playerCard = playerCards.get(playerRound.getPlayerId());
+                var courseTee = playerRound.getTeeId() == null ? null : tees.get(playerRound.getTeeId());
+
+                if (playerCard == null || playerCard.getPlayedHoles() != TOURNAMENT_HOLES || courseTee == null) {
+                    log.info("Round {} skipped for player {} - not complete or tee not set", round.getId(), playerRound.getPlayerId());
+                    continue;
+                }
+
+                var tournamentResult = results.get(playerRound.getPlayerId());
+                if (tournamentResult == null) {
+                    tournamentResult = buildEmptyTournamentResult(playerRepository.getReferenceById(playerRound.getPlayerId()));
+                    tournamentResult.setTournament(tournament);
+                    if (tournament.getBestRounds() != Common.ALL_ROUNDS) {
+                        BestRounds.init(tournamentResult);
+                    }
+                    results.put(playerRound.getPlayerId(), tournamentResult);
+                    newResults.add(tournamentResult);
+                } else {
+                    tournamentResult.setPlayedRounds(tournamentResult.getPlayedRounds() + 1);
+                }
+
+                tournamentRounds.add(addToResult(tournamentResult, playerRound, round, tournament, courseTee,
+                        tournamentPlayers.get(playerRound.getPlayerId()), playerCard));
+                // managed entity - updated in batch on flush
+                playerRound.setTournamentId(tournamentId);
+            }
+        }
+
+        tournamentResultRepository.saveAll(newResults);
+        tournamentRoundRepository.saveAll(tournamentRounds);
+        if (!tournamentRounds.isEmpty()) {
+            invalidateLeaderboard(tournamentId);
+        }
+
+        log.info("Imported {} rounds to tournament {}", tournamentRounds.size(), tournamentId);
+
+        return tournamentRounds;
+    }
+
+    // rebuilds sorted values for results created before they were stored with one query for all results
+    private void prefetchBestRounds(Tournament tournament, Collection<TournamentResult> results) {
+
+        if (tournament.getBestRounds() == Common.ALL_ROUNDS) {
+            return;
+        }
+
+        var notInitialized = results.stream().filter(tr -> !BestRounds.isInitialized(tr)).toList();
+
+        if (!notInitialized.isEmpty()) {
+            var tournamentRounds = tournamentRoundRepository.findByTournamentResultIn(notInitialized)
+                    .stream()
+                    .collect(Collectors.groupingBy(tr -> tr.getTournamentResult().getId()));
+            notInitialized.forEach(tr -> BestRounds.rebuild(tr, tournamentRounds.getOrDefault(tr.getId(), List.of()),
+                    tournament.getBestRounds()));
+        }
+    }
+
+    private TournamentRound addToResult(TournamentResult tournamentResult, PlayerRound playerRound, Round round,
+                                        Tournament tournament, CourseTee courseTee, Float hcp,
+                                        ScoringEngine.PlayerCard playerCard) {
+
+        int courseHCP = getCourseHCP(courseTee, round, hcp);
+        int playingHCP = getPlayingHcp(tournament, courseHCP);
+
+        var score = ScoringEngine.score(playerCard, playingHCP);
+        int grossStrokes = 0;
+        int netStrokes = 0;
+        boolean strokeApplicable = !score.isGivenUp();
+        if (strokeApplicable) {
+            tournamentResult.increaseStrokeRounds();
+            grossStrokes = score.getGrossStrokes();
+            netStrokes = score.getNetStrokes();
+        }
+        addToTotals(tournament, tournamentResult, score, strokeApplicable, netStrokes, grossStrokes);
+
+        return buildTournamentRound(score.getStbGross(), score.getStbNet(), grossStrokes, netStrokes,
+                ScoringEngine.getScoreDifferential(score.getCorrectedStrokes(), playerRound.getCr(), playerRound.getSr()),
+                round.getCourse().getName(), tournamentResult, strokeApplicable, round.getId(), playingHCP, hcp,
+                courseHCP, courseTee.getTee());
     }
 
     @Transactional
@@ -255,8 +523,13 @@ public class TournamentService {
                                 .stream()
                                 .collect(Collectors.toMap(TournamentPlayer::getPlayerId, TournamentPlayer::getWhs));
 
+        // convert round to player cards once and use them for all calculations
+        var playerCards = ScoringEngine.toPlayerCards(round);
+
         // first verify if round has 18 holes played for each player
-        verifyRoundCorrectness(round);
+        verifyRoundCorrectness(round, playerCards);
+
+        invalidateLeaderboard(tournament.getId());
 
         // iterate through round players and check if they already added
         for (var player : round.getPlayer()) {
@@ -271,11 +544,11 @@ public class TournamentService {
                         .findByPlayerAndTournament(player, tournament);
 
                 if (tournamentResultOpt.isPresent()) {
-                    tournamentRoundLst.add(processExistingTournamentResult(
-                            tournamentResultOpt.get(), playerRound, round, player, tournament, tournamentPlayers));
+                    tournamentRoundLst.add(processExistingTournamentResult(tournamentResultOpt.get(), playerRound,
+                            round, player, tournament, tournamentPlayers, playerCards.get(player.getId())));
                 } else {
                     tournamentRoundLst.add(processNewTournamentResult(
-                            player, tournament, playerRound, round, tournamentPlayers));
+                            player, tournament, playerRound, round, tournamentPlayers, playerCards.get(player.getId())));
                 }
 
                 // set tournament id in player_round
@@ -287,9 +560,10 @@ public class TournamentService {
         return tournamentRoundLst;
     }
 
+    @SuppressWarnings("java:S107")
     private TournamentRound processExistingTournamentResult(TournamentResult tournamentResult,
             PlayerRound playerRound, Round round, Player player, Tournament tournament,
-            Map<Long, Float> tournamentPlayers) {
+            Map<Long, Float> tournamentPlayers, ScoringEngine.PlayerCard playerCard) {
 
         log.debug("Attempting to update tournament result");
 
@@ -301,16 +575,15 @@ public class TournamentService {
         int courseHCP = getCourseHCP(playerRound, round, player, tournamentPlayers.get(player.getId()));
         int playingHCP = getPlayingHcp(tournament, courseHCP);
 
-        List<Integer> stb = self.updateSTB(tournamentResult, round, player, playingHCP);
+        var score = ScoringEngine.score(playerCard, playingHCP);
         // check if round is applicable for stroke statistic
-        boolean strokeApplicable = self.applicableForStroke(round, player);
+        boolean strokeApplicable = !score.isGivenUp();
         if (strokeApplicable) {
             tournamentResult.increaseStrokeRounds();
-            grossStrokes = self.getGrossStrokes(player, round);
-            netStrokes = self.getNetStrokes(grossStrokes, playingHCP);
+            grossStrokes = score.getGrossStrokes();
+            netStrokes = score.getNetStrokes();
         }
-        tournamentResult.setStrokesBrutto(tournamentResult.getStrokesBrutto() + grossStrokes);
-        tournamentResult.setStrokesNetto(tournamentResult.getStrokesNetto() + netStrokes);
+        addToTotals(tournament, tournamentResult, score, strokeApplicable, netStrokes, grossStrokes);
 
         // save entity
         tournamentResultRepository.save(tournamentResult);
@@ -318,19 +591,17 @@ public class TournamentService {
         String tee = playerRound.getTeeId() != null
                 ? courseTeeRepository.findById(playerRound.getTeeId()).map(CourseTee::getTee).orElse(null)
                 : null;
-        TournamentRound tournamentRound = self.addTournamentRound(stb.get(1), stb.get(0), grossStrokes, netStrokes,
-                self.getScoreDifferential(playerRound, round, player), round.getCourse().getName(),
-                tournamentResult, strokeApplicable, round.getId(), playingHCP,
+        TournamentRound tournamentRound = self.addTournamentRound(score.getStbGross(), score.getStbNet(), grossStrokes,
+                netStrokes, ScoringEngine.getScoreDifferential(score.getCorrectedStrokes(), playerRound.getCr(), playerRound.getSr()),
+                round.getCourse().getName(), tournamentResult, strokeApplicable, round.getId(), playingHCP,
                 tournamentPlayers.get(player.getId()), courseHCP, tee);
 
-        // update TournamentResults in case the number of added rounds is greater than bestRounds
-        updateForBestRounds(tournament, tournamentResult);
-
         return tournamentRound;
     }
 
     private TournamentRound processNewTournamentResult(Player player, Tournament tournament,
-            PlayerRound playerRound, Round round, Map<Long, Float> tournamentPlayers) {
+            PlayerRound playerRound, Round round, Map<Long, Float> tournamentPlayers,
+            ScoringEngine.PlayerCard playerCard) {
 
         log.debug("Attempting to add the new round to tournament result");
         // if it is the first record to be added to result then create it
@@ -342,88 +613,323 @@ public class TournamentService {
         int playingHCP = getPlayingHcp(tournament, courseHCP);
 
         // update stb result
-        List<Integer> stb = self.updateSTB(tournamentResult, round, player, playingHCP);
+        var score = ScoringEngine.score(playerCard, playingHCP);
+        int grossStrokes = 0;
+        int netStrokes = 0;
         // check if round is applicable for stroke statistic
-        boolean strokeApplicable = self.applicableForStroke(round, player);
+        boolean strokeApplicable = !score.isGivenUp();
         if (strokeApplicable) {
             tournamentResult.increaseStrokeRounds();
             // get gross and net strokes
-            tournamentResult.setStrokesBrutto(self.getGrossStrokes(player, round));
-            tournamentResult.setStrokesNetto(self.getNetStrokes(tournamentResult.getStrokesBrutto(), playingHCP));
-        } else {
-            tournamentResult.setStrokesBrutto(0);
-            tournamentResult.setStrokesNetto(0);
+            grossStrokes = score.getGrossStrokes();
+            netStrokes = score.getNetStrokes();
+        }
+        if (tournament.getBestRounds() != Common.ALL_ROUNDS) {
+            BestRounds.init(tournamentResult);
         }
+        addToTotals(tournament, tournamentResult, score, strokeApplicable, netStrokes, grossStrokes);
         // save entity
         tournamentResultRepository.save(tournamentResult);
 
         String tee = playerRound.getTeeId() != null
                 ? courseTeeRepository.findById(playerRound.getTeeId()).map(CourseTee::getTee).orElse(null)
                 : null;
-        return self.addTournamentRound(stb.get(1), stb.get(0), tournamentResult.getStrokesBrutto(),
-                tournamentResult.getStrokesNetto(), self.getScoreDifferential(playerRound, round, player),
+        return self.addTournamentRound(score.getStbGross(), score.getStbNet(), grossStrokes, netStrokes,
+                ScoringEngine.getScoreDifferential(score.getCorrectedStrokes(), playerRound.getCr(), playerRound.getSr()),
                 round.getCourse().getName(), tournamentResult, strokeApplicable, round.getId(), playingHCP,
                 tournamentPlayers.get(player.getId()), courseHCP, tee);
     }
 
-    private void updateForBestRounds(Tournament tournament, TournamentResult tournamentResult) {
+    // adds round values to result totals - in case of bestRounds only the best rounds are summed up
+    private void addToTotals(Tournament tournament, TournamentResult tournamentResult, ScoringEngine.RoundScore score,
+                             boolean strokeApplicable, int netStrokes, int grossStrokes) {
 
-        // skip processing if all rounds shall be included
-        if (tournament.getBestRounds() == Common.ALL_ROUNDS) {
-            log.debug("Skipping as all rounds should be included");
+        var bestRounds = tournament.getBestRounds();
+
+        if (bestRounds == Common.ALL_ROUNDS) {
+            tournamentResult.setStbNet(tournamentResult.getStbNet() + score.getStbNet());
+            tournamentResult.setStbGross(tournamentResult.getStbGross() + score.getStbGross());
+            tournamentResult.setStrokesBrutto(tournamentResult.getStrokesBrutto() + grossStrokes);
+            tournamentResult.setStrokesNetto(tournamentResult.getStrokesNetto() + netStrokes);
             return;
         }
-        // get all rounds
-        List<TournamentRound> tournamentRoundList =
-                tournamentRoundRepository.findByTournamentResultOrderByIdAsc(tournamentResult);
 
-        log.debug("All checks done - beginning of updating tournament result");
+        // results created before sorted values were stored need to be rebuilt once
+        if (!BestRounds.isInitialized(tournamentResult)) {
+            log.debug("Rebuilding best rounds for tournament result: {}", tournamentResult.getId());
+            BestRounds.rebuild(tournamentResult,
+                    tournamentRoundRepository.findByTournamentResultOrderByIdAsc(tournamentResult), bestRounds);
+        }
+
+        BestRounds.add(tournamentResult, score.getStbNet(), score.getStbGross(), strokeApplicable, netStrokes,
+                grossStrokes, bestRounds);
+    }
 
-        // calculate stb net - more the better
-        tournamentResult.setStbNet(
-                tournamentRoundList
-                        .stream()
-                        .mapToInt(TournamentRound::getStbNet)
-                        .boxed()
-                        .sorted(Comparator.reverseOrder())
-                        .limit(tournament.getBestRounds())
-                        .reduce(0, Integer::sum));
-
-        // calculate stb gross - more the better
-        tournamentResult.setStbGross(
-                tournamentRoundList
-                        .stream()
-                        .mapToInt(TournamentRound::getStbGross)
-                        .boxed()
-                        .sorted(Comparator.reverseOrder())
-                        .limit(tournament.getBestRounds())
-                        .reduce(0, Integer::sum));
-
-        // calculate net strokes - lower the better
-        tournamentResult.setStrokesNetto(
-                tournamentRoundList
-                        .stream()
-                        .filter(TournamentRound::getStrokes)
-                        .mapToInt(TournamentRound::getStrokesNetto)
-                        .boxed()
-                        .sorted()
-                        .limit(tournament.getBestRounds())
-                        .reduce(0, Integer::sum));
-
-        // calculate gross strokes - lower the better
-        tournamentResult.setStrokesBrutto(
-                tournamentRoundList
-                        .stream()
-                        .filter(TournamentRound::getStrokes)
-                        .mapToInt(TournamentRound::getStrokesBrutto)
-                        .boxed()
-                        .sorted()
-                        .limit(tournament.getBestRounds())
-                        .reduce(0, Integer::sum));
-
-        // update tournament results in database
-        log.debug("Update tournament results in database");
-        tournamentResultRepository.save(tournamentResult);
+    // rebuilds all tournament rounds and results from player rounds and score cards
+    // e.g. after correction of tee CR/SR or player WHS
+    @Transactional
+    public RecomputeReport recomputeTournament(Long tournamentId) {
+
+        var tournament = tournamentRepository.findById(tournamentId).orElseThrow();
+
+        // only tournament owner can do it
+        RoleVerification.verifyPlayer(tournament.getPlayer().getId(), "Attempt to recompute tournament by unauthorized user");
+
+        if (tournament.getStatus() == Tournament.STATUS_CLOSE) {
+            throw new GeneralException();
+        }
+
+        return recompute(tournament, new RecomputeReport(tournamentId));
+    }
+
+    private RecomputeReport recompute(Tournament tournament, RecomputeReport report) {
+
+        long startTime = System.nanoTime();
+        var tournamentId = tournament.getId();
+
+        var data = loadRecomputeData(tournament, tournament.getPlayHcpMultiplayer(), tournament.getMaxPlayHcp());
+        var results = data.results;
+        report.setSkippedResults(data.skipped);
+
+        long loadedTime = System.nanoTime();
+
+        var outputs = tournamentRecomputeEngine.evaluate(data.inputs, tournament.getBestRounds());
+
+        long computedTime = System.nanoTime();
+
+        // compare and update managed entities - changes are written in batches on flush
+        var tournamentRoundsById = data.tournamentRounds
+                .stream()
+                .collect(Collectors.toMap(TournamentRound::getId, Function.identity()));
+
+        for (var output : outputs) {
+
+            for (var recomputed : output.getTournamentRounds()) {
+                updateTournamentRound(report, tournamentRoundsById.get(recomputed.getId()), recomputed);
+                report.setRecomputedRounds(report.getRecomputedRounds() + 1);
+            }
+
+            updateTournamentResult(report, results.get(output.getTournamentResultId()), output.getTournamentResult());
+            report.setRecomputedResults(report.getRecomputedResults() + 1);
+        }
+
+        entityManager.flush();
+
+        if (!report.getChanges().isEmpty()) {
+            invalidateLeaderboard(tournamentId);
+        }
+
+        long endTime = System.nanoTime();
+        report.setLoadTimeMs(TimeUnit.NANOSECONDS.toMillis(loadedTime - startTime));
+        report.setComputeTimeMs(TimeUnit.NANOSECONDS.toMillis(computedTime - loadedTime));
+        report.setWriteTimeMs(TimeUnit.NANOSECONDS.toMillis(endTime - computedTime));
+        report.setTotalTimeMs(TimeUnit.NANOSECONDS.toMillis(endTime - startTime));
+
+        log.info("Tournament {} recomputed: {} rounds, {} results, {} changes, {} skipped results in {} ms (load {} ms, compute {} ms, write {} ms)",
+                tournamentId, report.getRecomputedRounds(), report.getRecomputedResults(), report.getChanges().size(),
+                report.getSkippedResults(), report.getTotalTimeMs(), report.getLoadTimeMs(), report.getComputeTimeMs(),
+                report.getWriteTimeMs());
+
+        return report;
+    }
+
+    // ranking of the tournament as if it was played with other playing hcp multiplier and cap
+    // nothing is written - rounds are evaluated in memory and the outcome is cached per leaderboard version
+    @Transactional(readOnly = true)
+    public List<TournamentResult> simulateTournament(Long tournamentId, Float playHcpMultiplayer, Integer maxPlayHcp) {
+
+        var tournament = tournamentRepository.findById(tournamentId).orElseThrow();
+
+        // only tournament owner can do it
+        RoleVerification.verifyPlayer(tournament.getPlayer().getId(), "Attempt to simulate tournament by unauthorized user");
+
+        // parameters not provided are taken from the tournament
+        var multiplier = playHcpMultiplayer == null ? tournament.getPlayHcpMultiplayer() : playHcpMultiplayer;
+        var cap = maxPlayHcp == null ? tournament.getMaxPlayHcp() : maxPlayHcp;
+
+        // leaderboard gets the new version whenever results of the tournament are changed
+        var key = tournamentId + ":" + self.getLeaderboard(tournamentId).getVersion() + ":" + multiplier + ":" + cap;
+
+        try {
+            return simulations.get(key, () -> simulate(tournament, multiplier, cap));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            log.error("Simulation of tournament {} failed: {}", tournamentId, e.getCause().getMessage());
+            throw new GeneralException();
+        }
+    }
+
+    private List<TournamentResult> simulate(Tournament tournament, Float playHcpMultiplayer, Integer maxPlayHcp) {
+
+        long startTime = System.nanoTime();
+
+        var data = loadRecomputeData(tournament, playHcpMultiplayer, maxPlayHcp);
+        // results which cannot be recomputed keep stored values, ties are kept in id order
+        var simulated = new TreeMap<>(data.results);
+
+        for (var output : tournamentRecomputeEngine.evaluate(data.inputs, tournament.getBestRounds())) {
+            var tournamentResult = output.getTournamentResult();
+            tournamentResult.setId(output.getTournamentResultId());
+            tournamentResult.setPlayer(data.results.get(output.getTournamentResultId()).getPlayer());
+            simulated.put(tournamentResult.getId(), tournamentResult);
+        }
+
+        log.info("Tournament {} simulated with multiplier {} and max playing hcp {} in {} ms", tournament.getId(),
+                playHcpMultiplayer, maxPlayHcp, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+
+        return new TournamentLeaderboard(new ArrayList<>(simulated.values()), tournament.getBestRounds(),
+                tournament.getResultsVersion())
+                .getView(TournamentLeaderboard.SORT_DEFAULT);
+    }
+
+    // loads everything needed to evaluate tournament rounds with fixed number of queries
+    // playing hcp is calculated with given multiplier and cap, so the same inputs serve recompute and simulation
+    private RecomputeData loadRecomputeData(Tournament tournament, Float playHcpMultiplayer, Integer maxPlayHcp) {
+
+        var tournamentPlayers = tournamentPlayerRepository
+                .findByTournamentId(tournament.getId())
+                .stream()
+                .collect(Collectors.toMap(TournamentPlayer::getPlayerId, TournamentPlayer::getWhs));
+
+        var results = tournamentResultRepository.findByTournamentIdOrderByIdAsc(tournament.getId())
+                .stream()
+                .collect(Collectors.toMap(TournamentResult::getId, Function.identity()));
+        var tournamentRounds = results.isEmpty() ? new ArrayList<TournamentRound>() :
+                tournamentRoundRepository.findByTournamentResultIn(results.values());
+        // player rounds keyed by round id and player id
+        var playerRounds = playerRoundRepository.findByTournamentId(tournament.getId())
+                .stream()
+                .collect(Collectors.groupingBy(PlayerRound::getRoundId,
+                        Collectors.toMap(PlayerRound::getPlayerId, Function.identity())));
+        var rounds = playerRounds.isEmpty() ? new HashMap<Long, Round>() :
+                roundService.getWithScoreCardForIds(playerRounds.keySet())
+                    .stream()
+                    .collect(Collectors.toMap(Round::getId, Function.identity(), (r1, r2) -> r1, HashMap::new));
+        courseService.getWithHolesForIds(rounds.values().stream().map(r -> r.getCourse().getId()).collect(Collectors.toSet()));
+        var tees = courseService.getTeesByIds(playerRounds.values()
+                                    .stream()
+                                    .flatMap(m -> m.values().stream())
+                                    .map(PlayerRound::getTeeId)
+                                    .filter(Objects::nonNull)
+                                    .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(CourseTee::getId, Function.identity()));
+
+        // prepare inputs for evaluation - worker threads do not access entities
+        var inputs = new HashMap<Long, TournamentRecomputeEngine.PlayerInput>();
+        var skipped = new HashSet<Long>();
+        var playerCards = new HashMap<Long, Map<Long, ScoringEngine.PlayerCard>>();
+
+        for (var tournamentRound : tournamentRounds) {
+
+            var resultId = tournamentRound.getTournamentResult().getId();
+            var playerId = results.get(resultId).getPlayer().getId();
+            var roundId = tournamentRound.getRoundId().longValue();
+            var round = rounds.get(roundId);
+            var playerRound = playerRounds.getOrDefault(roundId, Map.of()).get(playerId);
+            var courseTee = playerRound == null || playerRound.getTeeId() == null ? null : tees.get(playerRound.getTeeId());
+            var whs = tournamentPlayers.get(playerId);
+
+            var playerCard = round == null ? null :
+                    playerCards.computeIfAbsent(roundId, id -> ScoringEngine.toPlayerCards(round)).get(playerId);
+
+            if (playerCard == null || courseTee == null || whs == null || courseTee.getCr() == null || courseTee.getSr() == null) {
+                log.warn("Tournament round {} cannot be recomputed - missing score card, tee or player hcp", tournamentRound.getId());
+                skipped.add(resultId);
+                continue;
+            }
+            // ratings are taken from the tee, ones copied to the player round may be outdated
+            int courseHCP = getCourseHCP(courseTee, round, whs);
+
+            inputs.computeIfAbsent(resultId, TournamentRecomputeEngine.PlayerInput::new)
+                  .getRounds()
+                  .add(new TournamentRecomputeEngine.RoundInput(tournamentRound.getId(), playerCard,
+                          getPlayingHcp(playHcpMultiplayer, maxPlayHcp, courseHCP), courseHCP, whs, courseTee.getCr(), courseTee.getSr(),
+                          courseTee.getTee()));
+        }
+
+        // results with at least one round which cannot be recomputed are left unchanged
+        skipped.forEach(inputs::remove);
+
+        return new RecomputeData(results, tournamentRounds, new ArrayList<>(inputs.values()), skipped.size());
+    }
+
+    private static void updateTournamentRound(RecomputeReport report, TournamentRound current, TournamentRound recomputed) {
+
+        var id = current.getId();
+        var entity = RecomputeReport.TOURNAMENT_ROUND;
+
+        report.update(entity, id, "stbNet", current, recomputed, TournamentRound::getStbNet, TournamentRound::setStbNet);
+        report.update(entity, id, "stbGross", current, recomputed, TournamentRound::getStbGross, TournamentRound::setStbGross);
+        report.update(entity, id, "strokes", current, recomputed, TournamentRound::getStrokes, TournamentRound::setStrokes);
+        report.update(entity, id, "strokesBrutto", current, recomputed, TournamentRound::getStrokesBrutto, TournamentRound::setStrokesBrutto);
+        report.update(entity, id, "strokesNetto", current, recomputed, TournamentRound::getStrokesNetto, TournamentRound::setStrokesNetto);
+        report.update(entity, id, "scrDiff", current, recomputed, TournamentRound::getScrDiff, TournamentRound::setScrDiff);
+        report.update(entity, id, "playingHcp", current, recomputed, TournamentRound::getPlayingHcp, TournamentRound::setPlayingHcp);
+        report.update(entity, id, "courseHcp", current, recomputed, TournamentRound::getCourseHcp, TournamentRound::setCourseHcp);
+        report.update(entity, id, "hcp", current, recomputed, TournamentRound::getHcp, TournamentRound::setHcp);
+        report.update(entity, id, "tee", current, recomputed, TournamentRound::getTee, TournamentRound::setTee);
+    }
+
+    private static void updateTournamentResult(RecomputeReport report, TournamentResult current, TournamentResult recomputed) {
+
+        var id = current.getId();
+        var entity = RecomputeReport.TOURNAMENT_RESULT;
+
+        report.update(entity, id, "stbNet", current, recomputed, TournamentResult::getStbNet, TournamentResult::setStbNet);
+        report.update(entity, id, "stbGross", current, recomputed, TournamentResult::getStbGross, TournamentResult::setStbGross);
+        report.update(entity, id, "strokesBrutto", current, recomputed, TournamentResult::getStrokesBrutto, TournamentResult::setStrokesBrutto);
+        report.update(entity, id, "strokesNetto", current, recomputed, TournamentResult::getStrokesNetto, TournamentResult::setStrokesNetto);
+        report.update(entity, id, "strokeRounds", current, recomputed, TournamentResult::getStrokeRounds, TournamentResult::setStrokeRounds);
+        report.update(entity, id, "playedRounds", current, recomputed, TournamentResult::getPlayedRounds, TournamentResult::setPlayedRounds);
+
+        // sorted values are not part of the diff
+        if (recomputed.getStbNetRounds() != null) {
+            current.setStbNetRounds(recomputed.getStbNetRounds());
+            current.setStbGrossRounds(recomputed.getStbGrossRounds());
+            current.setStrokesNettoRounds(recomputed.getStrokesNettoRounds());
+            current.setStrokesBruttoRounds(recomputed.getStrokesBruttoRounds());
+        }
+    }
+
+    // compares stored best rounds results with full recompute and repairs inconsistent ones
+    @Transactional
+    public int verifyBestRounds(Long tournamentId) {
+
+        var tournament = tournamentRepository.findById(tournamentId).orElseThrow();
+
+        // only tournament owner can do it
+        RoleVerification.verifyPlayer(tournament.getPlayer().getId(), "Attempt to verify tournament results by unauthorized user");
+
+        if (tournament.getBestRounds() == Common.ALL_ROUNDS) {
+            return 0;
+        }
+
+        int inconsistent = 0;
+
+        for (var tournamentResult : tournament.getTournamentResult()) {
+
+            var recomputed = new TournamentResult();
+            BestRounds.rebuild(recomputed, tournamentRoundRepository.findByTournamentResultOrderByIdAsc(tournamentResult),
+                    tournament.getBestRounds());
+
+            if (!BestRounds.isInitialized(tournamentResult) || !BestRounds.isConsistent(tournamentResult, recomputed)) {
+                log.warn("Inconsistent best rounds for tournament result: {}, stored stb net: {}, recomputed: {}",
+                        tournamentResult.getId(), tournamentResult.getStbNet(), recomputed.getStbNet());
+                tournamentResult.setStbNetRounds(recomputed.getStbNetRounds());
+                tournamentResult.setStbGrossRounds(recomputed.getStbGrossRounds());
+                tournamentResult.setStrokesNettoRounds(recomputed.getStrokesNettoRounds());
+                tournamentResult.setStrokesBruttoRounds(recomputed.getStrokesBruttoRounds());
+                tournamentResult.setStbNet(recomputed.getStbNet());
+                tournamentResult.setStbGross(recomputed.getStbGross());
+                tournamentResult.setStrokesNetto(recomputed.getStrokesNetto());
+                tournamentResult.setStrokesBrutto(recomputed.getStrokesBrutto());
+                tournamentResultRepository.save(tournamentResult);
+                inconsistent++;
+                invalidateLeaderboard(tournamentId);
+            }
+        }
+
+        return inconsistent;
     }
 
     @SuppressWarnings("java:S107")
@@ -432,6 +938,16 @@ public class TournamentService {
                                               String courseName, TournamentResult tournamentResult, boolean strokeApplicable,
                                               long roundId, int playingHCP, float hcp, int courseHcp, String tee) {
 
+        return tournamentRoundRepository.save(buildTournamentRound(stbGross, stbNet, strokesGross, strokesNet, scrDiff,
+                courseName, tournamentResult, strokeApplicable, roundId, playingHCP, hcp, courseHcp, tee));
+    }
+
+    @SuppressWarnings("java:S107")
+    private static TournamentRound buildTournamentRound(int stbGross, int stbNet, int strokesGross, int strokesNet,
+                                                        float scrDiff, String courseName, TournamentResult tournamentResult,
+                                                        boolean strokeApplicable, long roundId, int playingHCP, float hcp,
+                                                        int courseHcp, String tee) {
+
         var tournamentRound = new TournamentRound();
         tournamentRound.setCourseName(courseName);
         tournamentRound.setScrDiff(scrDiff);
@@ -447,8 +963,6 @@ public class TournamentService {
         tournamentRound.setCourseHcp(courseHcp);
         tournamentRound.setTee(tee);
 
-        tournamentRound = tournamentRoundRepository.save(tournamentRound);
-
         return tournamentRound;
     }
 
@@ -462,168 +976,80 @@ public class TournamentService {
 
     }
 
-    // calculate score differential
-    @Transactional
-    public float getScoreDifferential(PlayerRound playerRound, Round round, Player player) {
-
-        return (113 / (float) playerRound.getSr()) * (self.getCorrectedStrokes(player, round) - playerRound.getCr());
-
-    }
+    // eligible (round, player) pairs are streamed from database ordered by round and rounds are handed over
+    // in chunks of page size, persistence context is cleared after each chunk, so only one chunk is in memory
+    @Transactional(readOnly = true)
+    public void getAllPossibleRoundsForTournament(Long tournamentId, Consumer<List<Round>> chunkConsumer) {
 
-    // calculate gross strokes
-    @Transactional
-    public int getGrossStrokes(Player player, Round round) {
+        var tournament = tournamentRepository.findById(tournamentId).orElseThrow();
 
-        printDebugInfo(player, round);
+        var eligible = new LinkedHashMap<Long, Set<Long>>();
+        try (var eligibleRounds = playerRoundRepository.streamEligibleRounds(tournamentId, tournament.getStartDate(),
+                tournament.getEndDate())) {
+            eligibleRounds.forEach(er -> {
+                if (eligible.size() == tournamentServiceConfig.getPageSize() && !eligible.containsKey(er.getRoundId())) {
+                    consumeEligibleRounds(eligible, chunkConsumer);
+                }
+                eligible.computeIfAbsent(er.getRoundId(), id -> new HashSet<>()).add(er.getPlayerId());
+            });
+        }
 
-        // calculate gross result
-        int grossStrokes = round.getScoreCard().stream().filter(scoreCard -> scoreCard.getPlayer().getId().equals(player.getId()))
-                .mapToInt(ScoreCard::getStroke).sum();
-        log.debug("Calculated gross strokes: {}", grossStrokes);
-        return grossStrokes;
+        consumeEligibleRounds(eligible, chunkConsumer);
     }
 
-    // calculate gross strokes
-    @Transactional
-    public boolean applicableForStroke(Round round, Player player) {
-
-        log.debug("Start checking round for stroke statistic");
+    private void consumeEligibleRounds(Map<Long, Set<Long>> eligible, Consumer<List<Round>> chunkConsumer) {
 
-        //search for 16 which means that hole has been given up
-        return round.getScoreCard()
-                .stream()
-                .filter(scoreCard -> scoreCard.getPlayer().getId().equals(player.getId()))
-                .noneMatch(scoreCard -> scoreCard.getStroke() >= Common.HOLE_GIVEN_UP);
+        if (!eligible.isEmpty()) {
+            chunkConsumer.accept(buildEligibleRounds(eligible));
+            eligible.clear();
+            entityManager.clear();
+        }
     }
 
-    // calculate corrected strokes
-    @Transactional
-    public int getCorrectedStrokes(Player player, Round round) {
-
-        printDebugInfo( player, round);
-
-        List<Hole> holes = round.getCourse().getHoles();
-
-        // calculate gross result
-        int grossStrokes = round.getScoreCard().stream().filter(scoreCard -> scoreCard.getPlayer().getId().equals(player.getId()))
-                .mapToInt(scoreCard -> {
-
-                    if ((scoreCard.getHcp() + 2 + holes.get(scoreCard.getHole() - 1).getPar()) < scoreCard
-                            .getStroke()) {
-                        return scoreCard.getHcp() + 2 + holes.get(scoreCard.getHole() - 1).getPar();
-                    } else {
-                        return scoreCard.getStroke();
-                    }
+    @Transactional(readOnly = true)
+    public List<Round> getAllPossibleRoundsForTournament(Long tournamentId, Integer pageNo) {
 
-                }).sum();
+        var tournament = tournamentRepository.findById(tournamentId).orElseThrow();
 
-        log.debug("Calculated corrected strokes: {}", grossStrokes);
-        return grossStrokes;
-    }
+        // first get ids of rounds for the page, then eligible players only for them
+        var roundIds = playerRoundRepository.getEligibleRoundIds(tournamentId, tournament.getStartDate(),
+                tournament.getEndDate(), PageRequest.of(pageNo, tournamentServiceConfig.getPageSize()));
 
-    // calculate net strokes
-    @Transactional
-    public int getNetStrokes(int grossStrokes, int playingHCP) {
+        var eligible = new LinkedHashMap<Long, Set<Long>>();
+        roundIds.forEach(id -> eligible.put(id, new HashSet<>()));
 
-        int netStrokes = grossStrokes - playingHCP;
-        if (netStrokes < 0) {
-            netStrokes = 0;
+        if (!roundIds.isEmpty()) {
+            playerRoundRepository.getEligibleRounds(tournamentId, roundIds)
+                    .forEach(er -> eligible.get(er.getRoundId()).add(er.getPlayerId()));
         }
 
-        log.debug("Calculated net strokes: {}", netStrokes);
-        return netStrokes;
+        return buildEligibleRounds(eligible);
     }
 
-    // returns STB net at index 0 and STB gross at index 1
-    @Transactional
-    public List<Integer> updateSTB(TournamentResult tournamentResult, Round round, Player player, int playingHCP) {
-
-        // create List of ret values
-        List<Integer> retStb = new ArrayList<>();
+    // returns rounds in requested order with only eligible players
+    private List<Round> buildEligibleRounds(Map<Long, Set<Long>> eligible) {
 
-        // calculate hole HCP for player
-        int hcpAll = (int) Math.floor((double) playingHCP / 18);
-        int hcpIncMaxHole = playingHCP - (hcpAll * 18);
-        log.debug("hcpAll {}", hcpAll);
-        log.debug("hcpIncMaxHole {}", hcpIncMaxHole);
+        var retRounds = new ArrayList<Round>();
 
-        // fill all holes with hcpAll value or initialize it with 0 if hcpAll is 0
-        round.getScoreCard().forEach(scoreCard -> scoreCard.setHcp(hcpAll));
+        if (eligible.isEmpty()) {
+            return retRounds;
+        }
 
-        List<Hole> holes = round.getCourse().getHoles();
-        // get list of scorecard for player
-        List<ScoreCard> playerScoreCard = round.getScoreCard()
-                                            .stream()
-                                            .filter(scoreCard -> scoreCard.getPlayer().getId().equals(player.getId()))
-                                            .toList();
-        playerScoreCard.forEach(scoreCard -> {
-            if (hcpIncMaxHole > 0 && holes.get(scoreCard.getHole() - 1).getSi() <= hcpIncMaxHole) {
-                // if some holes needs hcp update increase them
-                scoreCard.setHcp(hcpAll + 1);
-            }
+        var rounds = roundService.getForIds(new ArrayList<>(eligible.keySet()))
+                .stream()
+                .collect(Collectors.toMap(Round::getId, Function.identity()));
 
-            // update STB net for each hole
-            scoreCard.setStbNet(
-                    holes.get(scoreCard.getHole() - 1).getPar() - (scoreCard.getStroke() - scoreCard.getHcp()) + 2);
-            if (scoreCard.getStbNet() < 0) {
-                scoreCard.setStbNet(0);
-            }
-            log.debug("{} {}", scoreCard.getHole(), scoreCard.getStbNet());
-            // update STB gross for each hole
-            scoreCard.setStbGross(holes.get(scoreCard.getHole() - 1).getPar() - scoreCard.getStroke() + 2);
-            if (scoreCard.getStbGross() < 0) {
-                scoreCard.setStbGross(0);
-            }
+        eligible.forEach((roundId, playerIds) -> {
+            var round = rounds.get(roundId);
+            // detach round, so filtering players is not treated as its modification
+            entityManager.detach(round);
+            round.setPlayer(round.getPlayer()
+                                .stream()
+                                .filter(pl -> playerIds.contains(pl.getId()))
+                                .collect(Collectors.toSet()));
+            retRounds.add(round);
         });
 
-        retStb.add(playerScoreCard.stream().mapToInt(ScoreCard::getStbNet).sum());
-        tournamentResult.setStbNet(tournamentResult.getStbNet() + retStb.get(0));
-
-        retStb.add(playerScoreCard.stream().mapToInt(ScoreCard::getStbGross).sum());
-        tournamentResult.setStbGross(tournamentResult.getStbGross() + retStb.get(1));
-
-        return retStb;
-    }
-
-    @Transactional(readOnly = true)
-    public List<Round> getAllPossibleRoundsForTournament(Long tournamentId) {
-
-        var retRounds = new ArrayList<Round>();
-
-        var tournament = tournamentRepository.findById(tournamentId).orElseThrow();
-        var rounds =  roundService.findByDates(tournament.getStartDate(), tournament.getEndDate());
-
-        if (!rounds.isEmpty()) {
-
-            var tournamentPlayers = tournamentPlayerRepository.findByTournamentId(tournament.getId());
-            var plrIdLst = tournamentPlayers
-                            .stream()
-                            .map(TournamentPlayer::getPlayerId)
-                            .toList();
-
-            rounds.forEach(r -> {
-
-                var applicablePlayers = playerRoundRepository.findByRoundIdOrderByPlayerId(r.getId())
-                                                               .orElseThrow()
-                                                               .stream()
-                                                               .filter(pr -> pr.getTournamentId() == null)
-                                                               .map(PlayerRound::getPlayerId)
-                                                               .filter(plrIdLst::contains)
-                                                               .collect(Collectors.toSet());
-
-                if (!applicablePlayers.isEmpty()) {
-                    var players = r.getPlayer()
-                                        .stream()
-                                        .filter(pl -> applicablePlayers.contains(pl.getId()))
-                                        .collect(Collectors.toSet());
-                    r.setPlayer(players);
-                    retRounds.add(r);
-                } else {
-                    log.info("The round with non matching player found: round id {} with number of players: {}", r.getId(), r.getPlayer().size());
-                }
-            });
-        }
-
         return retRounds;
     }
 
@@ -631,16 +1057,21 @@ public class TournamentService {
     // put cap on playing hcp if required
     private int getPlayingHcp(Tournament tournament, int courseHcp) {
 
+        return getPlayingHcp(tournament.getPlayHcpMultiplayer(), tournament.getMaxPlayHcp(), courseHcp);
+    }
+
+    private static int getPlayingHcp(Float playHcpMultiplayer, Integer maxPlayHcp, int courseHcp) {
+
         int retPlayingHcp = courseHcp;
 
         // first apply multiplier
-        if (tournament.getPlayHcpMultiplayer() != DEFAULT_PLAYING_MULTIPLIER) {
-            retPlayingHcp = Math.round(retPlayingHcp * tournament.getPlayHcpMultiplayer());
+        if (playHcpMultiplayer != DEFAULT_PLAYING_MULTIPLIER) {
+            retPlayingHcp = Math.round(retPlayingHcp * playHcpMultiplayer);
         }
 
         // then apply cap
-        if (retPlayingHcp > tournament.getMaxPlayHcp()) {
-            retPlayingHcp = tournament.getMaxPlayHcp();
+        if (retPlayingHcp > maxPlayHcp) {
+            retPlayingHcp = maxPlayHcp;
         }
 
         return retPlayingHcp;
@@ -653,7 +1084,10 @@ public class TournamentService {
             playerRound = roundService.getForPlayerRoundDetails(player.getId(), round.getId());
         }
 
-        var courseTee = courseService.getTeeById(playerRound.getTeeId()).orElseThrow();
+        return getCourseHCP(courseService.getTeeById(playerRound.getTeeId()).orElseThrow(), round, playerHcp);
+    }
+
+    private int getCourseHCP(CourseTee courseTee, Round round, Float playerHcp) {
 
         // calculate course HCP
         int courseHCP = Math
@@ -674,19 +1108,21 @@ public class TournamentService {
         tournamentResult.setPlayer(player);
         tournamentResult.setStbNet(0);
         tournamentResult.setStbGross(0);
+        tournamentResult.setStrokesBrutto(0);
+        tournamentResult.setStrokesNetto(0);
         tournamentResult.setStrokeRounds(0);
 
         return tournamentResult;
     }
 
     // verifies if all scorecards have all 18 holes filled
-    private void verifyRoundCorrectness(Round round) {
+    private void verifyRoundCorrectness(Round round, Map<Long, ScoringEngine.PlayerCard> playerCards) {
 
         round.getPlayer().forEach(player -> {
 
             // calculate played holes
-            int playedHoles = (int) round.getScoreCard().stream()
-                    .filter(scoreCard -> scoreCard.getPlayer().getId().equals(player.getId()) && scoreCard.getStroke() > 0).count();
+            var playerCard = playerCards.get(player.getId());
+            int playedHoles = playerCard == null ? 0 : playerCard.getPlayedHoles();
             log.debug("Number of holes: {}", playedHoles);
             if (playedHoles != TOURNAMENT_HOLES) {
                 throw new TooFewHolesForTournamentException();
@@ -795,6 +1231,7 @@ public class TournamentService {
 
         tournamentPlayer.setWhs(whs);
         tournamentPlayerRepository.save(tournamentPlayer);
+        invalidateSimulations(tournamentId);
     }
 
     @Transactional
@@ -815,6 +1252,50 @@ public class TournamentService {
         tournamentRepository.save(tournament);
     }
 
+    // flights are built on server side from tournament players and replace existing tee times
+    // the whole payload is written with one save cascaded to tee times
+    @Transactional
+    public TeeTimeParameters scheduleTeeTimes(Long tournamentId, TeeTimeParameters teeTimeParameters,
+                                              TeeTimeScheduler.Strategy strategy, Long seed) {
+
+        var tournament = tournamentRepository.findById(tournamentId).orElseThrow();
+
+        RoleVerification.verifyPlayer(tournament.getPlayer().getId(), "Attempt to add tee times by unauthorized user");
+
+        var tournamentPlayers = tournamentPlayerRepository.findByTournamentId(tournamentId);
+
+        // nothing to schedule, existing tee times are kept as for addTeeTimes
+        if (tournamentPlayers.isEmpty()) {
+            teeTimeParameters.setTeeTimes(new ArrayList<>());
+            return teeTimeParameters;
+        }
+
+        var positions = new HashMap<Long, Integer>();
+        if (strategy == TeeTimeScheduler.Strategy.LEADERBOARD) {
+            var results = self.getLeaderboard(tournamentId).getView(TournamentLeaderboard.SORT_DEFAULT);
+            for (int i = 0; i < results.size(); i++) {
+                positions.put(results.get(i).getPlayer().getId(), i + 1);
+            }
+        }
+
+        var teeTimes = TeeTimeScheduler.schedule(tournamentPlayers, teeTimeParameters.getFlightSize(),
+                teeTimeParameters.getFirstTeeTime(), teeTimeParameters.getTeeTimeStep(), strategy,
+                seed == null ? new Random() : new Random(seed), positions);
+
+        log.debug("Scheduled {} players of tournament {} using {} strategy", teeTimes.size(), tournamentId, strategy);
+
+        if (teeTimeParameters.getPublished() == null) {
+            teeTimeParameters.setPublished(TeeTimeParameters.STATUS_NOT_PUBLISHED);
+        }
+        teeTimeParameters.setTeeTimes(teeTimes);
+        teeTimeParameters.setTournament(tournament);
+        teeTimes.forEach(teeTime -> teeTime.setTeeTimeParameters(teeTimeParameters));
+        tournament.setTeeTimeParameters(teeTimeParameters);
+        tournamentRepository.save(tournament);
+
+        return teeTimeParameters;
+    }
+
     @Transactional
     public TeeTimeParameters getTeeTimes(Long tournamentId) {
 
@@ -836,25 +1317,17 @@ public class TournamentService {
 
     }
 
-    @Transactional(readOnly = true)
-    public int processNotifications(Long tournamentId, Integer sort) throws GeneralException {
+    // returns id of the mail job or null if there is nobody to notify
+    @Transactional
+    public String processNotifications(Long tournamentId, Integer sort) throws GeneralException {
 
-        int sentNotifications = 0;
+        String jobId = null;
 
         var notifications = tournamentNotificationRepository.findByTournamentId(tournamentId);
 
         if (!notifications.isEmpty()) {
 
-            var recipients = new ArrayList<String>();
-
-            notifications.forEach(notification -> {
-
-                var email = playerService.getEmail(notification.getPlayerId());
-
-                if (email != null) {
-                    recipients.add(email);
-                }
-            });
+            var recipients = playerService.getEncryptedEmails(notifications.stream().map(TournamentNotification::getPlayerId).toList());
 
             if (!recipients.isEmpty()) {
 
@@ -863,69 +1336,16 @@ public class TournamentService {
                 // only tournament owner can do it
                 RoleVerification.verifyPlayer(tournament.orElseThrow().getPlayer().getId(), "Attempt to process notifications by unauthorized user");
 
-                List<TournamentResult> sortedResults = sortResults(tournament.orElseThrow(), sort);
-
-                var context = new Context();
-                context.setVariable("results", sortedResults);
-                context.setVariable("tournamentName", tournament.orElseThrow().getName());
+                var leaderboard = self.getLeaderboard(tournamentId);
 
-                String body = templateEngine.process("TournamentResultsTemplate.html", context);
+                String body = mailRenderingService.renderTournamentResults(tournamentId, leaderboard.getVersion(), sort,
+                        tournament.orElseThrow().getName(), leaderboard.getView(sort));
 
-                try {
-                    log.info("Number of notifications for sending: {}", recipients.size());
-                    emailServiceImpl.sendEmail(recipients.toArray(new String[0]), "Tournament results updated - " + tournament.orElseThrow().getName(), body);
-                    sentNotifications = recipients.size();
-                } catch (MessagingException e) {
-                    throw new GeneralException();
-                }
+                log.info("Number of notifications for sending: {}", recipients.size());
+                jobId = mailOutboxService.enqueue(recipients.toArray(new String[0]), "Tournament results updated - " + tournament.orElseThrow().getName(), body);
             }
         }
-        return sentNotifications;
-    }
-
-    private List<TournamentResult> sortResults(Tournament tournament, Integer sort) {
-
-        List<TournamentResult> sortedResults = switch (sort) {
-            case SORT_STB_NET -> tournament.getTournamentResult()
-                    .stream()
-                    .sorted(Comparator.comparingInt(TournamentResult::getStbNet).reversed())
-                    .collect(Collectors.toList());
-            case SORT_STB -> tournament.getTournamentResult()
-                    .stream()
-                    .sorted(Comparator.comparingInt(TournamentResult::getStbGross).reversed())
-                    .collect(Collectors.toList());
-            case SORT_STR -> tournament.getTournamentResult()
-                    .stream()
-                    .sorted(Comparator.comparingInt(TournamentResult::getStrokesBrutto))
-                    .collect(Collectors.toList());
-            case SORT_STR_NET -> tournament.getTournamentResult()
-                    .stream()
-                    .sorted(Comparator.comparingInt(TournamentResult::getStrokesNetto))
-                    .collect(Collectors.toList());
-            default -> new ArrayList<>();
-        };
-
-        if (tournament.getBestRounds() == Common.ALL_ROUNDS && (sort == SORT_STR || sort == SORT_STR_NET)) {
-            sortedResults = sortedResults
-                    .stream()
-                    .sorted(Comparator.comparingInt(TournamentResult::getStrokeRounds).reversed())
-                    .collect(Collectors.toList());
-        } else if (tournament.getBestRounds() != Common.ALL_ROUNDS && (sort == SORT_STR || sort == SORT_STR_NET)) {
-            var resultsPlayedBestRounds  = sortedResults
-                    .stream()
-                    .filter(sr -> sr.getPlayedRounds() >= tournament.getBestRounds())
-                    .toList();
-            var resultsNotPlayedBestRounds = sortedResults
-                    .stream()
-                    .filter(sr -> sr.getPlayedRounds() < tournament.getBestRounds())
-                    .sorted(Comparator.comparingInt(TournamentResult::getStrokeRounds).reversed())
-                    .toList();
-            sortedResults = new ArrayList<>();
-            sortedResults.addAll(resultsPlayedBestRounds);
-            sortedResults.addAll(resultsNotPlayedBestRounds);
-        }
-
-        return sortedResults;
+        return jobId;
     }
 
     @Transactional
@@ -968,9 +1388,20 @@ public class TournamentService {
         tournamentNotificationRepository.deleteByTournamentIdAndPlayerId(tournamentId, playerId);
     }
 
-    private void printDebugInfo(Player player, Round round) {
-        log.debug("player: {}", player);
-        log.debug("round: {}", round);
-    }
+    // inputs prepared for the recompute engine together with loaded entities
+    private static class RecomputeData {
+
+        private final Map<Long, TournamentResult> results;
+        private final List<TournamentRound> tournamentRounds;
+        private final List<TournamentRecomputeEngine.PlayerInput> inputs;
+        private final int skipped;
 
+        RecomputeData(Map<Long, TournamentResult> results, List<TournamentRound> tournamentRounds,
+                      List<TournamentRecomputeEngine.PlayerInput> inputs, int skipped) {
+            this.results = results;
+            this.tournamentRounds = tournamentRounds;
+            this.inputs = inputs;
+            this.skipped = skipped;
+        }
+    }
 }
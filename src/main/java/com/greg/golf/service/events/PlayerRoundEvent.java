@@ -0,0 +1,72 @@
+package com.greg.golf.service.events;
+
+import org.springframework.context.ApplicationEvent;
+
+import com.greg.golf.entity.Round;
+import com.greg.golf.entity.ScoreCard;
+import com.greg.golf.repository.projection.PlayerRoundHcp;
+import lombok.Getter;
+
+import java.io.Serial;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Published before the score card of the player is changed or removed (REMOVED)
+ * and after it is saved (ADDED). Listeners are called asynchronously after commit, so the event
+ * keeps a copy of the player score card and handicap data from the time of publishing.
+ * Sequence is the number of the change among changes of the player, counted in player statistics.
+ */
+@Getter
+public class PlayerRoundEvent extends ApplicationEvent {
+
+	public enum Change {
+		ADDED,
+		REMOVED
+	}
+
+	@Serial
+    private static final long serialVersionUID = 1L;
+	private final Long playerId;
+	private final Long roundId;
+	private final Date roundDate;
+	private final Long courseId;
+	private final transient List<ScoreCard> scoreCards;
+	private final Float whs;
+	private final Float cr;
+	private final Integer sr;
+	private final Integer teeType;
+	private final Change change;
+	private final long sequence;
+
+	// hcp is null if the player round does not exist
+	public PlayerRoundEvent(Object source, Round round, Long playerId, PlayerRoundHcp hcp, Change change,
+							long sequence) {
+        super(source);
+        this.playerId = playerId;
+        this.roundId = round.getId();
+        this.roundDate = new Date(round.getRoundDate().getTime());
+        this.courseId = round.getCourse().getId();
+        this.scoreCards = round.getScoreCard()
+				.stream()
+				.filter(sc -> sc.getPlayer().getId().equals(playerId))
+				.map(PlayerRoundEvent::copy)
+				.toList();
+        this.whs = hcp == null ? null : hcp.getWhs();
+        this.cr = hcp == null ? null : hcp.getCr();
+        this.sr = hcp == null ? null : hcp.getSr();
+        this.teeType = hcp == null ? null : hcp.getTeeType();
+        this.change = change;
+        this.sequence = sequence;
+    }
+
+	private static ScoreCard copy(ScoreCard scoreCard) {
+
+		var copy = new ScoreCard();
+		copy.setHole(scoreCard.getHole());
+		copy.setStroke(scoreCard.getStroke());
+		copy.setPats(scoreCard.getPats());
+		copy.setPenalty(scoreCard.getPenalty());
+		return copy;
+	}
+}
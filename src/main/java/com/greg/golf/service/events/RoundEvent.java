@@ -2,7 +2,6 @@ package com.greg.golf.service.events;
 
 import org.springframework.context.ApplicationEvent;
 
-import com.greg.golf.entity.Round;
 import lombok.Getter;
 
 import java.io.Serial;
@@ -10,12 +9,20 @@ import java.io.Serial;
 @Getter
 public class RoundEvent extends ApplicationEvent {
 
+	public enum Type {
+		SAVED,
+		UPDATED,
+		DELETED
+	}
+
 	@Serial
     private static final long serialVersionUID = 1L;
-	private final transient Round round;
+	private final Long roundId;
+	private final Type type;
 	
-	public RoundEvent(Object source, Round round) {
+	public RoundEvent(Object source, Long roundId, Type type) {
         super(source);
-        this.round = round;
+        this.roundId = roundId;
+        this.type = type;
     }
 }
@@ -0,0 +1,217 @@
+package com.greg.golf.service.helpers;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.greg.golf.entity.TournamentResult;
+import com.greg.golf.entity.TournamentRound;
+
+/**
+ * Incremental best-N aggregation for tournaments with bestRounds limit.
+ * Tournament result keeps values of all its rounds in sorted int arrays (ascending),
+ * so adding or removing one round requires only binary search and update of the sums by delta
+ * (sum of the highest N Stableford results and the lowest N stroke results) without reloading rounds.
+ */
+public class BestRounds {
+
+    private static final int[] EMPTY = new int[0];
+
+    private BestRounds() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    // true if result keeps sorted values and can be updated incrementally
+    public static boolean isInitialized(TournamentResult tournamentResult) {
+
+        return tournamentResult.getStbNetRounds() != null && tournamentResult.getStbGrossRounds() != null &&
+               tournamentResult.getStrokesNettoRounds() != null && tournamentResult.getStrokesBruttoRounds() != null;
+    }
+
+    // sets empty structures and zero sums for a new result
+    public static void init(TournamentResult tournamentResult) {
+
+        tournamentResult.setStbNetRounds(EMPTY);
+        tournamentResult.setStbGrossRounds(EMPTY);
+        tournamentResult.setStrokesNettoRounds(EMPTY);
+        tournamentResult.setStrokesBruttoRounds(EMPTY);
+        tournamentResult.setStbNet(0);
+        tournamentResult.setStbGross(0);
+        tournamentResult.setStrokesNetto(0);
+        tournamentResult.setStrokesBrutto(0);
+    }
+
+    // full recompute from all tournament rounds - used for results created before values were stored
+    public static void rebuild(TournamentResult tournamentResult, List<TournamentRound> tournamentRounds, int bestRounds) {
+
+        var stbNet = tournamentRounds.stream().mapToInt(TournamentRound::getStbNet).sorted().toArray();
+        var stbGross = tournamentRounds.stream().mapToInt(TournamentRound::getStbGross).sorted().toArray();
+        var strokesNetto = tournamentRounds.stream()
+                .filter(tournamentRound -> Boolean.TRUE.equals(tournamentRound.getStrokes()))
+                .mapToInt(TournamentRound::getStrokesNetto).sorted().toArray();
+        var strokesBrutto = tournamentRounds.stream()
+                .filter(tournamentRound -> Boolean.TRUE.equals(tournamentRound.getStrokes()))
+                .mapToInt(TournamentRound::getStrokesBrutto).sorted().toArray();
+
+        tournamentResult.setStbNetRounds(stbNet);
+        tournamentResult.setStbGrossRounds(stbGross);
+        tournamentResult.setStrokesNettoRounds(strokesNetto);
+        tournamentResult.setStrokesBruttoRounds(strokesBrutto);
+        tournamentResult.setStbNet(sumHighest(stbNet, bestRounds));
+        tournamentResult.setStbGross(sumHighest(stbGross, bestRounds));
+        tournamentResult.setStrokesNetto(sumLowest(strokesNetto, bestRounds));
+        tournamentResult.setStrokesBrutto(sumLowest(strokesBrutto, bestRounds));
+    }
+
+    public static void add(TournamentResult tournamentResult, int stbNet, int stbGross, boolean strokes,
+                           int strokesNetto, int strokesBrutto, int bestRounds) {
+
+        var values = tournamentResult.getStbNetRounds();
+        tournamentResult.setStbNet(tournamentResult.getStbNet() + addHighestDelta(values, stbNet, bestRounds));
+        tournamentResult.setStbNetRounds(insert(values, stbNet));
+
+        values = tournamentResult.getStbGrossRounds();
+        tournamentResult.setStbGross(tournamentResult.getStbGross() + addHighestDelta(values, stbGross, bestRounds));
+        tournamentResult.setStbGrossRounds(insert(values, stbGross));
+
+        if (strokes) {
+            values = tournamentResult.getStrokesNettoRounds();
+            tournamentResult.setStrokesNetto(tournamentResult.getStrokesNetto() + addLowestDelta(values, strokesNetto, bestRounds));
+            tournamentResult.setStrokesNettoRounds(insert(values, strokesNetto));
+
+            values = tournamentResult.getStrokesBruttoRounds();
+            tournamentResult.setStrokesBrutto(tournamentResult.getStrokesBrutto() + addLowestDelta(values, strokesBrutto, bestRounds));
+            tournamentResult.setStrokesBruttoRounds(insert(values, strokesBrutto));
+        }
+    }
+
+    public static void remove(TournamentResult tournamentResult, TournamentRound tournamentRound, int bestRounds) {
+
+        var values = tournamentResult.getStbNetRounds();
+        int value = tournamentRound.getStbNet();
+        if (Arrays.binarySearch(values, value) >= 0) {
+            tournamentResult.setStbNet(tournamentResult.getStbNet() + removeHighestDelta(values, value, bestRounds));
+            tournamentResult.setStbNetRounds(delete(values, value));
+        }
+
+        values = tournamentResult.getStbGrossRounds();
+        value = tournamentRound.getStbGross();
+        if (Arrays.binarySearch(values, value) >= 0) {
+            tournamentResult.setStbGross(tournamentResult.getStbGross() + removeHighestDelta(values, value, bestRounds));
+            tournamentResult.setStbGrossRounds(delete(values, value));
+        }
+
+        if (!Boolean.TRUE.equals(tournamentRound.getStrokes())) {
+            return;
+        }
+
+        values = tournamentResult.getStrokesNettoRounds();
+        value = tournamentRound.getStrokesNetto();
+        if (Arrays.binarySearch(values, value) >= 0) {
+            tournamentResult.setStrokesNetto(tournamentResult.getStrokesNetto() + removeLowestDelta(values, value, bestRounds));
+            tournamentResult.setStrokesNettoRounds(delete(values, value));
+        }
+
+        values = tournamentResult.getStrokesBruttoRounds();
+        value = tournamentRound.getStrokesBrutto();
+        if (Arrays.binarySearch(values, value) >= 0) {
+            tournamentResult.setStrokesBrutto(tournamentResult.getStrokesBrutto() + removeLowestDelta(values, value, bestRounds));
+            tournamentResult.setStrokesBruttoRounds(delete(values, value));
+        }
+    }
+
+    // compares stored sums and values with the other (fully recomputed) result
+    public static boolean isConsistent(TournamentResult tournamentResult, TournamentResult recomputed) {
+
+        return tournamentResult.getStbNet().equals(recomputed.getStbNet()) &&
+               tournamentResult.getStbGross().equals(recomputed.getStbGross()) &&
+               tournamentResult.getStrokesNetto().equals(recomputed.getStrokesNetto()) &&
+               tournamentResult.getStrokesBrutto().equals(recomputed.getStrokesBrutto()) &&
+               Arrays.equals(tournamentResult.getStbNetRounds(), recomputed.getStbNetRounds()) &&
+               Arrays.equals(tournamentResult.getStbGrossRounds(), recomputed.getStbGrossRounds()) &&
+               Arrays.equals(tournamentResult.getStrokesNettoRounds(), recomputed.getStrokesNettoRounds()) &&
+               Arrays.equals(tournamentResult.getStrokesBruttoRounds(), recomputed.getStrokesBruttoRounds());
+    }
+
+    public static int sumHighest(int[] sorted, int n) {
+
+        int sum = 0;
+        for (int i = Math.max(0, sorted.length - n); i < sorted.length; i++) {
+            sum += sorted[i];
+        }
+        return sum;
+    }
+
+    public static int sumLowest(int[] sorted, int n) {
+
+        int sum = 0;
+        for (int i = 0; i < Math.min(n, sorted.length); i++) {
+            sum += sorted[i];
+        }
+        return sum;
+    }
+
+    // change of the sum of the highest n values after adding the value (array before insertion)
+    static int addHighestDelta(int[] sorted, int value, int n) {
+
+        int size = sorted.length;
+        if (size < n) {
+            return value;
+        }
+        int threshold = sorted[size - n];
+        return value > threshold ? value - threshold : 0;
+    }
+
+    // change of the sum of the highest n values after removing the value (array before removal)
+    static int removeHighestDelta(int[] sorted, int value, int n) {
+
+        int size = sorted.length;
+        if (size <= n) {
+            return -value;
+        }
+        return value >= sorted[size - n] ? sorted[size - n - 1] - value : 0;
+    }
+
+    // change of the sum of the lowest n values after adding the value (array before insertion)
+    static int addLowestDelta(int[] sorted, int value, int n) {
+
+        if (sorted.length < n) {
+            return value;
+        }
+        int threshold = sorted[n - 1];
+        return value < threshold ? value - threshold : 0;
+    }
+
+    // change of the sum of the lowest n values after removing the value (array before removal)
+    static int removeLowestDelta(int[] sorted, int value, int n) {
+
+        if (sorted.length <= n) {
+            return -value;
+        }
+        return value <= sorted[n - 1] ? sorted[n] - value : 0;
+    }
+
+    static int[] insert(int[] sorted, int value) {
+
+        int idx = Arrays.binarySearch(sorted, value);
+        if (idx < 0) {
+            idx = -idx - 1;
+        }
+        var result = new int[sorted.length + 1];
+        System.arraycopy(sorted, 0, result, 0, idx);
+        result[idx] = value;
+        System.arraycopy(sorted, idx, result, idx + 1, sorted.length - idx);
+        return result;
+    }
+
+    static int[] delete(int[] sorted, int value) {
+
+        int idx = Arrays.binarySearch(sorted, value);
+        if (idx < 0) {
+            return sorted;
+        }
+        var result = new int[sorted.length - 1];
+        System.arraycopy(sorted, 0, result, 0, idx);
+        System.arraycopy(sorted, idx + 1, result, idx, sorted.length - idx - 1);
+        return result;
+    }
+}
@@ -0,0 +1,104 @@
+package com.greg.golf.service.helpers;
+
+import java.util.Date;
+
+import com.greg.golf.entity.PlayerHandicap;
+
+/**
+ * Bounded ring of the latest score differentials of the player ordered by round date.
+ * Adding a newer round to the full window overwrites the oldest one in place, so the index
+ * is updated without reading earlier rounds. The window is stored with the player handicap oldest first.
+ */
+public class DifferentialWindow {
+
+    private final float[] differentials;
+    private final long[] rounds;
+    private final long[] dates;
+    // position of the oldest element
+    private int start;
+    private int size;
+
+    public DifferentialWindow(int capacity) {
+        differentials = new float[capacity];
+        rounds = new long[capacity];
+        dates = new long[capacity];
+    }
+
+    public static DifferentialWindow of(PlayerHandicap handicap, int capacity) {
+
+        var window = new DifferentialWindow(capacity);
+
+        if (handicap.getDifferentials() != null) {
+            for (int i = 0; i < handicap.getDifferentials().length; i++) {
+                window.add(handicap.getDifferentialRounds()[i], handicap.getDifferentialDates()[i],
+                        handicap.getDifferentials()[i]);
+            }
+        }
+
+        return window;
+    }
+
+    public void storeTo(PlayerHandicap handicap) {
+
+        var storedDifferentials = new Float[size];
+        var storedRounds = new Long[size];
+        var storedDates = new Long[size];
+
+        for (int i = 0; i < size; i++) {
+            int idx = (start + i) % differentials.length;
+            storedDifferentials[i] = differentials[idx];
+            storedRounds[i] = rounds[idx];
+            storedDates[i] = dates[idx];
+        }
+
+        handicap.setDifferentials(storedDifferentials);
+        handicap.setDifferentialRounds(storedRounds);
+        handicap.setDifferentialDates(storedDates);
+    }
+
+    // the round must not be older than the newest one in the window
+    public void add(long roundId, long date, float differential) {
+
+        int idx = (start + size) % differentials.length;
+
+        differentials[idx] = differential;
+        rounds[idx] = roundId;
+        dates[idx] = date;
+
+        if (size < differentials.length) {
+            size++;
+        } else {
+            start = (start + 1) % differentials.length;
+        }
+    }
+
+    // true if the round can be added at the end of the window
+    public boolean isNewest(Long roundId, Date date) {
+
+        if (size == 0) {
+            return true;
+        }
+
+        int newest = (start + size - 1) % differentials.length;
+        return date.getTime() > dates[newest] || date.getTime() == dates[newest] && roundId > rounds[newest];
+    }
+
+    public float[] getDifferentials() {
+
+        var result = new float[size];
+
+        for (int i = 0; i < size; i++) {
+            result[i] = differentials[(start + i) % differentials.length];
+        }
+
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size == differentials.length;
+    }
+}
@@ -0,0 +1,150 @@
+package com.greg.golf.service.helpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+import com.greg.golf.entity.Course;
+import com.greg.golf.entity.HandicapHistory;
+import com.greg.golf.entity.ScoreCard;
+
+/**
+ * Handicap index according to the World Handicap System: the average of the best differentials
+ * from the latest 20 rounds (best 8 of 20, fewer for players with less rounds, with adjustment
+ * for 3 - 6 rounds), limited by the soft and hard cap against the low handicap index
+ * of the last 365 days once the player has 20 rounds. Only complete 18 hole rounds are counted.
+ */
+public class HandicapCalculator {
+
+    public static final int WINDOW_SIZE = 20;
+    public static final float MAX_INDEX = 54.0F;
+
+    // differentials used and index adjustment by number of differentials
+    private static final int[] USED = {0, 0, 0, 1, 1, 1, 2, 2, 2, 3, 3, 3, 4, 4, 4, 5, 5, 6, 6, 7, 8};
+    private static final float[] ADJUSTMENT = {0, 0, 0, -2, -1, 0, -1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0};
+
+    private static final float SOFT_CAP = 3.0F;
+    private static final float HARD_CAP = 5.0F;
+    private static final long LOW_INDEX_PERIOD = 365L * 24 * 60 * 60 * 1000;
+    private static final int TEE_TYPE_18_HOLES = 0;
+
+    private HandicapCalculator() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    // returns null for rounds not counted to handicap, course hcp is calculated from the whs of the round
+    public static Differential differential(Long roundId, Date roundDate, Course course, List<ScoreCard> scoreCards,
+                                            Float whs, Float cr, Integer sr, Integer teeType) {
+
+        if (cr == null || sr == null || teeType != null && teeType != TEE_TYPE_18_HOLES
+                || course.getHoles().size() != ScoringEngine.HOLES) {
+            return null;
+        }
+
+        var card = ScoringEngine.toPlayerCard(course.getHoles(), scoreCards);
+
+        if (card.getPlayedHoles() != ScoringEngine.HOLES) {
+            return null;
+        }
+
+        float hcp = whs == null ? MAX_INDEX : whs;
+        int courseHcp = Math.round(hcp * sr / 113 + cr - course.getPar());
+        // adjusted gross score - each hole limited to net double bogey
+        int adjustedStrokes = ScoringEngine.score(card, courseHcp).getCorrectedStrokes();
+
+        return new Differential(roundId, roundDate,
+                round(ScoringEngine.getScoreDifferential(adjustedStrokes, cr, sr)));
+    }
+
+    // low index is taken into account only for the full window
+    public static Float index(float[] differentials, Float lowIndex) {
+
+        int count = Math.min(differentials.length, WINDOW_SIZE);
+
+        if (USED[count] == 0) {
+            return null;
+        }
+
+        var sorted = Arrays.copyOf(differentials, count);
+        Arrays.sort(sorted);
+
+        float sum = 0;
+        for (int i = 0; i < USED[count]; i++) {
+            sum += sorted[i];
+        }
+
+        float index = sum / USED[count] + ADJUSTMENT[count];
+
+        if (lowIndex != null && count == WINDOW_SIZE) {
+            if (index - lowIndex > SOFT_CAP) {
+                index = lowIndex + SOFT_CAP + (index - lowIndex - SOFT_CAP) / 2;
+            }
+            index = Math.min(index, lowIndex + HARD_CAP);
+        }
+
+        return Math.min(round(index), MAX_INDEX);
+    }
+
+    // adds the newest round to the window and returns history entry with the index after that round
+    public static HandicapHistory add(Long playerId, Differential differential, DifferentialWindow window,
+                                      Float lowIndex) {
+
+        window.add(differential.roundId(), differential.roundDate().getTime(), differential.value());
+
+        var history = new HandicapHistory();
+        history.setPlayerId(playerId);
+        history.setRoundId(differential.roundId());
+        history.setRoundDate(differential.roundDate());
+        history.setScoreDifferential(differential.value());
+        history.setScores(window.size());
+        history.setHandicapIndex(index(window.getDifferentials(), window.isFull() ? lowIndex : null));
+
+        return history;
+    }
+
+    // calculates the whole history of the player, rounds are taken in date order
+    public static List<HandicapHistory> history(Long playerId, List<Differential> differentials,
+                                                DifferentialWindow window) {
+
+        var ordered = new ArrayList<>(differentials);
+        ordered.sort(Comparator.comparingLong((Differential d) -> d.roundDate().getTime())
+                .thenComparing(Differential::roundId));
+
+        var history = new ArrayList<HandicapHistory>(ordered.size());
+
+        for (Differential differential : ordered) {
+            history.add(add(playerId, differential, window, lowIndex(history, differential.roundDate())));
+        }
+
+        return history;
+    }
+
+    // the lowest index calculated from the full window within 365 days before the round
+    public static Float lowIndex(List<HandicapHistory> history, Date roundDate) {
+
+        Float lowIndex = null;
+        long from = roundDate.getTime() - LOW_INDEX_PERIOD;
+
+        for (int i = history.size() - 1; i >= 0 && history.get(i).getRoundDate().getTime() >= from; i--) {
+            var entry = history.get(i);
+            if (entry.getScores() == WINDOW_SIZE && (lowIndex == null || entry.getHandicapIndex() < lowIndex)) {
+                lowIndex = entry.getHandicapIndex();
+            }
+        }
+
+        return lowIndex;
+    }
+
+    public static Date lowIndexFrom(Date roundDate) {
+        return new Date(roundDate.getTime() - LOW_INDEX_PERIOD);
+    }
+
+    private static float round(float value) {
+        return Math.round(value * 10) / 10.0F;
+    }
+
+    public record Differential(Long roundId, Date roundDate, float value) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.greg.golf.service.helpers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque "after" token of keyset pagination. The token holds the sort key of the last item on the page,
+ * so the next page is read from the index right after it regardless of how deep it is.
+ * Only the last value may contain the separator.
+ */
+public class KeysetCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private KeysetCursor() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static String encode(Object... values) {
+
+        var joined = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                joined.append(SEPARATOR);
+            }
+            joined.append(values[i]);
+        }
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // throws IllegalArgumentException if the token has not been created by encode with the same number of values
+    public static String[] decode(String token, int size) {
+
+        var values = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARATOR, size);
+
+        if (values.length != size) {
+            throw new IllegalArgumentException("Incorrect pagination token");
+        }
+
+        return values;
+    }
+}
@@ -0,0 +1,27 @@
+package com.greg.golf.service.helpers;
+
+import java.util.List;
+import java.util.function.Function;
+
+import lombok.Getter;
+
+/**
+ * Page of items read with keyset pagination and the token for the next page (null for the last page).
+ */
+@Getter
+public class KeysetPage<T> {
+
+    private final List<T> items;
+    private final String after;
+
+    public KeysetPage(List<T> items, String after) {
+        this.items = items;
+        this.after = after;
+    }
+
+    // the page is the last one if it is not full
+    public static <T> KeysetPage<T> of(List<T> items, int pageSize, Function<T, String> cursor) {
+
+        return new KeysetPage<>(items, items.size() < pageSize ? null : cursor.apply(items.getLast()));
+    }
+}
@@ -0,0 +1,77 @@
+package com.greg.golf.service.helpers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+import com.greg.golf.entity.Player;
+import com.greg.golf.entity.PlayerRound;
+import com.greg.golf.entity.Round;
+import com.greg.golf.entity.ScoreCard;
+
+/**
+ * Score card of one player round packed into fixed-width arrays of strokes, putts and penalties
+ * stored in the player_round row. Element i is for hole i + 1 and holes not played are null,
+ * so the card is read with the player round itself instead of up to 18 score_card rows.
+ */
+public class PackedScoreCard {
+
+    public static final int HOLES = 18;
+
+    private PackedScoreCard() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static Short[] pack(Collection<ScoreCard> scoreCards, Function<ScoreCard, Integer> value) {
+
+        var packed = new Short[HOLES];
+
+        for (var scoreCard : scoreCards) {
+            var holeValue = value.apply(scoreCard);
+            // hole out of range is left for validation of the score card itself
+            if (holeValue != null && scoreCard.getHole() != null && scoreCard.getHole() >= 1
+                    && scoreCard.getHole() <= HOLES) {
+                packed[scoreCard.getHole() - 1] = holeValue.shortValue();
+            }
+        }
+
+        return packed;
+    }
+
+    public static void pack(PlayerRound playerRound, Collection<ScoreCard> scoreCards) {
+
+        playerRound.setStrokes(pack(scoreCards, ScoreCard::getStroke));
+        playerRound.setPutts(pack(scoreCards, ScoreCard::getPats));
+        playerRound.setPenalties(pack(scoreCards, ScoreCard::getPenalty));
+    }
+
+    public static boolean isPacked(PlayerRound playerRound) {
+        return playerRound.getStrokes() != null;
+    }
+
+    // returns transient score cards ordered by hole, they have no id as score_card rows are not read
+    public static List<ScoreCard> unpack(PlayerRound playerRound, Round round, Player player) {
+
+        var scoreCards = new ArrayList<ScoreCard>(HOLES);
+
+        for (int i = 0; i < playerRound.getStrokes().length; i++) {
+            if (playerRound.getStrokes()[i] != null) {
+                var scoreCard = new ScoreCard();
+                scoreCard.setHole(i + 1);
+                scoreCard.setStroke(playerRound.getStrokes()[i].intValue());
+                scoreCard.setPats(toInteger(playerRound.getPutts(), i));
+                scoreCard.setPenalty(toInteger(playerRound.getPenalties(), i));
+                scoreCard.setRound(round);
+                scoreCard.setPlayer(player);
+                scoreCards.add(scoreCard);
+            }
+        }
+
+        return scoreCards;
+    }
+
+    private static Integer toInteger(Short[] packed, int idx) {
+        return packed == null || packed.length <= idx || packed[idx] == null ? null : packed[idx].intValue();
+    }
+}
@@ -0,0 +1,228 @@
+package com.greg.golf.service.helpers;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+import com.greg.golf.entity.Course;
+import com.greg.golf.entity.PlayerStats;
+import com.greg.golf.entity.ScoreCard;
+import com.greg.golf.entity.helpers.Common;
+import lombok.Getter;
+
+/**
+ * Career statistics of the player kept as counters, so they are never calculated from score cards on read.
+ * Each player round gives a contribution which is added to counters when the round is saved
+ * and subtracted when it is changed or removed. Stableford trend keeps the latest rounds in date order;
+ * only removal of a round from the trend requires reading the preceding rounds again.
+ */
+public class PlayerStatsCalculator {
+
+    private static final Comparator<TrendEntry> TREND_ORDER = Comparator
+            .comparingLong(TrendEntry::date)
+            .thenComparingLong(TrendEntry::roundId)
+            .reversed();
+
+    private PlayerStatsCalculator() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    // Stableford is calculated only if all handicap data of the player round are available
+    public static Contribution contribution(Long roundId, Date roundDate, Course course, List<ScoreCard> scoreCards,
+                                            Float whs, Float cr, Integer sr) {
+
+        var card = ScoringEngine.toPlayerCard(course.getHoles(), scoreCards);
+        var contribution = new Contribution(roundId, roundDate.getTime());
+
+        for (int i = 0; i < ScoringEngine.HOLES; i++) {
+
+            int stroke = card.getStrokes()[i];
+
+            if (!card.getPresent()[i] || stroke == 0) {
+                continue;
+            }
+
+            contribution.holes++;
+
+            if (stroke >= Common.HOLE_GIVEN_UP) {
+                continue;
+            }
+
+            switch (card.getPar()[i]) {
+                case 3 -> {
+                    contribution.par3Holes++;
+                    contribution.par3Strokes += stroke;
+                }
+                case 4 -> {
+                    contribution.par4Holes++;
+                    contribution.par4Strokes += stroke;
+                }
+                case 5 -> {
+                    contribution.par5Holes++;
+                    contribution.par5Strokes += stroke;
+                }
+                default -> {
+                    // other pars are counted only as played holes
+                }
+            }
+        }
+
+        for (ScoreCard scoreCard : scoreCards) {
+            contribution.putts += scoreCard.getPats() == null ? 0 : scoreCard.getPats();
+            contribution.penalties += scoreCard.getPenalty() == null ? 0 : scoreCard.getPenalty();
+        }
+
+        if (whs != null && cr != null && sr != null) {
+            int courseHcp = Math.round(whs * sr / 113 + cr - course.getPar());
+            contribution.stbNet = ScoringEngine.score(card, courseHcp).getStbNet();
+        }
+
+        return contribution;
+    }
+
+    // sign is 1 for added and -1 for removed round, the trend is updated separately
+    public static void apply(PlayerStats stats, Contribution contribution, int sign) {
+
+        stats.setRounds(stats.getRounds() + sign);
+        stats.setHoles(stats.getHoles() + sign * contribution.holes);
+        stats.setPar3Holes(stats.getPar3Holes() + sign * contribution.par3Holes);
+        stats.setPar3Strokes(stats.getPar3Strokes() + sign * contribution.par3Strokes);
+        stats.setPar4Holes(stats.getPar4Holes() + sign * contribution.par4Holes);
+        stats.setPar4Strokes(stats.getPar4Strokes() + sign * contribution.par4Strokes);
+        stats.setPar5Holes(stats.getPar5Holes() + sign * contribution.par5Holes);
+        stats.setPar5Strokes(stats.getPar5Strokes() + sign * contribution.par5Strokes);
+        stats.setPutts(stats.getPutts() + sign * contribution.putts);
+        stats.setPenalties(stats.getPenalties() + sign * contribution.penalties);
+
+        if (contribution.stbNet != null) {
+            stats.setStbRounds(stats.getStbRounds() + sign);
+            stats.setStbNet(stats.getStbNet() + sign * contribution.stbNet);
+        }
+    }
+
+    // counters and trend are replaced by the given contributions
+    public static void rebuild(PlayerStats stats, List<Contribution> contributions, int trendSize) {
+
+        stats.setRounds(0);
+        stats.setHoles(0);
+        stats.setPar3Holes(0);
+        stats.setPar3Strokes(0);
+        stats.setPar4Holes(0);
+        stats.setPar4Strokes(0);
+        stats.setPar5Holes(0);
+        stats.setPar5Strokes(0);
+        stats.setPutts(0);
+        stats.setPenalties(0);
+        stats.setStbRounds(0);
+        stats.setStbNet(0);
+
+        contributions.forEach(contribution -> apply(stats, contribution, 1));
+        setTrend(stats, contributions, trendSize);
+    }
+
+    public static boolean isInTrend(PlayerStats stats, Long roundId) {
+
+        if (stats.getTrendRounds() == null) {
+            return false;
+        }
+
+        for (Long trendRound : stats.getTrendRounds()) {
+            if (trendRound.equals(roundId)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    // the round is inserted according to its date and the oldest one drops out when the trend is full,
+    // the round already in the trend (e.g. after rebuild) is replaced
+    public static void addToTrend(PlayerStats stats, Contribution contribution, int trendSize) {
+
+        if (contribution.stbNet == null) {
+            return;
+        }
+
+        var entries = getTrend(stats);
+        entries.removeIf(entry -> entry.roundId() == contribution.roundId);
+        entries.add(new TrendEntry(contribution.roundId, contribution.roundDate, contribution.stbNet));
+        storeTrend(stats, entries, trendSize);
+    }
+
+    public static void setTrend(PlayerStats stats, List<Contribution> contributions, int trendSize) {
+
+        var entries = new ArrayList<TrendEntry>(contributions.size());
+
+        for (Contribution contribution : contributions) {
+            if (contribution.stbNet != null) {
+                entries.add(new TrendEntry(contribution.roundId, contribution.roundDate, contribution.stbNet));
+            }
+        }
+
+        storeTrend(stats, entries, trendSize);
+    }
+
+    private static List<TrendEntry> getTrend(PlayerStats stats) {
+
+        var entries = new ArrayList<TrendEntry>();
+
+        if (stats.getTrendRounds() != null) {
+            for (int i = 0; i < stats.getTrendRounds().length; i++) {
+                entries.add(new TrendEntry(stats.getTrendRounds()[i], stats.getTrendDates()[i], stats.getTrendStb()[i]));
+            }
+        }
+
+        return entries;
+    }
+
+    private static void storeTrend(PlayerStats stats, List<TrendEntry> entries, int trendSize) {
+
+        entries.sort(TREND_ORDER);
+        int size = Math.min(entries.size(), trendSize);
+
+        var rounds = new Long[size];
+        var dates = new Long[size];
+        var stb = new Short[size];
+
+        for (int i = 0; i < size; i++) {
+            rounds[i] = entries.get(i).roundId();
+            dates[i] = entries.get(i).date();
+            stb[i] = (short) entries.get(i).stbNet();
+        }
+
+        stats.setTrendRounds(rounds);
+        stats.setTrendDates(dates);
+        stats.setTrendStb(stb);
+    }
+
+    private record TrendEntry(long roundId, long date, int stbNet) {
+    }
+
+    /**
+     * Part of the player statistics coming from one round.
+     */
+    @Getter
+    public static class Contribution {
+
+        private final Long roundId;
+        // epoch millis
+        private final long roundDate;
+        private int holes;
+        private int par3Holes;
+        private int par3Strokes;
+        private int par4Holes;
+        private int par4Strokes;
+        private int par5Holes;
+        private int par5Strokes;
+        private int putts;
+        private int penalties;
+        // null if handicap data of the round are missing
+        private Integer stbNet;
+
+        public Contribution(Long roundId, long roundDate) {
+            this.roundId = roundId;
+            this.roundDate = roundDate;
+        }
+    }
+}
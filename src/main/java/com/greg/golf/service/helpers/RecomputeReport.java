@@ -0,0 +1,66 @@
+package com.greg.golf.service.helpers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Outcome of tournament recompute - timings of the phases and the list of changed values.
+ */
+@Getter
+@Setter
+public class RecomputeReport {
+
+    public static final String TOURNAMENT_ROUND = "TournamentRound";
+    public static final String TOURNAMENT_RESULT = "TournamentResult";
+
+    private Long tournamentId;
+    private int recomputedRounds;
+    private int recomputedResults;
+    private int skippedResults;
+    private long loadTimeMs;
+    private long computeTimeMs;
+    private long writeTimeMs;
+    private long totalTimeMs;
+    private final List<Change> changes = new ArrayList<>();
+
+    public RecomputeReport(Long tournamentId) {
+        this.tournamentId = tournamentId;
+    }
+
+    // copies the value from recomputed to current entity if it differs and records the change
+    public <E, V> void update(String entity, Long id, String field, E current, E recomputed,
+                              Function<E, V> getter, BiConsumer<E, V> setter) {
+
+        var oldValue = getter.apply(current);
+        var newValue = getter.apply(recomputed);
+
+        if (!Objects.equals(oldValue, newValue)) {
+            setter.accept(current, newValue);
+            changes.add(new Change(entity, id, field, oldValue, newValue));
+        }
+    }
+
+    @Getter
+    public static class Change {
+
+        private final String entity;
+        private final Long id;
+        private final String field;
+        private final Object oldValue;
+        private final Object newValue;
+
+        public Change(String entity, Long id, String field, Object oldValue, Object newValue) {
+            this.entity = entity;
+            this.id = id;
+            this.field = field;
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.greg.golf.service.helpers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Outcome of bulk round import - the result of each imported row, its counts and the throughput.
+ */
+@Getter
+@Setter
+public class RoundImportReport {
+
+    public enum Status {
+        // row saved as a new round or merged into the round of the same course and date
+        IMPORTED,
+        // row not valid or not matching the data
+        REJECTED,
+        // row valid but the transaction of its chunk failed
+        FAILED
+    }
+
+    private int imported;
+    private int rejected;
+    private int failed;
+    private long totalTimeMs;
+    private double roundsPerSecond;
+    private final List<Row> rows = new ArrayList<>();
+
+    public void add(Row row) {
+
+        switch (row.getStatus()) {
+            case IMPORTED -> imported++;
+            case REJECTED -> rejected++;
+            case FAILED -> failed++;
+        }
+        rows.add(row);
+    }
+
+    @Getter
+    public static class Row {
+
+        // position of the row in the request, starting from 0
+        private final int row;
+        private final Status status;
+        private final Long roundId;
+        private final String error;
+
+        public Row(int row, Status status, Long roundId, String error) {
+            this.row = row;
+            this.status = status;
+            this.roundId = roundId;
+            this.error = error;
+        }
+    }
+}
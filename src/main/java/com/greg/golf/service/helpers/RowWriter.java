@@ -0,0 +1,154 @@
+package com.greg.golf.service.helpers;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes rows one by one as CSV (with header line) or NDJSON (one JSON object per line).
+ * Rows are taken from the stream as they come, so the exported data is never held in memory
+ * and only the writer buffer is kept between flushes to the output.
+ */
+public class RowWriter<T> {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final List<String> names = new ArrayList<>();
+    private final List<Function<T, Object>> values = new ArrayList<>();
+
+    public RowWriter<T> column(String name, Function<T, Object> value) {
+        names.add(name);
+        values.add(value);
+        return this;
+    }
+
+    // returns number of written rows
+    public long write(Stream<T> rows, Format format, OutputStream outputStream) throws IOException {
+
+        var writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        long count = 0;
+
+        if (format == Format.CSV) {
+            for (int i = 0; i < names.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCsv(writer, names.get(i));
+            }
+            writer.write('\n');
+        }
+
+        var iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            var row = iterator.next();
+            if (format == Format.CSV) {
+                writeCsvRow(writer, row);
+            } else {
+                writeJsonRow(writer, row);
+            }
+            count++;
+        }
+
+        writer.flush();
+
+        return count;
+    }
+
+    private void writeCsvRow(Writer writer, T row) throws IOException {
+
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            var value = values.get(i).apply(row);
+            if (value != null) {
+                writeCsv(writer, format(value));
+            }
+        }
+        writer.write('\n');
+    }
+
+    private void writeJsonRow(Writer writer, T row) throws IOException {
+
+        writer.write('{');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeJsonString(writer, names.get(i));
+            writer.write(':');
+            writeJsonValue(writer, values.get(i).apply(row));
+        }
+        writer.write("}\n");
+    }
+
+    private static String format(Object value) {
+
+        if (value instanceof Date date) {
+            return date.toInstant().toString();
+        }
+        return value.toString();
+    }
+
+    // value is quoted only if it contains separator, quote or line break
+    private static void writeCsv(Writer writer, String value) throws IOException {
+
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static void writeJsonValue(Writer writer, Object value) throws IOException {
+
+        if (value == null
+                || value instanceof Float f && !Float.isFinite(f)
+                || value instanceof Double d && !Double.isFinite(d)) {
+            writer.write("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            writer.write(value.toString());
+        } else {
+            writeJsonString(writer, format(value));
+        }
+    }
+
+    private static void writeJsonString(Writer writer, String value) throws IOException {
+
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+        writer.write('"');
+    }
+}
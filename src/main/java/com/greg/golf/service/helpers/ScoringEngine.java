@@ -0,0 +1,184 @@
+package com.greg.golf.service.helpers;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.greg.golf.entity.Hole;
+import com.greg.golf.entity.Round;
+import com.greg.golf.entity.ScoreCard;
+import com.greg.golf.entity.helpers.Common;
+import lombok.Getter;
+
+/**
+ * Primitive scoring kernel used to calculate tournament results.
+ * The round is converted once into per-player int arrays (strokes, par, SI) and then
+ * all statistics (Stableford net / gross, gross / net / corrected strokes and given-up holes)
+ * are calculated in a single pass without boxing.
+ */
+public class ScoringEngine {
+
+    public static final int HOLES = 18;
+
+    private ScoringEngine() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    // converts the whole round into player cards - score cards are iterated only once
+    public static Map<Long, PlayerCard> toPlayerCards(Round round) {
+
+        var par = new int[HOLES];
+        var si = new int[HOLES];
+        fillHoles(round.getCourse().getHoles(), par, si);
+
+        var cards = new HashMap<Long, PlayerCard>();
+
+        for (ScoreCard scoreCard : round.getScoreCard()) {
+            cards.computeIfAbsent(scoreCard.getPlayer().getId(), id -> new PlayerCard(par, si)).add(scoreCard);
+        }
+
+        return cards;
+    }
+
+    // converts the round into card for the given player only
+    public static PlayerCard toPlayerCard(Round round, Long playerId) {
+
+        var par = new int[HOLES];
+        var si = new int[HOLES];
+        fillHoles(round.getCourse().getHoles(), par, si);
+
+        var card = new PlayerCard(par, si);
+
+        for (ScoreCard scoreCard : round.getScoreCard()) {
+            if (scoreCard.getPlayer().getId().equals(playerId)) {
+                card.add(scoreCard);
+            }
+        }
+
+        return card;
+    }
+
+    // converts score cards of one player, holes are taken from the course rather than the round
+    public static PlayerCard toPlayerCard(List<Hole> holes, List<ScoreCard> scoreCards) {
+
+        var par = new int[HOLES];
+        var si = new int[HOLES];
+        fillHoles(holes, par, si);
+
+        var card = new PlayerCard(par, si);
+        scoreCards.forEach(card::add);
+
+        return card;
+    }
+
+    // calculates all statistics for the card and playing hcp in one pass
+    public static RoundScore score(PlayerCard card, int playingHcp) {
+
+        // calculate hole HCP for player
+        int hcpAll = Math.floorDiv(playingHcp, HOLES);
+        int hcpIncMaxHole = playingHcp - (hcpAll * HOLES);
+
+        int[] strokes = card.strokes;
+        int[] par = card.par;
+        int[] si = card.si;
+
+        int stbNet = 0;
+        int stbGross = 0;
+        int grossStrokes = 0;
+        int correctedStrokes = 0;
+        boolean givenUp = false;
+
+        for (int i = 0; i < HOLES; i++) {
+
+            if (!card.present[i]) {
+                continue;
+            }
+
+            int stroke = strokes[i];
+            int hcp = hcpIncMaxHole > 0 && si[i] <= hcpIncMaxHole ? hcpAll + 1 : hcpAll;
+
+            stbNet += Math.max(0, par[i] - (stroke - hcp) + 2);
+            stbGross += Math.max(0, par[i] - stroke + 2);
+            grossStrokes += stroke;
+            correctedStrokes += Math.min(stroke, hcp + 2 + par[i]);
+            givenUp |= stroke >= Common.HOLE_GIVEN_UP;
+        }
+
+        return new RoundScore(stbNet, stbGross, grossStrokes, getNetStrokes(grossStrokes, playingHcp),
+                correctedStrokes, givenUp);
+    }
+
+    public static int getNetStrokes(int grossStrokes, int playingHcp) {
+
+        return Math.max(0, grossStrokes - playingHcp);
+    }
+
+    public static float getScoreDifferential(int correctedStrokes, float cr, int sr) {
+
+        return (113 / (float) sr) * (correctedStrokes - cr);
+    }
+
+    private static void fillHoles(List<Hole> holes, int[] par, int[] si) {
+
+        int holeCnt = Math.min(holes.size(), HOLES);
+
+        for (int i = 0; i < holeCnt; i++) {
+            var hole = holes.get(i);
+            par[i] = hole.getPar();
+            si[i] = hole.getSi();
+        }
+    }
+
+    /**
+     * Strokes of one player in one round kept in arrays indexed by hole number - 1.
+     * Par and SI arrays are shared between all players of the round.
+     */
+    @Getter
+    public static class PlayerCard {
+
+        private final int[] strokes = new int[HOLES];
+        private final boolean[] present = new boolean[HOLES];
+        private final int[] par;
+        private final int[] si;
+        private int playedHoles;
+
+        public PlayerCard(int[] par, int[] si) {
+            this.par = par;
+            this.si = si;
+        }
+
+        private void add(ScoreCard scoreCard) {
+
+            int idx = scoreCard.getHole() - 1;
+            int stroke = scoreCard.getStroke();
+
+            strokes[idx] = stroke;
+            present[idx] = true;
+
+            if (stroke > 0) {
+                playedHoles++;
+            }
+        }
+    }
+
+    @Getter
+    public static class RoundScore {
+
+        private final int stbNet;
+        private final int stbGross;
+        private final int grossStrokes;
+        private final int netStrokes;
+        private final int correctedStrokes;
+        private final boolean givenUp;
+
+        public RoundScore(int stbNet, int stbGross, int grossStrokes, int netStrokes, int correctedStrokes,
+                          boolean givenUp) {
+            this.stbNet = stbNet;
+            this.stbGross = stbGross;
+            this.grossStrokes = grossStrokes;
+            this.netStrokes = netStrokes;
+            this.correctedStrokes = correctedStrokes;
+            this.givenUp = givenUp;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.greg.golf.service.helpers;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.greg.golf.entity.TeeTime;
+import com.greg.golf.entity.TournamentPlayer;
+
+/**
+ * Builds flights and tee times for tournament players.
+ * Players are ordered according to the strategy and split into consecutive flights whose sizes differ
+ * at most by one (e.g. 9 players with flight size 4 give 3 flights of 3 instead of 4, 4 and 1).
+ * Ordering is O(n log n), so even large fields are scheduled in milliseconds.
+ * All flights must start on the day of the first tee time.
+ */
+public class TeeTimeScheduler {
+
+    public enum Strategy {
+        // players with similar handicap play together, lowest handicaps tee off first
+        HANDICAP,
+        // random draw
+        RANDOM,
+        // tournament leaders tee off last, players without results first
+        LEADERBOARD
+    }
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+    private static final int LAST_MINUTE_OF_DAY = 23 * 60 + 59;
+
+    private TeeTimeScheduler() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    // positions are taken from leaderboard (1 = leader) and used only by LEADERBOARD strategy
+    public static List<TeeTime> schedule(List<TournamentPlayer> players, int flightSize, String firstTeeTime,
+                                         int teeTimeStep, Strategy strategy, Random random,
+                                         Map<Long, Integer> positions) {
+
+        var ordered = new ArrayList<>(players);
+
+        switch (strategy) {
+            case HANDICAP -> ordered.sort(Comparator.comparing(TournamentPlayer::getWhs,
+                    Comparator.nullsLast(Comparator.naturalOrder())));
+            case RANDOM -> shuffle(ordered, random);
+            case LEADERBOARD -> ordered.sort(Comparator.comparingInt(
+                    (TournamentPlayer tp) -> positions.getOrDefault(tp.getPlayerId(), Integer.MAX_VALUE)).reversed());
+        }
+
+        return toTeeTimes(ordered, flightSize, LocalTime.parse(firstTeeTime, TIME_FORMAT), teeTimeStep);
+    }
+
+    private static List<TeeTime> toTeeTimes(List<TournamentPlayer> ordered, int flightSize, LocalTime firstTeeTime,
+                                            int teeTimeStep) {
+
+        var teeTimes = new ArrayList<TeeTime>(ordered.size());
+
+        if (ordered.isEmpty()) {
+            return teeTimes;
+        }
+
+        int flights = (ordered.size() + flightSize - 1) / flightSize;
+
+        // LocalTime wraps around midnight, so the last flight is checked before times are assigned
+        long lastStart = firstTeeTime.getHour() * 60L + firstTeeTime.getMinute() + (long) (flights - 1) * teeTimeStep;
+        if (lastStart > LAST_MINUTE_OF_DAY) {
+            throw new IllegalArgumentException("Last of " + flights + " flights would start after midnight");
+        }
+        // first "larger" flights get one player more than the rest
+        int smallSize = ordered.size() / flights;
+        int larger = ordered.size() % flights;
+
+        int idx = 0;
+        for (int flight = 1; flight <= flights; flight++) {
+
+            var time = firstTeeTime.plusMinutes((long) (flight - 1) * teeTimeStep).format(TIME_FORMAT);
+            int size = flight <= larger ? smallSize + 1 : smallSize;
+
+            for (int i = 0; i < size; i++) {
+                var player = ordered.get(idx++);
+                var teeTime = new TeeTime();
+                teeTime.setFlight(flight);
+                teeTime.setTime(time);
+                teeTime.setNick(player.getNick());
+                teeTime.setHcp(player.getWhs());
+                teeTimes.add(teeTime);
+            }
+        }
+
+        return teeTimes;
+    }
+
+    // Fisher-Yates, so the draw is reproducible for given seed
+    private static <T> void shuffle(List<T> list, Random random) {
+
+        for (int i = list.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            list.set(i, list.set(j, list.get(i)));
+        }
+    }
+}
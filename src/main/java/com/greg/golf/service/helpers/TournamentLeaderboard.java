@@ -0,0 +1,112 @@
+package com.greg.golf.service.helpers;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import com.greg.golf.entity.TournamentResult;
+import com.greg.golf.entity.helpers.Common;
+import com.greg.golf.service.TournamentService;
+
+/**
+ * Ready-ordered views of tournament results kept in cache between updates of the tournament.
+ * Results are detached copies (with player) so cached views are not affected by later changes
+ * made to managed entities. For bestRounds tournaments players who have not played bestRounds yet
+ * are placed after the ones who have (two-tier ordering).
+ * Version is the results version of the tournament kept in the database, so it is the same on all instances,
+ * survives restarts and anything derived from the leaderboard can be cached by version.
+ */
+public class TournamentLeaderboard {
+
+    // order used by tournament results page
+    public static final int SORT_DEFAULT = 0;
+
+    private final long version;
+
+    private final List<TournamentResult> defaultView;
+    private final List<TournamentResult> stbNetView;
+    private final List<TournamentResult> stbView;
+    private final List<TournamentResult> strNetView;
+    private final List<TournamentResult> strView;
+
+    public TournamentLeaderboard(List<TournamentResult> results, int bestRounds, long version) {
+
+        this.version = version;
+        var snapshot = results.stream().map(TournamentLeaderboard::copy).toList();
+
+        defaultView = buildDefault(snapshot, bestRounds);
+        stbNetView = sort(snapshot, Comparator.comparingInt(TournamentResult::getStbNet).reversed());
+        stbView = sort(snapshot, Comparator.comparingInt(TournamentResult::getStbGross).reversed());
+        strNetView = buildStrokes(snapshot, bestRounds, Comparator.comparingInt(TournamentResult::getStrokesNetto));
+        strView = buildStrokes(snapshot, bestRounds, Comparator.comparingInt(TournamentResult::getStrokesBrutto));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<TournamentResult> getView(int sort) {
+
+        return switch (sort) {
+            case SORT_DEFAULT -> defaultView;
+            case TournamentService.SORT_STB_NET -> stbNetView;
+            case TournamentService.SORT_STB -> stbView;
+            case TournamentService.SORT_STR_NET -> strNetView;
+            case TournamentService.SORT_STR -> strView;
+            default -> List.of();
+        };
+    }
+
+    private static List<TournamentResult> buildDefault(List<TournamentResult> results, int bestRounds) {
+
+        var byPlayedRounds = Comparator.comparingInt(TournamentResult::getPlayedRounds).reversed()
+                .thenComparing(Comparator.comparingInt(TournamentResult::getStbNet).reversed());
+
+        if (bestRounds == Common.ALL_ROUNDS) {
+            return sort(results, byPlayedRounds);
+        }
+
+        return twoTier(results, bestRounds, Comparator.comparingInt(TournamentResult::getStbNet).reversed(), byPlayedRounds);
+    }
+
+    private static List<TournamentResult> buildStrokes(List<TournamentResult> results, int bestRounds,
+                                                       Comparator<TournamentResult> strokes) {
+
+        var byStrokeRounds = Comparator.comparingInt(TournamentResult::getStrokeRounds).reversed().thenComparing(strokes);
+
+        if (bestRounds == Common.ALL_ROUNDS) {
+            return sort(results, byStrokeRounds);
+        }
+
+        return twoTier(results, bestRounds, strokes, byStrokeRounds);
+    }
+
+    private static List<TournamentResult> twoTier(List<TournamentResult> results, int bestRounds,
+                                                  Comparator<TournamentResult> playedBest,
+                                                  Comparator<TournamentResult> notPlayedBest) {
+
+        var ordered = new ArrayList<TournamentResult>(results.size());
+        ordered.addAll(sort(results.stream().filter(r -> r.getPlayedRounds() >= bestRounds).toList(), playedBest));
+        ordered.addAll(sort(results.stream().filter(r -> r.getPlayedRounds() < bestRounds).toList(), notPlayedBest));
+        return List.copyOf(ordered);
+    }
+
+    private static List<TournamentResult> sort(List<TournamentResult> results, Comparator<TournamentResult> comparator) {
+
+        return results.stream().sorted(comparator).toList();
+    }
+
+    private static TournamentResult copy(TournamentResult tournamentResult) {
+
+        var copy = new TournamentResult();
+        copy.setId(tournamentResult.getId());
+        copy.setPlayer(tournamentResult.getPlayer());
+        copy.setStrokesBrutto(tournamentResult.getStrokesBrutto());
+        copy.setStrokesNetto(tournamentResult.getStrokesNetto());
+        copy.setPlayedRounds(tournamentResult.getPlayedRounds());
+        copy.setStrokeRounds(tournamentResult.getStrokeRounds());
+        copy.setStbNet(tournamentResult.getStbNet());
+        copy.setStbGross(tournamentResult.getStbGross());
+        return copy;
+    }
+}
@@ -0,0 +1,229 @@
+package com.greg.golf.configuration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.greg.golf.configurationproperties.WebSocketBrokerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.tomcat.autoconfigure.servlet.TomcatServletWebServerAutoConfiguration;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.boot.webmvc.autoconfigure.DispatcherServletAutoConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+/**
+ * Runs two nodes of the application web socket setup and checks that a message published on one node reaches
+ * subscribers of both nodes, with latency and throughput of the delivery to the other node written to the log.
+ */
+@Slf4j
+class WebSocketBrokerTest {
+
+    private static final String TOPIC = "/topic/online/1";
+    private static final int MESSAGES = 2000;
+
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+    private final List<StompSession> sessions = new ArrayList<>();
+    private EmbeddedActiveMQ broker;
+
+    @AfterEach
+    void tearDown() throws Exception {
+
+        sessions.forEach(StompSession::disconnect);
+        nodes.forEach(ConfigurableApplicationContext::close);
+        if (broker != null) {
+            broker.stop();
+        }
+    }
+
+    @DisplayName("Should deliver messages to subscribers of all nodes through broker relay")
+    @Test
+    void relayTest() throws Exception {
+
+        int port = freePort();
+
+        var configuration = new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .addAcceptorConfiguration("stomp", "tcp://127.0.0.1:" + port + "?protocols=STOMP");
+        broker = new EmbeddedActiveMQ().setConfiguration(configuration).start();
+
+        runNodes("--broker.mode=relay", "--broker.relayHost=127.0.0.1", "--broker.relayPort=" + port);
+    }
+
+    @DisplayName("Should deliver messages to subscribers of all nodes through local cluster bus")
+    @Test
+    void clusterTest() throws Exception {
+        runNodes("--broker.mode=cluster");
+    }
+
+    private void runNodes(String... args) throws Exception {
+
+        var first = startNode("first", args);
+        var second = startNode("second", args);
+
+        var local = new Subscriber();
+        var remote = new Subscriber();
+        subscribe(first, local);
+        subscribe(second, remote);
+
+        var template = first.getBean("brokerMessagingTemplate", SimpMessagingTemplate.class);
+
+        // subscriptions are registered asynchronously, wait for the first probe on both nodes
+        awaitSubscribed(template, local, remote);
+
+        local.reset(MESSAGES);
+        remote.reset(MESSAGES);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MESSAGES; i++) {
+            template.convertAndSend(TOPIC, i + ":" + System.nanoTime());
+        }
+
+        assertTrue(remote.latch.await(30, TimeUnit.SECONDS), "received: " + remote.latencies.size());
+        assertTrue(local.latch.await(30, TimeUnit.SECONDS), "received: " + local.latencies.size());
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(MESSAGES, remote.sequence.size());
+        // order of messages of the topic is kept
+        for (int i = 0; i < MESSAGES; i++) {
+            assertEquals(i, remote.sequence.get(i));
+        }
+
+        var latencies = new ArrayList<>(remote.latencies);
+        Collections.sort(latencies);
+        log.info("{}: {} messages to other node in {} ms, {} msg/s, latency p50 {} us, p99 {} us, max {} us",
+                args[0], MESSAGES, elapsed / 1_000_000, MESSAGES * 1_000_000_000L / elapsed,
+                latencies.get(MESSAGES / 2) / 1000, latencies.get(MESSAGES * 99 / 100) / 1000,
+                latencies.getLast() / 1000);
+    }
+
+    private void awaitSubscribed(SimpMessagingTemplate template, Subscriber... subscribers) throws InterruptedException {
+
+        for (int attempt = 0; attempt < 100; attempt++) {
+            template.convertAndSend(TOPIC, "-1:" + System.nanoTime());
+            Thread.sleep(100);
+            var subscribed = true;
+            for (var subscriber : subscribers) {
+                subscribed &= subscriber.probes.get() > 0;
+            }
+            if (subscribed) {
+                // let the remaining probes arrive
+                Thread.sleep(500);
+                return;
+            }
+        }
+
+        fail("Subscriptions not registered");
+    }
+
+    private ConfigurableApplicationContext startNode(String name, String... args) {
+
+        var arguments = new ArrayList<>(List.of(args));
+        arguments.add("--server.port=0");
+        arguments.add("--broker.node=" + name);
+        arguments.add("--spring.main.banner-mode=off");
+
+        var node = new SpringApplicationBuilder(Node.class)
+                .web(WebApplicationType.SERVLET)
+                .run(arguments.toArray(String[]::new));
+        nodes.add(node);
+        return node;
+    }
+
+    private void subscribe(ConfigurableApplicationContext node, Subscriber subscriber) throws Exception {
+
+        var stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new StringMessageConverter());
+
+        int port = ((WebServerApplicationContext) node).getWebServer().getPort();
+        var session = stompClient.connectAsync("ws://localhost:" + port + "/websocket/onlinescorecard",
+                new StompSessionHandlerAdapter() {}).get(10, TimeUnit.SECONDS);
+        session.subscribe(TOPIC, subscriber);
+        sessions.add(session);
+    }
+
+    private static int freePort() throws IOException {
+
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static class Subscriber implements StompFrameHandler {
+
+        private final List<Integer> sequence = Collections.synchronizedList(new ArrayList<>());
+        private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger probes = new AtomicInteger();
+        private volatile CountDownLatch latch = new CountDownLatch(1);
+
+        void reset(int messages) {
+            sequence.clear();
+            latencies.clear();
+            latch = new CountDownLatch(messages);
+        }
+
+        @Override
+        @NonNull
+        public Type getPayloadType(@NonNull StompHeaders headers) {
+            return String.class;
+        }
+
+        @Override
+        public void handleFrame(@NonNull StompHeaders headers, Object payload) {
+
+            var values = ((String) payload).split(":");
+            int seq = Integer.parseInt(values[0]);
+
+            if (seq < 0) {
+                probes.incrementAndGet();
+                return;
+            }
+
+            latencies.add(System.nanoTime() - Long.parseLong(values[1]));
+            sequence.add(seq);
+            latch.countDown();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({TomcatServletWebServerAutoConfiguration.class, DispatcherServletAutoConfiguration.class})
+    @EnableConfigurationProperties(WebSocketBrokerConfig.class)
+    @Import({WebSocketConfig.class, WebSocketClusterConfig.class, WebSocketMetricsConfig.class})
+    static class Node {
+
+        @Bean
+        SimpleMeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -13,6 +13,7 @@ import com.greg.golf.security.oauth.GolfOAuth2UserService;
 import com.greg.golf.service.LeagueService;
 import com.greg.golf.service.PlayerService;
 import com.greg.golf.service.UserService;
+import com.greg.golf.service.helpers.KeysetPage;
 import com.greg.golf.util.CacheConfig;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.DisplayName;
@@ -113,6 +114,15 @@ class LeagueControllerTest {
 
 	}
 
+	@DisplayName("Should return first page of leagues")
+	@Test
+	void getLeaguesPageThenReturns200() throws Exception {
+
+		when(leagueService.findLeaguesAfter(null)).thenReturn(new KeysetPage<>(new ArrayList<>(), null));
+
+		mockMvc.perform(get("/rest/LeaguePage")).andExpect(status().isOk());
+	}
+
 	@DisplayName("Should add player to league with correct result")
 	@Test
 	void addPlayerWhenValidInputThenReturns200() throws Exception {
@@ -215,7 +225,7 @@ class LeagueControllerTest {
 	@Test
 	void processNotificationWhenValidInputThenReturns200() throws Exception {
 
-		when(leagueService.processNotifications(any(), any())).thenReturn(0);
+		when(leagueService.processNotifications(any(), any())).thenReturn("1");
 
 		var input = new LeagueResultDto();
 		input.setNick("Test");
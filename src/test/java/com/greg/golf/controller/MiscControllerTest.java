@@ -1,10 +1,12 @@
 package com.greg.golf.controller;
 
+import com.greg.golf.entity.MailOutbox;
 import com.greg.golf.security.JwtAuthenticationEntryPoint;
 import com.greg.golf.security.JwtRequestFilter;
 import com.greg.golf.security.oauth.GolfAuthenticationFailureHandler;
 import com.greg.golf.security.oauth.GolfAuthenticationSuccessHandler;
 import com.greg.golf.security.oauth.GolfOAuth2UserService;
+import com.greg.golf.service.MailOutboxService;
 import com.greg.golf.service.PlayerService;
 import com.greg.golf.service.UserService;
 import com.greg.golf.util.CacheConfig;
@@ -19,7 +21,12 @@ import org.springframework.context.annotation.Import;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @Slf4j
@@ -60,6 +67,10 @@ class MiscControllerTest {
 	@MockitoBean
 	private GolfAuthenticationFailureHandler golfAuthenticationFailureHandler;
 
+	@SuppressWarnings("unused")
+	@MockitoBean
+	private MailOutboxService mailOutboxService;
+
 	@SuppressWarnings("unused")
 	@Autowired
 	private MockMvc mockMvc;
@@ -71,4 +82,21 @@ class MiscControllerTest {
 		mockMvc.perform(get("/rest/Version")).andExpect(status().isOk());
 
 	}
+
+	@DisplayName("Should return mail job state")
+	@Test
+	void getMailJobThenReturns200() throws Exception {
+
+		var sent = new MailOutbox();
+		sent.setStatus(MailOutbox.Status.SENT);
+		var pending = new MailOutbox();
+		pending.setStatus(MailOutbox.Status.PENDING);
+
+		when(mailOutboxService.getJob("job")).thenReturn(List.of(sent, pending));
+
+		mockMvc.perform(get("/rest/MailJob/job")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.sent").value(1))
+				.andExpect(jsonPath("$.pending").value(1))
+				.andExpect(jsonPath("$.failed").value(0));
+	}
 }
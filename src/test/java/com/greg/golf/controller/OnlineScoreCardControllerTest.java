@@ -2,10 +2,13 @@ package com.greg.golf.controller;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.ArrayList;
@@ -24,7 +27,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.Import;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -36,6 +38,7 @@ import com.greg.golf.entity.Player;
 import com.greg.golf.security.JwtAuthenticationEntryPoint;
 import com.greg.golf.security.JwtRequestFilter;
 import com.greg.golf.service.OnlineRoundService;
+import com.greg.golf.service.OnlineScoreCardPublisher;
 import com.greg.golf.service.PlayerService;
 
 @Slf4j
@@ -74,7 +77,7 @@ class OnlineScoreCardControllerTest {
 
 	@SuppressWarnings("unused")
 	@MockitoBean
-	private SimpMessagingTemplate template;
+	private OnlineScoreCardPublisher onlineScoreCardPublisher;
 
 	@SuppressWarnings("unused")
 	@MockitoBean
@@ -199,6 +202,25 @@ class OnlineScoreCardControllerTest {
 
 	}
 	
+	@DisplayName("Should return changes of online score cards for identifier")
+	@Test
+	void getOnlineScoreCardChangesForIdentifierThenReturns200() throws Exception {
+
+		when(onlineRoundService.getOnlineScoreCardChangesForIdentifier(anyInt(), anyLong())).thenReturn(new ArrayList<>());
+
+		mockMvc.perform(get("/rest/OnlineScoreCard/Identifier/1").param("since", "10")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.version").value(10));
+	}
+
+	@DisplayName("Should return changes of online score cards for course")
+	@Test
+	void getOnlineScoreCardChangesForCourseThenReturns200() throws Exception {
+
+		when(onlineRoundService.getOnlineScoreCardChangesForCourse(anyLong(), anyLong())).thenReturn(new ArrayList<>());
+
+		mockMvc.perform(get("/rest/OnlineScoreCard/Course/1")).andExpect(status().isOk());
+	}
+
 	@DisplayName("Should save online scorecard")
 	@Test
 	void saveOnlineScorecard(@Autowired OnlineScoreCardController onlineScoreCardController) {
@@ -220,7 +242,9 @@ class OnlineScoreCardControllerTest {
 		when(onlineRoundService.saveOnlineScoreCard(any())).thenReturn(new OnlineScoreCard());
 		
 		
-		Assertions.assertNull(onlineScoreCardController.send(onlineScorecardDto));
+		onlineScoreCardController.send(onlineScorecardDto);
+
+		verify(onlineScoreCardPublisher).publish(any());
 
 	}
 
@@ -228,18 +252,34 @@ class OnlineScoreCardControllerTest {
 	@Test
 	void syncOnlineScoreCardWhenValidInputThenReturns200() throws Exception {
 
-		var input = new OnlineRoundDto();
-		input.setTeeTime("10:00");
-		input.setOwner(1L);
-		input.setFinalized(false);
-		input.setFormat(Common.STROKE_PLAY_FORMAT);
-		var inputLst = new ArrayList<OnlineRoundDto>();
+		var input = new OnlineScoreCardDto();
+		input.setHole(1);
+		input.setStroke(4);
+		input.setTime("10:00");
+		var inputLst = new ArrayList<OnlineScoreCardDto>();
 		inputLst.add(input);
 
-		doNothing().when(template).convertAndSend(anyString(), (OnlineScoreCardDto)any());
+		doNothing().when(onlineScoreCardPublisher).publish(any());
 
 		mockMvc.perform(post("/rest/OnlineScoreCard").contentType("application/json").characterEncoding("utf-8")
 				.content(objectMapper.writeValueAsString(inputLst))).andExpect(status().isOk()).andReturn();
 
 	}
+
+	@DisplayName("Should not sync online scorecard with hole out of range")
+	@Test
+	void syncOnlineScoreCardWhenHoleOutOfRangeThenReturns400() throws Exception {
+
+		var input = new OnlineScoreCardDto();
+		input.setHole(19);
+		input.setStroke(4);
+		input.setTime("10:00");
+		var inputLst = new ArrayList<OnlineScoreCardDto>();
+		inputLst.add(input);
+
+		mockMvc.perform(post("/rest/OnlineScoreCard").contentType("application/json").characterEncoding("utf-8")
+				.content(objectMapper.writeValueAsString(inputLst))).andExpect(status().isBadRequest());
+
+		verify(onlineRoundService, never()).syncOnlineScoreCards(any());
+	}
 }
@@ -10,17 +10,25 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 
+import com.greg.golf.controller.dto.HandicapDto;
+import com.greg.golf.controller.dto.PlayerStatsDto;
 import com.greg.golf.controller.dto.RoundWhsDto;
 import com.greg.golf.controller.dto.SwapPlrRndDto;
 import com.greg.golf.entity.*;
 import com.greg.golf.security.oauth.GolfAuthenticationFailureHandler;
 import com.greg.golf.security.oauth.GolfAuthenticationSuccessHandler;
 import com.greg.golf.security.oauth.GolfOAuth2UserService;
+import com.greg.golf.service.HandicapService;
+import com.greg.golf.service.PlayerStatsService;
+import com.greg.golf.service.RoundImportService;
 import com.greg.golf.service.UserService;
+import com.greg.golf.service.helpers.RoundImportReport;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -66,6 +74,18 @@ class RoundControllerTest {
 	@MockitoBean
 	private PlayerService playerService;
 
+	@SuppressWarnings("unused")
+	@MockitoBean
+	private RoundImportService roundImportService;
+
+	@SuppressWarnings("unused")
+	@MockitoBean
+	private PlayerStatsService playerStatsService;
+
+	@SuppressWarnings("unused")
+	@MockitoBean
+	private HandicapService handicapService;
+
 	@SuppressWarnings("unused")
 	@MockitoBean
 	private JwtRequestFilter jwtRequestFilter;
@@ -280,6 +300,64 @@ class RoundControllerTest {
 		mockMvc.perform(get("/rest/PlayerRoundCnt")).andExpect(status().isOk());
 	}
 
+	@DisplayName("Get player statistics with averages")
+	@Test
+	void getPlayerStatsThenReturns200() throws Exception {
+
+		var stats = new PlayerStats();
+		when(playerStatsService.getStats(1L)).thenReturn(stats);
+		var dto = new PlayerStatsDto();
+		dto.setPlayerId(1L);
+		dto.setRounds(2);
+		dto.setPar3Holes(4);
+		dto.setPar3Strokes(14);
+		dto.setPutts(64);
+		when(modelMapper.map(stats, PlayerStatsDto.class)).thenReturn(dto);
+
+		mockMvc.perform(get("/rest/PlayerStats/1")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.par3Average").value(3.5))
+				.andExpect(jsonPath("$.puttsPerRound").value(32.0))
+				.andExpect(jsonPath("$.par4Average").isEmpty())
+				.andExpect(jsonPath("$.par3Holes").doesNotExist());
+	}
+
+	@DisplayName("Should rebuild player statistics")
+	@Test
+	@WithMockUser(username="admin",roles={"USER","ADMIN"})
+	void rebuildPlayerStatsThenReturns200() throws Exception {
+
+		when(playerStatsService.rebuild()).thenReturn(1);
+
+		mockMvc.perform(post("/rest/PlayerStatsRebuild")).andExpect(status().isOk());
+	}
+
+	@DisplayName("Get handicap index with history")
+	@Test
+	void getHandicapThenReturns200() throws Exception {
+
+		var handicap = new PlayerHandicap();
+		when(handicapService.getHandicap(1L)).thenReturn(handicap);
+		when(handicapService.getHistory(1L)).thenReturn(new ArrayList<>());
+		var dto = new HandicapDto();
+		dto.setPlayerId(1L);
+		dto.setHandicapIndex(17.2F);
+		when(modelMapper.map(handicap, HandicapDto.class)).thenReturn(dto);
+
+		mockMvc.perform(get("/rest/Handicap/1")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.handicapIndex").value(17.2))
+				.andExpect(jsonPath("$.history").isArray());
+	}
+
+	@DisplayName("Should recalculate handicaps of players of the tee")
+	@Test
+	@WithMockUser(username="admin",roles={"USER","ADMIN"})
+	void rebuildHandicapsThenReturns200() throws Exception {
+
+		when(handicapService.rebuild(1L)).thenReturn(1);
+
+		mockMvc.perform(post("/rest/HandicapRebuild").param("teeId", "1")).andExpect(status().isOk());
+	}
+
 	@DisplayName("Should swap players for round with correct result")
 	@Test
 	@WithMockUser(username="admin",roles={"USER","ADMIN"})
@@ -296,4 +374,69 @@ class RoundControllerTest {
 		mockMvc.perform(patch("/rest/SwapPlrRnd").contentType("application/json").characterEncoding("utf-8")
 				.content(objectMapper.writeValueAsString(input))).andExpect(status().isOk()).andReturn();
 	}
+
+	@DisplayName("Should reject incorrect token of recent rounds page")
+	@Test
+	void getRecentRoundsPageWhenIncorrectTokenThenReturns400() throws Exception {
+
+		when(roundService.getRecentRoundsAfter("x")).thenThrow(new IllegalArgumentException());
+
+		mockMvc.perform(get("/rest/RecentRoundsPage").param("after", "x")).andExpect(status().isBadRequest());
+	}
+
+	@DisplayName("Should import rounds given as JSON array and NDJSON")
+	@Test
+	@WithMockUser(username="admin",roles={"USER","ADMIN"})
+	void importRoundsWhenValidInputThenReturns200() throws Exception {
+
+		var consumed = new ArrayList<Integer>();
+
+		when(roundImportService.importRounds(any())).thenAnswer(invocation -> {
+			Iterator<Round> rounds = invocation.getArgument(0);
+			int cnt = 0;
+			while (rounds.hasNext()) {
+				rounds.next();
+				cnt++;
+			}
+			consumed.add(cnt);
+			return new RoundImportReport();
+		});
+
+		String row = "{\"format\":0,\"roundDate\":\"2020/06/12 06:59\",\"course\":{\"id\":1},\"player\":[{\"id\":1}],\"scoreCard\":[{\"hole\":1,\"stroke\":5,\"pats\":2}]}";
+
+		mockMvc.perform(post("/rest/RoundImport").contentType("application/json").characterEncoding("utf-8")
+				.content("[" + row + "," + row + "]")).andExpect(status().isOk());
+
+		mockMvc.perform(post("/rest/RoundImport").contentType("application/x-ndjson").characterEncoding("utf-8")
+				.content(row + "\n" + row + "\n" + row + "\n")).andExpect(status().isOk());
+
+		assertThat(consumed).containsExactly(2, 3);
+	}
+
+	@DisplayName("Should return the report when import stops on malformed row")
+	@Test
+	@WithMockUser(username="admin",roles={"USER","ADMIN"})
+	void importRoundsWhenMalformedInputThenReturns200() throws Exception {
+
+		// malformed row is reported by the service, the same way RoundImportService does
+		when(roundImportService.importRounds(any())).thenAnswer(invocation -> {
+			Iterator<Round> rounds = invocation.getArgument(0);
+			var report = new RoundImportReport();
+			int row = 0;
+			try {
+				while (rounds.hasNext()) {
+					rounds.next();
+					report.add(new RoundImportReport.Row(row++, RoundImportReport.Status.IMPORTED, 1L, null));
+				}
+			} catch (RuntimeException e) {
+				report.add(new RoundImportReport.Row(row, RoundImportReport.Status.REJECTED, null, e.getMessage()));
+			}
+			return report;
+		});
+
+		mockMvc.perform(post("/rest/RoundImport").contentType("application/x-ndjson").characterEncoding("utf-8")
+				.content("{\"format\":0}\n{\"format\":")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.imported").value(1))
+				.andExpect(jsonPath("$.rejected").value(1));
+	}
 }
@@ -13,8 +13,12 @@ import com.greg.golf.security.JwtRequestFilter;
 import com.greg.golf.security.oauth.GolfAuthenticationFailureHandler;
 import com.greg.golf.security.oauth.GolfAuthenticationSuccessHandler;
 import com.greg.golf.security.oauth.GolfOAuth2UserService;
+import com.greg.golf.service.TournamentExportService;
+import com.greg.golf.service.TournamentLeaderboardPublisher;
 import com.greg.golf.service.TournamentService;
 import com.greg.golf.service.UserService;
+import com.greg.golf.service.helpers.KeysetPage;
+import com.greg.golf.service.helpers.TeeTimeScheduler;
 import com.greg.golf.util.CacheConfig;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.DisplayName;
@@ -31,12 +35,18 @@ import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @Slf4j
@@ -53,6 +63,12 @@ class TournamentControllerTest {
 	@MockitoBean
 	private TournamentService tournamentService;
 
+	@MockitoBean
+	private TournamentExportService tournamentExportService;
+
+	@MockitoBean
+	private TournamentLeaderboardPublisher tournamentLeaderboardPublisher;
+
 	@SuppressWarnings("unused")
 	@MockitoBean
 	private ModelMapper modelMapper;
@@ -98,6 +114,18 @@ class TournamentControllerTest {
 
 	}
 
+	@DisplayName("Should get page of tournaments with token of the next page")
+	@Test
+	void getTournamentsPageAndReturn200() throws Exception {
+
+		when(tournamentService.findTournamentsAfter("MTI2")).thenReturn(new KeysetPage<>(List.of(new Tournament()), "MTI1"));
+
+		mockMvc.perform(get("/rest/TournamentPage").param("after", "MTI2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(1))
+				.andExpect(jsonPath("$.after").value("MTI1"));
+	}
+
 	@DisplayName("Should get tournament results with correct result")
 	@Test
 	void getTournamentResultsTest() throws Exception {
@@ -108,14 +136,39 @@ class TournamentControllerTest {
 		mockMvc.perform(get("/rest/TournamentResult/1")).andExpect(status().isOk());
 	}
 
+	@DisplayName("Should get tournament leaderboard with its version")
+	@Test
+	void getTournamentLeaderboardTest() throws Exception {
+
+		var snapshot = new LeaderboardDeltaDto();
+		snapshot.setTournamentId(1L);
+		snapshot.setVersion(5L);
+		snapshot.setFull(true);
+		snapshot.setUpdated(List.of());
+		snapshot.setRemoved(List.of());
+
+		when(tournamentLeaderboardPublisher.getSnapshot(1L)).thenReturn(snapshot);
+		mockMvc.perform(get("/rest/TournamentLeaderboard/1")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.version").value(5))
+				.andExpect(jsonPath("$.full").value(true));
+	}
+
 	@DisplayName("Should get applicable rounds for tournament with correct result")
 	@Test
 	void getRoundsForTournamentTest() throws Exception {
 
-		var outputLst = new ArrayList<Round>();
+		doAnswer(invocation -> {
+			invocation.<Consumer<List<Round>>>getArgument(1).accept(new ArrayList<>());
+			return null;
+		}).when(tournamentService).getAllPossibleRoundsForTournament(eq(1L), any(Consumer.class));
+
+		var mvcResult = mockMvc.perform(get("/rest/TournamentRounds/1"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
 
-		when(tournamentService.getAllPossibleRoundsForTournament(1L)).thenReturn(outputLst);
-		mockMvc.perform(get("/rest/TournamentRounds/1")).andExpect(status().isOk());
+		mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isOk())
+				.andExpect(content().json("[]"));
 	}
 
 	@DisplayName("Should add round to tournament with correct result")
@@ -313,6 +366,109 @@ class TournamentControllerTest {
 				.content(objectMapper.writeValueAsString(teeTimeParametersDto))).andExpect(status().isOk()).andReturn();
 	}
 
+	@DisplayName("Should stream tournament results as csv")
+	@Test
+	void exportResultsWhenValidInputThenReturns200() throws Exception {
+
+		when(tournamentExportService.exportResults(any(), any()))
+				.thenReturn(outputStream -> outputStream.write("id,nick\n1,golfer\n".getBytes()));
+
+		var mvcResult = mockMvc.perform(get("/rest/TournamentExport/Results/1"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Content-Disposition", "attachment; filename=\"tournament-1-results.csv\""))
+				.andExpect(content().string("id,nick\n1,golfer\n"));
+	}
+
+	@DisplayName("Should reject export in unknown format")
+	@Test
+	void exportRoundsWhenInvalidFormatThenReturns400() throws Exception {
+
+		mockMvc.perform(get("/rest/TournamentExport/Rounds/1").param("format", "xml"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@DisplayName("Should return simulated tournament results")
+	@Test
+	void simulateTournamentWhenValidInputThenReturns200() throws Exception {
+
+		when(tournamentService.simulateTournament(any(), any(), any())).thenReturn(new ArrayList<>());
+
+		mockMvc.perform(get("/rest/TournamentSimulation/1").param("playHcpMultiplayer", "0.75").param("maxPlayHcp", "36"))
+				.andExpect(status().isOk());
+	}
+
+	@DisplayName("Should reject simulation with incorrect multiplier")
+	@Test
+	void simulateTournamentWhenInvalidMultiplierThenReturns400() throws Exception {
+
+		mockMvc.perform(get("/rest/TournamentSimulation/1").param("playHcpMultiplayer", "2"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@DisplayName("Should schedule tee times on server side")
+	@Test
+	void scheduleTeeTimesWhenValidInputThenReturns200() throws Exception {
+
+		var teeTimeScheduleDto = new TeeTimeScheduleDto();
+		teeTimeScheduleDto.setFirstTeeTime("08:00");
+		teeTimeScheduleDto.setFlightSize(4);
+		teeTimeScheduleDto.setTeeTimeStep(10);
+		teeTimeScheduleDto.setStrategy(TeeTimeScheduler.Strategy.HANDICAP);
+
+		when(tournamentService.scheduleTeeTimes(any(), any(), any(), any())).thenReturn(new TeeTimeParameters());
+
+		mockMvc.perform(post("/rest/Tournament/TeeTimeSchedule/1").contentType("application/json").characterEncoding("utf-8")
+				.content(objectMapper.writeValueAsString(teeTimeScheduleDto))).andExpect(status().isOk()).andReturn();
+	}
+
+	@DisplayName("Should reject tee time schedule with too large flight")
+	@Test
+	void scheduleTeeTimesWhenInvalidFlightSizeThenReturns400() throws Exception {
+
+		var teeTimeScheduleDto = new TeeTimeScheduleDto();
+		teeTimeScheduleDto.setFirstTeeTime("08:00");
+		teeTimeScheduleDto.setFlightSize(5);
+		teeTimeScheduleDto.setTeeTimeStep(10);
+		teeTimeScheduleDto.setStrategy(TeeTimeScheduler.Strategy.RANDOM);
+
+		mockMvc.perform(post("/rest/Tournament/TeeTimeSchedule/1").contentType("application/json").characterEncoding("utf-8")
+				.content(objectMapper.writeValueAsString(teeTimeScheduleDto))).andExpect(status().isBadRequest());
+	}
+
+	@DisplayName("Should reject tee time schedule with malformed first tee time")
+	@Test
+	void scheduleTeeTimesWhenInvalidTimeThenReturns400() throws Exception {
+
+		var teeTimeScheduleDto = new TeeTimeScheduleDto();
+		teeTimeScheduleDto.setFirstTeeTime("ab:cd");
+		teeTimeScheduleDto.setFlightSize(4);
+		teeTimeScheduleDto.setTeeTimeStep(10);
+		teeTimeScheduleDto.setStrategy(TeeTimeScheduler.Strategy.RANDOM);
+
+		mockMvc.perform(post("/rest/Tournament/TeeTimeSchedule/1").contentType("application/json").characterEncoding("utf-8")
+				.content(objectMapper.writeValueAsString(teeTimeScheduleDto))).andExpect(status().isBadRequest());
+	}
+
+	@DisplayName("Should reject tee time schedule with flights after midnight")
+	@Test
+	void scheduleTeeTimesWhenAfterMidnightThenReturns400() throws Exception {
+
+		var teeTimeScheduleDto = new TeeTimeScheduleDto();
+		teeTimeScheduleDto.setFirstTeeTime("23:00");
+		teeTimeScheduleDto.setFlightSize(4);
+		teeTimeScheduleDto.setTeeTimeStep(10);
+		teeTimeScheduleDto.setStrategy(TeeTimeScheduler.Strategy.RANDOM);
+
+		when(tournamentService.scheduleTeeTimes(any(), any(), any(), any())).thenThrow(new IllegalArgumentException());
+
+		mockMvc.perform(post("/rest/Tournament/TeeTimeSchedule/1").contentType("application/json").characterEncoding("utf-8")
+				.content(objectMapper.writeValueAsString(teeTimeScheduleDto))).andExpect(status().isBadRequest());
+	}
+
 	@DisplayName("Should get tee times belonging to tournament with correct result")
 	@Test
 	void getTeeTimeTest() throws Exception {
@@ -335,7 +491,7 @@ class TournamentControllerTest {
 	@Test
 	void processNotificationWhenValidInputThenReturns200() throws Exception {
 
-		when(tournamentService.processNotifications(any(), any())).thenReturn(0);
+		when(tournamentService.processNotifications(any(), any())).thenReturn("1");
 
 		mockMvc.perform(post("/rest/Tournament/Notification/1/1").contentType("application/json"))
 				.andExpect(status().isOk()).andReturn();
@@ -0,0 +1,51 @@
+package com.greg.golf.security.aes;
+
+import java.security.GeneralSecurityException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class KeyRingTest {
+
+    @DisplayName("Should decrypt strings encrypted by StringUtility and keep one key per salt")
+    @Test
+    void decryptStringTest() throws Exception {
+
+        var password = "secret";
+        var keyRing = new KeyRing(password, 10, 60);
+
+        var first = StringUtility.encryptString("first@golf.com", password);
+        var second = StringUtility.encryptString("second@golf.com", password);
+
+        Assertions.assertEquals("first@golf.com", keyRing.decryptString(first));
+        Assertions.assertEquals("first@golf.com", keyRing.decryptString(first));
+        Assertions.assertEquals("second@golf.com", keyRing.decryptString(second));
+        Assertions.assertEquals(2, keyRing.size());
+    }
+
+    @DisplayName("Should fail to decrypt string encrypted with other password")
+    @Test
+    void decryptStringWrongPasswordTest() throws Exception {
+
+        var keyRing = new KeyRing("secret", 10, 60);
+        var encrypted = StringUtility.encryptString("first@golf.com", "other");
+
+        Assertions.assertThrows(GeneralSecurityException.class, () -> keyRing.decryptString(encrypted));
+    }
+
+    @DisplayName("Should not keep more keys than configured")
+    @Test
+    void boundedSizeTest() throws Exception {
+
+        var password = "secret";
+        var keyRing = new KeyRing(password, 2, 60);
+
+        for (int i = 0; i < 5; i++) {
+            var email = "player" + i + "@golf.com";
+            Assertions.assertEquals(email, keyRing.decryptString(StringUtility.encryptString(email, password)));
+        }
+
+        Assertions.assertTrue(keyRing.size() <= 2);
+    }
+}
@@ -16,6 +16,7 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 
 import com.greg.golf.entity.Course;
 import com.greg.golf.entity.CourseTee;
@@ -24,6 +25,7 @@ import com.greg.golf.entity.Hole;
 import com.greg.golf.entity.Player;
 import com.greg.golf.entity.helpers.Common;
 import com.greg.golf.error.TooShortStringForSearchException;
+import com.greg.golf.repository.CourseRepository;
 import com.greg.golf.repository.FavouriteCourseRepository;
 import com.greg.golf.util.GolfPostgresqlContainer;
 
@@ -256,6 +258,40 @@ class CourseServiceTest {
 		assertEquals(1, retVal.size());
 	}
 	
+	@DisplayName("Get courses alphabetically page by page")
+	@Transactional
+	@Test
+	void searchForCoursesAlphabeticallyAfterTest(@Autowired CourseRepository courseRepository) {
+
+		// two courses with the same name to check ordering of equal names
+		for (var name : List.of("Keyset A", "Keyset B", "Keyset B", "Keyset C", "Keyset: D", "Keyset E", "Keyset F")) {
+			var course = new Course();
+			course.setName(name);
+			course.setHistorical(false);
+			course.setPar(72);
+			course.setHoleNbr(18);
+			courseRepository.save(course);
+		}
+
+		var ids = new ArrayList<Long>();
+		String after = null;
+		int pages = 0;
+
+		do {
+			var page = courseService.getSortedCoursesAfter(after);
+			page.getItems().forEach(course -> ids.add(course.getId()));
+			after = page.getAfter();
+			pages++;
+		} while (after != null);
+
+		var expected = courseRepository.findByHistoricalOrderByNameAscIdAsc(false, PageRequest.of(0, 100))
+				.stream().map(Course::getId).toList();
+
+		assertEquals(8, ids.size());
+		assertEquals(expected, ids);
+		assertEquals(2, pages);
+	}
+
 	@DisplayName("Should move course to history")
 	@Transactional
 	@Test
@@ -10,6 +10,9 @@ import com.greg.golf.repository.CycleResultRepository;
 import com.greg.golf.repository.CycleTournamentRepository;
 import com.greg.golf.security.JwtRequestFilter;
 import com.greg.golf.util.GolfPostgresqlContainer;
+import com.greg.golf.util.StatementCounter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -203,6 +206,39 @@ class CycleServiceTest {
         assertNotNull(cycleTournament.getId());
     }
 
+    @DisplayName("Add cycle tournament with all results in batched statements")
+    @Transactional
+    @Test
+    void addCycleTournamentInBatchTest(@Autowired EntityManagerFactory entityManagerFactory,
+                                       @Autowired EntityManager entityManager) {
+
+        cycle = cycleService.addCycle(cycle);
+
+        var cycleTournament = new CycleTournament();
+        cycleTournament.setName("Test cycle tournament");
+        cycleTournament.setBestOf(false);
+        cycleTournament.setRounds(1);
+        cycleTournament.setCycle(cycle);
+
+        var results = new EagleResultDto[30];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = new EagleResultDto();
+            results[i].setR(new int[]{30 + i, 0, 0, 0});
+            results[i].setWhs(11.0F);
+            results[i].setLastName("Player" + i);
+            results[i].setFirstName("James");
+            results[i].setSeries(1);
+        }
+        entityManager.flush();
+
+        var counter = new StatementCounter(entityManagerFactory);
+        cycleService.addCycleTournament(cycleTournament, results);
+        entityManager.flush();
+
+        assertEquals(31, counter.getInsertCount());
+        assertTrue(counter.getCount() <= 8, "statements: " + counter.getCount());
+    }
+
     @DisplayName("Get all cycles")
     @Transactional
     @Test
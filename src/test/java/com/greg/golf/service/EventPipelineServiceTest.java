@@ -0,0 +1,197 @@
+package com.greg.golf.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.greg.golf.configurationproperties.EventPipelineConfig;
+import com.greg.golf.service.events.RoundEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class EventPipelineServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EventPipelineService eventPipelineService;
+
+    @BeforeEach
+    void setUp() {
+
+        var eventPipelineConfig = new EventPipelineConfig();
+        eventPipelineConfig.setPartitions(4);
+        eventPipelineConfig.setRetryDelay(1L);
+        eventPipelineConfig.setShutdownTimeout(1000L);
+
+        eventPipelineService = new EventPipelineService(eventPipelineConfig, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventPipelineService.shutdown();
+    }
+
+    @DisplayName("Should handle events of the same key in publishing order")
+    @Test
+    void orderTest() {
+
+        var handled = Collections.synchronizedList(new ArrayList<RoundEvent>());
+        eventPipelineService.subscribe(RoundEvent.class, "test", handled::add);
+
+        var published = new ArrayList<RoundEvent>();
+        for (int i = 0; i < 200; i++) {
+            var event = new RoundEvent(this, (long) i % 10, RoundEvent.Type.values()[i % 3]);
+            published.add(event);
+            eventPipelineService.onRoundEvent(event);
+        }
+
+        assertTrue(eventPipelineService.awaitIdle(5000));
+        assertEquals(200, handled.size());
+
+        for (long roundId = 0; roundId < 10; roundId++) {
+            assertEquals(filter(published, roundId), filter(handled, roundId));
+        }
+
+        assertEquals(200, meterRegistry.get("events.pipeline.lag").tag("handler", "test").timer().count());
+    }
+
+    @DisplayName("Should retry only the failed handler")
+    @Test
+    void retryTest() {
+
+        var attempts = new AtomicInteger();
+        var handled = new AtomicInteger();
+
+        eventPipelineService.subscribe(RoundEvent.class, "failing", event -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("temporary failure");
+            }
+        });
+        eventPipelineService.subscribe(RoundEvent.class, "working", event -> handled.incrementAndGet());
+
+        eventPipelineService.onRoundEvent(new RoundEvent(this, 1L, RoundEvent.Type.SAVED));
+
+        assertTrue(eventPipelineService.awaitIdle(5000));
+        assertEquals(3, attempts.get());
+        assertEquals(1, handled.get());
+        assertEquals(2.0, counter("failing", "retried"));
+        assertEquals(1.0, counter("failing", "handled"));
+    }
+
+    @DisplayName("Should give up after max attempts and handle next events")
+    @Test
+    void failedTest() {
+
+        var handled = new AtomicInteger();
+
+        eventPipelineService.subscribe(RoundEvent.class, "test", event -> {
+            if (event.getType() == RoundEvent.Type.DELETED) {
+                throw new IllegalStateException("permanent failure");
+            }
+            handled.incrementAndGet();
+        });
+
+        eventPipelineService.onRoundEvent(new RoundEvent(this, 1L, RoundEvent.Type.DELETED));
+        eventPipelineService.onRoundEvent(new RoundEvent(this, 1L, RoundEvent.Type.SAVED));
+
+        assertTrue(eventPipelineService.awaitIdle(5000));
+        assertEquals(1, handled.get());
+        assertEquals(1.0, counter("test", "failed"));
+        assertEquals(2.0, counter("test", "retried"));
+    }
+
+    @DisplayName("Should not queue events after shutdown")
+    @Test
+    void shutdownTest() {
+
+        var handled = new AtomicInteger();
+        eventPipelineService.subscribe(RoundEvent.class, "test", event -> handled.incrementAndGet());
+
+        eventPipelineService.shutdown();
+        eventPipelineService.onRoundEvent(new RoundEvent(this, 1L, RoundEvent.Type.SAVED));
+
+        assertEquals(0, handled.get());
+        assertEquals(1.0, meterRegistry.get("events.pipeline.rejected").counter().count());
+    }
+
+    @DisplayName("Should recover keys of events failed after max attempts")
+    @Test
+    void recoverFailedTest() {
+
+        var recovered = Collections.synchronizedList(new ArrayList<Long>());
+
+        eventPipelineService.subscribe(RoundEvent.class, "test", event -> {
+            if (event.getRoundId() == 2L) {
+                throw new IllegalStateException("permanent failure");
+            }
+        }, recovered::addAll);
+
+        eventPipelineService.onRoundEvent(new RoundEvent(this, 1L, RoundEvent.Type.UPDATED));
+        eventPipelineService.onRoundEvent(new RoundEvent(this, 2L, RoundEvent.Type.UPDATED));
+        eventPipelineService.onRoundEvent(new RoundEvent(this, 2L, RoundEvent.Type.UPDATED));
+
+        assertTrue(eventPipelineService.awaitIdle(5000));
+        eventPipelineService.recover();
+        assertEquals(List.of(2L), recovered);
+
+        // keys are given to the recovery once
+        eventPipelineService.recover();
+        assertEquals(List.of(2L), recovered);
+        assertEquals(1.0, counter("test", "recovered"));
+    }
+
+    @DisplayName("Should recover keys of events dropped on full queue")
+    @Test
+    void recoverDroppedTest() {
+
+        var eventPipelineConfig = new EventPipelineConfig();
+        eventPipelineConfig.setPartitions(1);
+        eventPipelineConfig.setQueueCapacity(1);
+        eventPipelineConfig.setOfferTimeout(1L);
+        eventPipelineConfig.setShutdownTimeout(1000L);
+        var pipeline = new EventPipelineService(eventPipelineConfig, new SimpleMeterRegistry());
+
+        var release = new CountDownLatch(1);
+        var recovered = Collections.synchronizedList(new ArrayList<Long>());
+
+        pipeline.subscribe(RoundEvent.class, "test", event -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, recovered::addAll);
+
+        try {
+            // at most one event is handled and one queued, so the last one is dropped
+            for (long roundId = 1; roundId <= 3; roundId++) {
+                pipeline.onRoundEvent(new RoundEvent(this, roundId, RoundEvent.Type.UPDATED));
+            }
+            release.countDown();
+            assertTrue(pipeline.awaitIdle(5000));
+
+            pipeline.recover();
+            assertTrue(recovered.contains(3L));
+        } finally {
+            release.countDown();
+            pipeline.shutdown();
+        }
+    }
+
+    private double counter(String handler, String result) {
+        return meterRegistry.get("events.pipeline.events").tag("handler", handler).tag("result", result).counter().count();
+    }
+
+    private static List<RoundEvent> filter(List<RoundEvent> events, long roundId) {
+
+        synchronized (events) {
+            return events.stream().filter(event -> event.getRoundId() == roundId).toList();
+        }
+    }
+}
@@ -8,7 +8,6 @@ import com.greg.golf.repository.*;
 import com.greg.golf.security.JwtRequestFilter;
 import com.greg.golf.security.aes.StringUtility;
 import com.greg.golf.util.GolfPostgresqlContainer;
-import jakarta.mail.MessagingException;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
@@ -33,7 +32,6 @@ import java.util.ArrayList;
 import java.util.NoSuchElementException;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @Slf4j
@@ -775,7 +773,8 @@ class LeagueServiceTest {
     @Transactional
     @Test
     void attemptToSendNotificationTest(@Autowired PlayerService playerService,
-                                       @Autowired LeagueNotificationRepository leagueNotificationRepository) {
+                                       @Autowired LeagueNotificationRepository leagueNotificationRepository,
+                                       @Autowired MailOutboxService mailOutboxService) {
 
         player = playerService.getPlayer(1L).orElseThrow();
 
@@ -800,7 +799,7 @@ class LeagueServiceTest {
         leagueResultDto.setMatchesPlayed(1);
 
         // attempt to send notification but no notification is defined
-        assertEquals(0, leagueService.processNotifications(leagueId, new LeagueResultDto[]{leagueResultDto}));
+        assertNull(leagueService.processNotifications(leagueId, new LeagueResultDto[]{leagueResultDto}));
 
         player.setEmail("grzegorz.malewicz@gmail.com");
         playerService.update(player);
@@ -808,22 +807,14 @@ class LeagueServiceTest {
         // create notification
         leagueService.addNotification(leagueId);
 
-        try {
-            doNothing().when(emailService).sendEmail(any(), any(), any());
-        } catch (Exception e) {
-            fail("Method emailService.sendMail throws exception");
-        }
-
-        assertDoesNotThrow(() -> leagueService.processNotifications(leagueId, new LeagueResultDto[]{leagueResultDto}));
-
-        try {
-            doThrow(MessagingException.class).when(emailService).sendEmail(any(), any(), any());
-        } catch (Exception e) {
-            fail("Method emailService.sendMail throws exception");
-        }
-
-        // verify if exception is caught
-        assertThrows(GeneralException.class, () -> leagueService.processNotifications(leagueId, new LeagueResultDto[]{leagueResultDto}));
+        // email is only queued
+        var jobId = leagueService.processNotifications(leagueId, new LeagueResultDto[]{leagueResultDto});
+        var chunks = mailOutboxService.getJob(jobId);
+        assertEquals(1, chunks.size());
+        assertEquals(MailOutbox.Status.PENDING, chunks.getFirst().getStatus());
+        // recipient is kept encrypted in the outbox
+        assertNotEquals("grzegorz.malewicz@gmail.com", chunks.getFirst().getRecipients()[0]);
+        verifyNoInteractions(emailService);
 
         //remove notification
         leagueService.removeNotification(leagueId);
@@ -0,0 +1,209 @@
+package com.greg.golf.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import com.greg.golf.configurationproperties.MailOutboxConfig;
+import com.greg.golf.entity.MailOutbox;
+import com.greg.golf.error.UnauthorizedException;
+import com.greg.golf.repository.MailOutboxRepository;
+import com.greg.golf.security.aes.KeyRing;
+import com.greg.golf.security.aes.StringUtility;
+import com.greg.golf.util.SmtpStandIn;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class MailOutboxServiceTest {
+
+    private static final String EMAIL_PWD = "secret";
+
+    private final List<MailOutbox> outbox = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SmtpStandIn smtp;
+    private MailOutboxRepository mailOutboxRepository;
+    private MailOutboxService mailOutboxService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+
+        smtp = new SmtpStandIn();
+
+        var javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("localhost");
+        javaMailSender.setPort(smtp.getPort());
+        var properties = new Properties();
+        properties.put("mail.smtp.from", "golf@localhost");
+        javaMailSender.setJavaMailProperties(properties);
+
+        var mailOutboxConfig = new MailOutboxConfig();
+        mailOutboxConfig.setBccChunkSize(2);
+        mailOutboxConfig.setMaxAttempts(2);
+
+        // repository backed by the list
+        mailOutboxRepository = mock(MailOutboxRepository.class);
+        when(mailOutboxRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            for (var mailOutbox : (List<MailOutbox>) invocation.getArgument(0)) {
+                if (mailOutbox.getId() == null) {
+                    mailOutbox.setId((long) outbox.size() + 1);
+                    outbox.add(mailOutbox);
+                }
+            }
+            return invocation.getArgument(0);
+        });
+        when(mailOutboxRepository.findByStatusAndNextAttemptLessThanEqualOrderByIdAsc(any(), any(), any()))
+                .thenAnswer(invocation -> outbox.stream()
+                        .filter(m -> m.getStatus() == invocation.getArgument(0))
+                        .filter(m -> !m.getNextAttempt().after(invocation.getArgument(1)))
+                        .limit(((Pageable) invocation.getArgument(2)).getPageSize())
+                        .toList());
+        when(mailOutboxRepository.findByJobIdOrderByIdAsc(any()))
+                .thenAnswer(invocation -> outbox.stream().filter(m -> m.getJobId().equals(invocation.getArgument(0))).toList());
+        when(mailOutboxRepository.countByStatus(any()))
+                .thenAnswer(invocation -> outbox.stream().filter(m -> m.getStatus() == invocation.getArgument(0)).count());
+
+        mailOutboxService = new MailOutboxService(mailOutboxRepository, new EmailServiceImpl(javaMailSender),
+                mailOutboxConfig, new KeyRing(EMAIL_PWD, 10, 60), meterRegistry, null);
+        ReflectionTestUtils.setField(mailOutboxService, "self", mailOutboxService);
+
+        login(1L);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        smtp.close();
+        SecurityContextHolder.clearContext();
+    }
+
+    private static void login(Long playerId) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(playerId.toString(), null, List.of()));
+    }
+
+    private static String[] encrypt(String... emails) throws Exception {
+
+        var encrypted = new String[emails.length];
+        for (int i = 0; i < emails.length; i++) {
+            encrypted[i] = StringUtility.encryptString(emails[i], EMAIL_PWD);
+        }
+        return encrypted;
+    }
+
+    @DisplayName("Should send queued recipients in BCC chunks over one connection")
+    @Test
+    void dispatchTest() throws Exception {
+
+        var jobId = mailOutboxService.enqueue(encrypt("a@golf.com", "b@golf.com", "c@golf.com", "d@golf.com", "e@golf.com"),
+                "Results", "<p>results</p>");
+
+        assertEquals(3, mailOutboxService.getJob(jobId).size());
+        // addresses are never stored in plain text
+        assertTrue(outbox.stream().flatMap(m -> Arrays.stream(m.getRecipients())).noneMatch(r -> r.contains("@")));
+        assertEquals(3, meterRegistry.get("mail.outbox.depth").gauge().value());
+
+        mailOutboxService.dispatch();
+
+        assertEquals(List.of(List.of("a@golf.com", "b@golf.com"), List.of("c@golf.com", "d@golf.com"), List.of("e@golf.com")),
+                smtp.getMessages());
+        assertEquals(1, smtp.getConnections());
+        assertTrue(outbox.stream().allMatch(m -> m.getStatus() == MailOutbox.Status.SENT && m.getAttempts() == 1));
+        assertEquals(3, meterRegistry.get("mail.outbox.latency").timer().count());
+        assertEquals(0, meterRegistry.get("mail.outbox.depth").gauge().value());
+    }
+
+    @DisplayName("Should retry rejected chunks with backoff and give up after max attempts")
+    @Test
+    void retryTest() throws Exception {
+
+        smtp.setRejecting(true);
+        mailOutboxService.enqueue(encrypt("a@golf.com"), "Results", "<p>results</p>");
+
+        mailOutboxService.dispatch();
+
+        var mailOutbox = outbox.getFirst();
+        assertEquals(MailOutbox.Status.PENDING, mailOutbox.getStatus());
+        assertEquals(1, mailOutbox.getAttempts());
+        assertNotNull(mailOutbox.getLastError());
+        assertTrue(mailOutbox.getNextAttempt().after(new Date()));
+
+        // not due yet
+        mailOutboxService.dispatch();
+        assertEquals(1, mailOutbox.getAttempts());
+
+        mailOutbox.setNextAttempt(new Date(0));
+        mailOutboxService.dispatch();
+
+        assertEquals(MailOutbox.Status.FAILED, mailOutbox.getStatus());
+        assertEquals(2, mailOutbox.getAttempts());
+        assertEquals(1, meterRegistry.get("mail.outbox.chunks").tag("result", "retried").counter().count());
+        assertEquals(1, meterRegistry.get("mail.outbox.chunks").tag("result", "failed").counter().count());
+        assertTrue(smtp.getMessages().isEmpty());
+    }
+
+    @DisplayName("Should send chunks decrypted in parallel and retry only the chunk which cannot be decrypted")
+    @Test
+    void decryptErrorTest() throws Exception {
+
+        mailOutboxService.enqueue(new String[] {"not encrypted"}, "Results", "<p>results</p>");
+        mailOutboxService.enqueue(encrypt("a@golf.com", "b@golf.com", "c@golf.com", "d@golf.com"), "Results",
+                "<p>results</p>");
+
+        mailOutboxService.dispatch();
+
+        assertEquals(MailOutbox.Status.PENDING, outbox.getFirst().getStatus());
+        assertNotNull(outbox.getFirst().getLastError());
+        assertTrue(outbox.subList(1, 3).stream().allMatch(m -> m.getStatus() == MailOutbox.Status.SENT));
+        assertEquals(List.of(List.of("a@golf.com", "b@golf.com"), List.of("c@golf.com", "d@golf.com")),
+                smtp.getMessages());
+    }
+
+    @DisplayName("Should show the job only to the player who queued it")
+    @Test
+    void ownerTest() throws Exception {
+
+        var jobId = mailOutboxService.enqueue(encrypt("a@golf.com"), "Results", "<p>results</p>");
+        assertEquals(1L, outbox.getFirst().getOwnerId());
+
+        login(2L);
+        assertThrows(UnauthorizedException.class, () -> mailOutboxService.getJob(jobId));
+    }
+
+    @DisplayName("Should purge only sent and failed chunks older than retention")
+    @Test
+    void purgeTest() {
+
+        long start = System.currentTimeMillis();
+        mailOutboxService.purge();
+
+        var created = ArgumentCaptor.forClass(Date.class);
+        verify(mailOutboxRepository).deleteByStatusInAndCreatedBefore(
+                eq(List.of(MailOutbox.Status.SENT, MailOutbox.Status.FAILED)), created.capture());
+        assertTrue(created.getValue().getTime() <= start - TimeUnit.DAYS.toMillis(7) + 1000);
+    }
+
+    @DisplayName("Should double retry delay up to the limit")
+    @Test
+    void retryDelayTest() {
+
+        assertEquals(TimeUnit.SECONDS.toMillis(60), mailOutboxService.getRetryDelay(1));
+        assertEquals(TimeUnit.SECONDS.toMillis(240), mailOutboxService.getRetryDelay(3));
+        assertEquals(TimeUnit.SECONDS.toMillis(3600), mailOutboxService.getRetryDelay(10));
+    }
+}
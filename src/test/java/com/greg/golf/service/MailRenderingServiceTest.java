@@ -0,0 +1,80 @@
+package com.greg.golf.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import com.greg.golf.configurationproperties.MailOutboxConfig;
+import com.greg.golf.controller.dto.LeagueResultDto;
+import com.greg.golf.entity.Player;
+import com.greg.golf.entity.TournamentResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+class MailRenderingServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MailRenderingService mailRenderingService;
+
+    @BeforeEach
+    void setUp() {
+
+        var templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        var templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+
+        mailRenderingService = new MailRenderingService(templateEngine, meterRegistry, new MailOutboxConfig());
+        mailRenderingService.warmUp();
+    }
+
+    private long renderCount(String template) {
+        return meterRegistry.get("mail.template.render").tag("template", template).timer().count();
+    }
+
+    @DisplayName("Should render tournament results once per leaderboard version")
+    @Test
+    void renderTournamentResultsTest() {
+
+        var player = new Player();
+        player.setNick("Golfer");
+        var tournamentResult = new TournamentResult();
+        tournamentResult.setPlayer(player);
+        tournamentResult.setStbNet(36);
+        var results = List.of(tournamentResult);
+
+        var body = mailRenderingService.renderTournamentResults(1L, 1L, TournamentService.SORT_STB_NET, "Cup", results);
+
+        assertTrue(body.contains("Golfer"));
+        assertSame(body, mailRenderingService.renderTournamentResults(1L, 1L, TournamentService.SORT_STB_NET, "Cup", results));
+        assertEquals(1, renderCount(MailRenderingService.TOURNAMENT_RESULTS_TEMPLATE));
+
+        mailRenderingService.renderTournamentResults(1L, 2L, TournamentService.SORT_STB_NET, "Cup", results);
+        mailRenderingService.renderTournamentResults(1L, 2L, TournamentService.SORT_STB, "Cup", results);
+        assertEquals(3, renderCount(MailRenderingService.TOURNAMENT_RESULTS_TEMPLATE));
+    }
+
+    @DisplayName("Should render league results again only when they change")
+    @Test
+    void renderLeagueResultsTest() {
+
+        var leagueResultDto = new LeagueResultDto();
+        leagueResultDto.setNick("Golfer");
+        leagueResultDto.setBig(1);
+        leagueResultDto.setSmall(2);
+        leagueResultDto.setMatchesPlayed(1);
+
+        var body = mailRenderingService.renderLeagueResults(1L, "League", new LeagueResultDto[]{leagueResultDto});
+        assertTrue(body.contains("Golfer"));
+        mailRenderingService.renderLeagueResults(1L, "League", new LeagueResultDto[]{leagueResultDto});
+        assertEquals(1, renderCount(MailRenderingService.LEAGUE_RESULTS_TEMPLATE));
+
+        leagueResultDto.setBig(2);
+        mailRenderingService.renderLeagueResults(1L, "League", new LeagueResultDto[]{leagueResultDto});
+        assertEquals(2, renderCount(MailRenderingService.LEAGUE_RESULTS_TEMPLATE));
+    }
+}
@@ -4,6 +4,8 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
+import com.greg.golf.configurationproperties.OnlineRoundServiceConfig;
+import com.greg.golf.configurationproperties.WebSocketBrokerConfig;
 import com.greg.golf.entity.helpers.Common;
 import com.greg.golf.security.JwtRequestFilter;
 import lombok.extern.slf4j.Slf4j;
@@ -28,6 +30,9 @@ import com.greg.golf.repository.OnlineScoreCardRepository;
 import com.greg.golf.repository.PlayerRoundRepository;
 import com.greg.golf.repository.RoundRepository;
 import com.greg.golf.util.GolfPostgresqlContainer;
+import com.greg.golf.util.StatementCounter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 
 @Slf4j
 @SpringBootTest
@@ -253,6 +258,52 @@ class OnlineRoundServiceTest {
 		Assertions.assertEquals(1, roundRepository.findAll().size());
 	}
 
+	@DisplayName("Finalize online round with all score cards in batched statements")
+	@Transactional
+	@Test
+	void finalizeRoundInBatchTest(@Autowired RoundRepository roundRepository,
+								  @Autowired EntityManagerFactory entityManagerFactory,
+								  @Autowired EntityManager entityManager) {
+
+		OnlineRound onlineRound = new OnlineRound();
+		onlineRound.setCourse(course);
+		onlineRound.setCourseTee(courseTee);
+		onlineRound.setPlayer(player);
+		onlineRound.setDate(new Date());
+		onlineRound.setTeeTime("11:00");
+		onlineRound.setOwner(player.getId());
+		onlineRound.setIdentifier(3);
+		onlineRound.setFinalized(false);
+		onlineRound.setFormat(Common.STROKE_PLAY_FORMAT);
+		onlineRound.setScoreCard(new ArrayList<>());
+
+		for (int i = 1; i <= 18; i++) {
+			OnlineScoreCard onlineScoreCard = new OnlineScoreCard();
+			onlineScoreCard.setPlayer(player);
+			onlineScoreCard.setHole(i);
+			onlineScoreCard.setOnlineRound(onlineRound);
+			onlineScoreCard.setStroke(5);
+			onlineScoreCard.setPutt(2);
+			onlineScoreCard.setPenalty(0);
+			onlineScoreCard.setUpdate(false);
+			onlineScoreCard.setTime("11:00");
+			onlineRound.getScoreCard().add(onlineScoreCard);
+		}
+
+		onlineRoundRepository.save(onlineRound);
+		entityManager.flush();
+		entityManager.clear();
+
+		var counter = new StatementCounter(entityManagerFactory);
+		onlineRoundService.finish(3);
+		entityManager.flush();
+
+		// without batching score cards alone would need 18 statements
+		Assertions.assertEquals(19, counter.getInsertCount());
+		Assertions.assertTrue(counter.getCount() < 18, "statements: " + counter.getCount());
+		Assertions.assertEquals(1, roundRepository.findAll().size());
+	}
+
 	@DisplayName("Finalize online round with team saves team to player round")
 	@Transactional
 	@Test
@@ -295,6 +346,86 @@ class OnlineRoundServiceTest {
 		Assertions.assertEquals(3, playerRound.get().getTeam());
 	}
 
+	@DisplayName("Finalize online round kept in live store with complete score cards")
+	@Transactional
+	@Test
+	void finalizeWriteBehindRoundTest(@Autowired RoundRepository roundRepository,
+									  @Autowired OnlineRoundServiceConfig onlineRoundServiceConfig,
+									  @Autowired OnlineScoreCardStore onlineScoreCardStore) {
+
+		onlineRoundServiceConfig.setWriteBehind(true);
+
+		try {
+			OnlineRound onlineRound = new OnlineRound();
+			onlineRound.setCourse(course);
+			onlineRound.setCourseTee(courseTee);
+			onlineRound.setPlayer(player);
+			onlineRound.setDate(new Date());
+			onlineRound.setTeeTime("10:00");
+			onlineRound.setOwner(player.getId());
+			onlineRound.setIdentifier(4);
+			onlineRound.setFinalized(false);
+			onlineRound.setFormat(Common.STROKE_PLAY_FORMAT);
+			onlineRoundRepository.save(onlineRound);
+
+			var onlineScoreCards = buildScoreCards(onlineRound, 18);
+			onlineScoreCards.forEach(onlineScoreCard -> {
+				onlineScoreCard.setPutt(2);
+				onlineScoreCard.setPenalty(0);
+			});
+			Assertions.assertEquals(18, onlineRoundService.syncOnlineScoreCards(onlineScoreCards).size());
+
+			// hole corrected after sync
+			var updated = buildScoreCards(onlineRound, 5).getLast();
+			updated.setStroke(7);
+			updated.setPutt(3);
+			updated.setPenalty(1);
+			updated.setUpdate(true);
+			onlineRoundService.saveOnlineScoreCard(updated);
+
+			// hole out of range is not stored
+			var outOfRange = buildScoreCards(onlineRound, 19).getLast();
+			Assertions.assertThrows(IllegalArgumentException.class, () -> onlineRoundService.saveOnlineScoreCard(outOfRange));
+
+			onlineRoundService.finish(4);
+
+			var rounds = roundRepository.findAll();
+			Assertions.assertEquals(1, rounds.size());
+			var scoreCards = rounds.getFirst().getScoreCard();
+			Assertions.assertEquals(18, scoreCards.size());
+			Assertions.assertTrue(scoreCards.stream().allMatch(sc -> sc.getStroke() > 0));
+			var fifth = scoreCards.stream().filter(sc -> sc.getHole() == 5).findFirst().orElseThrow();
+			Assertions.assertEquals(7, fifth.getStroke());
+			Assertions.assertEquals(3, fifth.getPats());
+			Assertions.assertEquals(1, fifth.getPenalty());
+		} finally {
+			onlineRoundServiceConfig.setWriteBehind(false);
+			onlineScoreCardStore.clear();
+		}
+	}
+
+	@DisplayName("Should refuse write behind with broker shared by more instances")
+	@Test
+	void verifyWriteBehindTest(@Autowired OnlineRoundServiceConfig onlineRoundServiceConfig,
+							   @Autowired WebSocketBrokerConfig webSocketBrokerConfig) {
+
+		onlineRoundServiceConfig.setWriteBehind(true);
+
+		try {
+			Assertions.assertDoesNotThrow(() -> onlineRoundService.verifyWriteBehind());
+
+			webSocketBrokerConfig.setMode(WebSocketBrokerConfig.Mode.RELAY);
+			Assertions.assertThrows(IllegalStateException.class, () -> onlineRoundService.verifyWriteBehind());
+
+			// database is shared, so the score cards are consistent without write behind
+			onlineRoundServiceConfig.setWriteBehind(false);
+			Assertions.assertDoesNotThrow(() -> onlineRoundService.verifyWriteBehind());
+		} finally {
+			onlineRoundServiceConfig.setWriteBehind(false);
+			webSocketBrokerConfig.setMode(WebSocketBrokerConfig.Mode.SIMPLE);
+		}
+	}
+
 	@DisplayName("Save online rounds")
 	@Transactional
 	@Test
@@ -426,4 +557,123 @@ class OnlineRoundServiceTest {
 		Assertions.assertTrue(onlineScoreCard2.isSyncRequired());
 		Assertions.assertEquals(2, onlineScoreCardRepository.findAll().getFirst().getStroke().intValue());
 	}
+
+	@DisplayName("Sync of whole score card writes only missing holes")
+	@Transactional
+	@Test
+	void syncOnlineScoreCardsInBulkTest(@Autowired EntityManagerFactory entityManagerFactory) {
+
+		OnlineRound onlineRound = new OnlineRound();
+		onlineRound.setCourse(course);
+		onlineRound.setCourseTee(courseTee);
+		onlineRound.setPlayer(player);
+		onlineRound.setDate(new Date());
+		onlineRound.setTeeTime("10:00");
+		onlineRound.setOwner(player.getId());
+		onlineRound.setIdentifier(1);
+		onlineRound.setFinalized(false);
+		onlineRound.setFormat(Common.STROKE_PLAY_FORMAT);
+		onlineRoundRepository.save(onlineRound);
+
+		Assertions.assertEquals(18, onlineRoundService.syncOnlineScoreCards(buildScoreCards(onlineRound, 18)).size());
+		Assertions.assertEquals(18, onlineScoreCardRepository.findAll().size());
+
+		// phone sends the whole score card again
+		var counter = new StatementCounter(entityManagerFactory);
+		var written = onlineRoundService.syncOnlineScoreCards(buildScoreCards(onlineRound, 18));
+
+		Assertions.assertTrue(written.isEmpty());
+		Assertions.assertEquals(1, counter.getCount());
+		Assertions.assertEquals(18, onlineScoreCardRepository.findAll().size());
+	}
+
+	@DisplayName("Sync writing new holes takes versions from the prefetched block")
+	@Transactional
+	@Test
+	void syncOnlineScoreCardsVersionBlockTest(@Autowired EntityManagerFactory entityManagerFactory) {
+
+		OnlineRound onlineRound = new OnlineRound();
+		onlineRound.setCourse(course);
+		onlineRound.setCourseTee(courseTee);
+		onlineRound.setPlayer(player);
+		onlineRound.setDate(new Date());
+		onlineRound.setTeeTime("10:00");
+		onlineRound.setOwner(player.getId());
+		onlineRound.setIdentifier(6);
+		onlineRound.setFinalized(false);
+		onlineRound.setFormat(Common.STROKE_PLAY_FORMAT);
+		onlineRoundRepository.save(onlineRound);
+
+		Assertions.assertEquals(1, onlineRoundService.syncOnlineScoreCards(buildScoreCards(onlineRound, 1)).size());
+
+		// stored holes are read and at most one block of versions is fetched, the upsert is not prepared by Hibernate
+		var counter = new StatementCounter(entityManagerFactory);
+		var written = onlineRoundService.syncOnlineScoreCards(buildScoreCards(onlineRound, 18));
+
+		Assertions.assertEquals(17, written.size());
+		Assertions.assertTrue(counter.getCount() <= 2, "statements: " + counter.getCount());
+	}
+
+	@DisplayName("Should return changes stored in database after the version")
+	@Transactional
+	@Test
+	void getOnlineScoreCardChangesTest(@Autowired OnlineRoundServiceConfig onlineRoundServiceConfig) {
+
+		OnlineRound onlineRound = new OnlineRound();
+		onlineRound.setCourse(course);
+		onlineRound.setCourseTee(courseTee);
+		onlineRound.setPlayer(player);
+		onlineRound.setDate(new Date());
+		onlineRound.setTeeTime("10:00");
+		onlineRound.setOwner(player.getId());
+		onlineRound.setIdentifier(5);
+		onlineRound.setFinalized(false);
+		onlineRound.setFormat(Common.STROKE_PLAY_FORMAT);
+		onlineRoundRepository.save(onlineRound);
+
+		var written = onlineRoundService.syncOnlineScoreCards(buildScoreCards(onlineRound, 3));
+		var versions = written.stream().map(OnlineScoreCard::getVersion).toList();
+
+		// versions come from the database sequence
+		Assertions.assertEquals(3, versions.stream().distinct().count());
+		Assertions.assertTrue(versions.getFirst() > 0);
+		Assertions.assertEquals(versions.stream().sorted().toList(), versions);
+
+		var changes = onlineRoundService.getOnlineScoreCardChangesForIdentifier(5, -1);
+		Assertions.assertEquals(versions, changes.stream().map(OnlineScoreCard::getVersion).toList());
+		Assertions.assertEquals(onlineRound.getId(), changes.getFirst().getOrId());
+
+		// changes within the grace are returned again
+		changes = onlineRoundService.getOnlineScoreCardChangesForCourse(course.getId(), versions.getLast());
+		Assertions.assertEquals(3, changes.size());
+
+		long grace = onlineRoundServiceConfig.getVersionGrace();
+		onlineRoundServiceConfig.setVersionGrace(0L);
+		try {
+			changes = onlineRoundService.getOnlineScoreCardChangesForIdentifier(5, versions.getFirst());
+			Assertions.assertEquals(versions.subList(1, 3), changes.stream().map(OnlineScoreCard::getVersion).toList());
+			Assertions.assertTrue(onlineRoundService.getOnlineScoreCardChangesForCourse(course.getId(), versions.getLast())
+					.isEmpty());
+		} finally {
+			onlineRoundServiceConfig.setVersionGrace(grace);
+		}
+	}
+
+	private static List<OnlineScoreCard> buildScoreCards(OnlineRound onlineRound, int holes) {
+
+		var onlineScoreCards = new ArrayList<OnlineScoreCard>();
+
+		for (int hole = 1; hole <= holes; hole++) {
+			OnlineScoreCard onlineScoreCard = new OnlineScoreCard();
+			onlineScoreCard.setPlayer(player);
+			onlineScoreCard.setHole(hole);
+			onlineScoreCard.setOrId(onlineRound.getId());
+			onlineScoreCard.setStroke(4);
+			onlineScoreCard.setUpdate(false);
+			onlineScoreCard.setTime("10:00");
+			onlineScoreCards.add(onlineScoreCard);
+		}
+
+		return onlineScoreCards;
+	}
 }
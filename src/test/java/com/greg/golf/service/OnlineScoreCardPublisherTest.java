@@ -0,0 +1,72 @@
+package com.greg.golf.service;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Optional;
+
+import com.greg.golf.controller.dto.OnlineScoreCardDto;
+import com.greg.golf.repository.OnlineRoundRepository;
+import com.greg.golf.repository.projection.OnlineRoundGroup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+class OnlineScoreCardPublisherTest {
+
+    private OnlineRoundRepository onlineRoundRepository;
+    private SimpMessagingTemplate template;
+    private OnlineScoreCardPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+
+        onlineRoundRepository = mock(OnlineRoundRepository.class);
+        template = mock(SimpMessagingTemplate.class);
+        publisher = new OnlineScoreCardPublisher(onlineRoundRepository, template);
+
+        var group = mock(OnlineRoundGroup.class);
+        when(group.getIdentifier()).thenReturn(7);
+        when(group.getCourseId()).thenReturn(3L);
+        when(onlineRoundRepository.getGroup(1L)).thenReturn(Optional.of(group));
+        when(onlineRoundRepository.getGroup(2L)).thenReturn(Optional.empty());
+    }
+
+    private static OnlineScoreCardDto buildScoreCard(long onlineRoundId, int hole) {
+
+        var onlineScoreCardDto = new OnlineScoreCardDto();
+        onlineScoreCardDto.setOrId(onlineRoundId);
+        onlineScoreCardDto.setHole(hole);
+        onlineScoreCardDto.setStroke(4);
+        return onlineScoreCardDto;
+    }
+
+    @DisplayName("Should publish hole to group and course topics only")
+    @Test
+    void publishTest() {
+
+        var first = buildScoreCard(1L, 1);
+        var second = buildScoreCard(1L, 2);
+
+        publisher.publish(first);
+        publisher.publish(second);
+
+        verify(template).convertAndSend(OnlineScoreCardPublisher.ONLINE_TOPIC + 7, first);
+        verify(template).convertAndSend(OnlineScoreCardPublisher.COURSE_TOPIC + 3, first);
+        verify(template).convertAndSend(OnlineScoreCardPublisher.ONLINE_TOPIC + 7, second);
+        verify(template).convertAndSend(OnlineScoreCardPublisher.COURSE_TOPIC + 3, second);
+        verify(template, times(4)).convertAndSend(anyString(), any(Object.class));
+        // destinations are read once
+        verify(onlineRoundRepository, times(1)).getGroup(1L);
+    }
+
+    @DisplayName("Should not publish hole of deleted online round")
+    @Test
+    void deletedRoundTest() {
+
+        publisher.publish(buildScoreCard(2L, 1));
+
+        verify(template, never()).convertAndSend(anyString(), any(Object.class));
+    }
+}
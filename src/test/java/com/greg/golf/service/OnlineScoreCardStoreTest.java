@@ -0,0 +1,208 @@
+package com.greg.golf.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.StreamSupport;
+
+import com.greg.golf.configurationproperties.OnlineRoundServiceConfig;
+import com.greg.golf.entity.OnlineRound;
+import com.greg.golf.entity.OnlineScoreCard;
+import com.greg.golf.entity.Player;
+import com.greg.golf.repository.OnlineRoundRepository;
+import com.greg.golf.repository.OnlineScoreCardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class OnlineScoreCardStoreTest {
+
+    // online_score_card table
+    private final List<OnlineScoreCard> table = new ArrayList<>();
+    // existing online rounds
+    private final Set<Long> onlineRoundIds = Set.of(1L);
+    private final OnlineRoundServiceConfig onlineRoundServiceConfig = new OnlineRoundServiceConfig();
+    private OnlineScoreCardRepository onlineScoreCardRepository;
+    private OnlineRoundRepository onlineRoundRepository;
+    private OnlineScoreCardStore store;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+
+        onlineRoundServiceConfig.setWriteBehind(true);
+        onlineRoundServiceConfig.setFlushBatchSize(2);
+
+        onlineScoreCardRepository = mock(OnlineScoreCardRepository.class);
+        when(onlineScoreCardRepository.findByOnlineRoundIdIn(anyCollection())).thenAnswer(invocation -> table.stream()
+                .filter(sc -> ((Collection<Long>) invocation.getArgument(0)).contains(sc.getOnlineRound().getId()))
+                .toList());
+        when(onlineScoreCardRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            for (var onlineScoreCard : (List<OnlineScoreCard>) invocation.getArgument(0)) {
+                if (onlineScoreCard.getId() == null) {
+                    onlineScoreCard.setId((long) table.size() + 1);
+                    table.add(onlineScoreCard);
+                }
+            }
+            return invocation.getArgument(0);
+        });
+
+        onlineRoundRepository = mock(OnlineRoundRepository.class);
+        when(onlineRoundRepository.findAllById(any())).thenAnswer(invocation ->
+                StreamSupport.stream(((Iterable<Long>) invocation.getArgument(0)).spliterator(), false)
+                        .filter(onlineRoundIds::contains)
+                        .map(id -> {
+                            var onlineRound = new OnlineRound();
+                            onlineRound.setId(id);
+                            return onlineRound;
+                        })
+                        .toList());
+
+        store = createStore();
+    }
+
+    private OnlineScoreCardStore createStore() {
+
+        var onlineScoreCardStore = new OnlineScoreCardStore(onlineRoundServiceConfig, onlineScoreCardRepository,
+                onlineRoundRepository, null);
+        ReflectionTestUtils.setField(onlineScoreCardStore, "self", onlineScoreCardStore);
+        return onlineScoreCardStore;
+    }
+
+    private static OnlineScoreCard buildScoreCard(long onlineRoundId, int hole, int stroke) {
+
+        var player = new Player();
+        player.setId(1L);
+
+        var onlineScoreCard = new OnlineScoreCard();
+        onlineScoreCard.setOrId(onlineRoundId);
+        onlineScoreCard.setHole(hole);
+        onlineScoreCard.setStroke(stroke);
+        onlineScoreCard.setPutt(2);
+        onlineScoreCard.setPenalty(0);
+        onlineScoreCard.setPlayer(player);
+        onlineScoreCard.setTime("10:00");
+        return onlineScoreCard;
+    }
+
+    @DisplayName("Should serve holes from memory and write them in batches")
+    @Test
+    void flushTest() {
+
+        store.put(buildScoreCard(1L, 3, 5));
+        store.put(buildScoreCard(1L, 1, 4));
+        store.put(buildScoreCard(1L, 2, 6));
+        store.put(buildScoreCard(1L, 2, 7));
+
+        var scoreCards = store.get(1L);
+        assertEquals(List.of(1, 2, 3), scoreCards.stream().map(OnlineScoreCard::getHole).toList());
+        assertEquals(7, scoreCards.get(1).getStroke());
+        assertTrue(table.isEmpty());
+
+        store.flush();
+
+        // 3 holes in batches of 2
+        verify(onlineScoreCardRepository, times(2)).saveAll(anyList());
+        assertEquals(3, table.size());
+        assertEquals(0, store.getDirtyCount());
+        assertNotNull(store.get(1L).getFirst().getId());
+
+        // stored row is updated
+        store.put(buildScoreCard(1L, 1, 8));
+        store.flush();
+
+        assertEquals(3, table.size());
+        assertEquals(8, table.stream().filter(sc -> sc.getHole() == 1).findFirst().orElseThrow().getStroke());
+    }
+
+    @DisplayName("Should recover written holes after restart and take missing ones from sync")
+    @Test
+    void recoveryTest() {
+
+        store.put(buildScoreCard(1L, 1, 4));
+        store.put(buildScoreCard(1L, 2, 5));
+        store.flush();
+        // not written before the crash
+        store.put(buildScoreCard(1L, 3, 6));
+
+        var restarted = createStore();
+
+        assertEquals(List.of(1, 2), restarted.get(1L).stream().map(OnlineScoreCard::getHole).toList());
+
+        // phone sends the whole score card again
+        assertFalse(restarted.putIfAbsent(buildScoreCard(1L, 1, 4)));
+        assertFalse(restarted.putIfAbsent(buildScoreCard(1L, 2, 5)));
+        assertTrue(restarted.putIfAbsent(buildScoreCard(1L, 3, 6)));
+
+        restarted.flush();
+
+        assertEquals(3, table.size());
+        assertEquals(List.of(1, 2, 3), restarted.get(1L).stream().map(OnlineScoreCard::getHole).toList());
+    }
+
+    @DisplayName("Should reject hole out of range")
+    @Test
+    void holeOutOfRangeTest() {
+
+        assertThrows(IllegalArgumentException.class, () -> store.put(buildScoreCard(1L, 19, 4)));
+        assertThrows(IllegalArgumentException.class, () -> store.putIfAbsent(buildScoreCard(1L, 0, 4)));
+        assertEquals(0, store.getDirtyCount());
+    }
+
+    @DisplayName("Should drop holes of deleted online round")
+    @Test
+    void deletedRoundTest() {
+
+        store.put(buildScoreCard(2L, 1, 4));
+        store.put(buildScoreCard(1L, 1, 4));
+
+        store.flush();
+
+        assertEquals(1, table.size());
+        assertEquals(1L, table.getFirst().getOnlineRound().getId());
+        assertTrue(store.get(2L).isEmpty());
+    }
+
+    @DisplayName("Should write only holes of finished rounds")
+    @Test
+    void flushRoundsTest() {
+
+        store.put(buildScoreCard(1L, 1, 4));
+        store.put(buildScoreCard(2L, 1, 4));
+
+        store.flush(List.of(1L));
+
+        assertEquals(1, table.size());
+        assertEquals(1, store.getDirtyCount());
+    }
+
+    @DisplayName("Should return holes changed after the version")
+    @Test
+    void changesTest() {
+
+        var first = buildScoreCard(1L, 1, 4);
+        first.setVersion(10);
+        var second = buildScoreCard(1L, 2, 5);
+        second.setVersion(20);
+        var third = buildScoreCard(2L, 1, 6);
+        third.setVersion(15);
+
+        store.put(second);
+        store.put(first);
+        store.put(third);
+
+        var changes = store.getChanges(List.of(1L, 2L), 10);
+        assertEquals(List.of(15L, 20L), changes.stream().map(OnlineScoreCard::getVersion).toList());
+        assertEquals(2L, changes.getFirst().getOrId());
+
+        // version is kept after written and read again
+        store.flush();
+        assertEquals(1, createStore().getChanges(List.of(1L), 15).size());
+    }
+}
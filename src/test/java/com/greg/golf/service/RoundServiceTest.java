@@ -34,8 +34,13 @@ import com.greg.golf.repository.PlayerRepository;
 import com.greg.golf.repository.PlayerRoundRepository;
 import com.greg.golf.repository.RoundRepository;
 import com.greg.golf.repository.TournamentRepository;
+import com.greg.golf.service.events.PlayerRoundEvent;
 import com.greg.golf.service.events.RoundEvent;
+import com.greg.golf.service.helpers.RoundImportReport;
 import com.greg.golf.util.GolfPostgresqlContainer;
+import com.greg.golf.util.StatementCounter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -269,6 +274,45 @@ class RoundServiceTest {
 		Assertions.assertThrows(PlayerAlreadyHasThatRoundException.class, () -> roundService.saveRound(newRound));
 	}
 
+	@DisplayName("Save round with all score cards in batched statements")
+	@Transactional
+	@Test
+	void saveRoundInBatchTest(@Autowired RoundRepository roundRepository, @Autowired PlayerRepository playerRepository,
+							  @Autowired EntityManagerFactory entityManagerFactory, @Autowired EntityManager entityManager) {
+
+		var round = roundRepository.findById(roundId).orElseThrow();
+		var player = playerRepository.findById(1L).orElseThrow();
+		round.getCourse().getTees().size();
+
+		var newRound = new Round();
+		newRound.setCourse(round.getCourse());
+		var playerSet = new TreeSet<Player>();
+		playerSet.add(player);
+		newRound.setPlayer(playerSet);
+		newRound.setFormat(Common.STROKE_PLAY_FORMAT);
+		var calendar = new GregorianCalendar();
+		calendar.set(2020, Calendar.JULY, 1);
+		newRound.setRoundDate(calendar.getTime());
+		newRound.setScoreCard(new ArrayList<>());
+
+		for (int i = 1; i <= 18; i++) {
+			var scoreCard = new ScoreCard();
+			scoreCard.setHole(i);
+			scoreCard.setPats(2);
+			scoreCard.setPenalty(0);
+			scoreCard.setStroke(5);
+			newRound.getScoreCard().add(scoreCard);
+		}
+
+		var counter = new StatementCounter(entityManagerFactory);
+		roundService.saveRound(newRound);
+		entityManager.flush();
+
+		// 19 rows are inserted but score cards go in one batch
+		Assertions.assertEquals(19, counter.getInsertCount());
+		Assertions.assertTrue(counter.getCount() <= 10, "statements: " + counter.getCount());
+	}
+
 	@DisplayName("Try to add scorecard to existing round")
 	@Transactional
 	@Test
@@ -552,6 +596,68 @@ class RoundServiceTest {
 		
 		Assertions.assertEquals(2, roundRepository.findAll().size());
 	}
+
+	@DisplayName("Update player statistics when round is added and removed")
+	@Test
+	void updatePlayerStatsTest(@Autowired PlayerStatsService playerStatsService,
+							   @Autowired EventPipelineService eventPipelineService,
+							   @Autowired PlayerRoundRepository playerRoundRepository) {
+
+		var stats = playerStatsService.getStats(1L);
+		int rounds = stats.getRounds();
+		int holes = stats.getHoles();
+		int putts = stats.getPutts();
+
+		var round = new Round();
+		round.setFormat(Common.STROKE_PLAY_FORMAT);
+		var calendar = new GregorianCalendar();
+		calendar.set(2020, Calendar.JULY, 1);
+		round.setRoundDate(calendar.getTime());
+		round.setScoreCard(new ArrayList<>());
+		var scoreCard = new ScoreCard();
+		scoreCard.setHole(1);
+		scoreCard.setPats(2);
+		scoreCard.setPenalty(0);
+		scoreCard.setStroke(5);
+		round.getScoreCard().add(scoreCard);
+		var course = new Course();
+		course.setId(1L);
+		var courseTee = new CourseTee();
+		courseTee.setId(1L);
+		course.setTees(new ArrayList<>(List.of(courseTee)));
+		round.setCourse(course);
+		var player = new Player();
+		player.setId(1L);
+		player.setWhs(32.1f);
+		var playerLst = new TreeSet<Player>();
+		playerLst.add(player);
+		round.setPlayer(playerLst);
+
+		// statistics are updated after commit
+		round = roundService.saveRound(round);
+		assertTrue(eventPipelineService.awaitIdle(5000));
+
+		stats = playerStatsService.getStats(1L);
+		assertEquals(rounds + 1, stats.getRounds());
+		assertEquals(holes + 1, stats.getHoles());
+		assertEquals(putts + 2, stats.getPutts());
+
+		// the rebuild reads the round, so its event handled after it does not count the round twice
+		playerStatsService.rebuild(List.of(1L));
+		stats = playerStatsService.getStats(1L);
+		playerStatsService.handlePlayerRoundEvent(new PlayerRoundEvent(this, round, 1L,
+				playerRoundRepository.getHcpForPlayerAndRound(1L, round.getId()).orElse(null),
+				PlayerRoundEvent.Change.ADDED, stats.getChanges()));
+		assertEquals(stats.getRounds(), playerStatsService.getStats(1L).getRounds());
+
+		roundService.deleteScorecard(1L, round.getId());
+		assertTrue(eventPipelineService.awaitIdle(5000));
+
+		stats = playerStatsService.getStats(1L);
+		assertEquals(rounds, stats.getRounds());
+		assertEquals(holes, stats.getHoles());
+		assertEquals(putts, stats.getPutts());
+	}
 	
 	@DisplayName("Get recent rounds")
 	@Transactional
@@ -618,6 +724,137 @@ class RoundServiceTest {
 		assertEquals(player.getId(), playerRoundRepository.getForPlayerAndRound(player.getId(), roundId).orElseThrow().getPlayerId());
 	}
 
+	@DisplayName("Import rounds in bulk")
+	@Transactional
+	@Test
+	void importRoundsTest(@Autowired RoundImportService roundImportService, @Autowired PlayerRepository playerRepository,
+						  @Autowired PlayerRoundRepository playerRoundRepository) {
+
+		var players = new ArrayList<Player>();
+		for (int i = 0; i < 4; i++) {
+			var player = new Player();
+			player.setNick("import" + i);
+			player.setPassword("test");
+			player.setSex(true);
+			player.setWhs(20.5f + i);
+			player.setRole(0);
+			player.setModified(false);
+			player.setType(Common.TYPE_PLAYER_LOCAL);
+			players.add(playerRepository.save(player));
+		}
+
+		// rounds of 4 players, each player sent as a separate row
+		int roundCnt = 300;
+		var rows = new ArrayList<Round>();
+		for (int i = 0; i < roundCnt; i++) {
+			var calendar = new GregorianCalendar(2019, Calendar.JANUARY, 1);
+			calendar.add(Calendar.HOUR, i);
+			for (var player : players) {
+				rows.add(importRow(player.getId(), calendar.getTime(), 18));
+			}
+		}
+		var calendar = new GregorianCalendar(2019, Calendar.JANUARY, 1);
+		// fifth player for the first round
+		rows.add(importRow(1L, calendar.getTime(), 18));
+		// the same player again
+		rows.add(importRow(players.getFirst().getId(), calendar.getTime(), 18));
+		// no score card
+		rows.add(importRow(1L, calendar.getTime(), 0));
+
+		var report = roundImportService.importRounds(rows.iterator());
+
+		log.info("Imported {} rows in {} ms, {} rounds/s", rows.size(), report.getTotalTimeMs(),
+				Math.round(report.getRoundsPerSecond()));
+
+		assertEquals(roundCnt * 4, report.getImported());
+		assertEquals(3, report.getRejected());
+		assertEquals(0, report.getFailed());
+		assertEquals(rows.size(), report.getRows().size());
+		assertEquals(report.getImported() * 1000.0 / Math.max(report.getTotalTimeMs(), 1), report.getRoundsPerSecond(),
+				0.001);
+
+		// players of the same course and date are merged into one round
+		var roundIds = report.getRows().stream().map(RoundImportReport.Row::getRoundId).filter(Objects::nonNull)
+				.distinct().toList();
+		assertEquals(roundCnt, roundIds.size());
+		assertEquals(report.getRows().getFirst().getRoundId(), report.getRows().get(3).getRoundId());
+		assertEquals(RoundImportReport.Status.REJECTED, report.getRows().getLast().getStatus());
+
+		var playerRound = playerRoundRepository.getForPlayerAndRound(players.getLast().getId(), roundIds.getFirst())
+				.orElseThrow();
+		assertEquals(players.getLast().getWhs(), playerRound.getWhs());
+		assertNotNull(playerRound.getTeeId());
+	}
+
+	@DisplayName("Should import rows preceding the malformed one and report it as rejected")
+	@Transactional
+	@Test
+	void importRoundsMalformedRowTest(@Autowired RoundImportService roundImportService) {
+
+		var rows = List.of(importRow(1L, new GregorianCalendar(2019, Calendar.FEBRUARY, 1).getTime(), 18),
+				importRow(1L, new GregorianCalendar(2019, Calendar.FEBRUARY, 2).getTime(), 18)).iterator();
+
+		// the third row cannot be read, like malformed JSON in the request
+		var report = roundImportService.importRounds(new Iterator<>() {
+			@Override
+			public boolean hasNext() {
+				return true;
+			}
+
+			@Override
+			public Round next() {
+				if (rows.hasNext()) {
+					return rows.next();
+				}
+				throw new IllegalStateException("Unexpected end of input");
+			}
+		});
+
+		assertEquals(2, report.getImported());
+		assertEquals(1, report.getRejected());
+		assertEquals(0, report.getFailed());
+		assertEquals(2, report.getRows().getLast().getRow());
+		assertEquals(RoundImportReport.Status.REJECTED, report.getRows().getLast().getStatus());
+	}
+
+	@DisplayName("Should accept not played hole and reject penalties out of range in imported row")
+	@Test
+	void importRoundsValidateTest() {
+
+		var row = importRow(1L, new GregorianCalendar(2019, Calendar.MARCH, 1).getTime(), 18);
+		row.getScoreCard().getFirst().setStroke(0);
+		row.getScoreCard().getFirst().setPats(0);
+		assertNull(RoundImportService.validate(row));
+
+		row.getScoreCard().getLast().setPenalty(6);
+		assertEquals("Number of penalties for hole 18 is not correct", RoundImportService.validate(row));
+	}
+
+	private static Round importRow(Long playerId, Date roundDate, int holes) {
+
+		var round = new Round();
+		var course = new Course();
+		course.setId(1L);
+		round.setCourse(course);
+		var player = new Player();
+		player.setId(playerId);
+		round.setPlayer(new TreeSet<>(List.of(player)));
+		round.setFormat(Common.STROKE_PLAY_FORMAT);
+		round.setRoundDate(roundDate);
+		round.setScoreCard(new ArrayList<>());
+
+		for (int i = 1; i <= holes; i++) {
+			var scoreCard = new ScoreCard();
+			scoreCard.setHole(i);
+			scoreCard.setPats(2);
+			scoreCard.setPenalty(0);
+			scoreCard.setStroke(5);
+			round.getScoreCard().add(scoreCard);
+		}
+
+		return round;
+	}
+
 	@AfterAll
 	static void done(@Autowired RoundRepository roundRepository) {
 
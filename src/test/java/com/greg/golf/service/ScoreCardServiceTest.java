@@ -3,6 +3,7 @@ package com.greg.golf.service;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
+import java.util.List;
 import java.util.TreeSet;
 
 import com.greg.golf.entity.helpers.Common;
@@ -17,12 +18,14 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.transaction.annotation.Transactional;
 import org.testcontainers.containers.PostgreSQLContainer;
 
+import com.greg.golf.configurationproperties.RoundServiceConfig;
 import com.greg.golf.entity.Player;
 import com.greg.golf.entity.Round;
 import com.greg.golf.entity.ScoreCard;
 import com.greg.golf.repository.PlayerRoundRepository;
 import com.greg.golf.repository.RoundRepository;
 import com.greg.golf.util.GolfPostgresqlContainer;
+import jakarta.persistence.EntityManager;
 
 @Slf4j
 @SpringBootTest
@@ -96,6 +99,56 @@ class ScoreCardServiceTest {
 		Assertions.assertEquals(2, scoreCardLst.size());
 	}
 	
+	@DisplayName("Get scorecards packed in player round")
+	@Transactional
+	@Test
+	void getPackedScoreCardsTest(@Autowired RoundService roundService, @Autowired RoundServiceConfig roundServiceConfig,
+								 @Autowired RoundRepository roundRepository,
+								 @Autowired PlayerRoundRepository playerRoundRepository,
+								 @Autowired EntityManager entityManager) {
+
+		try {
+			var round = roundRepository.findById(roundId).orElseThrow();
+			var player = round.getPlayer().iterator().next();
+			round.getCourse().getTees().size();
+
+			var newRound = new Round();
+			newRound.setCourse(round.getCourse());
+			newRound.setPlayer(new TreeSet<>(List.of(player)));
+			newRound.setFormat(Common.STROKE_PLAY_FORMAT);
+			newRound.setRoundDate(new GregorianCalendar(2020, Calendar.JULY, 2).getTime());
+			newRound.setScoreCard(new ArrayList<>());
+			for (int i = 1; i <= 18; i++) {
+				var scoreCard = new ScoreCard();
+				scoreCard.setHole(i);
+				scoreCard.setStroke(i % 5 + 2);
+				scoreCard.setPats(2);
+				scoreCard.setPenalty(0);
+				newRound.getScoreCard().add(scoreCard);
+			}
+			roundServiceConfig.setPackedScoreCards(true);
+			newRound = roundService.saveRound(newRound);
+			entityManager.flush();
+			entityManager.clear();
+
+			var playerRound = playerRoundRepository.getForPlayerAndRound(player.getId(), newRound.getId()).orElseThrow();
+			Assertions.assertEquals((short) 3, playerRound.getStrokes()[0]);
+
+			var scoreCardLst = scoreCardService.listByRound(newRound);
+
+			Assertions.assertEquals(18, scoreCardLst.size());
+			Assertions.assertNull(scoreCardLst.getFirst().getId());
+			Assertions.assertEquals(newRound.getId(), scoreCardLst.getFirst().getRound().getId());
+			Assertions.assertEquals(3, scoreCardLst.getFirst().getStroke());
+			Assertions.assertEquals(player.getId(), scoreCardLst.getFirst().getPlayer().getId());
+
+			// the round from set up is not packed, so it is read from score card rows
+			Assertions.assertEquals(2, scoreCardService.listByRound(round).size());
+		} finally {
+			roundServiceConfig.setPackedScoreCards(false);
+		}
+	}
+
 	@AfterAll
 	static void done(@Autowired RoundRepository roundRepository) {
 
@@ -0,0 +1,161 @@
+package com.greg.golf.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.greg.golf.configurationproperties.TournamentServiceConfig;
+import com.greg.golf.controller.dto.LeaderboardDeltaDto;
+import com.greg.golf.controller.dto.LeaderboardEntryDto;
+import com.greg.golf.entity.Player;
+import com.greg.golf.entity.TournamentResult;
+import com.greg.golf.entity.helpers.Common;
+import com.greg.golf.service.helpers.TournamentLeaderboard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+class TournamentLeaderboardPublisherTest {
+
+    private TournamentService tournamentService;
+    private SimpMessagingTemplate template;
+    private TournamentLeaderboardPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+
+        tournamentService = mock(TournamentService.class);
+        template = mock(SimpMessagingTemplate.class);
+
+        var tournamentServiceConfig = new TournamentServiceConfig();
+        tournamentServiceConfig.setLeaderboardPushDelay(100L);
+
+        publisher = new TournamentLeaderboardPublisher(tournamentService, template, tournamentServiceConfig);
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.shutdown();
+    }
+
+    private static TournamentResult buildResult(long id, int stbNet) {
+
+        var player = new Player();
+        player.setId(id);
+        player.setNick("Player" + id);
+
+        var tournamentResult = new TournamentResult();
+        tournamentResult.setId(id);
+        tournamentResult.setPlayer(player);
+        tournamentResult.setPlayedRounds(1);
+        tournamentResult.setStrokeRounds(1);
+        tournamentResult.setStbNet(stbNet);
+        tournamentResult.setStbGross(stbNet - 10);
+        tournamentResult.setStrokesBrutto(90);
+        tournamentResult.setStrokesNetto(70);
+        return tournamentResult;
+    }
+
+    @DisplayName("Should return full leaderboard with the version of published messages")
+    @Test
+    void snapshotTest() {
+
+        var leaderboard = new TournamentLeaderboard(List.of(buildResult(1, 30), buildResult(2, 20)),
+                Common.ALL_ROUNDS, 5);
+        when(tournamentService.getLeaderboard(1L)).thenReturn(leaderboard);
+
+        var snapshot = publisher.getSnapshot(1L);
+        assertTrue(snapshot.isFull());
+        assertEquals(leaderboard.getVersion(), snapshot.getVersion());
+        assertEquals(List.of(1L, 2L), snapshot.getUpdated().stream().map(LeaderboardEntryDto::getId).toList());
+
+        // snapshot is not taken as published, the first message is still full
+        assertTrue(publisher.buildDelta(1L, leaderboard, 0).isFull());
+    }
+
+    @DisplayName("Should publish full leaderboard first and then only changes")
+    @Test
+    void buildDeltaTest() {
+
+        var first = new TournamentLeaderboard(List.of(buildResult(1, 30), buildResult(2, 20), buildResult(3, 10)),
+                Common.ALL_ROUNDS, 5);
+        var delta = publisher.buildDelta(1L, first, 5);
+
+        assertTrue(delta.isFull());
+        assertEquals(List.of(1L, 2L, 3L), delta.getUpdated().stream().map(LeaderboardEntryDto::getId).toList());
+
+        // player 1 is removed, player 3 overtakes player 2 which keeps position 2
+        var second = new TournamentLeaderboard(List.of(buildResult(2, 20), buildResult(3, 25)), Common.ALL_ROUNDS, 7);
+        delta = publisher.buildDelta(1L, second, 2);
+
+        assertFalse(delta.isFull());
+        assertEquals(first.getVersion(), delta.getPreviousVersion());
+        assertEquals(second.getVersion(), delta.getVersion());
+        assertEquals(List.of(1L), delta.getRemoved());
+        var updated = delta.getUpdated();
+        assertEquals(List.of(3L), updated.stream().map(LeaderboardEntryDto::getId).toList());
+        assertEquals(1, updated.getFirst().getPosition());
+        assertEquals(25, updated.getFirst().getStbNet());
+
+        // nothing changed
+        assertNull(publisher.buildDelta(1L, new TournamentLeaderboard(List.of(buildResult(2, 20), buildResult(3, 25)),
+                Common.ALL_ROUNDS, 7), 0));
+
+        // older leaderboard is not published
+        assertNull(publisher.buildDelta(1L, first, 0));
+    }
+
+    @DisplayName("Should publish full leaderboard if results were changed on another instance")
+    @Test
+    void buildDeltaForeignChangeTest() {
+
+        publisher.buildDelta(1L, new TournamentLeaderboard(List.of(buildResult(1, 30)), Common.ALL_ROUNDS, 5), 0);
+
+        // another instance changed the result to 25 (version 6) and this one reverted it (version 7),
+        // the delta against version 5 would be empty and clients would keep 25
+        var delta = publisher.buildDelta(1L,
+                new TournamentLeaderboard(List.of(buildResult(1, 30)), Common.ALL_ROUNDS, 7), 1);
+
+        assertTrue(delta.isFull());
+        assertEquals(7, delta.getVersion());
+        assertEquals(List.of(1L), delta.getUpdated().stream().map(LeaderboardEntryDto::getId).toList());
+    }
+
+    @DisplayName("Should publish burst of changes in one message")
+    @Test
+    void coalesceTest() throws InterruptedException {
+
+        var results = new ArrayList<>(List.of(buildResult(1, 30)));
+        var version = new AtomicLong();
+        when(tournamentService.getLeaderboard(1L))
+                .thenAnswer(i -> new TournamentLeaderboard(results, Common.ALL_ROUNDS, version.get()));
+
+        version.incrementAndGet();
+        publisher.changed(1L);
+        results.add(buildResult(2, 20));
+        version.addAndGet(2);
+        publisher.changed(1L);
+        publisher.changed(1L);
+
+        verify(template, timeout(2000)).convertAndSend(eq(TournamentLeaderboardPublisher.TOPIC + 1), any(LeaderboardDeltaDto.class));
+        Thread.sleep(300);
+        verify(template, times(1)).convertAndSend(anyString(), any(Object.class));
+        verify(tournamentService, times(1)).getLeaderboard(1L);
+
+        // next change after publishing is sent again
+        results.add(buildResult(3, 10));
+        version.incrementAndGet();
+        publisher.changed(1L);
+        var captor = ArgumentCaptor.forClass(LeaderboardDeltaDto.class);
+        verify(template, timeout(2000).times(2)).convertAndSend(anyString(), captor.capture());
+        assertFalse(captor.getValue().isFull());
+        assertEquals(List.of(3L), captor.getValue().getUpdated().stream().map(LeaderboardEntryDto::getId).toList());
+    }
+}
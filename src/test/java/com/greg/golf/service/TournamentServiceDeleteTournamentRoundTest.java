@@ -6,6 +6,7 @@ import static org.mockito.Mockito.*;
 import com.greg.golf.entity.*;
 import com.greg.golf.entity.helpers.Common;
 import com.greg.golf.error.GeneralException;
+import com.greg.golf.repository.TournamentRepository;
 import com.greg.golf.repository.TournamentResultRepository;
 import com.greg.golf.repository.TournamentRoundRepository;
 import com.greg.golf.repository.PlayerRoundRepository;
@@ -32,6 +33,8 @@ class TournamentServiceDeleteTournamentRoundTest {
     @Mock
     private PlayerRoundRepository playerRoundRepository;
     @Mock
+    private TournamentRepository tournamentRepository;
+    @Mock
     private RoundService roundService;
     @Mock
     private TournamentService self; // self reference for calls inside service
@@ -155,6 +158,9 @@ class TournamentServiceDeleteTournamentRoundTest {
 
         // No save on tournamentResult because it is deleted
         verify(tournamentResultRepository, never()).save(tournamentResult);
+
+        // Leaderboard version is incremented with the change
+        verify(tournamentRepository).incrementResultsVersion(tournament.getId());
     }
 
     @Test
@@ -1,7 +1,11 @@
 package com.greg.golf.service;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.TreeSet;
 
@@ -11,8 +15,8 @@ import com.greg.golf.error.*;
 import com.greg.golf.repository.*;
 import com.greg.golf.security.JwtRequestFilter;
 import com.greg.golf.security.aes.StringUtility;
-import jakarta.mail.MessagingException;
 import lombok.extern.slf4j.Slf4j;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 
@@ -32,12 +36,12 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import com.greg.golf.service.events.RoundEvent;
+import com.greg.golf.service.helpers.RowWriter;
+import com.greg.golf.service.helpers.ScoringEngine;
 import com.greg.golf.util.GolfPostgresqlContainer;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @Slf4j
 @EnableCaching
@@ -239,12 +243,12 @@ class TournamentServiceTest {
 		tournamentResultRepository.save(tournamentResult);
 
 		var retRound = roundRepository.findAll().getFirst();
-		tournamentService.updateSTB(tournamentResult, retRound, player, 45);
+		var score = ScoringEngine.score(ScoringEngine.toPlayerCard(retRound, player.getId()), 45);
 
-        log.info("STB net: {}", tournamentResult.getStbNet());
-        log.info("STB gross: {}", tournamentResult.getStbGross());
-		Assertions.assertEquals(62, tournamentResult.getStbNet().intValue());
-		Assertions.assertEquals(17, tournamentResult.getStbGross().intValue());
+        log.info("STB net: {}", score.getStbNet());
+        log.info("STB gross: {}", score.getStbGross());
+		Assertions.assertEquals(62, score.getStbNet());
+		Assertions.assertEquals(17, score.getStbGross());
 	}
 
 	@DisplayName("Should add the new tournament")
@@ -282,7 +286,8 @@ class TournamentServiceTest {
 		round.getCourse().setHoles(holeRepository.findByCourse(course));
 
 		round.getScoreCard().getFirst().setStroke(20);
-		var correctedScore = tournamentService.getCorrectedStrokes(player, round);
+		var correctedScore = ScoringEngine.score(ScoringEngine.toPlayerCard(round, player.getId()), 0)
+				.getCorrectedStrokes();
 
         log.info("corrected Strokes: {}", correctedScore);
 		Assertions.assertEquals(91, correctedScore);
@@ -300,11 +305,9 @@ class TournamentServiceTest {
 		round.getCourse().setHoles(holeRepository.findByCourse(round.getCourse()));
 		round.getScoreCard().getFirst().setStroke(20);
 
-		var playerRound = new PlayerRound();
-		playerRound.setSr(113);
-		playerRound.setCr((float) 0);
-
-		var scoreDifferential = tournamentService.getScoreDifferential(playerRound, round, player);
+		var correctedScore = ScoringEngine.score(ScoringEngine.toPlayerCard(round, player.getId()), 0)
+				.getCorrectedStrokes();
+		var scoreDifferential = ScoringEngine.getScoreDifferential(correctedScore, 0F, 113);
 
         log.info("score differential: {}", scoreDifferential);
 		Assertions.assertEquals(91, (int) scoreDifferential);
@@ -360,7 +363,7 @@ class TournamentServiceTest {
 		var player = playerService.getPlayer(1L).orElseThrow();
 		var round = roundRepository.findAll().getFirst();
 
-		var grossStrokes = tournamentService.getGrossStrokes(player, round);
+		var grossStrokes = ScoringEngine.score(ScoringEngine.toPlayerCard(round, player.getId()), 0).getGrossStrokes();
 
 		Assertions.assertEquals(90, grossStrokes);
 
@@ -371,7 +374,7 @@ class TournamentServiceTest {
 	@Test
 	void getNetStrokesTest() {
 
-		var netStrokes = tournamentService.getNetStrokes(99, 45);
+		var netStrokes = ScoringEngine.getNetStrokes(99, 45);
 
 		Assertions.assertEquals(54, netStrokes);
 
@@ -387,7 +390,7 @@ class TournamentServiceTest {
 		tournament.setPlayHcpMultiplayer(0.75f);
 		tournamentRepository.save(tournament);
 
-		var netStrokes = tournamentService.getNetStrokes(99, 18);
+		var netStrokes = ScoringEngine.getNetStrokes(99, 18);
 
 		Assertions.assertEquals(81, netStrokes);
 
@@ -398,7 +401,7 @@ class TournamentServiceTest {
 	@Test
 	void getNetStrokesLowerThan0Test() {
 
-		var netStrokes = tournamentService.getNetStrokes( 22, 45);
+		var netStrokes = ScoringEngine.getNetStrokes( 22, 45);
 
 		Assertions.assertEquals(0, netStrokes);
 
@@ -645,7 +648,7 @@ class TournamentServiceTest {
 		roundRepository.save(round);
 
 		// try to update the tournament
-		var roundEvent = new RoundEvent(this, round);
+		var roundEvent = new RoundEvent(this, round.getId(), RoundEvent.Type.UPDATED);
 		tournamentService.handleRoundEvent(roundEvent);
 
 		Assertions.assertEquals(15, round.getScoreCard().getFirst().getStroke().intValue());
@@ -660,10 +663,12 @@ class TournamentServiceTest {
 	@Transactional
 	@Test
 	void addTheNewRoundAndUpdateTournamentResultTest(@Autowired RoundRepository roundRepository,
-													 @Autowired TournamentPlayerRepository tournamentPlayerRepository) {
+													 @Autowired TournamentPlayerRepository tournamentPlayerRepository,
+													 @Autowired EntityManager entityManager) {
 
 		var round = roundRepository.findAll().getFirst();
 		var tournament = tournamentService.findAllTournamentsPageable(0).getFirst();
+		long resultsVersion = tournament.getResultsVersion();
 
 		var tournamentPlayer = new TournamentPlayer();
 		tournamentPlayer.setTournamentId(tournament.getId());
@@ -678,6 +683,184 @@ class TournamentServiceTest {
 		var tr = tournamentResultRepository.findByTournament(tournament).orElseThrow();
 		Assertions.assertEquals(90, tr.getStrokesBrutto().intValue());
 
+		// leaderboard version is taken from the database
+		entityManager.refresh(tournament);
+		Assertions.assertEquals(resultsVersion + 1, tournament.getResultsVersion());
+
+	}
+
+	@DisplayName("Should recompute tournament after player hcp change")
+	@Transactional
+	@Test
+	void recomputeTournamentTest(@Autowired RoundRepository roundRepository,
+								 @Autowired TournamentPlayerRepository tournamentPlayerRepository,
+								 @Autowired PlayerRoundRepository playerRoundRepository,
+								 @Autowired PlayerService playerService) {
+
+		var player = playerService.getPlayer(1L).orElseThrow();
+
+		UserDetails userDetails = new User(player.getId().toString(), player.getPassword(), new ArrayList<SimpleGrantedAuthority>());
+
+		var usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(userDetails, null,
+				userDetails.getAuthorities());
+
+		SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+
+		var round = roundRepository.findAll().getFirst();
+		var tournament = tournamentService.findAllTournamentsPageable(0).getFirst();
+
+		var tournamentPlayer = new TournamentPlayer();
+		tournamentPlayer.setTournamentId(tournament.getId());
+		tournamentPlayer.setPlayerId(1L);
+		tournamentPlayer.setNick("golfer");
+		tournamentPlayer.setWhs(10.0F);
+		tournamentPlayer.setSex(false);
+		tournamentPlayerRepository.save(tournamentPlayer);
+
+		tournamentService.addRound(tournament.getId(), round.getId(), null, true);
+
+		// nothing changed so far
+		var report = tournamentService.recomputeTournament(tournament.getId());
+		Assertions.assertEquals(1, report.getRecomputedRounds());
+		Assertions.assertTrue(report.getChanges().isEmpty());
+
+		// outdated ratings copied to the player round are not used
+		var playerRound = playerRoundRepository.getForPlayerAndRound(1L, round.getId()).orElseThrow();
+		playerRoundRepository.updatePlayerRoundTeeId(playerRound.getTeeId(), playerRound.getCr() + 10, playerRound.getSr(),
+				1L, round.getId());
+		report = tournamentService.recomputeTournament(tournament.getId());
+		Assertions.assertTrue(report.getChanges().isEmpty());
+
+		tournamentPlayer.setWhs(20.0F);
+		tournamentPlayerRepository.save(tournamentPlayer);
+
+		report = tournamentService.recomputeTournament(tournament.getId());
+		Assertions.assertFalse(report.getChanges().isEmpty());
+		var tr = tournamentResultRepository.findByTournament(tournament).orElseThrow();
+		Assertions.assertEquals(90, tr.getStrokesBrutto().intValue());
+	}
+
+	@DisplayName("Should recompute tournament when its round is updated")
+	@Transactional
+	@Test
+	void handleRoundEventTest(@Autowired RoundRepository roundRepository,
+							  @Autowired TournamentPlayerRepository tournamentPlayerRepository,
+							  @Autowired PlayerService playerService) {
+
+		var player = playerService.getPlayer(1L).orElseThrow();
+
+		UserDetails userDetails = new User(player.getId().toString(), player.getPassword(), new ArrayList<SimpleGrantedAuthority>());
+
+		var usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(userDetails, null,
+				userDetails.getAuthorities());
+
+		SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+
+		var round = roundRepository.findAll().getFirst();
+		var tournament = tournamentService.findAllTournamentsPageable(0).getFirst();
+
+		var tournamentPlayer = new TournamentPlayer();
+		tournamentPlayer.setTournamentId(tournament.getId());
+		tournamentPlayer.setPlayerId(1L);
+		tournamentPlayer.setNick("golfer");
+		tournamentPlayer.setWhs(10.0F);
+		tournamentPlayer.setSex(false);
+		tournamentPlayerRepository.save(tournamentPlayer);
+
+		tournamentService.addRound(tournament.getId(), round.getId(), null, true);
+		var stored = tournamentResultRepository.findByTournament(tournament).orElseThrow().getStbNet();
+
+		tournamentPlayer.setWhs(20.0F);
+		tournamentPlayerRepository.save(tournamentPlayer);
+
+		// events are handled by the pipeline without the user of the request
+		SecurityContextHolder.clearContext();
+		tournamentService.handleRoundEvent(new RoundEvent(this, round.getId(), RoundEvent.Type.UPDATED));
+
+		Assertions.assertTrue(tournamentResultRepository.findByTournament(tournament).orElseThrow().getStbNet() > stored);
+	}
+
+	@DisplayName("Should simulate tournament with other playing hcp without changing results")
+	@Transactional
+	@Test
+	void simulateTournamentTest(@Autowired RoundRepository roundRepository,
+								@Autowired TournamentPlayerRepository tournamentPlayerRepository,
+								@Autowired PlayerService playerService) {
+
+		var player = playerService.getPlayer(1L).orElseThrow();
+
+		UserDetails userDetails = new User(player.getId().toString(), player.getPassword(), new ArrayList<SimpleGrantedAuthority>());
+
+		var usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(userDetails, null,
+				userDetails.getAuthorities());
+
+		SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+
+		var round = roundRepository.findAll().getFirst();
+		var tournament = tournamentService.findAllTournamentsPageable(0).getFirst();
+
+		var tournamentPlayer = new TournamentPlayer();
+		tournamentPlayer.setTournamentId(tournament.getId());
+		tournamentPlayer.setPlayerId(1L);
+		tournamentPlayer.setNick("golfer");
+		tournamentPlayer.setWhs(10.0F);
+		tournamentPlayer.setSex(false);
+		tournamentPlayerRepository.save(tournamentPlayer);
+
+		tournamentService.addRound(tournament.getId(), round.getId(), null, true);
+		var stored = tournamentResultRepository.findByTournament(tournament).orElseThrow().getStbNet();
+
+		// the same parameters give the same result
+		var results = tournamentService.simulateTournament(tournament.getId(), null, null);
+		Assertions.assertEquals(1, results.size());
+		Assertions.assertEquals(stored, results.getFirst().getStbNet());
+
+		// no playing hcp at all
+		results = tournamentService.simulateTournament(tournament.getId(), 1.0F, 0);
+		Assertions.assertEquals(results.getFirst().getStbGross(), results.getFirst().getStbNet());
+		Assertions.assertEquals(stored, tournamentResultRepository.findByTournament(tournament).orElseThrow().getStbNet());
+
+		// hcp change does not bump the leaderboard version, so evicted simulation must be computed again
+		tournamentPlayer.setWhs(30.0F);
+		tournamentPlayerRepository.save(tournamentPlayer);
+		tournamentService.evictSimulations();
+		results = tournamentService.simulateTournament(tournament.getId(), null, null);
+		Assertions.assertTrue(results.getFirst().getStbNet() > stored);
+	}
+
+	@DisplayName("Should export tournament results, rounds and score cards")
+	@Transactional
+	@Test
+	void exportTournamentTest(@Autowired RoundRepository roundRepository,
+							  @Autowired TournamentPlayerRepository tournamentPlayerRepository,
+							  @Autowired TournamentExportService tournamentExportService) throws IOException {
+
+		var round = roundRepository.findAll().getFirst();
+		var tournament = tournamentService.findAllTournamentsPageable(0).getFirst();
+
+		var tournamentPlayer = new TournamentPlayer();
+		tournamentPlayer.setTournamentId(tournament.getId());
+		tournamentPlayer.setPlayerId(1L);
+		tournamentPlayer.setNick("golfer");
+		tournamentPlayer.setWhs(10.0F);
+		tournamentPlayer.setSex(false);
+		tournamentPlayerRepository.save(tournamentPlayer);
+
+		tournamentService.updateTournamentResult(round, tournament, null);
+
+		var out = new ByteArrayOutputStream();
+		tournamentExportService.exportResults(tournament.getId(), RowWriter.Format.CSV).writeTo(out);
+		var lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		Assertions.assertEquals(2, lines.length);
+		Assertions.assertTrue(lines[1].contains(",golfer,1,"));
+
+		out = new ByteArrayOutputStream();
+		tournamentExportService.exportRounds(tournament.getId(), RowWriter.Format.NDJSON).writeTo(out);
+		Assertions.assertEquals(1, out.toString(StandardCharsets.UTF_8).split("\n").length);
+
+		out = new ByteArrayOutputStream();
+		tournamentExportService.exportScoreCards(tournament.getId(), RowWriter.Format.CSV).writeTo(out);
+		Assertions.assertEquals(19, out.toString(StandardCharsets.UTF_8).split("\n").length);
 	}
 
 	@DisplayName("Should return tournament round for tournament result")
@@ -722,10 +905,71 @@ class TournamentServiceTest {
 		tournamentPlayer.setSex(false);
 		tournamentPlayerRepository.save(tournamentPlayer);
 
-		var rndLst = tournamentService.getAllPossibleRoundsForTournament(tournament.getId());
+		var rndLst = getAllPossibleRounds(tournament.getId());
+
+		Assertions.assertEquals(1, rndLst.size());
+
+	}
+
+	private List<Round> getAllPossibleRounds(Long tournamentId) {
+
+		var rounds = new ArrayList<Round>();
+		tournamentService.getAllPossibleRoundsForTournament(tournamentId, rounds::addAll);
+		return rounds;
+	}
+
+	@DisplayName("Should return page of rounds applicable for tournament")
+	@Transactional
+	@Test
+	void getApplicableRoundsForTournamentPageTest(@Autowired TournamentPlayerRepository tournamentPlayerRepository) {
+
+		var tournament = tournamentService.findAllTournamentsPageable(0).getFirst();
+
+		var tournamentPlayer = new TournamentPlayer();
+		tournamentPlayer.setTournamentId(tournament.getId());
+		tournamentPlayer.setPlayerId(1L);
+		tournamentPlayer.setNick("golfer");
+		tournamentPlayer.setWhs(10.0F);
+		tournamentPlayer.setSex(false);
+		tournamentPlayerRepository.save(tournamentPlayer);
+
+		var rndLst = tournamentService.getAllPossibleRoundsForTournament(tournament.getId(), 0);
 
 		Assertions.assertEquals(1, rndLst.size());
+		Assertions.assertEquals(1, rndLst.getFirst().getPlayer().size());
+		Assertions.assertEquals(0, tournamentService.getAllPossibleRoundsForTournament(tournament.getId(), 1).size());
+	}
+
+	@DisplayName("Should add all eligible rounds to tournament")
+	@Transactional
+	@Test
+	void addAllEligibleRoundsTest(@Autowired TournamentPlayerRepository tournamentPlayerRepository,
+								  @Autowired PlayerService playerService) {
+
+		var player = playerService.getPlayer(1L).orElseThrow();
+
+		UserDetails userDetails = new User(player.getId().toString(), player.getPassword(), new ArrayList<SimpleGrantedAuthority>());
+
+		var usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(userDetails, null,
+				userDetails.getAuthorities());
+
+		SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+
+		var tournament = tournamentService.findAllTournamentsPageable(0).getFirst();
 
+		var tournamentPlayer = new TournamentPlayer();
+		tournamentPlayer.setTournamentId(tournament.getId());
+		tournamentPlayer.setPlayerId(1L);
+		tournamentPlayer.setNick("golfer");
+		tournamentPlayer.setWhs(10.0F);
+		tournamentPlayer.setSex(false);
+		tournamentPlayerRepository.save(tournamentPlayer);
+
+		Assertions.assertEquals(1, tournamentService.addAllEligibleRounds(tournament.getId()).size());
+		Assertions.assertEquals(1, tournamentResultRepository.findByTournamentIdOrderByIdAsc(tournament.getId()).size());
+		Assertions.assertEquals(0, getAllPossibleRounds(tournament.getId()).size());
+		// second import does not add anything
+		Assertions.assertEquals(0, tournamentService.addAllEligibleRounds(tournament.getId()).size());
 	}
 
 	@DisplayName("Should return rounds (which does not exist) applicable for tournament")
@@ -746,7 +990,7 @@ class TournamentServiceTest {
 
 		roundRepository.deleteAll();
 
-		var rndLst = tournamentService.getAllPossibleRoundsForTournament(tournament.getId());
+		var rndLst = getAllPossibleRounds(tournament.getId());
 
 		Assertions.assertEquals(0, rndLst.size());
 
@@ -767,7 +1011,7 @@ class TournamentServiceTest {
 		tournamentPlayer.setSex(false);
 		tournamentPlayerRepository.save(tournamentPlayer);
 
-		var rndLst = tournamentService.getAllPossibleRoundsForTournament(tournament.getId());
+		var rndLst = getAllPossibleRounds(tournament.getId());
 
 		Assertions.assertEquals(0, rndLst.size());
 
@@ -1410,7 +1654,7 @@ class TournamentServiceTest {
 		tournamentNotification.setTournamentId(tournamentId);
 		tournamentNotificationRepository.save(tournamentNotification);
 
-		assertEquals(0, tournamentService.processNotifications(tournamentId, TournamentService.SORT_STB_NET));
+		assertNull(tournamentService.processNotifications(tournamentId, TournamentService.SORT_STB_NET));
 	}
 
 	@DisplayName("Send notification")
@@ -1418,7 +1662,8 @@ class TournamentServiceTest {
 	@Test
 	void attemptToSendNotificationTest(@Autowired TournamentRepository tournamentRepository,
 																@Autowired PlayerService playerService,
-																@Autowired TournamentNotificationRepository tournamentNotificationRepository) {
+																@Autowired TournamentNotificationRepository tournamentNotificationRepository,
+																@Autowired MailOutboxService mailOutboxService) {
 
 
 		var player = playerService.getPlayer(1L).orElseThrow();
@@ -1452,17 +1697,16 @@ class TournamentServiceTest {
 		tournamentNotification.setTournamentId(tournamentId);
 		tournamentNotificationRepository.save(tournamentNotification);
 
-		assertDoesNotThrow(() -> doNothing().when(emailService).sendEmail(any(), any(), any()));
-
-		assertDoesNotThrow(() -> tournamentService.processNotifications(tournamentId, TournamentService.SORT_STB_NET));
 		assertDoesNotThrow(() -> tournamentService.processNotifications(tournamentId, TournamentService.SORT_STB));
 		assertDoesNotThrow(() -> tournamentService.processNotifications(tournamentId, TournamentService.SORT_STR_NET));
 		assertDoesNotThrow(() -> tournamentService.processNotifications(tournamentId, TournamentService.SORT_STR));
 
-		assertDoesNotThrow(() -> doThrow(MessagingException.class).when(emailService).sendEmail(any(), any(), any()));
-
-		// verify if exception is caught
-		assertThrows(GeneralException.class, () -> tournamentService.processNotifications(tournamentId, TournamentService.SORT_STB_NET));
+		// email is only queued
+		var jobId = tournamentService.processNotifications(tournamentId, TournamentService.SORT_STB_NET);
+		var chunks = mailOutboxService.getJob(jobId);
+		assertEquals(1, chunks.size());
+		assertEquals(MailOutbox.Status.PENDING, chunks.getFirst().getStatus());
+		verifyNoInteractions(emailService);
 
 		//remove notification
 		tournamentService.removeNotification(tournamentId);
@@ -0,0 +1,88 @@
+package com.greg.golf.service.helpers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.greg.golf.entity.TournamentResult;
+import com.greg.golf.entity.TournamentRound;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BestRoundsTest {
+
+    private static TournamentRound buildRound(Random random) {
+
+        var tournamentRound = new TournamentRound();
+        tournamentRound.setStbNet(random.nextInt(15, 45));
+        tournamentRound.setStbGross(random.nextInt(5, 40));
+        tournamentRound.setStrokes(random.nextInt(5) != 0);
+        tournamentRound.setStrokesNetto(tournamentRound.getStrokes() ? random.nextInt(65, 100) : 0);
+        tournamentRound.setStrokesBrutto(tournamentRound.getStrokes() ? random.nextInt(70, 120) : 0);
+        return tournamentRound;
+    }
+
+    @DisplayName("Should keep best rounds sums equal to full recompute for random adds and deletes")
+    @Test
+    void randomAddAndRemoveTest() {
+
+        var random = new Random(20);
+
+        for (int bestRounds = 1; bestRounds <= 6; bestRounds++) {
+
+            var tournamentResult = new TournamentResult();
+            BestRounds.init(tournamentResult);
+            List<TournamentRound> rounds = new ArrayList<>();
+
+            for (int step = 0; step < 300; step++) {
+
+                if (rounds.isEmpty() || random.nextInt(3) != 0) {
+                    var tournamentRound = buildRound(random);
+                    rounds.add(tournamentRound);
+                    BestRounds.add(tournamentResult, tournamentRound.getStbNet(), tournamentRound.getStbGross(),
+                            tournamentRound.getStrokes(), tournamentRound.getStrokesNetto(),
+                            tournamentRound.getStrokesBrutto(), bestRounds);
+                } else {
+                    BestRounds.remove(tournamentResult, rounds.remove(random.nextInt(rounds.size())), bestRounds);
+                }
+
+                var recomputed = new TournamentResult();
+                BestRounds.rebuild(recomputed, rounds, bestRounds);
+                Assertions.assertTrue(BestRounds.isConsistent(tournamentResult, recomputed));
+            }
+        }
+    }
+
+    @DisplayName("Should sum only the best rounds")
+    @Test
+    void rebuildTest() {
+
+        var rounds = new ArrayList<TournamentRound>();
+        int[][] values = {{30, 20, 80, 90}, {36, 25, 75, 88}, {20, 10, 95, 101}};
+        for (int[] v : values) {
+            var tournamentRound = new TournamentRound();
+            tournamentRound.setStbNet(v[0]);
+            tournamentRound.setStbGross(v[1]);
+            tournamentRound.setStrokesNetto(v[2]);
+            tournamentRound.setStrokesBrutto(v[3]);
+            tournamentRound.setStrokes(true);
+            rounds.add(tournamentRound);
+        }
+
+        var tournamentResult = new TournamentResult();
+        BestRounds.rebuild(tournamentResult, rounds, 2);
+
+        Assertions.assertEquals(66, tournamentResult.getStbNet());
+        Assertions.assertEquals(45, tournamentResult.getStbGross());
+        Assertions.assertEquals(155, tournamentResult.getStrokesNetto());
+        Assertions.assertEquals(178, tournamentResult.getStrokesBrutto());
+
+        BestRounds.remove(tournamentResult, rounds.get(1), 2);
+
+        Assertions.assertEquals(50, tournamentResult.getStbNet());
+        Assertions.assertEquals(30, tournamentResult.getStbGross());
+        Assertions.assertEquals(175, tournamentResult.getStrokesNetto());
+        Assertions.assertEquals(191, tournamentResult.getStrokesBrutto());
+    }
+}
@@ -0,0 +1,143 @@
+package com.greg.golf.service.helpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import com.greg.golf.entity.Course;
+import com.greg.golf.entity.Hole;
+import com.greg.golf.entity.PlayerHandicap;
+import com.greg.golf.entity.ScoreCard;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HandicapCalculatorTest {
+
+    @DisplayName("Should calculate index from the best differentials")
+    @Test
+    void indexTest() {
+
+        assertNull(HandicapCalculator.index(new float[] {10, 12}, null));
+        // the lowest one with -2 adjustment
+        assertEquals(8.0F, HandicapCalculator.index(new float[] {14, 10, 12}, null));
+        // the lowest two with -1 adjustment
+        assertEquals(0.5F, HandicapCalculator.index(new float[] {6, 5, 4, 3, 2, 1}, null));
+
+        var differentials = new float[20];
+        for (int i = 0; i < differentials.length; i++) {
+            differentials[i] = 20 - i;
+        }
+        // the best 8 of 20
+        assertEquals(4.5F, HandicapCalculator.index(differentials, null));
+    }
+
+    @DisplayName("Should apply soft and hard cap to the full window")
+    @Test
+    void capTest() {
+
+        var differentials = new float[20];
+        Arrays.fill(differentials, 20);
+
+        assertEquals(20.0F, HandicapCalculator.index(differentials, null));
+        // half of the increase above 3 is removed
+        assertEquals(19.5F, HandicapCalculator.index(differentials, 16.0F));
+        // increase is never more than 5
+        assertEquals(15.0F, HandicapCalculator.index(differentials, 10.0F));
+        // caps are not applied to less than 20 differentials
+        assertEquals(20.0F, HandicapCalculator.index(Arrays.copyOf(differentials, 19), 10.0F));
+    }
+
+    @DisplayName("Should calculate differential from adjusted gross score")
+    @Test
+    void differentialTest() {
+
+        var scoreCards = new ArrayList<ScoreCard>();
+        for (int i = 1; i <= 18; i++) {
+            scoreCards.add(scoreCard(i, i == 1 ? 16 : 5));
+        }
+
+        // hole given up is limited to net double bogey, so adjusted score is 17 x 5 + 7
+        var differential = HandicapCalculator.differential(1L, new Date(1000), course(), scoreCards, 18F, 72F, 113, 0);
+        assertEquals(20.0F, differential.value());
+
+        // 9 hole round and incomplete round are not counted
+        assertNull(HandicapCalculator.differential(1L, new Date(1000), course(), scoreCards, 18F, 72F, 113, 1));
+        assertNull(HandicapCalculator.differential(1L, new Date(1000), course(), scoreCards.subList(0, 17), 18F, 72F,
+                113, 0));
+        assertNull(HandicapCalculator.differential(1L, new Date(1000), course(), scoreCards, 18F, null, 113, 0));
+    }
+
+    @DisplayName("Should calculate history in date order")
+    @Test
+    void historyTest() {
+
+        var differentials = List.of(
+                new HandicapCalculator.Differential(3L, new Date(3000), 14),
+                new HandicapCalculator.Differential(1L, new Date(1000), 10),
+                new HandicapCalculator.Differential(2L, new Date(2000), 12));
+
+        var window = new DifferentialWindow(HandicapCalculator.WINDOW_SIZE);
+        var history = HandicapCalculator.history(1L, differentials, window);
+
+        assertEquals(3, history.size());
+        assertEquals(1L, history.getFirst().getRoundId());
+        assertNull(history.get(1).getHandicapIndex());
+        assertEquals(3, history.getLast().getScores());
+        assertEquals(8.0F, history.getLast().getHandicapIndex());
+        assertArrayEquals(new float[] {10, 12, 14}, window.getDifferentials());
+    }
+
+    @DisplayName("Should keep only the latest differentials in window")
+    @Test
+    void windowTest() {
+
+        var window = new DifferentialWindow(3);
+        for (int i = 1; i <= 4; i++) {
+            window.add(i, i * 1000L, i);
+        }
+
+        assertTrue(window.isFull());
+        assertArrayEquals(new float[] {2, 3, 4}, window.getDifferentials());
+        assertTrue(window.isNewest(5L, new Date(4000)));
+        assertFalse(window.isNewest(1L, new Date(4000)));
+
+        var handicap = new PlayerHandicap();
+        window.storeTo(handicap);
+        assertArrayEquals(new Long[] {2L, 3L, 4L}, handicap.getDifferentialRounds());
+
+        var restored = DifferentialWindow.of(handicap, 3);
+        restored.add(5, 5000, 5);
+        assertArrayEquals(new float[] {3, 4, 5}, restored.getDifferentials());
+    }
+
+    // par 72 course with par 4 holes
+    private static Course course() {
+
+        var course = new Course();
+        course.setPar(72);
+        course.setHoles(new ArrayList<>());
+
+        for (int i = 1; i <= 18; i++) {
+            var hole = new Hole();
+            hole.setNumber(i);
+            hole.setSi(i);
+            hole.setPar(4);
+            course.getHoles().add(hole);
+        }
+
+        return course;
+    }
+
+    private static ScoreCard scoreCard(int hole, int stroke) {
+
+        var scoreCard = new ScoreCard();
+        scoreCard.setHole(hole);
+        scoreCard.setStroke(stroke);
+        scoreCard.setPats(2);
+        scoreCard.setPenalty(0);
+        return scoreCard;
+    }
+}
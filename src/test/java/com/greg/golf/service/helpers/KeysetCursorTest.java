@@ -0,0 +1,31 @@
+package com.greg.golf.service.helpers;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    @DisplayName("Should decode values of encoded token")
+    @Test
+    void encodeAndDecodeTest() {
+
+        var token = KeysetCursor.encode(15L, "Golf: Club, Łódź");
+
+        assertFalse(token.contains(":"));
+        assertArrayEquals(new String[]{"15", "Golf: Club, Łódź"}, KeysetCursor.decode(token, 2));
+        assertArrayEquals(new String[]{"1592956800000", "7"},
+                KeysetCursor.decode(KeysetCursor.encode(1592956800000L, 7L), 2));
+    }
+
+    @DisplayName("Should reject token which has not been created for the listing")
+    @Test
+    void decodeIncorrectTokenTest() {
+
+        var token = KeysetCursor.encode(15L);
+
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(token, 2));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not base64!", 1));
+    }
+}
@@ -0,0 +1,57 @@
+package com.greg.golf.service.helpers;
+
+import java.util.List;
+
+import com.greg.golf.entity.Player;
+import com.greg.golf.entity.PlayerRound;
+import com.greg.golf.entity.Round;
+import com.greg.golf.entity.ScoreCard;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedScoreCardTest {
+
+    @DisplayName("Should pack score card by hole and unpack it back")
+    @Test
+    void packAndUnpackTest() {
+
+        var playerRound = new PlayerRound();
+        assertFalse(PackedScoreCard.isPacked(playerRound));
+
+        PackedScoreCard.pack(playerRound, List.of(scoreCard(3, 5, 2, null), scoreCard(1, 4, 1, 1)));
+
+        assertTrue(PackedScoreCard.isPacked(playerRound));
+        assertEquals(PackedScoreCard.HOLES, playerRound.getStrokes().length);
+        assertEquals((short) 4, playerRound.getStrokes()[0]);
+        assertNull(playerRound.getStrokes()[1]);
+        assertEquals((short) 2, playerRound.getPutts()[2]);
+        assertNull(playerRound.getPenalties()[2]);
+
+        var player = new Player();
+        player.setId(1L);
+        var round = new Round();
+        var scoreCards = PackedScoreCard.unpack(playerRound, round, player);
+
+        assertEquals(2, scoreCards.size());
+        assertEquals(1, scoreCards.getFirst().getHole());
+        assertEquals(4, scoreCards.getFirst().getStroke());
+        assertEquals(1, scoreCards.getFirst().getPenalty());
+        assertEquals(3, scoreCards.getLast().getHole());
+        assertEquals(2, scoreCards.getLast().getPats());
+        assertNull(scoreCards.getLast().getPenalty());
+        assertSame(player, scoreCards.getLast().getPlayer());
+        assertSame(round, scoreCards.getLast().getRound());
+    }
+
+    private static ScoreCard scoreCard(int hole, int stroke, int pats, Integer penalty) {
+
+        var scoreCard = new ScoreCard();
+        scoreCard.setHole(hole);
+        scoreCard.setStroke(stroke);
+        scoreCard.setPats(pats);
+        scoreCard.setPenalty(penalty);
+        return scoreCard;
+    }
+}
@@ -0,0 +1,139 @@
+package com.greg.golf.service.helpers;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import com.greg.golf.entity.Course;
+import com.greg.golf.entity.Hole;
+import com.greg.golf.entity.PlayerStats;
+import com.greg.golf.entity.ScoreCard;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerStatsCalculatorTest {
+
+    @DisplayName("Should calculate contribution of the round by par")
+    @Test
+    void contributionTest() {
+
+        var scoreCards = List.of(scoreCard(1, 3, 1, 0), scoreCard(2, 6, 2, 1), scoreCard(3, 16, 0, null));
+
+        var contribution = PlayerStatsCalculator.contribution(1L, new Date(1000), course(), scoreCards, 18F, 72F, 113);
+
+        assertEquals(3, contribution.getHoles());
+        assertEquals(1, contribution.getPar3Holes());
+        assertEquals(3, contribution.getPar3Strokes());
+        assertEquals(1, contribution.getPar5Holes());
+        assertEquals(6, contribution.getPar5Strokes());
+        // given up hole is not counted by par
+        assertEquals(0, contribution.getPar4Holes());
+        assertEquals(3, contribution.getPutts());
+        assertEquals(1, contribution.getPenalties());
+        assertEquals(5, contribution.getStbNet());
+
+        contribution = PlayerStatsCalculator.contribution(1L, new Date(1000), course(), scoreCards, null, 72F, 113);
+        assertNull(contribution.getStbNet());
+    }
+
+    @DisplayName("Should add and subtract contributions")
+    @Test
+    void applyTest() {
+
+        var stats = new PlayerStats();
+        var contribution = PlayerStatsCalculator.contribution(1L, new Date(1000), course(),
+                List.of(scoreCard(1, 4, 2, 1)), 18F, 72F, 113);
+
+        PlayerStatsCalculator.apply(stats, contribution, 1);
+        PlayerStatsCalculator.apply(stats, contribution, 1);
+
+        assertEquals(2, stats.getRounds());
+        assertEquals(2, stats.getPar3Holes());
+        assertEquals(8, stats.getPar3Strokes());
+        assertEquals(4, stats.getPutts());
+        assertEquals(2, stats.getStbRounds());
+        assertEquals(4, stats.getStbNet());
+
+        PlayerStatsCalculator.apply(stats, contribution, -1);
+        PlayerStatsCalculator.apply(stats, contribution, -1);
+
+        assertEquals(0, stats.getRounds());
+        assertEquals(0, stats.getHoles());
+        assertEquals(0, stats.getPenalties());
+        assertEquals(0, stats.getStbNet());
+    }
+
+    @DisplayName("Should keep the latest rounds in trend")
+    @Test
+    void trendTest() {
+
+        var stats = new PlayerStats();
+
+        PlayerStatsCalculator.addToTrend(stats, contribution(1L, 1000, 18F), 2);
+        PlayerStatsCalculator.addToTrend(stats, contribution(2L, 3000, 18F), 2);
+        PlayerStatsCalculator.addToTrend(stats, contribution(3L, 2000, 18F), 2);
+        // round without handicap data is not in trend
+        PlayerStatsCalculator.addToTrend(stats, contribution(4L, 4000, null), 2);
+
+        assertArrayEquals(new Long[] {2L, 3L}, stats.getTrendRounds());
+        assertArrayEquals(new Long[] {3000L, 2000L}, stats.getTrendDates());
+        assertTrue(PlayerStatsCalculator.isInTrend(stats, 3L));
+        assertFalse(PlayerStatsCalculator.isInTrend(stats, 1L));
+
+        // round already in trend is replaced
+        PlayerStatsCalculator.addToTrend(stats, contribution(2L, 3000, 18F), 2);
+        assertArrayEquals(new Long[] {2L, 3L}, stats.getTrendRounds());
+    }
+
+    @DisplayName("Should rebuild counters and trend")
+    @Test
+    void rebuildTest() {
+
+        var stats = new PlayerStats();
+        stats.setRounds(10);
+        stats.setPutts(100);
+
+        PlayerStatsCalculator.rebuild(stats, List.of(contribution(1L, 1000, 18F), contribution(2L, 2000, 18F)), 10);
+
+        assertEquals(2, stats.getRounds());
+        assertEquals(4, stats.getPutts());
+        assertArrayEquals(new Long[] {2L, 1L}, stats.getTrendRounds());
+        assertArrayEquals(new Short[] {2, 2}, stats.getTrendStb());
+    }
+
+    private static PlayerStatsCalculator.Contribution contribution(Long roundId, long roundDate, Float whs) {
+
+        return PlayerStatsCalculator.contribution(roundId, new Date(roundDate), course(),
+                List.of(scoreCard(1, 4, 2, 0)), whs, 72F, 113);
+    }
+
+    // hole 1 is par 3, hole 2 par 5 and the rest par 4
+    private static Course course() {
+
+        var course = new Course();
+        course.setPar(72);
+        course.setHoles(new ArrayList<>());
+
+        for (int i = 1; i <= 18; i++) {
+            var hole = new Hole();
+            hole.setNumber(i);
+            hole.setSi(i);
+            hole.setPar(i == 1 ? 3 : i == 2 ? 5 : 4);
+            course.getHoles().add(hole);
+        }
+
+        return course;
+    }
+
+    private static ScoreCard scoreCard(int hole, int stroke, int pats, Integer penalty) {
+
+        var scoreCard = new ScoreCard();
+        scoreCard.setHole(hole);
+        scoreCard.setStroke(stroke);
+        scoreCard.setPats(pats);
+        scoreCard.setPenalty(penalty);
+        return scoreCard;
+    }
+}
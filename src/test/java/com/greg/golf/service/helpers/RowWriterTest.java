@@ -0,0 +1,52 @@
+package com.greg.golf.service.helpers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RowWriterTest {
+
+    private static final RowWriter<String[]> WRITER = new RowWriter<String[]>()
+            .column("nick", row -> row[0])
+            .column("course", row -> row[1])
+            .column("stbNet", row -> row[2] == null ? null : Integer.valueOf(row[2]));
+
+    private static final String[][] ROWS = {
+            {"golfer", "Lisia Polana", "36"},
+            {"a \"b\"", "Sobienie, Królewskie", null}
+    };
+
+    @DisplayName("Should write csv with header and quote values when needed")
+    @Test
+    void csvTest() throws IOException {
+
+        var out = new ByteArrayOutputStream();
+        var count = WRITER.write(Stream.of(ROWS), RowWriter.Format.CSV, out);
+
+        Assertions.assertEquals(2, count);
+        Assertions.assertEquals("""
+                nick,course,stbNet
+                golfer,Lisia Polana,36
+                "a ""b\""","Sobienie, Królewskie",
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @DisplayName("Should write one json object per line")
+    @Test
+    void ndjsonTest() throws IOException {
+
+        var out = new ByteArrayOutputStream();
+        var count = WRITER.write(Stream.of(ROWS), RowWriter.Format.NDJSON, out);
+
+        Assertions.assertEquals(2, count);
+        Assertions.assertEquals("""
+                {"nick":"golfer","course":"Lisia Polana","stbNet":36}
+                {"nick":"a \\"b\\"","course":"Sobienie, Królewskie","stbNet":null}
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,96 @@
+package com.greg.golf.service.helpers;
+
+import java.util.ArrayList;
+import java.util.TreeSet;
+
+import com.greg.golf.entity.Course;
+import com.greg.golf.entity.Hole;
+import com.greg.golf.entity.Player;
+import com.greg.golf.entity.Round;
+import com.greg.golf.entity.ScoreCard;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ScoringEngineTest {
+
+    private Round round;
+
+    @BeforeEach
+    void setUp() {
+
+        var course = new Course();
+        var holes = new ArrayList<Hole>();
+        for (int i = 0; i < 18; i++) {
+            var hole = new Hole();
+            hole.setNumber(i + 1);
+            hole.setPar(4);
+            hole.setSi(i + 1);
+            holes.add(hole);
+        }
+        course.setHoles(holes);
+
+        round = new Round();
+        round.setCourse(course);
+        round.setPlayer(new TreeSet<>());
+
+        for (long p = 1; p <= 2; p++) {
+            var player = new Player();
+            player.setId(p);
+            round.getPlayer().add(player);
+            for (int i = 0; i < 18; i++) {
+                var scoreCard = new ScoreCard();
+                scoreCard.setHole(i + 1);
+                scoreCard.setStroke(p == 1 ? 5 : 4);
+                scoreCard.setPlayer(player);
+                round.getScoreCard().add(scoreCard);
+            }
+        }
+    }
+
+    @DisplayName("Should calculate all statistics for a player in one pass")
+    @Test
+    void scoreTest() {
+
+        var cards = ScoringEngine.toPlayerCards(round);
+        Assertions.assertEquals(2, cards.size());
+        Assertions.assertEquals(18, cards.get(1L).getPlayedHoles());
+
+        // playing hcp 27 means 2 strokes on holes with SI 1-9 and 1 stroke on the rest
+        var score = ScoringEngine.score(cards.get(1L), 27);
+
+        Assertions.assertEquals(9 * 3 + 9 * 2, score.getStbNet());
+        Assertions.assertEquals(18, score.getStbGross());
+        Assertions.assertEquals(90, score.getGrossStrokes());
+        Assertions.assertEquals(63, score.getNetStrokes());
+        Assertions.assertEquals(90, score.getCorrectedStrokes());
+        Assertions.assertFalse(score.isGivenUp());
+    }
+
+    @DisplayName("Should cap corrected strokes and detect given up hole")
+    @Test
+    void givenUpTest() {
+
+        round.getScoreCard().getFirst().setStroke(16);
+
+        var score = ScoringEngine.score(ScoringEngine.toPlayerCard(round, 1L), 0);
+
+        Assertions.assertTrue(score.isGivenUp());
+        Assertions.assertEquals(17 * 5 + 16, score.getGrossStrokes());
+        Assertions.assertEquals(17 * 5 + 6, score.getCorrectedStrokes());
+        Assertions.assertEquals(0, ScoringEngine.getNetStrokes(10, 20));
+    }
+
+    @DisplayName("Should handle plus handicap")
+    @Test
+    void plusHandicapTest() {
+
+        // playing hcp -2 gives back one stroke on holes with SI 17 and 18
+        var score = ScoringEngine.score(ScoringEngine.toPlayerCard(round, 2L), -2);
+
+        Assertions.assertEquals(16 * 2 + 2, score.getStbNet());
+        Assertions.assertEquals(36, score.getStbGross());
+        Assertions.assertEquals(74, score.getNetStrokes());
+    }
+}
@@ -0,0 +1,106 @@
+package com.greg.golf.service.helpers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import com.greg.golf.entity.TeeTime;
+import com.greg.golf.entity.TournamentPlayer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TeeTimeSchedulerTest {
+
+    private static List<TournamentPlayer> buildPlayers(int count) {
+
+        var players = new ArrayList<TournamentPlayer>();
+        var random = new Random(1);
+        for (int i = 1; i <= count; i++) {
+            var tournamentPlayer = new TournamentPlayer();
+            tournamentPlayer.setPlayerId((long) i);
+            tournamentPlayer.setNick("Player" + i);
+            tournamentPlayer.setWhs(random.nextInt(540) / 10f);
+            players.add(tournamentPlayer);
+        }
+        return players;
+    }
+
+    private static Map<Integer, List<TeeTime>> byFlight(List<TeeTime> teeTimes) {
+        return teeTimes.stream().collect(Collectors.groupingBy(TeeTime::getFlight));
+    }
+
+    @DisplayName("Should build balanced flights with consecutive tee times")
+    @Test
+    void balancedFlightsTest() {
+
+        var teeTimes = TeeTimeScheduler.schedule(buildPlayers(9), 4, "09:00", 10,
+                TeeTimeScheduler.Strategy.HANDICAP, new Random(), Map.of());
+
+        var flights = byFlight(teeTimes);
+        Assertions.assertEquals(3, flights.size());
+        flights.values().forEach(flight -> Assertions.assertEquals(3, flight.size()));
+        Assertions.assertEquals("09:00", flights.get(1).getFirst().getTime());
+        Assertions.assertEquals("09:20", flights.get(3).getFirst().getTime());
+
+        // handicap bands - each flight has only higher handicaps than the previous one
+        for (int i = 1; i < teeTimes.size(); i++) {
+            Assertions.assertTrue(teeTimes.get(i - 1).getHcp() <= teeTimes.get(i).getHcp());
+        }
+    }
+
+    @DisplayName("Should schedule large field with reproducible random draw")
+    @Test
+    void randomDrawTest() {
+
+        var players = buildPlayers(530);
+
+        var first = TeeTimeScheduler.schedule(players, 4, "06:00", 8, TeeTimeScheduler.Strategy.RANDOM,
+                new Random(42), Map.of());
+        var second = TeeTimeScheduler.schedule(players, 4, "06:00", 8, TeeTimeScheduler.Strategy.RANDOM,
+                new Random(42), Map.of());
+
+        Assertions.assertEquals(530, first.size());
+        Assertions.assertEquals(first.stream().map(TeeTime::getNick).toList(), second.stream().map(TeeTime::getNick).toList());
+        Assertions.assertEquals(530, first.stream().map(TeeTime::getNick).distinct().count());
+        Assertions.assertEquals(133, byFlight(first).size());
+        Assertions.assertTrue(byFlight(first).values().stream().allMatch(flight -> flight.size() >= 3 && flight.size() <= 4));
+        // 132 steps of 8 minutes after the first flight
+        Assertions.assertEquals("06:00", first.getFirst().getTime());
+        Assertions.assertEquals("23:36", first.getLast().getTime());
+    }
+
+    @DisplayName("Should reject schedule with flights after midnight")
+    @Test
+    void afterMidnightTest() {
+
+        var players = buildPlayers(530);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> TeeTimeScheduler.schedule(players, 4, "07:00", 8,
+                TeeTimeScheduler.Strategy.RANDOM, new Random(42), Map.of()));
+        Assertions.assertEquals("23:59", TeeTimeScheduler.schedule(buildPlayers(2), 2, "23:59", 8,
+                TeeTimeScheduler.Strategy.HANDICAP, new Random(), Map.of()).getLast().getTime());
+    }
+
+    @DisplayName("Should send leaders out last")
+    @Test
+    void leaderboardOrderTest() {
+
+        var players = buildPlayers(5);
+        var positions = new HashMap<Long, Integer>();
+        positions.put(3L, 1);
+        positions.put(1L, 2);
+        positions.put(5L, 3);
+
+        var teeTimes = TeeTimeScheduler.schedule(players, 2, "10:00", 9, TeeTimeScheduler.Strategy.LEADERBOARD,
+                new Random(), positions);
+
+        var nicks = teeTimes.stream().map(TeeTime::getNick).toList();
+        Assertions.assertEquals(List.of("Player5", "Player1", "Player3"), nicks.subList(2, 5));
+        Assertions.assertEquals(List.of(1, 1, 2, 2, 3), teeTimes.stream().map(TeeTime::getFlight).toList());
+        Assertions.assertEquals("10:18", teeTimes.getLast().getTime());
+    }
+}
@@ -0,0 +1,59 @@
+package com.greg.golf.service.helpers;
+
+import java.util.List;
+
+import com.greg.golf.entity.TournamentResult;
+import com.greg.golf.service.TournamentService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TournamentLeaderboardTest {
+
+    private static TournamentResult buildResult(long id, int playedRounds, int strokeRounds, int stbNet, int strokesBrutto) {
+
+        var tournamentResult = new TournamentResult();
+        tournamentResult.setId(id);
+        tournamentResult.setPlayedRounds(playedRounds);
+        tournamentResult.setStrokeRounds(strokeRounds);
+        tournamentResult.setStbNet(stbNet);
+        tournamentResult.setStbGross(stbNet - 10);
+        tournamentResult.setStrokesBrutto(strokesBrutto);
+        tournamentResult.setStrokesNetto(strokesBrutto - 20);
+        return tournamentResult;
+    }
+
+    private static List<Long> ids(List<TournamentResult> results) {
+        return results.stream().map(TournamentResult::getId).toList();
+    }
+
+    private final List<TournamentResult> results = List.of(
+            buildResult(1, 3, 3, 100, 250),
+            buildResult(2, 1, 1, 40, 85),
+            buildResult(3, 2, 2, 80, 170),
+            buildResult(4, 2, 1, 90, 90));
+
+    @DisplayName("Should order results in two tiers for bestRounds tournament")
+    @Test
+    void bestRoundsTest() {
+
+        var leaderboard = new TournamentLeaderboard(results, 2, 1);
+
+        Assertions.assertEquals(List.of(1L, 4L, 3L, 2L), ids(leaderboard.getView(TournamentLeaderboard.SORT_DEFAULT)));
+        Assertions.assertEquals(List.of(1L, 4L, 3L, 2L), ids(leaderboard.getView(TournamentService.SORT_STB_NET)));
+        Assertions.assertEquals(List.of(4L, 3L, 1L, 2L), ids(leaderboard.getView(TournamentService.SORT_STR)));
+        Assertions.assertEquals(List.of(4L, 3L, 1L, 2L), ids(leaderboard.getView(TournamentService.SORT_STR_NET)));
+    }
+
+    @DisplayName("Should order stroke results by stroke rounds when all rounds are counted")
+    @Test
+    void allRoundsTest() {
+
+        var leaderboard = new TournamentLeaderboard(results, 0, 1);
+
+        Assertions.assertEquals(List.of(1L, 4L, 3L, 2L), ids(leaderboard.getView(TournamentLeaderboard.SORT_DEFAULT)));
+        Assertions.assertEquals(List.of(1L, 4L, 3L, 2L), ids(leaderboard.getView(TournamentService.SORT_STB)));
+        Assertions.assertEquals(List.of(1L, 3L, 2L, 4L), ids(leaderboard.getView(TournamentService.SORT_STR)));
+        Assertions.assertTrue(leaderboard.getView(10).isEmpty());
+    }
+}
@@ -0,0 +1,116 @@
+package com.greg.golf.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.Getter;
+
+/**
+ * Minimal in-process SMTP server for tests. Accepts any message, records envelope recipients of each one
+ * and counts connections. Can be switched to reject messages to simulate SMTP failures.
+ */
+public class SmtpStandIn implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+
+    @Getter
+    private final List<List<String>> messages = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger connections = new AtomicInteger();
+    private volatile boolean rejecting;
+
+    public SmtpStandIn() throws IOException {
+
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        var acceptor = new Thread(this::accept, "smtp-stand-in");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getConnections() {
+        return connections.get();
+    }
+
+    public void setRejecting(boolean rejecting) {
+        this.rejecting = rejecting;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void accept() {
+
+        while (!serverSocket.isClosed()) {
+            try (var socket = serverSocket.accept()) {
+                connections.incrementAndGet();
+                handle(socket);
+            } catch (IOException e) {
+                // socket closed
+            }
+        }
+    }
+
+    private void handle(Socket socket) throws IOException {
+
+        var in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        var out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+
+        reply(out, "220 localhost SMTP stand-in");
+
+        var recipients = new ArrayList<String>();
+        String line;
+
+        while ((line = in.readLine()) != null) {
+
+            var command = line.toUpperCase();
+
+            if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                reply(out, "250 localhost");
+            } else if (command.startsWith("MAIL FROM")) {
+                recipients.clear();
+                reply(out, "250 OK");
+            } else if (command.startsWith("RCPT TO")) {
+                recipients.add(line.substring(line.indexOf('<') + 1, line.indexOf('>')));
+                reply(out, "250 OK");
+            } else if (command.startsWith("DATA")) {
+                reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                while ((line = in.readLine()) != null && !line.equals(".")) {
+                    // message content is not needed
+                }
+                if (rejecting) {
+                    reply(out, "554 Transaction failed");
+                } else {
+                    messages.add(List.copyOf(recipients));
+                    reply(out, "250 OK");
+                }
+            } else if (command.startsWith("QUIT")) {
+                reply(out, "221 Bye");
+                return;
+            } else {
+                // RSET, NOOP and anything else
+                reply(out, "250 OK");
+            }
+        }
+    }
+
+    private static void reply(Writer out, String response) throws IOException {
+        out.write(response + "\r\n");
+        out.flush();
+    }
+}
@@ -0,0 +1,28 @@
+package com.greg.golf.util;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Counts JDBC statements prepared by Hibernate since the counter was created (hibernate.generate_statistics
+ * is enabled for tests). Batched inserts to one table are prepared once, so the count shows if batching works.
+ */
+public class StatementCounter {
+
+    private final Statistics statistics;
+
+    public StatementCounter(EntityManagerFactory entityManagerFactory) {
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    public long getCount() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    public long getInsertCount() {
+        return statistics.getEntityInsertCount();
+    }
+}